@@ -0,0 +1,131 @@
+package com.quorion.b2b.benchmark;
+
+import com.quorion.b2b.dto.cart.BulkCartResult;
+import com.quorion.b2b.exception.PreconditionFailedException;
+import com.quorion.b2b.model.product.Product;
+import com.quorion.b2b.repository.*;
+import com.quorion.b2b.service.CartService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 32 concurrent writers adding lines to one cart
+ *
+ * {@code merged} sends unconditional writes whose quantity deltas combine;
+ * {@code conditional} sends the version it last read as If-Match and
+ * retries from a fresh read on every 412, as a read-modify-write client
+ * would. The {@code conflicts} counter reports those retries. The line
+ * writer is an in-memory stand-in whose {@code statementCost} models the
+ * database round trip, so the numbers compare the two strategies rather
+ * than predict database throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(32)
+@Fork(1)
+public class CartContentionBenchmark {
+
+    private static final int PRODUCT_COUNT = 200;
+
+    @Param({"1", "20"})
+    private int linesPerRequest;
+
+    @Param({"0", "2000"})
+    private long statementCost;
+
+    private CartService cartService;
+    private InMemoryCartLineWriter cartLineWriter;
+    private UUID cartId;
+    private List<Product> products;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conflicts {
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        products = new ArrayList<>(PRODUCT_COUNT);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Product product = new Product();
+            product.setId(UUID.randomUUID());
+            product.setName("Product " + i);
+            products.add(product);
+        }
+        Map<UUID, Product> productsById = products.stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        cartId = UUID.randomUUID();
+        cartLineWriter = new InMemoryCartLineWriter(statementCost);
+
+        CartRepository cartRepository = StubRepository.of(CartRepository.class)
+                .on("existsById", args -> cartId.equals(args[0]))
+                .build();
+        ProductRepository productRepository = StubRepository.of(ProductRepository.class)
+                .on("findAllById", args -> {
+                    List<Product> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        Product product = productsById.get((UUID) id);
+                        if (product != null) {
+                            found.add(product);
+                        }
+                    }
+                    return found;
+                })
+                .build();
+
+        cartService = new CartService(
+                cartRepository,
+                StubRepository.of(CartItemRepository.class).build(),
+                StubRepository.of(TenantRepository.class).build(),
+                StubRepository.of(CustomerRepository.class).build(),
+                productRepository,
+                StubRepository.of(LeadRepository.class).build(),
+                cartLineWriter,
+                new InMemoryOutboxWriter(0));
+    }
+
+    @Benchmark
+    public BulkCartResult merged() {
+        return cartService.addBulkItems(cartId, request(), null);
+    }
+
+    @Benchmark
+    public BulkCartResult conditional(Conflicts conflicts) {
+        List<CartService.BulkItemRequest> request = request();
+        while (true) {
+            try {
+                return cartService.addBulkItems(cartId, request, cartLineWriter.version(cartId));
+            } catch (PreconditionFailedException e) {
+                conflicts.conflicts++;
+            }
+        }
+    }
+
+    private List<CartService.BulkItemRequest> request() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<CartService.BulkItemRequest> request = new ArrayList<>(linesPerRequest);
+        for (int i = 0; i < linesPerRequest; i++) {
+            Product product = products.get(random.nextInt(PRODUCT_COUNT));
+            request.add(new CartService.BulkItemRequest(product.getId(), BigDecimal.ONE, new BigDecimal("9.99"), null));
+        }
+        return request;
+    }
+}
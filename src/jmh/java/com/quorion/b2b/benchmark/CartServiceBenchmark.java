@@ -0,0 +1,119 @@
+package com.quorion.b2b.benchmark;
+
+import com.quorion.b2b.dto.cart.BulkCartResult;
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.product.Product;
+import com.quorion.b2b.repository.*;
+import com.quorion.b2b.service.CartService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CartService.mergeCart and addBulkItems on large carts
+ *
+ * Repositories and the line writer are in-memory stand-ins, so the
+ * numbers reflect the service's own lookup and bookkeeping cost per call
+ * rather than database latency.
+ * Half of the incoming lines hit products already in the target cart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartServiceBenchmark {
+
+    @Param({"100", "500"})
+    private int cartSize;
+
+    private CartService cartService;
+    private Cart targetCart;
+    private Cart otherCart;
+    private List<CartService.BulkItemRequest> bulkItems;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < cartSize * 2; i++) {
+            Product product = new Product();
+            product.setId(UUID.randomUUID());
+            product.setName("Product " + i);
+            products.add(product);
+        }
+        Map<UUID, Product> productsById = new HashMap<>();
+        products.forEach(product -> productsById.put(product.getId(), product));
+
+        targetCart = cart(products.subList(0, cartSize));
+        otherCart = cart(products.subList(cartSize / 2, cartSize / 2 + cartSize));
+        Map<UUID, Cart> cartsById = Map.of(targetCart.getId(), targetCart, otherCart.getId(), otherCart);
+
+        bulkItems = new ArrayList<>(cartSize);
+        for (Product product : products.subList(cartSize / 2, cartSize / 2 + cartSize)) {
+            bulkItems.add(new CartService.BulkItemRequest(product.getId(), BigDecimal.ONE, new BigDecimal("9.99"), null));
+        }
+
+        CartRepository cartRepository = StubRepository.of(CartRepository.class)
+                .on("existsById", args -> cartsById.containsKey((UUID) args[0]))
+                .on("findByIdWithItems", args -> Optional.ofNullable(cartsById.get((UUID) args[0])))
+                .build();
+        CartItemRepository cartItemRepository = StubRepository.of(CartItemRepository.class).build();
+        ProductRepository productRepository = StubRepository.of(ProductRepository.class)
+                .on("findAllById", args -> {
+                    List<Product> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        Product product = productsById.get((UUID) id);
+                        if (product != null) {
+                            found.add(product);
+                        }
+                    }
+                    return found;
+                })
+                .build();
+
+        cartService = new CartService(
+                cartRepository,
+                cartItemRepository,
+                StubRepository.of(TenantRepository.class).build(),
+                StubRepository.of(CustomerRepository.class).build(),
+                productRepository,
+                StubRepository.of(LeadRepository.class).build(),
+                new InMemoryCartLineWriter(0),
+                new InMemoryOutboxWriter(0));
+    }
+
+    @Benchmark
+    public Cart mergeCart() {
+        return cartService.mergeCart(targetCart.getId(), otherCart.getId(), null);
+    }
+
+    @Benchmark
+    public BulkCartResult addBulkItems() {
+        return cartService.addBulkItems(targetCart.getId(), bulkItems, null);
+    }
+
+    private static Cart cart(List<Product> products) {
+        Cart cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        cart.setIsActive(true);
+        for (Product product : products) {
+            CartItem item = new CartItem();
+            item.setId(UUID.randomUUID());
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(BigDecimal.ONE);
+            item.setUnitPrice(new BigDecimal("9.99"));
+            cart.getItems().add(item);
+        }
+        return cart;
+    }
+}
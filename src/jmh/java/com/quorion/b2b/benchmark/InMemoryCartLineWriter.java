@@ -0,0 +1,100 @@
+package com.quorion.b2b.benchmark;
+
+import com.quorion.b2b.service.cart.CartLineWriter;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory stand-in for CartLineWriter with transaction-like visibility
+ *
+ * Quantity deltas are held per thread until {@link #bumpVersion} succeeds,
+ * which applies them under the cart's lock the way a commit would, and a
+ * failed version check discards them the way a rollback would. Each
+ * statement burns {@code statementCost} CPU tokens to stand in for the
+ * database round trip, which is what opens the window for conflicts.
+ */
+final class InMemoryCartLineWriter extends CartLineWriter {
+
+    private static final class CartState {
+        final Map<UUID, UUID> itemIds = new HashMap<>();
+        final Map<UUID, BigDecimal> quantities = new HashMap<>();
+        long version;
+    }
+
+    private final ConcurrentMap<UUID, CartState> carts = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<LineDelta>> pending = ThreadLocal.withInitial(ArrayList::new);
+    private final long statementCost;
+
+    InMemoryCartLineWriter(long statementCost) {
+        super(null);
+        this.statementCost = statementCost;
+    }
+
+    long version(UUID cartId) {
+        CartState cart = cart(cartId);
+        synchronized (cart) {
+            return cart.version;
+        }
+    }
+
+    @Override
+    public List<WrittenLine> addQuantities(UUID cartId, Collection<LineDelta> deltas) {
+        Blackhole.consumeCPU(statementCost);
+        CartState cart = cart(cartId);
+        List<WrittenLine> written = new ArrayList<>(deltas.size());
+        synchronized (cart) {
+            for (LineDelta delta : deltas) {
+                BigDecimal quantity = cart.quantities.getOrDefault(delta.productId(), BigDecimal.ZERO);
+                UUID itemId = cart.itemIds.computeIfAbsent(delta.productId(), productId -> UUID.randomUUID());
+                written.add(new WrittenLine(delta.productId(), itemId, quantity.add(delta.quantity()),
+                        quantity.signum() == 0));
+            }
+        }
+        pending.get().addAll(deltas);
+        return written;
+    }
+
+    @Override
+    public OptionalLong bumpVersion(UUID cartId, Long expectedVersion) {
+        Blackhole.consumeCPU(statementCost);
+        CartState cart = cart(cartId);
+        List<LineDelta> deltas = pending.get();
+        try {
+            synchronized (cart) {
+                if (expectedVersion != null && expectedVersion != cart.version) {
+                    return OptionalLong.empty();
+                }
+                for (LineDelta delta : deltas) {
+                    cart.quantities.merge(delta.productId(), delta.quantity(), BigDecimal::add);
+                }
+                return OptionalLong.of(++cart.version);
+            }
+        } finally {
+            deltas.clear();
+        }
+    }
+
+    @Override
+    public boolean removeLine(UUID cartId, UUID itemId) {
+        throw new UnsupportedOperationException("InMemoryCartLineWriter.removeLine");
+    }
+
+    @Override
+    public int removeAll(UUID cartId) {
+        throw new UnsupportedOperationException("InMemoryCartLineWriter.removeAll");
+    }
+
+    private CartState cart(UUID cartId) {
+        return carts.computeIfAbsent(cartId, id -> new CartState());
+    }
+}
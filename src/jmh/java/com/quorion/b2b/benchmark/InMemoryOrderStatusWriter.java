@@ -0,0 +1,73 @@
+package com.quorion.b2b.benchmark;
+
+import com.quorion.b2b.model.commerce.OrderStatus;
+import com.quorion.b2b.model.commerce.PurchaseOrder;
+import com.quorion.b2b.service.order.OrderStatusWriter;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory stand-in for OrderStatusWriter over a map of orders
+ *
+ * Each statement burns {@code statementCost} CPU tokens to stand in for
+ * the database round trip, once per statement regardless of how many
+ * orders it touches.
+ */
+final class InMemoryOrderStatusWriter extends OrderStatusWriter {
+
+    private final Map<UUID, PurchaseOrder> orders;
+    private final long statementCost;
+
+    InMemoryOrderStatusWriter(Map<UUID, PurchaseOrder> orders, long statementCost) {
+        super(null);
+        this.orders = orders;
+        this.statementCost = statementCost;
+    }
+
+    @Override
+    public synchronized List<UUID> transition(Collection<UUID> orderIds, OrderStatus from, OrderStatus to) {
+        Blackhole.consumeCPU(statementCost);
+        List<UUID> moved = new ArrayList<>(orderIds.size());
+        for (UUID id : orderIds) {
+            PurchaseOrder order = orders.get(id);
+            if (order != null && order.getStatus() == from) {
+                order.setStatus(to);
+                moved.add(id);
+            }
+        }
+        return moved;
+    }
+
+    @Override
+    public synchronized Optional<OrderStatus> cancel(UUID orderId) {
+        Blackhole.consumeCPU(statementCost);
+        PurchaseOrder order = orders.get(orderId);
+        if (order == null || order.getStatus() == OrderStatus.CANCELLED || order.getStatus() == OrderStatus.COMPLETED) {
+            return Optional.empty();
+        }
+        OrderStatus previous = order.getStatus();
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setIsActive(false);
+        return Optional.of(previous);
+    }
+
+    @Override
+    public synchronized Map<UUID, OrderStatus> currentStatuses(Collection<UUID> orderIds) {
+        Blackhole.consumeCPU(statementCost);
+        Map<UUID, OrderStatus> statuses = new HashMap<>();
+        for (UUID id : orderIds) {
+            PurchaseOrder order = orders.get(id);
+            if (order != null) {
+                statuses.put(id, order.getStatus());
+            }
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,39 @@
+package com.quorion.b2b.benchmark;
+
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxWriter;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Stand-in for OutboxWriter that only charges for the INSERT
+ *
+ * Each append burns {@code statementCost} CPU tokens, once per statement
+ * regardless of how many events it writes.
+ */
+final class InMemoryOutboxWriter extends OutboxWriter {
+
+    private final long statementCost;
+
+    InMemoryOutboxWriter(long statementCost) {
+        super(null);
+        this.statementCost = statementCost;
+    }
+
+    @Override
+    public void append(AggregateType type, UUID aggregateId, Tenant seller, Enum<?> from, Enum<?> to) {
+        Blackhole.consumeCPU(statementCost);
+    }
+
+    @Override
+    public int appendOrderTransitions(Collection<UUID> orderIds, Enum<?> from, Enum<?> to) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        Blackhole.consumeCPU(statementCost);
+        return orderIds.size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.quorion.b2b.benchmark;
+
+import com.quorion.b2b.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT parsing cost paid by every authenticated request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        set("jwtSecret", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        set("accessTokenExpiration", 3_600_000L);
+        set("refreshTokenExpiration", 604_800_000L);
+        token = tokenProvider.generateAccessToken(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public UUID getUserIdFromToken() {
+        return tokenProvider.getUserIdFromToken(token);
+    }
+
+    private void set(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtTokenProvider.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, tokenProvider, value);
+    }
+}
@@ -0,0 +1,86 @@
+package com.quorion.b2b.benchmark;
+
+import com.quorion.b2b.dto.order.BulkTransitionResult;
+import com.quorion.b2b.model.commerce.OrderStatus;
+import com.quorion.b2b.model.commerce.PurchaseOrder;
+import com.quorion.b2b.repository.PurchaseOrderRepository;
+import com.quorion.b2b.service.PurchaseOrderService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shipping a warehouse's worth of invoiced orders
+ *
+ * {@code perOrder} calls {@code shipOrder} once per order, as a client of
+ * the single-order endpoint would; {@code bulk} ships them all with one
+ * {@code transitionAll}. Every statement and repository read costs
+ * {@code statementCost} CPU tokens to stand in for a database round trip,
+ * so the gap grows with the number of orders and the latency per trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTransitionBenchmark {
+
+    @Param({"100", "2000"})
+    private int orderCount;
+
+    @Param({"0", "2000"})
+    private long statementCost;
+
+    private PurchaseOrderService purchaseOrderService;
+    private List<PurchaseOrder> orders;
+    private List<UUID> orderIds;
+
+    @Setup
+    public void setUp() {
+        orders = new ArrayList<>(orderCount);
+        orderIds = new ArrayList<>(orderCount);
+        Map<UUID, PurchaseOrder> ordersById = new HashMap<>();
+        for (int i = 0; i < orderCount; i++) {
+            PurchaseOrder order = new PurchaseOrder();
+            order.setId(UUID.randomUUID());
+            order.setNumber("PO-" + i);
+            orders.add(order);
+            orderIds.add(order.getId());
+            ordersById.put(order.getId(), order);
+        }
+
+        PurchaseOrderRepository purchaseOrderRepository = StubRepository.of(PurchaseOrderRepository.class)
+                .on("findById", args -> {
+                    Blackhole.consumeCPU(statementCost);
+                    return Optional.ofNullable(ordersById.get((UUID) args[0]));
+                })
+                .build();
+        purchaseOrderService = new PurchaseOrderService(purchaseOrderRepository,
+                new InMemoryOrderStatusWriter(ordersById, statementCost), new InMemoryOutboxWriter(statementCost));
+    }
+
+    @Setup(Level.Invocation)
+    public void invoiceAll() {
+        orders.forEach(order -> order.setStatus(OrderStatus.INVOICED));
+    }
+
+    @Benchmark
+    public void perOrder(Blackhole blackhole) {
+        for (UUID id : orderIds) {
+            blackhole.consume(purchaseOrderService.shipOrder(id));
+        }
+    }
+
+    @Benchmark
+    public BulkTransitionResult bulk() {
+        return purchaseOrderService.transitionAll(orderIds, OrderStatus.SHIPPED);
+    }
+}
@@ -0,0 +1,141 @@
+package com.quorion.b2b.benchmark;
+
+import com.quorion.b2b.model.commerce.PriceTier;
+import com.quorion.b2b.model.product.ListPrice;
+import com.quorion.b2b.model.product.ProductSKU;
+import com.quorion.b2b.service.pricing.Money;
+import com.quorion.b2b.service.pricing.SkuPriceBook;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tier price resolution: BigDecimal arithmetic versus {@link Money} minor units
+ *
+ * Every SKU carries {@code tierCount} volume tiers with discounts. Run with
+ * {@code -prof gc} (the profile default) to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceBookBenchmark {
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
+    @Param({"50", "200"})
+    private int tierCount;
+
+    private List<PriceTier> tiers;
+    private BigDecimal[] basePrices;
+    private BigDecimal[] discounts;
+    private long[] baseUnits;
+    private long[] discountBasisPoints;
+    private SkuPriceBook priceBook;
+    private BigDecimal quantity;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        ProductSKU sku = new ProductSKU();
+        sku.setId(UUID.randomUUID());
+
+        tiers = new ArrayList<>(tierCount);
+        basePrices = new BigDecimal[tierCount];
+        discounts = new BigDecimal[tierCount];
+        baseUnits = new long[tierCount];
+        discountBasisPoints = new long[tierCount];
+
+        for (int i = 0; i < tierCount; i++) {
+            BigDecimal price = BigDecimal.valueOf(10_000 - i * 7L, 2);
+            BigDecimal discount = BigDecimal.valueOf(i % 25 * 37L, 2);
+            tiers.add(PriceTier.builder()
+                    .productSku(sku)
+                    .minimumUomQuantity(BigDecimal.valueOf(i * 10L + 1))
+                    .maximumUomQuantity(BigDecimal.valueOf(tierCount * 10L + i))
+                    .pricePerUom(price)
+                    .discountPercent(discount)
+                    .isActive(true)
+                    .build());
+            basePrices[i] = price;
+            discounts[i] = discount;
+            baseUnits[i] = Money.fromBigDecimal(price);
+            discountBasisPoints[i] = Money.discountBasisPoints(discount);
+        }
+
+        ListPrice listPrice = ListPrice.builder()
+                .sku(sku)
+                .price(new BigDecimal("120.00"))
+                .isActive(true)
+                .build();
+
+        priceBook = SkuPriceBook.compile(sku.getId(), tiers, List.of(listPrice));
+        quantity = BigDecimal.valueOf(tierCount * 10L);
+        now = LocalDateTime.now();
+    }
+
+    /**
+     * The original per-request path: filter entities, discount each, take the min
+     */
+    @Benchmark
+    public BigDecimal legacyStreamBestTierPrice() {
+        Optional<BigDecimal> best = tiers.stream()
+                .filter(PriceTier::getIsActive)
+                .filter(tier -> tier.getMinimumUomQuantity().compareTo(quantity) <= 0
+                        && (tier.getMaximumUomQuantity() == null
+                        || tier.getMaximumUomQuantity().compareTo(quantity) >= 0))
+                .filter(tier -> tier.getValidFromDate() == null || !now.isBefore(tier.getValidFromDate()))
+                .map(tier -> bigDecimalDiscount(tier.getPricePerUom(), tier.getDiscountPercent()))
+                .min(BigDecimal::compareTo);
+        return best.orElse(null);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalDiscountAll() {
+        BigDecimal best = null;
+        for (int i = 0; i < tierCount; i++) {
+            BigDecimal price = bigDecimalDiscount(basePrices[i], discounts[i]);
+            if (best == null || price.compareTo(best) < 0) {
+                best = price;
+            }
+        }
+        return best;
+    }
+
+    @Benchmark
+    public long moneyDiscountAll() {
+        long best = Money.NONE;
+        for (int i = 0; i < tierCount; i++) {
+            best = Money.min(best, Money.applyDiscount(baseUnits[i], discountBasisPoints[i]));
+        }
+        return best;
+    }
+
+    @Benchmark
+    public long priceBookResolveUnits() {
+        return priceBook.resolveUnits(quantity, null, null, null, now);
+    }
+
+    @Benchmark
+    public BigDecimal priceBookResolve() {
+        return priceBook.resolve(quantity, null, null, null, now);
+    }
+
+    private static BigDecimal bigDecimalDiscount(BigDecimal basePrice, BigDecimal discountPercent) {
+        if (discountPercent == null || discountPercent.compareTo(BigDecimal.ZERO) == 0) {
+            return basePrice;
+        }
+        BigDecimal discountMultiplier = BigDecimal.ONE
+                .subtract(discountPercent.divide(ONE_HUNDRED, 4, RoundingMode.HALF_UP));
+        return basePrice.multiply(discountMultiplier).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,130 @@
+package com.quorion.b2b.benchmark;
+
+import com.quorion.b2b.dto.pricing.PriceResult;
+import com.quorion.b2b.model.commerce.FxRate;
+import com.quorion.b2b.model.commerce.PriceTier;
+import com.quorion.b2b.model.product.ListPrice;
+import com.quorion.b2b.model.product.ProductSKU;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.model.tenant.TenantAddress;
+import com.quorion.b2b.repository.EffectivePriceRepository;
+import com.quorion.b2b.repository.ListPriceRepository;
+import com.quorion.b2b.repository.PriceTierRepository;
+import com.quorion.b2b.repository.ProductVariantRepository;
+import com.quorion.b2b.service.PricingService;
+import com.quorion.b2b.service.pricing.FxRateSnapshot;
+import com.quorion.b2b.service.pricing.FxRateTable;
+import com.quorion.b2b.service.pricing.PriceIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PricingService.calculatePrice over an in-memory tier repository
+ *
+ * Each SKU has {@code tierCount} tiers split across volume, buyer,
+ * destination and buyer + destination contexts. {@code cached} measures the
+ * steady state served from the price index; {@code cold} drops the SKU's
+ * price book first, so every call loads and compiles it again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingServiceBenchmark {
+
+    @Param({"12", "60"})
+    private int tierCount;
+
+    private PricingService pricingService;
+    private PriceIndex priceIndex;
+    private UUID skuId;
+    private UUID buyerId;
+    private UUID destinationId;
+    private BigDecimal quantity;
+
+    @Setup
+    public void setUp() {
+        ProductSKU sku = new ProductSKU();
+        sku.setId(UUID.randomUUID());
+        skuId = sku.getId();
+
+        Tenant buyer = new Tenant();
+        buyer.setId(UUID.randomUUID());
+        buyerId = buyer.getId();
+
+        TenantAddress destination = new TenantAddress();
+        destination.setId(UUID.randomUUID());
+        destinationId = destination.getId();
+
+        List<PriceTier> tiers = new ArrayList<>(tierCount);
+        for (int i = 0; i < tierCount; i++) {
+            tiers.add(PriceTier.builder()
+                    .productSku(sku)
+                    .buyer(i % 4 == 1 || i % 4 == 3 ? buyer : null)
+                    .destination(i % 4 == 2 || i % 4 == 3 ? destination : null)
+                    .minimumUomQuantity(BigDecimal.valueOf(i / 4 * 10L + 1))
+                    .maximumUomQuantity(BigDecimal.valueOf(i / 4 * 10L + 500))
+                    .pricePerUom(BigDecimal.valueOf(10_000 - i * 13L, 2))
+                    .discountPercent(BigDecimal.valueOf(i % 5 * 125L, 2))
+                    .isActive(true)
+                    .build());
+        }
+        List<ListPrice> listPrices = List.of(ListPrice.builder()
+                .sku(sku)
+                .price(new BigDecimal("120.00"))
+                .isActive(true)
+                .build());
+
+        PriceTierRepository priceTierRepository = StubRepository.of(PriceTierRepository.class)
+                .on("findByProductSkuId", args -> tiers)
+                .on("findByProductSkuIdIn", args -> tiers)
+                .build();
+        ListPriceRepository listPriceRepository = StubRepository.of(ListPriceRepository.class)
+                .on("findBySkuId", args -> listPrices)
+                .on("findBySkuIdIn", args -> listPrices)
+                .build();
+        EffectivePriceRepository effectivePriceRepository = StubRepository.of(EffectivePriceRepository.class).build();
+        ProductVariantRepository productVariantRepository = StubRepository.of(ProductVariantRepository.class)
+                .on("findBySkuId", args -> List.of())
+                .on("findBySkuIdIn", args -> List.of())
+                .build();
+
+        FxRateTable fxRateTable = new FxRateTable();
+        fxRateTable.swap(FxRateSnapshot.of(List.of(
+                FxRate.builder().baseCurrency("USD").quoteCurrency("EUR").rate(new BigDecimal("0.92")).build()),
+                "USD"));
+
+        priceIndex = new PriceIndex(priceTierRepository, listPriceRepository, productVariantRepository, 50000, 900);
+        pricingService = new PricingService(priceTierRepository, priceIndex,
+                effectivePriceRepository, fxRateTable);
+        quantity = BigDecimal.valueOf(tierCount / 8 * 10L + 5);
+    }
+
+    @Benchmark
+    public BigDecimal cachedVolumePrice() {
+        return pricingService.calculatePrice(skuId, quantity, null, null, null);
+    }
+
+    @Benchmark
+    public BigDecimal cachedBuyerDestinationPrice() {
+        return pricingService.calculatePrice(skuId, quantity, buyerId, destinationId, null);
+    }
+
+    @Benchmark
+    public PriceResult cachedBuyerDestinationPriceInEur() {
+        return pricingService.calculateTotalPrice(skuId, quantity, buyerId, destinationId, null, "EUR");
+    }
+
+    @Benchmark
+    public BigDecimal coldBuyerDestinationPrice() {
+        priceIndex.invalidate(skuId);
+        return pricingService.calculatePrice(skuId, quantity, buyerId, destinationId, null);
+    }
+}
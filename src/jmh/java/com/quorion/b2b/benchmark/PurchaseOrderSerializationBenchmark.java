@@ -0,0 +1,67 @@
+package com.quorion.b2b.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.quorion.b2b.model.commerce.OrderStatus;
+import com.quorion.b2b.model.commerce.PurchaseOrder;
+import com.quorion.b2b.model.commerce.PurchaseOrderDetail;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a large purchase order, as returned by the API
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PurchaseOrderSerializationBenchmark {
+
+    @Param({"500"})
+    private int lineCount;
+
+    private ObjectMapper objectMapper;
+    private PurchaseOrder order;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        order = new PurchaseOrder();
+        order.setId(UUID.randomUUID());
+        order.setNumber("PO-" + System.currentTimeMillis());
+        order.setStatus(OrderStatus.NEW);
+        order.setShippingCost(new BigDecimal("125.00"));
+        order.setCurrency("USD");
+        order.setIsActive(true);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+
+        for (int i = 0; i < lineCount; i++) {
+            PurchaseOrderDetail detail = new PurchaseOrderDetail();
+            detail.setId(UUID.randomUUID());
+            detail.setOrder(order);
+            detail.setNoOfUnits(BigDecimal.valueOf(i % 20 + 1));
+            detail.setTotalQuantity(BigDecimal.valueOf((i % 20 + 1) * 12L));
+            detail.setPricePerUnit(BigDecimal.valueOf(1_000 + i * 7L, 2));
+            detail.setCurrency("USD");
+            detail.setCreatedAt(LocalDateTime.now());
+            detail.setUpdatedAt(LocalDateTime.now());
+            order.getItems().add(detail);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(order);
+    }
+}
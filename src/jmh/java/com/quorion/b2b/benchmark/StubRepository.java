@@ -0,0 +1,52 @@
+package com.quorion.b2b.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-in for Spring Data repository interfaces
+ *
+ * Benchmarks register the handful of methods the code under test calls;
+ * {@code save} returns its argument unless overridden, and any other call
+ * fails fast so a benchmark never silently measures a no-op.
+ */
+final class StubRepository<T> {
+
+    private final Class<T> type;
+    private final Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+
+    private StubRepository(Class<T> type) {
+        this.type = type;
+        handlers.put("save", args -> args[0]);
+        handlers.put("saveAll", args -> args[0]);
+    }
+
+    static <T> StubRepository<T> of(Class<T> type) {
+        return new StubRepository<>(type);
+    }
+
+    StubRepository<T> on(String method, Function<Object[], Object> handler) {
+        handlers.put(method, handler);
+        return this;
+    }
+
+    T build() {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> "Stub" + type.getSimpleName();
+                };
+            }
+            Function<Object[], Object> handler = handlers.get(method.getName());
+            if (handler == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return handler.apply(args);
+        });
+        return type.cast(proxy);
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Quorion B2B API - Main Application
@@ -16,12 +17,14 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
  * - Order processing with state machine
  * - Product and SKU management
  * - Price tiers (volume-based pricing)
+ * - Materialized effective prices refreshed at validity boundaries
  * - Marketplace configuration with feature flags
  * - Distributor integration
  */
 @SpringBootApplication
 @EnableJpaAuditing
 @EnableCaching
+@EnableScheduling
 public class QuorionB2bApplication {
 
     public static void main(String[] args) {
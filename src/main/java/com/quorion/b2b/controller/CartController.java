@@ -1,10 +1,19 @@
 package com.quorion.b2b.controller;
 
+import com.quorion.b2b.dto.cart.BulkCartResult;
+import com.quorion.b2b.dto.cart.CartSplitRequest;
+import com.quorion.b2b.dto.cart.CartSplitResult;
+import com.quorion.b2b.dto.cart.CartValidationResult;
+import com.quorion.b2b.dto.cart.PricedCartResponse;
 import com.quorion.b2b.model.commerce.Cart;
 import com.quorion.b2b.model.commerce.CartItem;
 import com.quorion.b2b.model.commerce.Lead;
 import com.quorion.b2b.security.permissions.IsBuyer;
 import com.quorion.b2b.service.CartService;
+import com.quorion.b2b.service.cart.CartSplitService;
+import com.quorion.b2b.service.cart.CartValidator;
+import com.quorion.b2b.service.cart.PricedCartService;
+import com.quorion.b2b.service.cart.Versioned;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -13,6 +22,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,11 +31,16 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
  * Cart Controller
  * Manages shopping carts with advanced features like bulk operations, cloning, and lead conversion
+ *
+ * Cart responses carry the cart version as ETag. Writes accept it back as
+ * If-Match and fail with 412 when the cart has changed since; without
+ * If-Match, concurrent item adds are merged.
  */
 @RestController
 @RequestMapping("/api/carts")
@@ -33,6 +48,9 @@ import java.util.UUID;
 @Tag(name = "Cart", description = "Shopping cart management with guest and authenticated user support")
 public class CartController {
     private final CartService cartService;
+    private final PricedCartService pricedCartService;
+    private final CartSplitService cartSplitService;
+    private final CartValidator cartValidator;
 
     /**
      * Get all carts (with optional filtering)
@@ -55,7 +73,21 @@ public class CartController {
     @Operation(summary = "Get cart by ID", description = "Retrieve a specific cart by its ID")
     public ResponseEntity<Cart> getCartById(@PathVariable UUID id) {
         Cart cart = cartService.getCartById(id);
-        return ResponseEntity.ok(cart);
+        return ResponseEntity.ok().eTag(eTag(cart.getVersion())).body(cart);
+    }
+
+    /**
+     * Get priced cart
+     * GET /api/carts/{id}/priced
+     */
+    @GetMapping("/{id}/priced")
+    @Operation(summary = "Get priced cart", description = "Cart lines priced against current catalog pricing, with totals; supports If-None-Match")
+    public ResponseEntity<PricedCartResponse> getPricedCart(@PathVariable UUID id) {
+        PricedCartResponse priced = pricedCartService.getPricedCart(id);
+        // Lines and subtotal are hashed in too, for snapshots recomputed after their maximum age
+        String tag = priced.getCartVersion() + "-" + priced.getPricingVersion() + "-"
+                + Integer.toHexString(Objects.hash(priced.getLines(), priced.getSubtotal()));
+        return ResponseEntity.ok().eTag(tag).body(priced);
     }
 
     /**
@@ -70,7 +102,7 @@ public class CartController {
             throw new IllegalArgumentException("Either buyerId or customerId must be provided");
         }
         Cart cart = cartService.createCart(request.getBuyerId(), request.getCustomerId());
-        return ResponseEntity.status(HttpStatus.CREATED).body(cart);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(cart.getVersion())).body(cart);
     }
 
     /**
@@ -82,8 +114,10 @@ public class CartController {
     @Operation(summary = "Update cart", description = "Update cart buyer, customer, or active status")
     public ResponseEntity<Cart> updateCart(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody UpdateCartRequest request) {
-        Cart cart = cartService.updateCart(id, request.getBuyerId(), request.getCustomerId(), request.getIsActive());
+        Cart cart = cartService.updateCart(id, request.getBuyerId(), request.getCustomerId(), request.getIsActive(),
+                expectedVersion(ifMatch));
         return ResponseEntity.ok(cart);
     }
 
@@ -103,18 +137,20 @@ public class CartController {
      * POST /api/carts/{id}/add-item
      */
     @PostMapping("/{id}/add-item")
-    @Operation(summary = "Add item to cart", description = "Add a new item or update existing item quantity in cart")
+    @Operation(summary = "Add item to cart", description = "Add a new item or add to the quantity of an existing item in cart")
     public ResponseEntity<CartItem> addItem(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody AddItemRequest request) {
-        CartItem item = cartService.addItem(
+        Versioned<CartItem> item = cartService.addItem(
                 id,
                 request.getProductId(),
                 request.getQuantity(),
                 request.getUnitPrice(),
-                request.getNotes()
+                request.getNotes(),
+                expectedVersion(ifMatch)
         );
-        return ResponseEntity.ok(item);
+        return ResponseEntity.ok().eTag(eTag(item.version())).body(item.value());
     }
 
     /**
@@ -125,9 +161,10 @@ public class CartController {
     @Operation(summary = "Remove item from cart", description = "Soft delete an item from the cart")
     public ResponseEntity<Map<String, String>> removeItem(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody RemoveItemRequest request) {
-        cartService.removeItem(id, request.getItemId());
-        return ResponseEntity.ok(Map.of("message", "Item removed from cart"));
+        long version = cartService.removeItem(id, request.getItemId(), expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(version)).body(Map.of("message", "Item removed from cart"));
     }
 
     /**
@@ -136,9 +173,11 @@ public class CartController {
      */
     @PostMapping("/{id}/clear")
     @Operation(summary = "Clear cart", description = "Remove all items from cart")
-    public ResponseEntity<Map<String, String>> clearCart(@PathVariable UUID id) {
-        cartService.clearCart(id);
-        return ResponseEntity.ok(Map.of("message", "Cart cleared"));
+    public ResponseEntity<Map<String, String>> clearCart(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long version = cartService.clearCart(id, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(version)).body(Map.of("message", "Cart cleared"));
     }
 
     /**
@@ -146,9 +185,10 @@ public class CartController {
      * POST /api/carts/{id}/add-bulk-items
      */
     @PostMapping("/{id}/add-bulk-items")
-    @Operation(summary = "Add bulk items", description = "Add multiple items to cart at once")
-    public ResponseEntity<List<CartItem>> addBulkItems(
+    @Operation(summary = "Add bulk items", description = "Add multiple items to cart at once and report the outcome of each line")
+    public ResponseEntity<BulkCartResult> addBulkItems(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody AddBulkItemsRequest request) {
         List<CartService.BulkItemRequest> items = request.getItems().stream()
                 .map(item -> new CartService.BulkItemRequest(
@@ -158,8 +198,8 @@ public class CartController {
                         item.getNotes()
                 ))
                 .toList();
-        List<CartItem> addedItems = cartService.addBulkItems(id, items);
-        return ResponseEntity.status(HttpStatus.CREATED).body(addedItems);
+        BulkCartResult result = cartService.addBulkItems(id, items, expectedVersion(ifMatch));
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(result.getCartVersion())).body(result);
     }
 
     /**
@@ -184,6 +224,21 @@ public class CartController {
         return ResponseEntity.status(HttpStatus.CREATED).body(lead);
     }
 
+    /**
+     * Split cart by seller
+     * POST /api/carts/{id}/split
+     */
+    @PostMapping("/{id}/split")
+    @IsBuyer
+    @Operation(summary = "Split cart by seller", description = "Convert each seller's lines into its own lead or quote request in one call (requires buyer authentication)")
+    public ResponseEntity<CartSplitResult> splitCart(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody CartSplitRequest request) {
+        CartSplitResult result = cartSplitService.split(id, request, expectedVersion(ifMatch));
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(result.getCartVersion())).body(result);
+    }
+
     /**
      * Clone cart
      * POST /api/carts/{id}/clone
@@ -209,9 +264,10 @@ public class CartController {
     @Operation(summary = "Merge carts", description = "Merge another cart into this one (requires buyer authentication)")
     public ResponseEntity<Cart> mergeCart(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody MergeCartRequest request) {
-        Cart mergedCart = cartService.mergeCart(id, request.getOtherCartId());
-        return ResponseEntity.ok(mergedCart);
+        Cart mergedCart = cartService.mergeCart(id, request.getOtherCartId(), expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(mergedCart.getVersion())).body(mergedCart);
     }
 
     /**
@@ -219,17 +275,38 @@ public class CartController {
      * GET /api/carts/{id}/validate
      */
     @GetMapping("/{id}/validate")
-    @Operation(summary = "Validate cart", description = "Check if cart is valid for checkout")
-    public ResponseEntity<Map<String, Object>> validateCart(@PathVariable UUID id) {
-        Map<String, Object> validation = cartService.validateCart(id);
-        boolean isValid = (boolean) validation.get("valid");
-        if (isValid) {
+    @Operation(summary = "Validate cart", description = "Check stock, current prices and marketplace limits for checkout, with diagnostics per line")
+    public ResponseEntity<CartValidationResult> validateCart(@PathVariable UUID id) {
+        CartValidationResult validation = cartValidator.validate(id);
+        if (validation.isValid()) {
             return ResponseEntity.ok(validation);
         } else {
             return ResponseEntity.badRequest().body(validation);
         }
     }
 
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The cart version an If-Match header asks for; null when absent or "*"
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
     // ========== Request DTOs ==========
 
     @Data
@@ -0,0 +1,107 @@
+package com.quorion.b2b.controller;
+
+import com.quorion.b2b.dto.cart.GuestCartResponse;
+import com.quorion.b2b.model.commerce.Lead;
+import com.quorion.b2b.service.cart.GuestCartService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Guest Cart Controller
+ * Anonymous carts keyed by session key, held in memory until checkout or lead conversion
+ */
+@RestController
+@RequestMapping("/api/public/guest-carts")
+@RequiredArgsConstructor
+@Tag(name = "Guest Cart", description = "Anonymous shopping carts keyed by session")
+public class GuestCartController {
+    private final GuestCartService guestCartService;
+
+    /**
+     * Get guest cart
+     * GET /api/public/guest-carts/{sessionKey}
+     */
+    @GetMapping("/{sessionKey}")
+    @Operation(summary = "Get guest cart", description = "Get the cart of a guest session, empty if it has none")
+    public ResponseEntity<GuestCartResponse> getCart(@PathVariable String sessionKey) {
+        return ResponseEntity.ok(guestCartService.getCart(sessionKey));
+    }
+
+    /**
+     * Add item to guest cart
+     * POST /api/public/guest-carts/{sessionKey}/items
+     */
+    @PostMapping("/{sessionKey}/items")
+    @Operation(summary = "Add item to guest cart", description = "Add a new item or update an existing item in the guest cart")
+    public ResponseEntity<GuestCartResponse> addItem(
+            @PathVariable String sessionKey,
+            @Valid @RequestBody CartController.AddItemRequest request) {
+        return ResponseEntity.ok(guestCartService.addItem(
+                sessionKey,
+                request.getProductId(),
+                request.getQuantity(),
+                request.getUnitPrice(),
+                request.getNotes()
+        ));
+    }
+
+    /**
+     * Remove item from guest cart
+     * DELETE /api/public/guest-carts/{sessionKey}/items/{productId}
+     */
+    @DeleteMapping("/{sessionKey}/items/{productId}")
+    @Operation(summary = "Remove item from guest cart", description = "Remove a product's line from the guest cart")
+    public ResponseEntity<GuestCartResponse> removeItem(
+            @PathVariable String sessionKey,
+            @PathVariable UUID productId) {
+        return ResponseEntity.ok(guestCartService.removeItem(sessionKey, productId));
+    }
+
+    /**
+     * Clear guest cart
+     * DELETE /api/public/guest-carts/{sessionKey}/items
+     */
+    @DeleteMapping("/{sessionKey}/items")
+    @Operation(summary = "Clear guest cart", description = "Remove all items from the guest cart")
+    public ResponseEntity<GuestCartResponse> clearCart(@PathVariable String sessionKey) {
+        return ResponseEntity.ok(guestCartService.clearCart(sessionKey));
+    }
+
+    /**
+     * Persist guest cart for checkout
+     * POST /api/public/guest-carts/{sessionKey}/checkout
+     */
+    @PostMapping("/{sessionKey}/checkout")
+    @Operation(summary = "Check out guest cart", description = "Write the guest cart to the database and return it with its cart ID")
+    public ResponseEntity<GuestCartResponse> checkout(@PathVariable String sessionKey) {
+        return ResponseEntity.ok(guestCartService.checkout(sessionKey));
+    }
+
+    /**
+     * Convert guest cart to lead
+     * POST /api/public/guest-carts/{sessionKey}/convert-to-lead
+     */
+    @PostMapping("/{sessionKey}/convert-to-lead")
+    @Operation(summary = "Convert guest cart to lead", description = "Write the guest cart to the database and convert it to a sales lead")
+    public ResponseEntity<Lead> convertToLead(
+            @PathVariable String sessionKey,
+            @Valid @RequestBody CartController.ConvertToLeadRequest request) {
+        Lead lead = guestCartService.convertToLead(
+                sessionKey,
+                request.getSellerId(),
+                request.getBuyerFirstName(),
+                request.getBuyerLastName(),
+                request.getBuyerEmail(),
+                request.getBuyerPhone(),
+                request.getBuyerCompanyName()
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(lead);
+    }
+}
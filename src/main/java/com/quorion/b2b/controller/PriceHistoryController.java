@@ -0,0 +1,66 @@
+package com.quorion.b2b.controller;
+
+import com.quorion.b2b.dto.pricing.PriceChange;
+import com.quorion.b2b.dto.pricing.PriceResult;
+import com.quorion.b2b.service.pricing.PriceHistoryService;
+import com.quorion.b2b.service.pricing.PricingContext;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Price History Controller
+ * Answers what a SKU cost at a past time and how its prices changed
+ */
+@RestController
+@RequestMapping("/api/pricing/history")
+@RequiredArgsConstructor
+@Tag(name = "Price History", description = "Point-in-time prices and price change analytics")
+public class PriceHistoryController {
+
+    private final PriceHistoryService priceHistoryService;
+
+    /**
+     * Price at a past time
+     * GET /api/pricing/history/price
+     */
+    @GetMapping("/price")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get historical price", description = "Resolve the price a SKU had at a past time for a buyer, destination, seller, terms and quantity")
+    public ResponseEntity<PriceResult> getPriceAt(
+            @RequestParam UUID skuId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(defaultValue = "1") BigDecimal quantity,
+            @RequestParam(required = false) UUID buyerId,
+            @RequestParam(required = false) UUID destinationId,
+            @RequestParam(required = false) UUID sellerId,
+            @RequestParam(required = false) UUID deliveryTermId,
+            @RequestParam(required = false) UUID paymentTermId) {
+        PricingContext context = new PricingContext(quantity, buyerId, destinationId, sellerId,
+                deliveryTermId, paymentTermId, null, at);
+        return ResponseEntity.ok(priceHistoryService.priceAt(skuId, context));
+    }
+
+    /**
+     * Price changes in a time range
+     * GET /api/pricing/history/changes
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get price changes", description = "List tier and list price changes of a SKU recorded in a time range, with previous and new prices")
+    public ResponseEntity<List<PriceChange>> getChanges(
+            @RequestParam UUID skuId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(priceHistoryService.changes(skuId, from, to));
+    }
+}
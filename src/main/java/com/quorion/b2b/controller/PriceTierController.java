@@ -1,7 +1,10 @@
 package com.quorion.b2b.controller;
 
+import com.quorion.b2b.dto.pricing.PriceAdjustmentRequest;
+import com.quorion.b2b.dto.pricing.PriceAdjustmentResult;
 import com.quorion.b2b.model.commerce.PriceTier;
 import com.quorion.b2b.service.PriceTierService;
+import com.quorion.b2b.service.pricing.PriceAdjustmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -21,6 +24,7 @@ import java.util.UUID;
 public class PriceTierController {
 
     private final PriceTierService service;
+    private final PriceAdjustmentService priceAdjustmentService;
 
     @GetMapping
     @PreAuthorize("isAuthenticated()")
@@ -47,6 +51,13 @@ public class PriceTierController {
         return ResponseEntity.ok(service.update(id, entity));
     }
 
+    @PostMapping("/adjust")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Mass adjust price tiers", description = "Apply a percent or absolute change to a seller's tiers, optionally from a future date")
+    public ResponseEntity<PriceAdjustmentResult> adjust(@Valid @RequestBody PriceAdjustmentRequest request) {
+        return ResponseEntity.ok(priceAdjustmentService.adjust(request));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete price tier")
     public ResponseEntity<Void> delete(@PathVariable UUID id) {
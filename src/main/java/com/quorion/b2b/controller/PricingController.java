@@ -0,0 +1,142 @@
+package com.quorion.b2b.controller;
+
+import com.quorion.b2b.dto.pricing.PriceImportResult;
+import com.quorion.b2b.dto.pricing.PriceRequest;
+import com.quorion.b2b.dto.pricing.PriceResult;
+import com.quorion.b2b.model.commerce.FxRate;
+import com.quorion.b2b.service.PricingService;
+import com.quorion.b2b.service.pricing.FxRateService;
+import com.quorion.b2b.service.pricing.PriceImportFormat;
+import com.quorion.b2b.service.pricing.PriceImportType;
+import com.quorion.b2b.service.pricing.PriceListImportService;
+import com.quorion.b2b.service.pricing.PricingContext;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pricing Controller
+ * Resolves contract, volume and list prices for many lines in one request
+ * in the buyer's currency, and imports seller price lists and FX rates
+ */
+@RestController
+@RequestMapping("/api/pricing")
+@RequiredArgsConstructor
+@Tag(name = "Pricing", description = "Batch price calculation and price list import")
+public class PricingController {
+
+    private final PricingService pricingService;
+    private final PriceListImportService priceListImportService;
+    private final FxRateService fxRateService;
+
+    /**
+     * Price many lines at once
+     * POST /api/pricing/batch
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Calculate prices", description = "Calculate unit and total prices for a cart or quote in one round trip")
+    public ResponseEntity<List<PriceResult>> calculatePrices(@Valid @RequestBody BatchPriceRequest request) {
+        return ResponseEntity.ok(pricingService.calculatePrices(request.getItems()));
+    }
+
+    /**
+     * Price one line in a currency
+     * GET /api/pricing/total
+     */
+    @GetMapping("/total")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Calculate total price", description = "Calculate unit and total price, with the source price and the amount converted into the requested currency")
+    public ResponseEntity<PriceResult> calculateTotalPrice(
+            @RequestParam UUID skuId,
+            @RequestParam(defaultValue = "1") BigDecimal quantity,
+            @RequestParam(required = false) UUID buyerId,
+            @RequestParam(required = false) UUID destinationId,
+            @RequestParam(required = false) UUID sellerId,
+            @RequestParam(required = false) UUID deliveryTermId,
+            @RequestParam(required = false) UUID paymentTermId,
+            @RequestParam(required = false) UUID variantId,
+            @RequestParam(required = false) String currency) {
+        PricingContext context = new PricingContext(quantity, buyerId, destinationId, sellerId,
+                deliveryTermId, paymentTermId, variantId, LocalDateTime.now());
+        return ResponseEntity.ok(pricingService.calculateTotalPrice(skuId, context,
+                currency != null ? currency.toUpperCase() : null));
+    }
+
+    /**
+     * Current prices for a catalog page
+     * GET /api/pricing/effective
+     */
+    @GetMapping("/effective")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get effective prices", description = "Look up materialized contract and list prices for many SKUs in one query")
+    public ResponseEntity<List<PriceResult>> getEffectivePrices(
+            @RequestParam List<UUID> skuIds,
+            @RequestParam(defaultValue = "1") BigDecimal quantity,
+            @RequestParam(required = false) UUID buyerId,
+            @RequestParam(required = false) UUID destinationId,
+            @RequestParam(required = false) UUID sellerId,
+            @RequestParam(required = false) String currency) {
+        return ResponseEntity.ok(pricingService.findEffectivePrices(skuIds, quantity, buyerId, destinationId,
+                sellerId, currency != null ? currency.toUpperCase() : null));
+    }
+
+    /**
+     * Import a price list
+     * POST /api/pricing/import
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "text/plain", "application/octet-stream"})
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Import price list", description = "Stream price tiers or list prices as CSV or NDJSON; rows are validated and batch inserted, with per-row errors and an optional dry run")
+    public ResponseEntity<PriceImportResult> importPrices(
+            @RequestParam PriceImportType type,
+            @RequestParam(defaultValue = "CSV") PriceImportFormat format,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            InputStream body) {
+        return ResponseEntity.ok(priceListImportService.importPrices(body, type, format, dryRun));
+    }
+
+    /**
+     * Stored exchange rates
+     * GET /api/pricing/fx-rates
+     */
+    @GetMapping("/fx-rates")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get FX rates", description = "List the stored exchange rates")
+    public ResponseEntity<List<FxRate>> getFxRates() {
+        return ResponseEntity.ok(fxRateService.getAll());
+    }
+
+    /**
+     * Reload exchange rates from the configured file
+     * POST /api/pricing/fx-rates/import
+     */
+    @PostMapping("/fx-rates/import")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Import FX rates", description = "Import the configured local FX rates file and swap in the new rates")
+    public ResponseEntity<PriceImportResult> importFxRates() {
+        return ResponseEntity.ok(fxRateService.importConfiguredFile());
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchPriceRequest {
+        @NotEmpty(message = "Items array is required")
+        private List<@Valid PriceRequest> items;
+    }
+}
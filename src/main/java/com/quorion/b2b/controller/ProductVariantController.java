@@ -3,9 +3,11 @@ package com.quorion.b2b.controller;
 import com.quorion.b2b.model.product.ProductVariant;
 import jakarta.validation.Valid;
 import com.quorion.b2b.repository.ProductVariantRepository;
+import com.quorion.b2b.service.pricing.PricingChangedEvent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +23,7 @@ import java.util.UUID;
 @Tag(name = "ProductVariant", description = "ProductVariant management")
 public class ProductVariantController {
     private final ProductVariantRepository productvariantRepository;
+    private final ApplicationEventPublisher eventPublisher;
     @GetMapping
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "List all product-variants")
@@ -39,7 +42,9 @@ public class ProductVariantController {
     @PostMapping
     @Operation(summary = "Create productvariant")
     public ResponseEntity<ProductVariant> create(@Valid @RequestBody ProductVariant productvariant) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(productvariantRepository.save(productvariant));
+        ProductVariant saved = productvariantRepository.save(productvariant);
+        publishChange(saved);
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
     @PutMapping("/{id}")
@@ -48,7 +53,10 @@ public class ProductVariantController {
         return productvariantRepository.findById(id)
                 .map(existing -> {
                     details.setId(id);
-                    return ResponseEntity.ok(productvariantRepository.save(details));
+                    ProductVariant saved = productvariantRepository.save(details);
+                    publishChange(existing);
+                    publishChange(saved);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -56,10 +64,20 @@ public class ProductVariantController {
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete productvariant")
     public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        if (productvariantRepository.existsById(id)) {
-            productvariantRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return productvariantRepository.findById(id)
+                .map(existing -> {
+                    productvariantRepository.delete(existing);
+                    publishChange(existing);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Variant price adjustments are compiled into the SKU's price book
+     */
+    private void publishChange(ProductVariant variant) {
+        UUID skuId = variant.getSku() != null ? variant.getSku().getId() : null;
+        eventPublisher.publishEvent(PricingChangedEvent.forSku(skuId));
     }
 }
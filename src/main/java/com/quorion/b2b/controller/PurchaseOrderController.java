@@ -1,5 +1,7 @@
 package com.quorion.b2b.controller;
 
+import com.quorion.b2b.dto.order.BulkTransitionRequest;
+import com.quorion.b2b.dto.order.BulkTransitionResult;
 import com.quorion.b2b.model.commerce.PurchaseOrder;
 import jakarta.validation.Valid;
 import com.quorion.b2b.service.PurchaseOrderService;
@@ -92,6 +94,13 @@ public class PurchaseOrderController {
         return ResponseEntity.ok(purchaseOrderService.complete(id));
     }
 
+    @PostMapping("/transitions")
+    @Operation(summary = "Transition many orders at once",
+            description = "Reports per order whether it moved, conflicted with its current status or was not found")
+    public ResponseEntity<BulkTransitionResult> transitionOrders(@Valid @RequestBody BulkTransitionRequest request) {
+        return ResponseEntity.ok(purchaseOrderService.transitionAll(request.getOrderIds(), request.getTargetStatus()));
+    }
+
     @PostMapping("/{id}/cancel")
     @Operation(summary = "Cancel the order")
     public ResponseEntity<PurchaseOrder> cancelOrder(@PathVariable UUID id) {
@@ -1,5 +1,6 @@
 package com.quorion.b2b.controller;
 
+import com.quorion.b2b.dto.order.OrderSummary;
 import com.quorion.b2b.model.commerce.QuoteRequest;
 import jakarta.validation.Valid;
 import com.quorion.b2b.service.QuoteRequestService;
@@ -44,8 +45,8 @@ public class QuoteRequestController {
     }
 
     @PostMapping("/{id}/buyer_accepts")
-    @Operation(summary = "Buyer accepts quote (creates order)")
-    public ResponseEntity<QuoteRequest> buyerAccepts(@PathVariable UUID id) {
+    @Operation(summary = "Buyer accepts quote (creates order)", description = "Returns a summary of the created order")
+    public ResponseEntity<OrderSummary> buyerAccepts(@PathVariable UUID id) {
         return ResponseEntity.ok(quoteRequestService.buyerAccepts(id));
     }
 
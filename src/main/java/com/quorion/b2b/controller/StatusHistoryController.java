@@ -0,0 +1,44 @@
+package com.quorion.b2b.controller;
+
+import com.quorion.b2b.dto.history.StageDuration;
+import com.quorion.b2b.service.history.StatusHistoryService;
+import com.quorion.b2b.service.outbox.AggregateType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Status History Controller
+ * Reports how long quotes, orders and leads spend in each status
+ */
+@RestController
+@RequestMapping("/api/status-history")
+@RequiredArgsConstructor
+@Tag(name = "Status History", description = "Cycle-time analytics from quote, order and lead status transitions")
+public class StatusHistoryController {
+
+    private final StatusHistoryService statusHistoryService;
+
+    /**
+     * Stage durations for a seller
+     * GET /api/status-history/stage-durations
+     */
+    @GetMapping("/stage-durations")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get stage durations", description = "p50 and p95 time spent in each status by a seller's quotes, orders or leads, for transitions in a time range")
+    public ResponseEntity<List<StageDuration>> getStageDurations(
+            @RequestParam AggregateType aggregateType,
+            @RequestParam UUID sellerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(statusHistoryService.stageDurations(aggregateType, sellerId, from, to));
+    }
+}
@@ -18,4 +18,9 @@ public class LoginRequest {
 
     @NotBlank(message = "Password is required")
     private String password;
+
+    /**
+     * Session key of a guest cart to merge into the account's cart, if any
+     */
+    private String sessionKey;
 }
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 /**
  * Login Response DTO
  */
@@ -18,4 +20,10 @@ public class LoginResponse {
     private String refreshToken;
     private String tokenType = "Bearer";
     private UserResponse user;
+
+    /**
+     * The account's cart after a guest cart was merged at login
+     */
+    private UUID cartId;
+    private Long cartVersion;
 }
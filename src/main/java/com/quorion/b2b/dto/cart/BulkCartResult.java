@@ -0,0 +1,54 @@
+package com.quorion.b2b.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk cart write, one entry per requested line
+ *
+ * Lines that fail validation are rejected and reported; the accepted
+ * lines are written together in one batch, so either all of them are
+ * stored or none are. {@code cartVersion} is the cart version after the
+ * write.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCartResult {
+
+    private UUID cartId;
+    private long cartVersion;
+    private int createdLines;
+    private int updatedLines;
+    private int rejectedLines;
+
+    @Builder.Default
+    private List<Line> lines = new ArrayList<>();
+
+    public enum LineStatus {
+        CREATED,
+        UPDATED,
+        REJECTED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Line {
+        private int line;
+        private UUID productId;
+        private LineStatus status;
+        private UUID itemId;
+        private BigDecimal quantity;
+        private String error;
+    }
+}
@@ -0,0 +1,42 @@
+package com.quorion.b2b.dto.cart;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Split of a cart into one document per seller
+ *
+ * Leads need the buyer's contact details; quote requests need the
+ * warehouse and the delivery, payment term and payment mode to quote on.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartSplitRequest {
+
+    public enum Target {
+        LEAD,
+        QUOTE
+    }
+
+    @NotNull(message = "Target is required")
+    private Target target;
+
+    private String buyerFirstName;
+    private String buyerLastName;
+    private String buyerEmail;
+    private String buyerPhone;
+    private String buyerCompanyName;
+
+    private UUID warehouseId;
+    private UUID deliveryTermId;
+    private UUID paymentTermId;
+    private UUID paymentModeId;
+    private String currency;
+}
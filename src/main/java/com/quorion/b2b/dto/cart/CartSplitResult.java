@@ -0,0 +1,56 @@
+package com.quorion.b2b.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a cart split, one entry per seller
+ *
+ * Each seller's document is created in its own transaction together with
+ * the removal of its lines from the cart. A failed seller keeps its lines,
+ * so the split can be retried; the cart is deactivated once no lines are
+ * left.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartSplitResult {
+
+    private UUID cartId;
+    private long cartVersion;
+    private boolean cartActive;
+    private CartSplitRequest.Target target;
+    private int convertedSellers;
+    private int failedSellers;
+
+    @Builder.Default
+    private List<SellerDocument> documents = new ArrayList<>();
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SellerDocument {
+        private UUID sellerId;
+        private Status status;
+        private int itemCount;
+        private BigDecimal subtotal;
+        private UUID leadId;
+        private UUID quoteRequestId;
+        private String quoteNumber;
+        private String error;
+    }
+}
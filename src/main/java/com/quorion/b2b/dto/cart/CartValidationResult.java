@@ -0,0 +1,71 @@
+package com.quorion.b2b.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Checkout readiness of a cart, with diagnostics per line
+ *
+ * Errors make the cart invalid: an empty cart, too many lines, a
+ * subtotal below the marketplace minimum, invalid quantities or prices
+ * and lines short of stock. Price changes and products without inventory
+ * records are warnings only.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartValidationResult {
+
+    private UUID cartId;
+    private long cartVersion;
+    private boolean valid;
+    private int itemCount;
+    private Integer maxCartItems;
+    private BigDecimal subtotal;
+    private BigDecimal minOrderValue;
+
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> warnings = new ArrayList<>();
+
+    @Builder.Default
+    private List<Line> lines = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Line {
+        private UUID itemId;
+        private UUID productId;
+        private UUID skuId;
+        private BigDecimal quantity;
+
+        /**
+         * Stock available across warehouses; null when the product has no inventory records
+         */
+        private BigDecimal quantityAvailable;
+        private int warehouses;
+        private boolean inStock;
+
+        private BigDecimal cartUnitPrice;
+        private BigDecimal currentUnitPrice;
+        private boolean priceMatches;
+
+        @Builder.Default
+        private List<String> errors = new ArrayList<>();
+
+        @Builder.Default
+        private List<String> warnings = new ArrayList<>();
+    }
+}
@@ -0,0 +1,46 @@
+package com.quorion.b2b.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A guest cart as seen by the client
+ *
+ * {@code cartId} is set once the cart has been written to the database.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestCartResponse {
+
+    private String sessionKey;
+    private UUID cartId;
+    private int totalItems;
+    private BigDecimal totalQuantity;
+    private BigDecimal subtotal;
+    private LocalDateTime lastAccessedAt;
+
+    @Builder.Default
+    private List<Line> items = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Line {
+        private UUID productId;
+        private BigDecimal quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal totalPrice;
+        private String notes;
+    }
+}
@@ -0,0 +1,63 @@
+package com.quorion.b2b.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A cart priced against current catalog pricing
+ *
+ * Each line carries the price stored on the cart line and the tier or
+ * list price resolved for it now; totals use the resolved price and fall
+ * back to the stored one for lines without catalog pricing. The snapshot
+ * is valid for {@code cartVersion} and {@code pricingVersion}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PricedCartResponse {
+
+    private UUID cartId;
+    private long cartVersion;
+    private long pricingVersion;
+    private LocalDateTime pricedAt;
+    private int itemCount;
+    private BigDecimal totalQuantity;
+    private BigDecimal subtotal;
+    private int repricedLines;
+
+    @Builder.Default
+    private List<Line> lines = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Line {
+        private UUID itemId;
+        private UUID productId;
+        private UUID skuId;
+        private BigDecimal quantity;
+        private BigDecimal cartUnitPrice;
+        private BigDecimal unitPrice;
+        private BigDecimal lineTotal;
+
+        /**
+         * Whether {@code unitPrice} was resolved from catalog pricing
+         */
+        private boolean priced;
+
+        /**
+         * Whether the resolved price differs from the stored one
+         */
+        private boolean repriced;
+    }
+}
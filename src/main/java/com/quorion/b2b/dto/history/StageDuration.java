@@ -0,0 +1,27 @@
+package com.quorion.b2b.dto.history;
+
+import com.quorion.b2b.service.outbox.AggregateType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Time spent in one status before moving to the next, over a seller's transitions
+ *
+ * Durations are in seconds; transitions whose stage start is not in the
+ * history, or lies beyond the report's lookback, are left out.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StageDuration {
+
+    private AggregateType aggregateType;
+    private String fromStatus;
+    private String toStatus;
+    private long transitions;
+    private Double p50Seconds;
+    private Double p95Seconds;
+}
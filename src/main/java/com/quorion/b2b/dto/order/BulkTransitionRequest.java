@@ -0,0 +1,30 @@
+package com.quorion.b2b.dto.order;
+
+import com.quorion.b2b.model.commerce.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Move many purchase orders to the next status at once
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTransitionRequest {
+
+    @NotEmpty(message = "Order ids are required")
+    @Builder.Default
+    private List<UUID> orderIds = new ArrayList<>();
+
+    @NotNull(message = "Target status is required")
+    private OrderStatus targetStatus;
+}
@@ -0,0 +1,50 @@
+package com.quorion.b2b.dto.order;
+
+import com.quorion.b2b.model.commerce.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk status transition, one entry per requested order
+ *
+ * An order conflicts when it was not in the status the transition starts
+ * from, including when another request moved it first; its current status
+ * is reported so the caller can tell a retry from a mistake.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTransitionResult {
+
+    private OrderStatus fromStatus;
+    private OrderStatus targetStatus;
+    private int transitioned;
+    private int conflicts;
+    private int notFound;
+
+    @Builder.Default
+    private List<OrderOutcome> results = new ArrayList<>();
+
+    public enum Outcome {
+        TRANSITIONED,
+        CONFLICT,
+        NOT_FOUND
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OrderOutcome {
+        private UUID orderId;
+        private Outcome outcome;
+        private OrderStatus currentStatus;
+    }
+}
@@ -0,0 +1,30 @@
+package com.quorion.b2b.dto.order;
+
+import com.quorion.b2b.model.commerce.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Purchase order created from a quote, without its lines
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummary {
+
+    private UUID orderId;
+    private String number;
+    private UUID quoteRequestId;
+    private OrderStatus status;
+    private int lineCount;
+    private BigDecimal subtotal;
+    private BigDecimal shippingCost;
+    private BigDecimal total;
+    private String currency;
+}
@@ -0,0 +1,37 @@
+package com.quorion.b2b.dto.pricing;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mass adjustment of a seller's price tiers
+ *
+ * Exactly one of percentChange (e.g. 5 for +5%) or amountChange (added to
+ * the price per unit) must be given. When validFrom is in the future the
+ * matching tiers are cloned with the new price from that date and the
+ * current tiers end just before it; otherwise prices are updated in place.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceAdjustmentRequest {
+
+    @NotNull(message = "Seller ID is required")
+    private UUID sellerId;
+
+    private UUID skuId;
+    private String category;
+
+    private BigDecimal percentChange;
+    private BigDecimal amountChange;
+
+    private LocalDateTime validFrom;
+}
@@ -0,0 +1,27 @@
+package com.quorion.b2b.dto.pricing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a mass price adjustment
+ *
+ * Skipped tiers matched the filter but would have dropped below the
+ * minimum price, and were left untouched.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceAdjustmentResult {
+
+    private long matchedTiers;
+    private long adjustedTiers;
+    private long skippedTiers;
+    private boolean cloned;
+    private LocalDateTime validFrom;
+}
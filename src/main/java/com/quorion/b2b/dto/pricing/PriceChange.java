@@ -0,0 +1,46 @@
+package com.quorion.b2b.dto.pricing;
+
+import com.quorion.b2b.model.commerce.PriceHistoryKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One recorded change to a price tier or list price of a SKU
+ *
+ * Prices have the tier discount applied. The previous price is null for
+ * the first version of a row, and the price is null when the row was removed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceChange {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        REMOVED
+    }
+
+    private LocalDateTime recordedAt;
+    private PriceHistoryKind kind;
+    private UUID sourceId;
+    private int version;
+    private ChangeType changeType;
+
+    private UUID sellerId;
+    private UUID buyerId;
+    private UUID destinationId;
+    private BigDecimal minimumQuantity;
+    private BigDecimal maximumQuantity;
+    private String currency;
+
+    private BigDecimal previousPrice;
+    private BigDecimal price;
+}
@@ -0,0 +1,43 @@
+package com.quorion.b2b.dto.pricing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk price list import
+ *
+ * Rows that fail validation are skipped and reported individually; the
+ * remaining rows are imported unless the import is a dry run.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceImportResult {
+
+    private boolean dryRun;
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Whether more rows failed than are listed in {@link #errors}
+     */
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -0,0 +1,42 @@
+package com.quorion.b2b.dto.pricing;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One line to be priced by the batch pricing API
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceRequest {
+
+    @NotNull(message = "SKU ID is required")
+    private UUID skuId;
+
+    @NotNull(message = "Quantity is required")
+    @DecimalMin(value = "0.01")
+    private BigDecimal quantity;
+
+    private UUID buyerId;
+    private UUID destinationId;
+    private UUID sellerId;
+    private UUID deliveryTermId;
+    private UUID paymentTermId;
+    private UUID variantId;
+
+    /**
+     * Currency to price in; prices are returned as stored when omitted
+     */
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be a 3 letter code")
+    private String currency;
+}
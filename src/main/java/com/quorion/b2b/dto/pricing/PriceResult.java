@@ -0,0 +1,38 @@
+package com.quorion.b2b.dto.pricing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Priced line returned by the batch pricing API
+ *
+ * Unit and total price are null when neither a tier nor a list price applies.
+ * They are in {@link #currency}; the source fields carry the winning price
+ * as stored, before conversion at {@link #fxRate}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceResult {
+
+    private UUID skuId;
+    private BigDecimal quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal totalPrice;
+    private String currency;
+
+    private BigDecimal sourceUnitPrice;
+    private BigDecimal sourceTotalPrice;
+    private String sourceCurrency;
+    private BigDecimal fxRate;
+
+    public boolean isPriced() {
+        return unitPrice != null;
+    }
+}
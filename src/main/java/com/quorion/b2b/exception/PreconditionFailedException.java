@@ -0,0 +1,11 @@
+package com.quorion.b2b.exception;
+
+/**
+ * Exception thrown when a conditional request's If-Match no longer matches
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -7,6 +7,7 @@ import com.quorion.b2b.model.BaseEntity;
 import com.quorion.b2b.model.tenant.Tenant;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -51,8 +52,27 @@ public class Cart extends BaseEntity {
     @Column(name = "name")
     private String name;
 
+    /**
+     * Bumped on every change to the cart or its items; served as the ETag
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    /**
+     * Cart version the abandoned-cart notifications were sent for; written
+     * only by {@code AbandonedCartDetector}
+     */
+    @Column(name = "abandonment_notified_version", insertable = false, updatable = false)
+    @JsonIgnore
+    private Long abandonmentNotifiedVersion;
+
+    /**
+     * Live items only; soft-deleted rows are filtered in SQL
+     */
     @JsonIgnore
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
+    @SQLRestriction("deleted_at IS NULL")
     @Builder.Default
     private List<CartItem> items = new ArrayList<>();
 
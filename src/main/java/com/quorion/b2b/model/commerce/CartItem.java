@@ -53,6 +53,10 @@ public class CartItem extends BaseEntity {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     public BigDecimal getTotalPrice() {
         return quantity.multiply(unitPrice);
     }
@@ -0,0 +1,53 @@
+package com.quorion.b2b.model.commerce;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.quorion.b2b.model.BaseEntity;
+import com.quorion.b2b.model.tenant.Tenant;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+/**
+ * A seller's numbering for one document type
+ *
+ * The pattern may use {@code {prefix}}, {@code {yyyy}} and {@code {seq}}
+ * or {@code {seq:N}} for a sequence zero-padded to N digits; it must
+ * start with the prefix and contain the sequence. Sellers sharing a
+ * prefix share a counter and must use the same pattern, and no prefix may
+ * start with another prefix of the same type, so numbers stay unique
+ * across sellers.
+ */
+@Entity
+@Table(name = "document_number_format", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"seller_id", "document_type"})
+})
+@Data
+@EqualsAndHashCode(callSuper = true, exclude = "seller")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentNumberFormat extends BaseEntity {
+
+    public static final String DEFAULT_PATTERN = "{prefix}{seq}";
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "seller_id", nullable = false)
+    @NotNull
+    @JsonIgnore
+    private Tenant seller;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", nullable = false, length = 30)
+    private DocumentType documentType;
+
+    @NotBlank
+    @Column(name = "prefix", nullable = false, length = 20)
+    private String prefix;
+
+    @NotBlank
+    @Column(name = "pattern", nullable = false, length = 40)
+    @Builder.Default
+    private String pattern = DEFAULT_PATTERN;
+}
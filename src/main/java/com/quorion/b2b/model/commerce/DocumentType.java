@@ -0,0 +1,21 @@
+package com.quorion.b2b.model.commerce;
+
+/**
+ * Kinds of numbered documents, with the prefix used when a seller has none configured
+ */
+public enum DocumentType {
+    QUOTE_REQUEST("QT-"),
+    PURCHASE_ORDER("PO-"),
+    SHIPMENT_ADVICE("SA-"),
+    INVOICE("INV-");
+
+    private final String defaultPrefix;
+
+    DocumentType(String defaultPrefix) {
+        this.defaultPrefix = defaultPrefix;
+    }
+
+    public String getDefaultPrefix() {
+        return defaultPrefix;
+    }
+}
@@ -0,0 +1,85 @@
+package com.quorion.b2b.model.commerce;
+
+import com.quorion.b2b.model.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Materialized price row that is valid right now
+ *
+ * One row per currently valid price tier (discount applied) or list price
+ * of a SKU. Rows are rebuilt when pricing is written and when a validity
+ * window opens or closes, so reads never evaluate dates.
+ */
+@Entity
+@Table(name = "effective_price", indexes = {
+    @Index(name = "idx_effective_price_sku_quantity", columnList = "sku_id, minimum_quantity")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EffectivePrice extends BaseEntity {
+
+    @Column(name = "sku_id", nullable = false)
+    private UUID skuId;
+
+    @Column(name = "buyer_id")
+    private UUID buyerId;
+
+    @Column(name = "destination_id")
+    private UUID destinationId;
+
+    @Column(name = "seller_id")
+    private UUID sellerId;
+
+    @Column(name = "minimum_quantity", nullable = false, precision = 10, scale = 2)
+    private BigDecimal minimumQuantity;
+
+    @Column(name = "maximum_quantity", precision = 10, scale = 2)
+    private BigDecimal maximumQuantity;
+
+    @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source", nullable = false, length = 20)
+    private PriceSource source;
+
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    /**
+     * Position in the fallback chain for a request context, or -1 if the
+     * row does not apply to it
+     */
+    public int rankFor(UUID requestBuyerId, UUID requestDestinationId) {
+        boolean buyerMatches = buyerId != null && buyerId.equals(requestBuyerId);
+        boolean destinationMatches = destinationId != null && destinationId.equals(requestDestinationId);
+
+        if (buyerMatches && destinationMatches) {
+            return 0;
+        }
+        if (buyerMatches) {
+            return 1;
+        }
+        if (destinationMatches) {
+            return 2;
+        }
+        if (source == PriceSource.GENERAL) {
+            return 3;
+        }
+        if (source == PriceSource.LIST) {
+            return 4;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,43 @@
+package com.quorion.b2b.model.commerce;
+
+import com.quorion.b2b.model.BaseEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Exchange rate between two currencies
+ *
+ * One unit of the base currency buys {@code rate} units of the quote currency.
+ */
+@Entity
+@Table(name = "fx_rate", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"base_currency", "quote_currency"})
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FxRate extends BaseEntity {
+
+    @NotNull
+    @Column(name = "base_currency", nullable = false, length = 3)
+    private String baseCurrency;
+
+    @NotNull
+    @Column(name = "quote_currency", nullable = false, length = 3)
+    private String quoteCurrency;
+
+    @NotNull
+    @DecimalMin(value = "0.00000001")
+    @Column(name = "rate", nullable = false, precision = 19, scale = 8)
+    private BigDecimal rate;
+
+    @Column(name = "as_of")
+    private LocalDateTime asOf;
+}
@@ -14,5 +14,6 @@ public enum NotificationType {
     PRICE_DROP,
     NEW_MESSAGE,
     QUOTE_RECEIVED,
-    QUOTE_ACCEPTED
+    QUOTE_ACCEPTED,
+    CART_ABANDONED
 }
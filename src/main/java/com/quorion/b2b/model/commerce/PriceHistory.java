@@ -0,0 +1,88 @@
+package com.quorion.b2b.model.commerce;
+
+import com.quorion.b2b.model.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One recorded version of a price tier or list price
+ *
+ * Rows are only ever appended. A version is current from its
+ * {@code recordedAt} until the next version of the same source row;
+ * a removed version marks the source row as deleted.
+ */
+@Entity
+@Table(name = "price_history", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"source_id", "version"})
+}, indexes = {
+    @Index(name = "idx_price_history_sku_recorded", columnList = "sku_id, recorded_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceHistory extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 20)
+    private PriceHistoryKind kind;
+
+    @Column(name = "source_id", nullable = false)
+    private UUID sourceId;
+
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @Column(name = "sku_id", nullable = false)
+    private UUID skuId;
+
+    @Column(name = "seller_id")
+    private UUID sellerId;
+
+    @Column(name = "buyer_id")
+    private UUID buyerId;
+
+    @Column(name = "destination_id")
+    private UUID destinationId;
+
+    @Column(name = "delivery_term_id")
+    private UUID deliveryTermId;
+
+    @Column(name = "payment_term_id")
+    private UUID paymentTermId;
+
+    @Column(name = "minimum_quantity", precision = 10, scale = 2)
+    private BigDecimal minimumQuantity;
+
+    @Column(name = "maximum_quantity", precision = 10, scale = 2)
+    private BigDecimal maximumQuantity;
+
+    @Column(name = "price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "discount_percent", precision = 5, scale = 2)
+    private BigDecimal discountPercent;
+
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "valid_from")
+    private LocalDateTime validFrom;
+
+    @Column(name = "valid_to")
+    private LocalDateTime validTo;
+
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive;
+
+    @Column(name = "removed", nullable = false)
+    private Boolean removed;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,9 @@
+package com.quorion.b2b.model.commerce;
+
+/**
+ * Kind of pricing row a price history version was taken from
+ */
+public enum PriceHistoryKind {
+    PRICE_TIER,
+    LIST_PRICE
+}
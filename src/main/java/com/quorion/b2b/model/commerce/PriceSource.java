@@ -0,0 +1,12 @@
+package com.quorion.b2b.model.commerce;
+
+/**
+ * Origin of a materialized effective price, in fallback order
+ */
+public enum PriceSource {
+    BUYER_DESTINATION,
+    BUYER,
+    DESTINATION,
+    GENERAL,
+    LIST
+}
@@ -2,12 +2,25 @@ package com.quorion.b2b.repository;
 
 import com.quorion.b2b.model.commerce.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
     List<CartItem> findByCartId(UUID cartId);
+
+    @Query("SELECT i FROM CartItem i WHERE i.cart.id = :cartId AND i.product.id IN :productIds AND i.deletedAt IS NOT NULL")
+    List<CartItem> findDeletedByCartIdAndProductIdIn(UUID cartId, Collection<UUID> productIds);
+
+    /**
+     * Delete every line of a cart, soft-deleted ones included
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CartItem i WHERE i.cart.id = :cartId")
+    int deleteAllByCartId(UUID cartId);
 }
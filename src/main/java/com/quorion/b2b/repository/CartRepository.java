@@ -29,6 +29,20 @@ public interface CartRepository extends JpaRepository<Cart, UUID> {
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.id = :id")
     Optional<Cart> findByIdWithItems(UUID id);
 
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.product WHERE c.id = :id")
+    Optional<Cart> findByIdWithItemsAndProducts(UUID id);
+
+    /**
+     * The active anonymous cart of a session together with the buyer's active carts, items and products fetched
+     */
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.product " +
+           "WHERE c.isActive = true AND (c.buyer = :buyer " +
+           "OR (c.sessionKey = :sessionKey AND c.buyer IS NULL AND c.customer IS NULL))")
+    List<Cart> findGuestAndBuyerCarts(String sessionKey, Tenant buyer);
+
+    @Query("SELECT c.version FROM Cart c WHERE c.id = :id")
+    Optional<Long> findVersionById(UUID id);
+
     @Query("SELECT c FROM Cart c WHERE c.expiresAt < CURRENT_TIMESTAMP AND c.isActive = true")
     List<Cart> findExpiredCarts();
 }
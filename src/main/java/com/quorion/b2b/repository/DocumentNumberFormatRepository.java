@@ -0,0 +1,14 @@
+package com.quorion.b2b.repository;
+
+import com.quorion.b2b.model.commerce.DocumentNumberFormat;
+import com.quorion.b2b.model.commerce.DocumentType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DocumentNumberFormatRepository extends JpaRepository<DocumentNumberFormat, UUID> {
+    List<DocumentNumberFormat> findByDocumentType(DocumentType documentType);
+}
@@ -0,0 +1,39 @@
+package com.quorion.b2b.repository;
+
+import com.quorion.b2b.model.commerce.EffectivePrice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for EffectivePrice projection
+ */
+@Repository
+public interface EffectivePriceRepository extends JpaRepository<EffectivePrice, UUID> {
+
+    /**
+     * Candidate rows for many SKUs in one indexed lookup
+     *
+     * Returns every row whose quantity band covers the quantity and that
+     * could apply to the buyer or destination; the caller picks the
+     * winner per SKU by rank and price.
+     */
+    @Query("SELECT e FROM EffectivePrice e WHERE " +
+           "e.skuId IN :skuIds AND " +
+           "e.minimumQuantity <= :quantity AND " +
+           "(e.maximumQuantity IS NULL OR e.maximumQuantity >= :quantity) AND " +
+           "(e.source IN (com.quorion.b2b.model.commerce.PriceSource.GENERAL, com.quorion.b2b.model.commerce.PriceSource.LIST) " +
+           "OR e.buyerId = :buyerId OR e.destinationId = :destinationId)")
+    List<EffectivePrice> findCandidates(
+        @Param("skuIds") Collection<UUID> skuIds,
+        @Param("quantity") BigDecimal quantity,
+        @Param("buyerId") UUID buyerId,
+        @Param("destinationId") UUID destinationId
+    );
+}
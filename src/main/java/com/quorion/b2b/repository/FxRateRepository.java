@@ -0,0 +1,19 @@
+package com.quorion.b2b.repository;
+
+import com.quorion.b2b.model.commerce.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, UUID> {
+    List<FxRate> findByBaseCurrency(String baseCurrency);
+
+    @Query("SELECT MAX(r.updatedAt) FROM FxRate r")
+    Optional<LocalDateTime> findLatestUpdatedAt();
+}
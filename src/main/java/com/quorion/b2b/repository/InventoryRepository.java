@@ -4,6 +4,7 @@ import com.quorion.b2b.model.product.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,4 +13,5 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
     List<Inventory> findByProductId(UUID productId);
     List<Inventory> findBySkuId(UUID skuId);
     List<Inventory> findByWarehouseId(UUID warehouseId);
+    List<Inventory> findByProductIdIn(Collection<UUID> productIds);
 }
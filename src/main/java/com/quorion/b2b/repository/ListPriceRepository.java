@@ -2,14 +2,32 @@ package com.quorion.b2b.repository;
 
 import com.quorion.b2b.model.product.ListPrice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ListPriceRepository extends JpaRepository<ListPrice, UUID> {
     List<ListPrice> findBySkuId(UUID skuId);
+    List<ListPrice> findBySkuIdIn(Collection<UUID> skuIds);
     List<ListPrice> findByCurrency(String currency);
     List<ListPrice> findByIsActive(Boolean isActive);
     List<ListPrice> findBySkuIdAndCurrencyAndIsActive(UUID skuId, String currency, Boolean isActive);
+
+    // Validity window boundaries for effective price refresh
+    @Query("SELECT MIN(lp.startDate) FROM ListPrice lp WHERE lp.isActive = true AND lp.startDate > :now")
+    LocalDateTime findNextStartDate(@Param("now") LocalDateTime now);
+
+    @Query("SELECT MIN(lp.endDate) FROM ListPrice lp WHERE lp.isActive = true AND lp.endDate >= :now")
+    LocalDateTime findNextEndDate(@Param("now") LocalDateTime now);
+
+    @Query("SELECT DISTINCT lp.sku.id FROM ListPrice lp WHERE lp.isActive = true AND (" +
+           "(lp.startDate > :from AND lp.startDate <= :to) OR " +
+           "(lp.endDate >= :from AND lp.endDate < :to))")
+    List<UUID> findSkuIdsWithBoundaryBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
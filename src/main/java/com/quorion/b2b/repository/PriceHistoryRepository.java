@@ -0,0 +1,13 @@
+package com.quorion.b2b.repository;
+
+import com.quorion.b2b.model.commerce.PriceHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PriceHistoryRepository extends JpaRepository<PriceHistory, UUID> {
+    List<PriceHistory> findBySkuIdOrderBySourceIdAscVersionAsc(UUID skuId);
+}
@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,6 +33,20 @@ public interface PriceTierRepository extends JpaRepository<PriceTier, UUID> {
 
     List<PriceTier> findByProductSkuIdAndBuyerIdAndDestinationId(UUID skuId, UUID buyerId, UUID destinationId);
 
+    List<PriceTier> findByProductSkuIdIn(Collection<UUID> skuIds);
+
+    // Validity window boundaries for effective price refresh
+    @Query("SELECT MIN(pt.validFromDate) FROM PriceTier pt WHERE pt.isActive = true AND pt.validFromDate > :now")
+    LocalDateTime findNextValidFrom(@Param("now") LocalDateTime now);
+
+    @Query("SELECT MIN(pt.validToDate) FROM PriceTier pt WHERE pt.isActive = true AND pt.validToDate >= :now")
+    LocalDateTime findNextValidTo(@Param("now") LocalDateTime now);
+
+    @Query("SELECT DISTINCT pt.productSku.id FROM PriceTier pt WHERE pt.isActive = true AND (" +
+           "(pt.validFromDate > :from AND pt.validFromDate <= :to) OR " +
+           "(pt.validToDate >= :from AND pt.validToDate < :to))")
+    List<UUID> findSkuIdsWithBoundaryBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     @Query("SELECT pt FROM PriceTier pt WHERE " +
            "pt.seller = :seller AND " +
            "pt.buyer = :buyer AND " +
@@ -5,8 +5,11 @@ import com.quorion.b2b.model.product.ProductSKU;
 import com.quorion.b2b.model.product.SKUKind;
 import com.quorion.b2b.model.tenant.Tenant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,9 +24,14 @@ public interface ProductSKURepository extends JpaRepository<ProductSKU, UUID> {
 
     Optional<ProductSKU> findByNumber(String number);
 
+    List<ProductSKU> findByNumberIn(Collection<String> numbers);
+
     List<ProductSKU> findByKind(SKUKind kind);
 
     List<ProductSKU> findByDistributor(Tenant distributor);
 
     List<ProductSKU> findByProductAndIsActiveTrue(Product product);
+
+    @Query("SELECT s FROM ProductSKU s JOIN FETCH s.product p WHERE p.id IN :productIds AND s.isActive = true")
+    List<ProductSKU> findActiveByProductIdIn(@Param("productIds") Collection<UUID> productIds);
 }
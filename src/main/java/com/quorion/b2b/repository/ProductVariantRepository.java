@@ -4,6 +4,7 @@ import com.quorion.b2b.model.product.ProductVariant;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,5 +12,6 @@ import java.util.UUID;
 public interface ProductVariantRepository extends JpaRepository<ProductVariant, UUID> {
     List<ProductVariant> findByProductId(UUID productId);
     List<ProductVariant> findBySkuId(UUID skuId);
+    List<ProductVariant> findBySkuIdIn(Collection<UUID> skuIds);
     List<ProductVariant> findByIsActive(Boolean isActive);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,6 +23,8 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
 
     Optional<Tenant> findByEmail(String email);
 
+    List<Tenant> findByCodeIn(Collection<String> codes);
+
     @Query("SELECT t FROM Tenant t WHERE t.type = :type AND t.isActive = true")
     List<Tenant> findActiveByType(TenantType type);
 
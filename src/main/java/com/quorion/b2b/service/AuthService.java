@@ -6,6 +6,7 @@ import com.quorion.b2b.model.User;
 import com.quorion.b2b.repository.TenantRepository;
 import com.quorion.b2b.repository.UserRepository;
 import com.quorion.b2b.security.JwtTokenProvider;
+import com.quorion.b2b.service.cart.GuestCartMerger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,6 +32,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final GuestCartMerger guestCartMerger;
 
     /**
      * Register a new user
@@ -115,12 +117,25 @@ public class AuthService {
 
         log.info("User logged in: {}", user.getUsername());
 
-        return LoginResponse.builder()
+        LoginResponse response = LoginResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
                 .tokenType("Bearer")
                 .user(mapUserToResponse(user))
                 .build();
+
+        // Carry the guest cart over; a failed merge must not fail the login
+        try {
+            guestCartMerger.mergeAtLogin(request.getSessionKey(), user.getTenant())
+                    .ifPresent(cart -> {
+                        response.setCartId(cart.value());
+                        response.setCartVersion(cart.version());
+                    });
+        } catch (RuntimeException e) {
+            log.warn("Failed to merge guest cart for user {}: {}", user.getUsername(), e.getMessage());
+        }
+
+        return response;
     }
 
     /**
@@ -1,9 +1,16 @@
 package com.quorion.b2b.service;
 
+import com.quorion.b2b.dto.cart.BulkCartResult;
+import com.quorion.b2b.exception.PreconditionFailedException;
 import com.quorion.b2b.model.commerce.*;
 import com.quorion.b2b.model.product.Product;
 import com.quorion.b2b.model.tenant.Tenant;
 import com.quorion.b2b.repository.*;
+import com.quorion.b2b.service.cart.CartAggregate;
+import com.quorion.b2b.service.cart.CartLineWriter;
+import com.quorion.b2b.service.cart.Versioned;
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,9 +19,16 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Cart Service with comprehensive cart management
+ *
+ * Cart lines are written through {@link CartLineWriter}, so concurrent
+ * edits of one cart merge in the database instead of overwriting each
+ * other. Every line change bumps the cart version, which clients send
+ * back as If-Match to make a write conditional; a null expected version
+ * makes the write unconditional.
  */
 @Service
 @RequiredArgsConstructor
@@ -27,6 +41,8 @@ public class CartService {
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
     private final LeadRepository leadRepository;
+    private final CartLineWriter cartLineWriter;
+    private final OutboxWriter outboxWriter;
 
     /**
      * Get all carts with optional filtering
@@ -61,6 +77,16 @@ public class CartService {
                 .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Cart not found with id: " + id));
     }
 
+    /**
+     * Load a cart with its items in one query, indexed by product
+     */
+    @Transactional(readOnly = true)
+    public CartAggregate loadCart(UUID id) {
+        return cartRepository.findByIdWithItems(id)
+                .map(CartAggregate::of)
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Cart not found with id: " + id));
+    }
+
     /**
      * Create new cart
      */
@@ -88,8 +114,12 @@ public class CartService {
      * Update cart
      */
     @Transactional
-    public Cart updateCart(UUID id, UUID buyerId, UUID customerId, Boolean isActive) {
+    public Cart updateCart(UUID id, UUID buyerId, UUID customerId, Boolean isActive, Long expectedVersion) {
         Cart cart = getCartById(id);
+        if (expectedVersion != null && !expectedVersion.equals(cart.getVersion())) {
+            throw new PreconditionFailedException(
+                    "Cart " + id + " is at version " + cart.getVersion() + ", not " + expectedVersion);
+        }
 
         if (buyerId != null) {
             Tenant buyer = tenantRepository.findById(buyerId)
@@ -112,23 +142,32 @@ public class CartService {
 
     /**
      * Delete cart
+     *
+     * The items collection only sees live lines, so all lines are deleted
+     * in bulk first; soft-deleted ones would otherwise block the cart row.
      */
     @Transactional
     public void deleteCart(UUID id) {
         Cart cart = getCartById(id);
+        cartItemRepository.deleteAllByCartId(id);
         cartRepository.delete(cart);
     }
 
     /**
-     * Add or update item in cart
+     * Add a quantity of a product to cart
+     *
+     * The quantity is added to the product's line if the cart has one,
+     * which keeps its unit price and notes, so concurrent adds combine.
      */
     @Transactional
-    public CartItem addItem(UUID cartId, UUID productId, BigDecimal quantity, BigDecimal unitPrice, String notes) {
-        Cart cart = getCartById(cartId);
+    public Versioned<CartItem> addItem(UUID cartId, UUID productId, BigDecimal quantity, BigDecimal unitPrice,
+                                       String notes, Long expectedVersion) {
+        requireCart(cartId);
 
         // Validate product exists
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Product not found"));
+        if (!productRepository.existsById(productId)) {
+            throw new jakarta.persistence.EntityNotFoundException("Product not found");
+        }
 
         // Validate quantity and price
         if (quantity.compareTo(BigDecimal.ZERO) <= 0) {
@@ -138,101 +177,167 @@ public class CartService {
             throw new jakarta.persistence.EntityNotFoundException("Unit price cannot be negative");
         }
 
-        // Check if item already exists in cart (and not soft-deleted)
-        Optional<CartItem> existingItem = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId) && item.getDeletedAt() == null)
-                .findFirst();
-
-        if (existingItem.isPresent()) {
-            // Update existing item
-            CartItem item = existingItem.get();
-            item.setQuantity(quantity);
-            item.setUnitPrice(unitPrice);
-            if (notes != null) {
-                item.setNotes(notes);
-            }
-            return cartItemRepository.save(item);
-        } else {
-            // Create new item
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProduct(product);
-            newItem.setQuantity(quantity);
-            newItem.setUnitPrice(unitPrice);
-            newItem.setNotes(notes != null ? notes : "");
-            return cartItemRepository.save(newItem);
-        }
+        CartLineWriter.WrittenLine line = cartLineWriter.addQuantities(cartId,
+                List.of(new CartLineWriter.LineDelta(productId, quantity, unitPrice, notes))).get(0);
+        long version = bumpVersion(cartId, expectedVersion);
+        CartItem item = cartItemRepository.findById(line.itemId())
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Item not found in cart"));
+        return new Versioned<>(item, version);
     }
 
     /**
      * Remove item from cart (soft delete)
      */
     @Transactional
-    public void removeItem(UUID cartId, UUID itemId) {
-        Cart cart = getCartById(cartId);
-
-        CartItem item = cart.getItems().stream()
-                .filter(i -> i.getId().equals(itemId) && i.getDeletedAt() == null)
-                .findFirst()
-                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Item not found in cart"));
-
-        // Soft delete
-        item.softDelete();
-        cartItemRepository.save(item);
+    public long removeItem(UUID cartId, UUID itemId, Long expectedVersion) {
+        if (!cartLineWriter.removeLine(cartId, itemId)) {
+            throw new jakarta.persistence.EntityNotFoundException("Item not found in cart");
+        }
+        return bumpVersion(cartId, expectedVersion);
     }
 
     /**
      * Clear all items from cart
      */
     @Transactional
-    public void clearCart(UUID cartId) {
-        Cart cart = getCartById(cartId);
-        cart.clear();
-        cartRepository.save(cart);
+    public long clearCart(UUID cartId, Long expectedVersion) {
+        cartLineWriter.removeAll(cartId);
+        return bumpVersion(cartId, expectedVersion);
+    }
+
+    private void requireCart(UUID cartId) {
+        if (!cartRepository.existsById(cartId)) {
+            throw new jakarta.persistence.EntityNotFoundException("Cart not found with id: " + cartId);
+        }
+    }
+
+    /**
+     * Finish a line change by moving the cart to its next version
+     *
+     * Fails the transaction, and so undoes the line change, when the cart
+     * is no longer at the expected version.
+     */
+    private long bumpVersion(UUID cartId, Long expectedVersion) {
+        OptionalLong version = cartLineWriter.bumpVersion(cartId, expectedVersion);
+        if (version.isPresent()) {
+            return version.getAsLong();
+        }
+        if (!cartRepository.existsById(cartId)) {
+            throw new jakarta.persistence.EntityNotFoundException("Cart not found with id: " + cartId);
+        }
+        throw new PreconditionFailedException("Cart " + cartId + " has changed since version " + expectedVersion);
+    }
+
+    /**
+     * Version of a cart that is not being changed, checked against the expected one
+     */
+    private long currentVersion(UUID cartId, Long expectedVersion) {
+        long version = cartRepository.findVersionById(cartId)
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Cart not found with id: " + cartId));
+        if (expectedVersion != null && expectedVersion != version) {
+            throw new PreconditionFailedException("Cart " + cartId + " has changed since version " + expectedVersion);
+        }
+        return version;
     }
 
     /**
      * Add multiple items to cart at once
+     *
+     * Looks up all requested products in one query. Invalid lines are
+     * rejected and reported; the accepted lines are merged per product and
+     * written as quantity deltas in one statement within the transaction,
+     * so the cart is never left half-written and concurrent bulk adds
+     * combine.
      */
     @Transactional
-    public List<CartItem> addBulkItems(UUID cartId, List<BulkItemRequest> items) {
-        Cart cart = getCartById(cartId);
-        List<CartItem> addedItems = new ArrayList<>();
-
-        for (BulkItemRequest itemData : items) {
-            try {
-                // Validate product exists
-                Product product = productRepository.findById(itemData.getProductId())
-                        .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Product not found: " + itemData.getProductId()));
-
-                // Check if item already exists
-                Optional<CartItem> existing = cart.getItems().stream()
-                        .filter(item -> item.getProduct().getId().equals(itemData.getProductId()) && item.getDeletedAt() == null)
-                        .findFirst();
-
-                if (existing.isPresent()) {
-                    // Update quantity
-                    CartItem item = existing.get();
-                    item.setQuantity(item.getQuantity().add(itemData.getQuantity()));
-                    cartItemRepository.save(item);
-                    addedItems.add(item);
-                } else {
-                    // Create new item
-                    CartItem newItem = new CartItem();
-                    newItem.setCart(cart);
-                    newItem.setProduct(product);
-                    newItem.setQuantity(itemData.getQuantity());
-                    newItem.setUnitPrice(itemData.getUnitPrice());
-                    newItem.setNotes(itemData.getNotes() != null ? itemData.getNotes() : "");
-                    CartItem saved = cartItemRepository.save(newItem);
-                    addedItems.add(saved);
-                }
-            } catch (Exception e) {
-                log.error("Failed to add item to cart: {}", e.getMessage());
+    public BulkCartResult addBulkItems(UUID cartId, List<BulkItemRequest> items, Long expectedVersion) {
+        requireCart(cartId);
+        Set<UUID> products = productRepository.findAllById(items.stream()
+                        .map(BulkItemRequest::getProductId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+
+        List<BulkCartResult.Line> lines = new ArrayList<>(items.size());
+        Map<UUID, CartLineWriter.LineDelta> deltas = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            BulkItemRequest itemData = items.get(i);
+            BulkCartResult.Line line = BulkCartResult.Line.builder()
+                    .line(i + 1)
+                    .productId(itemData.getProductId())
+                    .build();
+            lines.add(line);
+
+            String error = validateBulkItem(itemData, products);
+            if (error != null) {
+                line.setStatus(BulkCartResult.LineStatus.REJECTED);
+                line.setError(error);
+                continue;
+            }
+
+            // Repeated products add up; the first line's price and notes win
+            deltas.merge(itemData.getProductId(), new CartLineWriter.LineDelta(itemData.getProductId(),
+                            itemData.getQuantity(), itemData.getUnitPrice(), itemData.getNotes()),
+                    (first, next) -> new CartLineWriter.LineDelta(first.productId(),
+                            first.quantity().add(next.quantity()), first.unitPrice(), first.notes()));
+        }
+
+        Map<UUID, CartLineWriter.WrittenLine> written = Map.of();
+        long version;
+        if (deltas.isEmpty()) {
+            // Every line was rejected; the cart is unchanged and keeps its version
+            version = currentVersion(cartId, expectedVersion);
+        } else {
+            written = cartLineWriter.addQuantities(cartId, deltas.values()).stream()
+                    .collect(Collectors.toMap(CartLineWriter.WrittenLine::productId, line -> line));
+            version = bumpVersion(cartId, expectedVersion);
+        }
+
+        Set<UUID> reported = new HashSet<>();
+        for (BulkCartResult.Line line : lines) {
+            if (line.getStatus() == BulkCartResult.LineStatus.REJECTED) {
+                continue;
             }
+            CartLineWriter.WrittenLine item = written.get(line.getProductId());
+            boolean created = item.created() && reported.add(line.getProductId());
+            line.setStatus(created ? BulkCartResult.LineStatus.CREATED : BulkCartResult.LineStatus.UPDATED);
+            line.setItemId(item.itemId());
+            line.setQuantity(item.quantity());
         }
 
-        return addedItems;
+        BulkCartResult result = BulkCartResult.builder()
+                .cartId(cartId)
+                .cartVersion(version)
+                .createdLines(count(lines, BulkCartResult.LineStatus.CREATED))
+                .updatedLines(count(lines, BulkCartResult.LineStatus.UPDATED))
+                .rejectedLines(count(lines, BulkCartResult.LineStatus.REJECTED))
+                .lines(lines)
+                .build();
+        if (result.getRejectedLines() > 0) {
+            log.warn("Rejected {} of {} bulk lines for cart {}", result.getRejectedLines(), items.size(), cartId);
+        }
+        return result;
+    }
+
+    private static String validateBulkItem(BulkItemRequest itemData, Set<UUID> products) {
+        if (itemData.getProductId() == null) {
+            return "Product is required";
+        }
+        if (!products.contains(itemData.getProductId())) {
+            return "Product not found: " + itemData.getProductId();
+        }
+        if (itemData.getQuantity() == null || itemData.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
+            return "Quantity must be greater than 0";
+        }
+        if (itemData.getUnitPrice() == null || itemData.getUnitPrice().compareTo(BigDecimal.ZERO) < 0) {
+            return "Unit price cannot be negative";
+        }
+        return null;
+    }
+
+    private static int count(List<BulkCartResult.Line> lines, BulkCartResult.LineStatus status) {
+        return (int) lines.stream().filter(line -> line.getStatus() == status).count();
     }
 
     /**
@@ -241,14 +346,11 @@ public class CartService {
     @Transactional
     public Lead convertToLead(UUID cartId, UUID sellerId, String buyerFirstName, String buyerLastName,
                               String buyerEmail, String buyerPhone, String buyerCompanyName) {
-        Cart cart = getCartById(cartId);
+        CartAggregate aggregate = loadCart(cartId);
+        Cart cart = aggregate.cart();
 
         // Validate cart has items
-        long activeItemsCount = cart.getItems().stream()
-                .filter(item -> item.getDeletedAt() == null)
-                .count();
-
-        if (activeItemsCount == 0) {
+        if (aggregate.isEmpty()) {
             throw new jakarta.persistence.EntityNotFoundException("Cannot convert empty cart to lead");
         }
 
@@ -270,6 +372,7 @@ public class CartService {
         lead.setStatus(SalesLeadStatus.NEW);
 
         Lead savedLead = leadRepository.save(lead);
+        outboxWriter.append(AggregateType.LEAD, savedLead.getId(), seller, null, SalesLeadStatus.NEW);
 
         // Deactivate cart
         cart.setIsActive(false);
@@ -285,7 +388,8 @@ public class CartService {
      */
     @Transactional
     public Cart cloneCart(UUID cartId, UUID buyerId, UUID customerId) {
-        Cart originalCart = getCartById(cartId);
+        CartAggregate original = loadCart(cartId);
+        Cart originalCart = original.cart();
 
         // Create new cart
         Cart newCart = new Cart();
@@ -309,18 +413,13 @@ public class CartService {
 
         Cart savedCart = cartRepository.save(newCart);
 
-        // Clone items
-        for (CartItem originalItem : originalCart.getItems()) {
-            if (originalItem.getDeletedAt() == null) {
-                CartItem newItem = new CartItem();
-                newItem.setCart(savedCart);
-                newItem.setProduct(originalItem.getProduct());
-                newItem.setQuantity(originalItem.getQuantity());
-                newItem.setUnitPrice(originalItem.getUnitPrice());
-                newItem.setNotes(originalItem.getNotes());
-                cartItemRepository.save(newItem);
-            }
+        // Clone items in one batch
+        CartAggregate clone = CartAggregate.of(savedCart);
+        for (CartItem originalItem : original.items()) {
+            clone.add(originalItem.getProduct(), originalItem.getQuantity(), originalItem.getUnitPrice(),
+                    originalItem.getNotes());
         }
+        cartItemRepository.saveAll(clone.drainChanges());
 
         log.info("Cart {} cloned to new cart {}", cartId, savedCart.getId());
 
@@ -329,38 +428,26 @@ public class CartService {
 
     /**
      * Merge another cart into this one
+     *
+     * The other cart's lines are added to this one as quantity deltas in
+     * one statement, and the other cart is deactivated under its own
+     * version check.
      */
     @Transactional
-    public Cart mergeCart(UUID cartId, UUID otherCartId) {
-        Cart cart = getCartById(cartId);
-        Cart otherCart = getCartById(otherCartId);
-
-        // Merge items
-        for (CartItem otherItem : otherCart.getItems()) {
-            if (otherItem.getDeletedAt() == null) {
-                // Check if product already exists in target cart
-                Optional<CartItem> existing = cart.getItems().stream()
-                        .filter(item -> item.getProduct().getId().equals(otherItem.getProduct().getId())
-                                && item.getDeletedAt() == null)
-                        .findFirst();
-
-                if (existing.isPresent()) {
-                    // Update quantity
-                    CartItem item = existing.get();
-                    item.setQuantity(item.getQuantity().add(otherItem.getQuantity()));
-                    cartItemRepository.save(item);
-                } else {
-                    // Create new item
-                    CartItem newItem = new CartItem();
-                    newItem.setCart(cart);
-                    newItem.setProduct(otherItem.getProduct());
-                    newItem.setQuantity(otherItem.getQuantity());
-                    newItem.setUnitPrice(otherItem.getUnitPrice());
-                    newItem.setNotes(otherItem.getNotes());
-                    cartItemRepository.save(newItem);
-                }
-            }
+    public Cart mergeCart(UUID cartId, UUID otherCartId, Long expectedVersion) {
+        if (cartId.equals(otherCartId)) {
+            throw new IllegalArgumentException("Cannot merge a cart into itself");
         }
+        requireCart(cartId);
+        CartAggregate other = loadCart(otherCartId);
+        Cart otherCart = other.cart();
+
+        // Merge items, adding quantities for products already in the target cart
+        cartLineWriter.addQuantities(cartId, other.items().stream()
+                .map(item -> new CartLineWriter.LineDelta(item.getProduct().getId(), item.getQuantity(),
+                        item.getUnitPrice(), item.getNotes()))
+                .toList());
+        bumpVersion(cartId, expectedVersion);
 
         // Deactivate the merged cart
         otherCart.setIsActive(false);
@@ -368,43 +455,7 @@ public class CartService {
 
         log.info("Cart {} merged into cart {}", otherCartId, cartId);
 
-        return cart;
-    }
-
-    /**
-     * Validate cart
-     */
-    @Transactional(readOnly = true)
-    public Map<String, Object> validateCart(UUID cartId) {
-        Cart cart = getCartById(cartId);
-        List<String> errors = new ArrayList<>();
-
-        // Check if cart has items
-        long activeItemsCount = cart.getItems().stream()
-                .filter(item -> item.getDeletedAt() == null)
-                .count();
-
-        if (activeItemsCount == 0) {
-            errors.add("Cart is empty");
-        }
-
-        // Validate each item
-        for (CartItem item : cart.getItems()) {
-            if (item.getDeletedAt() == null) {
-                if (item.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
-                    errors.add("Item " + item.getId() + " has invalid quantity");
-                }
-                if (item.getUnitPrice().compareTo(BigDecimal.ZERO) < 0) {
-                    errors.add("Item " + item.getId() + " has invalid unit price");
-                }
-            }
-        }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("valid", errors.isEmpty());
-        result.put("errors", errors);
-
-        return result;
+        return loadCart(cartId).cart();
     }
 
     /**
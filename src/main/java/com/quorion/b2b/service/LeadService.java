@@ -5,6 +5,8 @@ import com.quorion.b2b.model.commerce.Lead;
 import com.quorion.b2b.model.commerce.SalesLeadStatus;
 import com.quorion.b2b.model.tenant.Tenant;
 import com.quorion.b2b.repository.LeadRepository;
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxWriter;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +25,7 @@ import java.util.UUID;
 public class LeadService {
 
     private final LeadRepository leadRepository;
+    private final OutboxWriter outboxWriter;
 
     public List<Lead> findAll() {
         return leadRepository.findAll();
@@ -40,7 +43,9 @@ public class LeadService {
     @Transactional
     public Lead create(Lead lead) {
         lead.setStatus(SalesLeadStatus.NO_LEAD);
-        return leadRepository.save(lead);
+        Lead saved = leadRepository.save(lead);
+        appendEvent(saved, null);
+        return saved;
     }
 
     /**
@@ -49,11 +54,12 @@ public class LeadService {
     @Transactional
     public Lead createLead(UUID leadId) {
         Lead lead = findById(leadId);
+        SalesLeadStatus previous = lead.getStatus();
         validateTransition(lead.getStatus(), SalesLeadStatus.NEW);
 
         lead.setStatus(SalesLeadStatus.NEW);
         log.info("Lead {} transitioned to NEW", leadId);
-        return leadRepository.save(lead);
+        return saveTransition(lead, previous);
     }
 
     /**
@@ -62,11 +68,12 @@ public class LeadService {
     @Transactional
     public Lead convert(UUID leadId) {
         Lead lead = findById(leadId);
+        SalesLeadStatus previous = lead.getStatus();
         validateTransition(lead.getStatus(), SalesLeadStatus.CONVERTED);
 
         lead.setStatus(SalesLeadStatus.CONVERTED);
         log.info("Lead {} converted", leadId);
-        return leadRepository.save(lead);
+        return saveTransition(lead, previous);
     }
 
     /**
@@ -75,6 +82,7 @@ public class LeadService {
     @Transactional
     public Lead forwardToDistributor(UUID leadId, Tenant distributor) {
         Lead lead = findById(leadId);
+        SalesLeadStatus previous = lead.getStatus();
         validateTransition(lead.getStatus(), SalesLeadStatus.FORWARDED);
 
         // Create child lead for distributor
@@ -91,10 +99,11 @@ public class LeadService {
             .build();
 
         leadRepository.save(childLead);
+        appendEvent(childLead, null);
 
         lead.setStatus(SalesLeadStatus.FORWARDED);
         log.info("Lead {} forwarded to distributor {}", leadId, distributor.getId());
-        return leadRepository.save(lead);
+        return saveTransition(lead, previous);
     }
 
     /**
@@ -103,11 +112,12 @@ public class LeadService {
     @Transactional
     public Lead acceptByDistributor(UUID leadId) {
         Lead lead = findById(leadId);
+        SalesLeadStatus previous = lead.getStatus();
         validateTransition(lead.getStatus(), SalesLeadStatus.ACCEPTED_BY_DISTRIBUTOR);
 
         lead.setStatus(SalesLeadStatus.ACCEPTED_BY_DISTRIBUTOR);
         log.info("Lead {} accepted by distributor", leadId);
-        return leadRepository.save(lead);
+        return saveTransition(lead, previous);
     }
 
     /**
@@ -116,11 +126,22 @@ public class LeadService {
     @Transactional
     public Lead rejectByDistributor(UUID leadId) {
         Lead lead = findById(leadId);
+        SalesLeadStatus previous = lead.getStatus();
         validateTransition(lead.getStatus(), SalesLeadStatus.REJECTED_BY_DISTRIBUTOR);
 
         lead.setStatus(SalesLeadStatus.REJECTED_BY_DISTRIBUTOR);
         log.info("Lead {} rejected by distributor", leadId);
-        return leadRepository.save(lead);
+        return saveTransition(lead, previous);
+    }
+
+    private Lead saveTransition(Lead lead, SalesLeadStatus previous) {
+        Lead saved = leadRepository.save(lead);
+        appendEvent(saved, previous);
+        return saved;
+    }
+
+    private void appendEvent(Lead lead, SalesLeadStatus previous) {
+        outboxWriter.append(AggregateType.LEAD, lead.getId(), lead.getSeller(), previous, lead.getStatus());
     }
 
     private void validateTransition(SalesLeadStatus current, SalesLeadStatus target) {
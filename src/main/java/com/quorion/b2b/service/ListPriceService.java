@@ -2,7 +2,10 @@ package com.quorion.b2b.service;
 
 import com.quorion.b2b.model.product.ListPrice;
 import com.quorion.b2b.repository.ListPriceRepository;
+import com.quorion.b2b.service.pricing.PriceHistoryRecorder;
+import com.quorion.b2b.service.pricing.PricingChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,6 +16,8 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ListPriceService {
     private final ListPriceRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PriceHistoryRecorder priceHistoryRecorder;
 
     @Transactional(readOnly = true)
     public List<ListPrice> getAll(UUID skuId, String currency, Boolean isActive) {
@@ -36,7 +41,10 @@ public class ListPriceService {
 
     @Transactional
     public ListPrice create(ListPrice entity) {
-        return repository.save(entity);
+        ListPrice saved = repository.saveAndFlush(entity);
+        priceHistoryRecorder.recordListPrices(List.of(saved.getId()));
+        publishChange(saved);
+        return saved;
     }
 
     @Transactional
@@ -47,14 +55,23 @@ public class ListPriceService {
         if (details.getEffectiveDate() != null) entity.setEffectiveDate(details.getEffectiveDate());
         if (details.getEndDate() != null) entity.setEndDate(details.getEndDate());
         if (details.getIsActive() != null) entity.setIsActive(details.getIsActive());
-        return repository.save(entity);
+        ListPrice saved = repository.saveAndFlush(entity);
+        priceHistoryRecorder.recordListPrices(List.of(saved.getId()));
+        publishChange(saved);
+        return saved;
     }
 
     @Transactional
     public void delete(UUID id) {
-        if (!repository.existsById(id)) {
-            throw new jakarta.persistence.EntityNotFoundException("Entity not found with id: " + id);
-        }
-        repository.deleteById(id);
+        ListPrice entity = repository.findById(id)
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Entity not found with id: " + id));
+        priceHistoryRecorder.recordListPriceRemoved(id);
+        repository.delete(entity);
+        publishChange(entity);
+    }
+
+    private void publishChange(ListPrice price) {
+        UUID skuId = price.getSku() != null ? price.getSku().getId() : null;
+        eventPublisher.publishEvent(PricingChangedEvent.forSku(skuId));
     }
 }
@@ -2,7 +2,10 @@ package com.quorion.b2b.service;
 
 import com.quorion.b2b.model.commerce.PriceTier;
 import com.quorion.b2b.repository.PriceTierRepository;
+import com.quorion.b2b.service.pricing.PriceHistoryRecorder;
+import com.quorion.b2b.service.pricing.PricingChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,6 +16,8 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PriceTierService {
     private final PriceTierRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PriceHistoryRecorder priceHistoryRecorder;
 
     @Transactional(readOnly = true)
     public List<PriceTier> getAll() {
@@ -26,7 +31,10 @@ public class PriceTierService {
 
     @Transactional
     public PriceTier create(PriceTier entity) {
-        return repository.save(entity);
+        PriceTier saved = repository.saveAndFlush(entity);
+        priceHistoryRecorder.recordTiers(List.of(saved.getId()));
+        publishChange(saved);
+        return saved;
     }
 
     @Transactional
@@ -36,14 +44,23 @@ public class PriceTierService {
         if (details.getMaxQuantity() != null) entity.setMaxQuantity(details.getMaxQuantity());
         if (details.getPrice() != null) entity.setPrice(details.getPrice());
         if (details.getDiscountPercent() != null) entity.setDiscountPercent(details.getDiscountPercent());
-        return repository.save(entity);
+        PriceTier saved = repository.saveAndFlush(entity);
+        priceHistoryRecorder.recordTiers(List.of(saved.getId()));
+        publishChange(saved);
+        return saved;
     }
 
     @Transactional
     public void delete(UUID id) {
-        if (!repository.existsById(id)) {
-            throw new jakarta.persistence.EntityNotFoundException("Entity not found with id: " + id);
-        }
-        repository.deleteById(id);
+        PriceTier entity = repository.findById(id)
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Entity not found with id: " + id));
+        priceHistoryRecorder.recordTierRemoved(id);
+        repository.delete(entity);
+        publishChange(entity);
+    }
+
+    private void publishChange(PriceTier tier) {
+        UUID skuId = tier.getProductSku() != null ? tier.getProductSku().getId() : null;
+        eventPublisher.publishEvent(PricingChangedEvent.forSku(skuId));
     }
 }
@@ -1,12 +1,21 @@
 package com.quorion.b2b.service;
 
+import com.quorion.b2b.dto.pricing.PriceRequest;
+import com.quorion.b2b.dto.pricing.PriceResult;
+import com.quorion.b2b.model.commerce.EffectivePrice;
+import com.quorion.b2b.model.commerce.PriceSource;
 import com.quorion.b2b.model.commerce.PriceTier;
-import com.quorion.b2b.model.product.ListPrice;
 import com.quorion.b2b.model.product.ProductSKU;
 import com.quorion.b2b.model.tenant.Tenant;
 import com.quorion.b2b.model.tenant.TenantAddress;
-import com.quorion.b2b.repository.ListPriceRepository;
+import com.quorion.b2b.repository.EffectivePriceRepository;
 import com.quorion.b2b.repository.PriceTierRepository;
+import com.quorion.b2b.service.pricing.FxRateSnapshot;
+import com.quorion.b2b.service.pricing.FxRateTable;
+import com.quorion.b2b.service.pricing.Money;
+import com.quorion.b2b.service.pricing.PriceIndex;
+import com.quorion.b2b.service.pricing.PricingContext;
+import com.quorion.b2b.service.pricing.SkuPriceBook;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,9 +24,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -27,9 +38,11 @@ import java.util.UUID;
  * - Volume-based pricing (quantity tiers)
  * - Buyer-specific pricing
  * - Destination-based pricing
- * - Payment/delivery term discounts
+ * - Payment/delivery term specific tiers
+ * - Product variant price adjustments
  * - Time-based validity
  * - Fallback to list prices
+ * - Conversion into the buyer's currency
  */
 @Service
 @RequiredArgsConstructor
@@ -37,7 +50,9 @@ import java.util.UUID;
 public class PricingService {
 
     private final PriceTierRepository priceTierRepository;
-    private final ListPriceRepository listPriceRepository;
+    private final PriceIndex priceIndex;
+    private final EffectivePriceRepository effectivePriceRepository;
+    private final FxRateTable fxRateTable;
 
     /**
      * Calculate best price for a product SKU
@@ -49,6 +64,9 @@ public class PricingService {
      * 4. Quantity-only tier (volume pricing)
      * 5. List price for SKU
      *
+     * Resolved against the in-memory {@link PriceIndex}; the SKU's tiers and
+     * list prices are only queried when its price book is not cached.
+     *
      * @param skuId Product SKU ID
      * @param quantity Quantity being purchased
      * @param buyerId Buyer tenant ID (optional)
@@ -62,214 +80,197 @@ public class PricingService {
         log.debug("Calculating price for SKU {} qty {} buyer {} dest {} seller {}",
                   skuId, quantity, buyerId, destinationId, sellerId);
 
-        // Try buyer + destination + quantity specific pricing first (most specific)
-        if (buyerId != null && destinationId != null) {
-            BigDecimal price = getBuyerDestinationPrice(skuId, quantity, buyerId, destinationId, sellerId);
-            if (price != null) {
-                log.debug("Found buyer+destination specific price: {}", price);
-                return price;
-            }
-        }
-
-        // Try buyer + quantity specific pricing
-        if (buyerId != null) {
-            BigDecimal price = getBuyerSpecificPrice(skuId, quantity, buyerId, sellerId);
-            if (price != null) {
-                log.debug("Found buyer-specific price: {}", price);
-                return price;
-            }
-        }
-
-        // Try destination + quantity specific pricing
-        if (destinationId != null) {
-            BigDecimal price = getDestinationSpecificPrice(skuId, quantity, destinationId, sellerId);
-            if (price != null) {
-                log.debug("Found destination-specific price: {}", price);
-                return price;
-            }
-        }
-
-        // Try volume-based pricing (quantity tiers only)
-        BigDecimal volumePrice = getVolumeBasedPrice(skuId, quantity, sellerId);
-        if (volumePrice != null) {
-            log.debug("Found volume-based price: {}", volumePrice);
-            return volumePrice;
-        }
+        BigDecimal price = priceIndex.get(skuId)
+                .resolve(quantity, buyerId, destinationId, sellerId, LocalDateTime.now());
 
-        // Fallback to list price
-        BigDecimal listPrice = getListPrice(skuId);
-        log.debug("Using list price: {}", listPrice);
-        return listPrice;
+        log.debug("Resolved price for SKU {}: {}", skuId, price);
+        return price;
     }
 
     /**
-     * Get buyer and destination specific pricing
+     * Calculate best price for a product SKU in a full pricing context
+     *
+     * Follows the priority order of {@link #calculatePrice(UUID, BigDecimal, UUID, UUID, UUID)}.
+     * Tiers tied to another delivery or payment term than the context's are
+     * skipped, and the variant's price adjustment is added to the winner.
+     *
+     * @return Calculated price per unit, or null if no pricing found
      */
-    private BigDecimal getBuyerDestinationPrice(UUID skuId, BigDecimal quantity,
-                                                 UUID buyerId, UUID destinationId, UUID sellerId) {
-        List<PriceTier> tiers = priceTierRepository.findByProductSkuIdAndBuyerIdAndDestinationId(
-                skuId, buyerId, destinationId);
-
-        if (sellerId != null) {
-            tiers = tiers.stream()
-                    .filter(t -> t.getSeller() != null && t.getSeller().getId().equals(sellerId))
-                    .toList();
-        }
-
-        return findBestTierPrice(tiers, quantity);
+    @Transactional(readOnly = true)
+    public BigDecimal calculatePrice(UUID skuId, PricingContext context) {
+        SkuPriceBook.PricePoint point = priceIndex.get(skuId).resolvePoint(context, null, null);
+        return point != null ? Money.toBigDecimal(point.price()) : null;
     }
 
     /**
-     * Get buyer-specific pricing (any destination)
+     * Calculate unit and total prices for many lines at once
+     *
+     * Applies the same precedence rules as {@link #calculatePrice}. Price books
+     * for all SKUs not yet in the index are loaded with one tier query and one
+     * list price query, so a whole cart or quote costs at most two queries.
+     * Lines with a currency are converted against one FX rate snapshot.
+     *
+     * @return one result per request, in request order
      */
-    private BigDecimal getBuyerSpecificPrice(UUID skuId, BigDecimal quantity, UUID buyerId, UUID sellerId) {
-        List<PriceTier> tiers = priceTierRepository.findByProductSkuIdAndBuyerId(skuId, buyerId);
-
-        if (sellerId != null) {
-            tiers = tiers.stream()
-                    .filter(t -> t.getSeller() != null && t.getSeller().getId().equals(sellerId))
-                    .toList();
+    @Transactional(readOnly = true)
+    public List<PriceResult> calculatePrices(List<PriceRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
         }
 
-        return findBestTierPrice(tiers, quantity);
-    }
+        Map<UUID, SkuPriceBook> books = priceIndex.getAll(
+                requests.stream().map(PriceRequest::getSkuId).toList());
+        FxRateSnapshot rates = fxRateTable.current();
+        LocalDateTime now = LocalDateTime.now();
 
-    /**
-     * Get destination-specific pricing (any buyer)
-     */
-    private BigDecimal getDestinationSpecificPrice(UUID skuId, BigDecimal quantity,
-                                                    UUID destinationId, UUID sellerId) {
-        List<PriceTier> tiers = priceTierRepository.findByProductSkuIdAndDestinationId(skuId, destinationId);
-
-        if (sellerId != null) {
-            tiers = tiers.stream()
-                    .filter(t -> t.getSeller() != null && t.getSeller().getId().equals(sellerId))
-                    .toList();
+        List<PriceResult> results = new ArrayList<>(requests.size());
+        for (PriceRequest request : requests) {
+            PricingContext context = new PricingContext(request.getQuantity(), request.getBuyerId(),
+                    request.getDestinationId(), request.getSellerId(), request.getDeliveryTermId(),
+                    request.getPaymentTermId(), request.getVariantId(), now);
+            SkuPriceBook.PricePoint point = books.get(request.getSkuId())
+                    .resolvePoint(context, request.getCurrency(), rates);
+            results.add(toResult(request.getSkuId(), request.getQuantity(), point, request.getCurrency(), rates));
         }
 
-        return findBestTierPrice(tiers, quantity);
-    }
-
-    /**
-     * Get volume-based pricing (quantity tiers only, no buyer/destination specific)
-     */
-    private BigDecimal getVolumeBasedPrice(UUID skuId, BigDecimal quantity, UUID sellerId) {
-        List<PriceTier> tiers = priceTierRepository.findByProductSkuId(skuId);
-
-        // Filter to only general tiers (no specific buyer or destination)
-        tiers = tiers.stream()
-                .filter(t -> t.getBuyer() == null && t.getDestination() == null)
-                .filter(t -> sellerId == null || (t.getSeller() != null && t.getSeller().getId().equals(sellerId)))
-                .toList();
-
-        return findBestTierPrice(tiers, quantity);
+        log.debug("Priced {} lines across {} SKUs", requests.size(), books.size());
+        return results;
     }
 
     /**
-     * Find best price from applicable tiers
+     * Look up materialized effective prices for many SKUs
      *
-     * Filters by:
-     * - Active tiers
-     * - Quantity within tier range
-     * - Valid date range
+     * Reads the {@link EffectivePrice} projection with a single indexed
+     * query, without evaluating validity dates, for catalog listings that
+     * show contract prices for hundreds of SKUs at once. Follows the same
+     * precedence as {@link #calculatePrice}.
      *
-     * Returns lowest price among matching tiers
+     * @param currency currency to compare and return prices in, or null for prices as stored
+     * @return one result per SKU, in request order
      */
-    private BigDecimal findBestTierPrice(List<PriceTier> tiers, BigDecimal quantity) {
-        if (tiers == null || tiers.isEmpty()) {
-            return null;
+    @Transactional(readOnly = true)
+    public List<PriceResult> findEffectivePrices(List<UUID> skuIds, BigDecimal quantity, UUID buyerId,
+                                                 UUID destinationId, UUID sellerId, String currency) {
+        if (skuIds.isEmpty()) {
+            return List.of();
         }
 
-        LocalDateTime now = LocalDateTime.now();
-
-        Optional<BigDecimal> bestPrice = tiers.stream()
-                .filter(tier -> tier.getIsActive())
-                .filter(tier -> isQuantityInRange(tier, quantity))
-                .filter(tier -> isDateValid(tier, now))
-                .map(tier -> applyDiscount(tier.getPricePerUom(), tier.getDiscountPercent()))
-                .min(BigDecimal::compareTo);
+        FxRateSnapshot rates = fxRateTable.current();
+        Map<UUID, SkuPriceBook.PricePoint> best = new HashMap<>();
+        Map<UUID, Integer> bestRank = new HashMap<>();
+        Map<UUID, Long> bestUnits = new HashMap<>();
+        for (EffectivePrice row : effectivePriceRepository.findCandidates(skuIds, quantity, buyerId, destinationId)) {
+            int rank = row.rankFor(buyerId, destinationId);
+            if (rank < 0 || (row.getSource() != PriceSource.LIST
+                    && sellerId != null && !sellerId.equals(row.getSellerId()))) {
+                continue;
+            }
+            StoredPrice point = new StoredPrice(Money.fromBigDecimal(row.getUnitPrice()),
+                    SkuPriceBook.currencyOf(row.getCurrency()));
+            long units = currency != null ? rates.convert(point.price(), point.currency(), currency) : point.price();
+            if (units == Money.NONE) {
+                continue;
+            }
+            Integer currentRank = bestRank.get(row.getSkuId());
+            if (currentRank == null || rank < currentRank
+                    || (rank == currentRank && units < bestUnits.get(row.getSkuId()))) {
+                best.put(row.getSkuId(), point);
+                bestRank.put(row.getSkuId(), rank);
+                bestUnits.put(row.getSkuId(), units);
+            }
+        }
 
-        return bestPrice.orElse(null);
+        List<PriceResult> results = new ArrayList<>(skuIds.size());
+        for (UUID skuId : skuIds) {
+            results.add(toResult(skuId, quantity, best.get(skuId), currency, rates));
+        }
+        return results;
     }
 
     /**
-     * Check if quantity is within tier range
+     * Get current list price for SKU
+     *
+     * Returns active list price valid for current date
      */
-    private boolean isQuantityInRange(PriceTier tier, BigDecimal quantity) {
-        if (quantity.compareTo(tier.getMinimumUomQuantity()) < 0) {
-            return false;
-        }
-
-        if (tier.getMaximumUomQuantity() != null &&
-            quantity.compareTo(tier.getMaximumUomQuantity()) > 0) {
-            return false;
-        }
-
-        return true;
+    @Transactional(readOnly = true)
+    public BigDecimal getListPrice(UUID skuId) {
+        return priceIndex.get(skuId).listPrice(LocalDateTime.now());
     }
 
     /**
-     * Check if tier is valid for current date
+     * Calculate total price for quantity
      */
-    private boolean isDateValid(PriceTier tier, LocalDateTime now) {
-        if (tier.getValidFromDate() != null && now.isBefore(tier.getValidFromDate())) {
-            return false;
-        }
+    public BigDecimal calculateTotalPrice(UUID skuId, BigDecimal quantity, UUID buyerId,
+                                          UUID destinationId, UUID sellerId) {
+        BigDecimal unitPrice = calculatePrice(skuId, quantity, buyerId, destinationId, sellerId);
 
-        if (tier.getValidToDate() != null && now.isAfter(tier.getValidToDate())) {
-            return false;
+        if (unitPrice == null) {
+            return null;
         }
 
-        return true;
+        return unitPrice.multiply(quantity).setScale(2, RoundingMode.HALF_UP);
     }
 
     /**
-     * Apply discount percentage to base price
+     * Calculate unit and total price in a currency
+     *
+     * Reports the winning price as stored alongside the converted amount
+     * and the rate used. Candidates in other currencies are compared after
+     * conversion; when no rate reaches the requested currency the line is
+     * returned unpriced.
+     *
+     * @param currency currency to price in, or null for the price as stored
      */
-    private BigDecimal applyDiscount(BigDecimal basePrice, BigDecimal discountPercent) {
-        if (discountPercent == null || discountPercent.compareTo(BigDecimal.ZERO) == 0) {
-            return basePrice;
-        }
-
-        BigDecimal discountMultiplier = BigDecimal.ONE
-                .subtract(discountPercent.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP));
-
-        return basePrice.multiply(discountMultiplier).setScale(2, RoundingMode.HALF_UP);
+    @Transactional(readOnly = true)
+    public PriceResult calculateTotalPrice(UUID skuId, BigDecimal quantity, UUID buyerId,
+                                           UUID destinationId, UUID sellerId, String currency) {
+        return calculateTotalPrice(skuId,
+                PricingContext.of(quantity, buyerId, destinationId, sellerId, LocalDateTime.now()), currency);
     }
 
     /**
-     * Get current list price for SKU
+     * Calculate unit and total price in a currency for a full pricing context
      *
-     * Returns active list price valid for current date
+     * @param currency currency to price in, or null for the price as stored
      */
     @Transactional(readOnly = true)
-    public BigDecimal getListPrice(UUID skuId) {
-        LocalDateTime now = LocalDateTime.now();
-
-        List<ListPrice> listPrices = listPriceRepository.findBySkuId(skuId);
-
-        Optional<BigDecimal> price = listPrices.stream()
-                .filter(lp -> lp.getIsActive())
-                .filter(lp -> lp.getStartDate() == null || !lp.getStartDate().isAfter(now))
-                .filter(lp -> lp.getEndDate() == null || !lp.getEndDate().isBefore(now))
-                .map(ListPrice::getPrice)
-                .min(BigDecimal::compareTo);  // Take lowest if multiple
-
-        return price.orElse(null);
+    public PriceResult calculateTotalPrice(UUID skuId, PricingContext context, String currency) {
+        FxRateSnapshot rates = fxRateTable.current();
+        SkuPriceBook.PricePoint point = priceIndex.get(skuId).resolvePoint(context, currency, rates);
+        return toResult(skuId, context.quantity(), point, currency, rates);
     }
 
     /**
-     * Calculate total price for quantity
+     * Build a priced line from the winning price, converting it when a currency is requested
      */
-    public BigDecimal calculateTotalPrice(UUID skuId, BigDecimal quantity, UUID buyerId,
-                                          UUID destinationId, UUID sellerId) {
-        BigDecimal unitPrice = calculatePrice(skuId, quantity, buyerId, destinationId, sellerId);
-
-        if (unitPrice == null) {
-            return null;
+    private static PriceResult toResult(UUID skuId, BigDecimal quantity, SkuPriceBook.PricePoint point,
+                                        String currency, FxRateSnapshot rates) {
+        PriceResult.PriceResultBuilder result = PriceResult.builder()
+                .skuId(skuId)
+                .quantity(quantity)
+                .currency(currency);
+        if (point == null) {
+            return result.build();
         }
 
-        return unitPrice.multiply(quantity).setScale(2, RoundingMode.HALF_UP);
+        String target = currency != null ? currency : point.currency();
+        BigDecimal sourceUnitPrice = Money.toBigDecimal(point.price());
+        BigDecimal unitPrice = Money.toBigDecimal(rates.convert(point.price(), point.currency(), target));
+        return result
+                .unitPrice(unitPrice)
+                .totalPrice(unitPrice.multiply(quantity).setScale(2, RoundingMode.HALF_UP))
+                .currency(target)
+                .sourceUnitPrice(sourceUnitPrice)
+                .sourceTotalPrice(sourceUnitPrice.multiply(quantity).setScale(2, RoundingMode.HALF_UP))
+                .sourceCurrency(point.currency())
+                .fxRate(rates.rate(point.currency(), target))
+                .build();
+    }
+
+    /**
+     * A materialized price in minor units
+     */
+    private record StoredPrice(long price, String currency) implements SkuPriceBook.PricePoint {
     }
 
     /**
@@ -292,6 +293,21 @@ public class PricingService {
                 .toList();
     }
 
+    /**
+     * Check if tier is valid for current date
+     */
+    private boolean isDateValid(PriceTier tier, LocalDateTime now) {
+        if (tier.getValidFromDate() != null && now.isBefore(tier.getValidFromDate())) {
+            return false;
+        }
+
+        if (tier.getValidToDate() != null && now.isAfter(tier.getValidToDate())) {
+            return false;
+        }
+
+        return true;
+    }
+
     /**
      * Check if tier matches the given context (buyer/destination/seller)
      */
@@ -325,14 +341,6 @@ public class PricingService {
      */
     @Transactional(readOnly = true)
     public boolean hasPricing(UUID skuId) {
-        // Check if has list price
-        BigDecimal listPrice = getListPrice(skuId);
-        if (listPrice != null) {
-            return true;
-        }
-
-        // Check if has any active price tiers
-        List<PriceTier> tiers = priceTierRepository.findByProductSkuId(skuId);
-        return tiers.stream().anyMatch(PriceTier::getIsActive);
+        return priceIndex.get(skuId).hasPricing(LocalDateTime.now());
     }
 }
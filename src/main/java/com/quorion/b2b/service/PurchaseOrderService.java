@@ -1,27 +1,53 @@
 package com.quorion.b2b.service;
 
+import com.quorion.b2b.dto.order.BulkTransitionResult;
 import com.quorion.b2b.exception.InvalidStateTransitionException;
 import com.quorion.b2b.model.commerce.OrderStatus;
 import com.quorion.b2b.model.commerce.PurchaseOrder;
 import com.quorion.b2b.repository.PurchaseOrderRepository;
+import com.quorion.b2b.service.order.OrderStatusWriter;
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxWriter;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Service for PurchaseOrder management with state machine transitions
+ *
+ * Transitions are compare-and-set updates through {@link OrderStatusWriter},
+ * so concurrent requests cannot both move the same order. Every change
+ * also appends an outbox event in the same transaction.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PurchaseOrderService {
 
+    /**
+     * State machine: each target status and the status it is reached from
+     */
+    private static final Map<OrderStatus, OrderStatus> PREVIOUS_STATUS = Map.of(
+            OrderStatus.ACCEPTED, OrderStatus.NEW,
+            OrderStatus.IN_PROGRESS, OrderStatus.ACCEPTED,
+            OrderStatus.INVOICED, OrderStatus.IN_PROGRESS,
+            OrderStatus.SHIPPED, OrderStatus.INVOICED,
+            OrderStatus.PAYMENT_RECEIVED, OrderStatus.SHIPPED,
+            OrderStatus.COMPLETED, OrderStatus.PAYMENT_RECEIVED);
+
     private final PurchaseOrderRepository purchaseOrderRepository;
+    private final OrderStatusWriter orderStatusWriter;
+    private final OutboxWriter outboxWriter;
 
     public List<PurchaseOrder> findAll() {
         return purchaseOrderRepository.findAll();
@@ -37,12 +63,9 @@ public class PurchaseOrderService {
      */
     @Transactional
     public PurchaseOrder accept(UUID orderId) {
-        PurchaseOrder order = findById(orderId);
-        validateTransition(order.getStatus(), OrderStatus.ACCEPTED);
-
-        order.setStatus(OrderStatus.ACCEPTED);
+        PurchaseOrder order = transition(orderId, OrderStatus.ACCEPTED);
         log.info("Order {} accepted", orderId);
-        return purchaseOrderRepository.save(order);
+        return order;
     }
 
     /**
@@ -50,12 +73,9 @@ public class PurchaseOrderService {
      */
     @Transactional
     public PurchaseOrder makeInProgress(UUID orderId) {
-        PurchaseOrder order = findById(orderId);
-        validateTransition(order.getStatus(), OrderStatus.IN_PROGRESS);
-
-        order.setStatus(OrderStatus.IN_PROGRESS);
+        PurchaseOrder order = transition(orderId, OrderStatus.IN_PROGRESS);
         log.info("Order {} is now in progress", orderId);
-        return purchaseOrderRepository.save(order);
+        return order;
     }
 
     /**
@@ -63,12 +83,9 @@ public class PurchaseOrderService {
      */
     @Transactional
     public PurchaseOrder invoice(UUID orderId) {
-        PurchaseOrder order = findById(orderId);
-        validateTransition(order.getStatus(), OrderStatus.INVOICED);
-
-        order.setStatus(OrderStatus.INVOICED);
+        PurchaseOrder order = transition(orderId, OrderStatus.INVOICED);
         log.info("Order {} invoiced", orderId);
-        return purchaseOrderRepository.save(order);
+        return order;
     }
 
     /**
@@ -76,12 +93,9 @@ public class PurchaseOrderService {
      */
     @Transactional
     public PurchaseOrder shipOrder(UUID orderId) {
-        PurchaseOrder order = findById(orderId);
-        validateTransition(order.getStatus(), OrderStatus.SHIPPED);
-
-        order.setStatus(OrderStatus.SHIPPED);
+        PurchaseOrder order = transition(orderId, OrderStatus.SHIPPED);
         log.info("Order {} shipped", orderId);
-        return purchaseOrderRepository.save(order);
+        return order;
     }
 
     /**
@@ -89,12 +103,9 @@ public class PurchaseOrderService {
      */
     @Transactional
     public PurchaseOrder receivePayment(UUID orderId) {
-        PurchaseOrder order = findById(orderId);
-        validateTransition(order.getStatus(), OrderStatus.PAYMENT_RECEIVED);
-
-        order.setStatus(OrderStatus.PAYMENT_RECEIVED);
+        PurchaseOrder order = transition(orderId, OrderStatus.PAYMENT_RECEIVED);
         log.info("Payment received for order {}", orderId);
-        return purchaseOrderRepository.save(order);
+        return order;
     }
 
     /**
@@ -102,39 +113,95 @@ public class PurchaseOrderService {
      */
     @Transactional
     public PurchaseOrder complete(UUID orderId) {
-        PurchaseOrder order = findById(orderId);
-        validateTransition(order.getStatus(), OrderStatus.COMPLETED);
-
-        order.setStatus(OrderStatus.COMPLETED);
+        PurchaseOrder order = transition(orderId, OrderStatus.COMPLETED);
         log.info("Order {} completed", orderId);
-        return purchaseOrderRepository.save(order);
+        return order;
     }
 
     /**
      * State Transition: * → CANCELLED
+     *
+     * Any order that is not already cancelled or completed, in one
+     * conditional update that also hands back the status it left.
      */
     @Transactional
     public PurchaseOrder cancel(UUID orderId) {
+        OrderStatus previous = orderStatusWriter.cancel(orderId).orElseThrow(() -> {
+            PurchaseOrder order = findById(orderId);
+            return new InvalidStateTransitionException(order.getStatus().name(), OrderStatus.CANCELLED.name());
+        });
         PurchaseOrder order = findById(orderId);
-        order.setStatus(OrderStatus.CANCELLED);
-        order.setIsActive(false);
+        outboxWriter.append(AggregateType.PURCHASE_ORDER, orderId, order.getSeller(), previous, OrderStatus.CANCELLED);
         log.info("Order {} cancelled", orderId);
-        return purchaseOrderRepository.save(order);
+        return order;
     }
 
-    private void validateTransition(OrderStatus current, OrderStatus target) {
-        boolean valid = switch (current) {
-            case NEW -> target == OrderStatus.ACCEPTED;
-            case ACCEPTED -> target == OrderStatus.IN_PROGRESS;
-            case IN_PROGRESS -> target == OrderStatus.INVOICED;
-            case INVOICED -> target == OrderStatus.SHIPPED;
-            case SHIPPED -> target == OrderStatus.PAYMENT_RECEIVED;
-            case PAYMENT_RECEIVED -> target == OrderStatus.COMPLETED;
-            default -> false;
-        };
-
-        if (!valid) {
-            throw new InvalidStateTransitionException(current.name(), target.name());
+    /**
+     * Move many orders to {@code targetStatus} in one statement
+     *
+     * Orders not in the status the transition starts from are reported as
+     * conflicts with their current status and left unchanged.
+     */
+    @Transactional
+    public BulkTransitionResult transitionAll(Collection<UUID> orderIds, OrderStatus targetStatus) {
+        OrderStatus from = requiredStatus(targetStatus);
+        Set<UUID> ids = new LinkedHashSet<>(orderIds);
+        List<UUID> transitioned = orderStatusWriter.transition(ids, from, targetStatus);
+        outboxWriter.appendOrderTransitions(transitioned, from, targetStatus);
+        Set<UUID> moved = new HashSet<>(transitioned);
+        List<UUID> rejected = ids.stream().filter(id -> !moved.contains(id)).toList();
+        Map<UUID, OrderStatus> current = rejected.isEmpty() ? Map.of() : orderStatusWriter.currentStatuses(rejected);
+
+        BulkTransitionResult result = BulkTransitionResult.builder()
+                .fromStatus(from)
+                .targetStatus(targetStatus)
+                .build();
+        for (UUID id : ids) {
+            BulkTransitionResult.Outcome outcome;
+            OrderStatus status;
+            if (moved.contains(id)) {
+                outcome = BulkTransitionResult.Outcome.TRANSITIONED;
+                status = targetStatus;
+                result.setTransitioned(result.getTransitioned() + 1);
+            } else if (current.containsKey(id)) {
+                outcome = BulkTransitionResult.Outcome.CONFLICT;
+                status = current.get(id);
+                result.setConflicts(result.getConflicts() + 1);
+            } else {
+                outcome = BulkTransitionResult.Outcome.NOT_FOUND;
+                status = null;
+                result.setNotFound(result.getNotFound() + 1);
+            }
+            result.getResults().add(new BulkTransitionResult.OrderOutcome(id, outcome, status));
+        }
+
+        log.info("Bulk transition to {}: {} moved, {} conflicts, {} not found", targetStatus,
+                result.getTransitioned(), result.getConflicts(), result.getNotFound());
+        return result;
+    }
+
+    /**
+     * Compare-and-set one order from the status before {@code target}
+     */
+    private PurchaseOrder transition(UUID orderId, OrderStatus target) {
+        OrderStatus from = requiredStatus(target);
+        if (orderStatusWriter.transition(List.of(orderId), from, target).isEmpty()) {
+            PurchaseOrder order = findById(orderId);
+            throw new InvalidStateTransitionException(order.getStatus().name(), target.name());
+        }
+        PurchaseOrder order = findById(orderId);
+        outboxWriter.append(AggregateType.PURCHASE_ORDER, orderId, order.getSeller(), from, target);
+        return order;
+    }
+
+    /**
+     * The only status an order may move to {@code target} from
+     */
+    private static OrderStatus requiredStatus(OrderStatus target) {
+        OrderStatus from = PREVIOUS_STATUS.get(target);
+        if (from == null) {
+            throw new IllegalArgumentException("Orders cannot transition to " + target);
         }
+        return from;
     }
 }
@@ -1,9 +1,16 @@
 package com.quorion.b2b.service;
 
+import com.quorion.b2b.dto.order.OrderSummary;
+import com.quorion.b2b.dto.pricing.PriceRequest;
+import com.quorion.b2b.dto.pricing.PriceResult;
 import com.quorion.b2b.exception.InvalidStateTransitionException;
 import com.quorion.b2b.model.commerce.*;
 import com.quorion.b2b.repository.PurchaseOrderRepository;
 import com.quorion.b2b.repository.QuoteRequestRepository;
+import com.quorion.b2b.service.document.DocumentNumberAllocator;
+import com.quorion.b2b.service.order.OrderLineWriter;
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxWriter;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +31,10 @@ public class QuoteRequestService {
 
     private final QuoteRequestRepository quoteRequestRepository;
     private final PurchaseOrderRepository purchaseOrderRepository;
+    private final PricingService pricingService;
+    private final DocumentNumberAllocator documentNumberAllocator;
+    private final OutboxWriter outboxWriter;
+    private final OrderLineWriter orderLineWriter;
 
     public List<QuoteRequest> findAll() {
         return quoteRequestRepository.findAll();
@@ -37,8 +48,53 @@ public class QuoteRequestService {
     @Transactional
     public QuoteRequest create(QuoteRequest quoteRequest) {
         quoteRequest.setStatus(QuoteStatus.NO_REQUEST);
-        quoteRequest.setNumber(generateQuoteNumber());
-        return quoteRequestRepository.save(quoteRequest);
+        quoteRequest.setNumber(documentNumberAllocator.next(DocumentType.QUOTE_REQUEST, quoteRequest.getSeller()));
+        fillMissingPrices(quoteRequest);
+        QuoteRequest saved = quoteRequestRepository.save(quoteRequest);
+        appendEvent(saved, null);
+        return saved;
+    }
+
+    /**
+     * Price quote lines that name a SKU but carry no unit price
+     *
+     * All lines are priced in one batch against the quote's buyer, seller,
+     * warehouse and delivery and payment terms. Lines without any applicable
+     * price are left empty for the seller to fill in when responding.
+     */
+    private void fillMissingPrices(QuoteRequest quote) {
+        if (quote.getItems() == null) {
+            return;
+        }
+        List<QuoteRequestDetail> unpriced = quote.getItems().stream()
+            .filter(item -> item.getPricePerUnit() == null && item.getSku() != null
+                && item.getTotalQuantity() != null)
+            .toList();
+        if (unpriced.isEmpty()) {
+            return;
+        }
+
+        UUID buyerId = quote.getBuyer() != null ? quote.getBuyer().getId() : null;
+        UUID sellerId = quote.getSeller() != null ? quote.getSeller().getId() : null;
+        UUID destinationId = quote.getWarehouse() != null ? quote.getWarehouse().getId() : null;
+        UUID deliveryTermId = quote.getDeliveryTerm() != null ? quote.getDeliveryTerm().getId() : null;
+        UUID paymentTermId = quote.getPaymentTerm() != null ? quote.getPaymentTerm().getId() : null;
+
+        List<PriceResult> prices = pricingService.calculatePrices(unpriced.stream()
+            .map(item -> PriceRequest.builder()
+                .skuId(item.getSku().getId())
+                .quantity(item.getTotalQuantity())
+                .buyerId(buyerId)
+                .destinationId(destinationId)
+                .sellerId(sellerId)
+                .deliveryTermId(deliveryTermId)
+                .paymentTermId(paymentTermId)
+                .build())
+            .toList());
+
+        for (int i = 0; i < unpriced.size(); i++) {
+            unpriced.get(i).setPricePerUnit(prices.get(i).getUnitPrice());
+        }
     }
 
     /**
@@ -47,12 +103,13 @@ public class QuoteRequestService {
     @Transactional
     public QuoteRequest createQuote(UUID quoteId) {
         QuoteRequest quote = findById(quoteId);
+        QuoteStatus previous = quote.getStatus();
         validateTransition(quote.getStatus(), QuoteStatus.NEW);
 
         quote.setStatus(QuoteStatus.NEW);
         quote.setIsActive(true);
         log.info("Quote {} created", quoteId);
-        return quoteRequestRepository.save(quote);
+        return saveTransition(quote, previous);
     }
 
     /**
@@ -61,11 +118,12 @@ public class QuoteRequestService {
     @Transactional
     public QuoteRequest buyerRequests(UUID quoteId) {
         QuoteRequest quote = findById(quoteId);
+        QuoteStatus previous = quote.getStatus();
         validateTransition(quote.getStatus(), QuoteStatus.REQUESTED);
 
         quote.setStatus(QuoteStatus.REQUESTED);
         log.info("Quote {} requested by buyer", quoteId);
-        return quoteRequestRepository.save(quote);
+        return saveTransition(quote, previous);
     }
 
     /**
@@ -74,6 +132,7 @@ public class QuoteRequestService {
     @Transactional
     public QuoteRequest sellerResponds(UUID quoteId, List<QuoteRequestDetail> itemUpdates, BigDecimal shippingCost) {
         QuoteRequest quote = findById(quoteId);
+        QuoteStatus previous = quote.getStatus();
         validateTransition(quote.getStatus(), QuoteStatus.RESPONDED);
 
         // Update item prices
@@ -90,7 +149,7 @@ public class QuoteRequestService {
 
         quote.setStatus(QuoteStatus.RESPONDED);
         log.info("Quote {} responded by seller", quoteId);
-        return quoteRequestRepository.save(quote);
+        return saveTransition(quote, previous);
     }
 
     /**
@@ -99,31 +158,55 @@ public class QuoteRequestService {
     @Transactional
     public QuoteRequest buyerResponds(UUID quoteId) {
         QuoteRequest quote = findById(quoteId);
+        QuoteStatus previous = quote.getStatus();
         validateTransition(quote.getStatus(), QuoteStatus.REQUESTED);
 
         quote.setStatus(QuoteStatus.REQUESTED);
         log.info("Quote {} re-negotiation requested by buyer", quoteId);
-        return quoteRequestRepository.save(quote);
+        return saveTransition(quote, previous);
     }
 
     /**
      * State Transition: RESPONDED → ACCEPTED
      * Creates a PurchaseOrder automatically
+     *
+     * The order row is written through JPA and its lines are copied from
+     * the quote with one INSERT ... SELECT in the same transaction, so the
+     * cost does not grow with the number of lines in memory or in round
+     * trips. Quote lines are never loaded. A quote with lines lacking a SKU
+     * or price is rejected and nothing is written.
      */
     @Transactional
-    public QuoteRequest buyerAccepts(UUID quoteId) {
+    public OrderSummary buyerAccepts(UUID quoteId) {
         QuoteRequest quote = findById(quoteId);
+        QuoteStatus previous = quote.getStatus();
         validateTransition(quote.getStatus(), QuoteStatus.ACCEPTED);
 
+        PurchaseOrder order = purchaseOrderRepository.saveAndFlush(createOrderFromQuote(quote));
+        OrderLineWriter.CopiedLines lines = orderLineWriter.copyQuoteLines(quoteId, order.getId());
+        if (lines.copied() < lines.quoted()) {
+            throw new IllegalArgumentException("Quote " + quoteId + " has " + (lines.quoted() - lines.copied())
+                + " lines without a SKU or price");
+        }
+
         quote.setStatus(QuoteStatus.ACCEPTED);
         quote.setIsActive(false);
-
-        // Create Purchase Order from Quote
-        PurchaseOrder order = createOrderFromQuote(quote);
-        purchaseOrderRepository.save(order);
-
-        log.info("Quote {} accepted, created order {}", quoteId, order.getId());
-        return quoteRequestRepository.save(quote);
+        outboxWriter.append(AggregateType.PURCHASE_ORDER, order.getId(), order.getSeller(), null, order.getStatus());
+        saveTransition(quote, previous);
+
+        log.info("Quote {} accepted, created order {} with {} lines", quoteId, order.getId(), lines.copied());
+        BigDecimal shippingCost = order.getShippingCost() != null ? order.getShippingCost() : BigDecimal.ZERO;
+        return OrderSummary.builder()
+            .orderId(order.getId())
+            .number(order.getNumber())
+            .quoteRequestId(quoteId)
+            .status(order.getStatus())
+            .lineCount(lines.copied())
+            .subtotal(lines.subtotal())
+            .shippingCost(shippingCost)
+            .total(lines.subtotal().add(shippingCost))
+            .currency(order.getCurrency())
+            .build();
     }
 
     /**
@@ -159,10 +242,11 @@ public class QuoteRequestService {
     @Transactional
     public QuoteRequest sellerDeclines(UUID quoteId) {
         QuoteRequest quote = findById(quoteId);
+        QuoteStatus previous = quote.getStatus();
         quote.setStatus(QuoteStatus.DECLINED);
         quote.setIsActive(false);
         log.info("Quote {} declined by seller", quoteId);
-        return quoteRequestRepository.save(quote);
+        return saveTransition(quote, previous);
     }
 
     /**
@@ -171,21 +255,22 @@ public class QuoteRequestService {
     @Transactional
     public QuoteRequest cancel(UUID quoteId) {
         QuoteRequest quote = findById(quoteId);
+        QuoteStatus previous = quote.getStatus();
         quote.setStatus(QuoteStatus.CANCELLED);
         quote.setIsActive(false);
         log.info("Quote {} cancelled", quoteId);
-        return quoteRequestRepository.save(quote);
+        return saveTransition(quote, previous);
     }
 
     /**
-     * Create PurchaseOrder from accepted QuoteRequest
+     * Create the PurchaseOrder for an accepted QuoteRequest, without lines
      */
     private PurchaseOrder createOrderFromQuote(QuoteRequest quote) {
-        PurchaseOrder order = PurchaseOrder.builder()
+        return PurchaseOrder.builder()
             .buyer(quote.getBuyer())
             .seller(quote.getSeller())
             .quoteRequest(quote)
-            .number(generateOrderNumber())
+            .number(documentNumberAllocator.next(DocumentType.PURCHASE_ORDER, quote.getSeller()))
             .status(OrderStatus.NEW)
             .warehouse(quote.getWarehouse())
             .deliveryTerm(quote.getDeliveryTerm())
@@ -195,22 +280,16 @@ public class QuoteRequestService {
             .currency(quote.getCurrency())
             .isActive(true)
             .build();
+    }
 
-        // Copy quote items to order items
-        for (QuoteRequestDetail quoteItem : quote.getItems()) {
-            PurchaseOrderDetail orderItem = PurchaseOrderDetail.builder()
-                .order(order)
-                .product(quoteItem.getProduct())
-                .sku(quoteItem.getSku())
-                .noOfUnits(quoteItem.getNoOfUnits())
-                .totalQuantity(quoteItem.getTotalQuantity())
-                .pricePerUnit(quoteItem.getPricePerUnit())
-                .currency(quoteItem.getCurrency())
-                .build();
-            order.getItems().add(orderItem);
-        }
+    private QuoteRequest saveTransition(QuoteRequest quote, QuoteStatus previous) {
+        QuoteRequest saved = quoteRequestRepository.save(quote);
+        appendEvent(saved, previous);
+        return saved;
+    }
 
-        return order;
+    private void appendEvent(QuoteRequest quote, QuoteStatus previous) {
+        outboxWriter.append(AggregateType.QUOTE_REQUEST, quote.getId(), quote.getSeller(), previous, quote.getStatus());
     }
 
     private void validateTransition(QuoteStatus current, QuoteStatus target) {
@@ -227,11 +306,4 @@ public class QuoteRequestService {
         }
     }
 
-    private String generateQuoteNumber() {
-        return "QT-" + System.currentTimeMillis();
-    }
-
-    private String generateOrderNumber() {
-        return "PO-" + System.currentTimeMillis();
-    }
 }
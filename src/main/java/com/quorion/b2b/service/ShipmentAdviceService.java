@@ -1,7 +1,9 @@
 package com.quorion.b2b.service;
 
+import com.quorion.b2b.model.commerce.DocumentType;
 import com.quorion.b2b.model.commerce.ShipmentAdvice;
 import com.quorion.b2b.repository.ShipmentAdviceRepository;
+import com.quorion.b2b.service.document.DocumentNumberAllocator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +15,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ShipmentAdviceService {
     private final ShipmentAdviceRepository repository;
+    private final DocumentNumberAllocator documentNumberAllocator;
 
     @Transactional(readOnly = true)
     public List<ShipmentAdvice> getAll() {
@@ -26,6 +29,10 @@ public class ShipmentAdviceService {
 
     @Transactional
     public ShipmentAdvice create(ShipmentAdvice entity) {
+        if (entity.getNumber() == null || entity.getNumber().isBlank()) {
+            entity.setNumber(documentNumberAllocator.next(DocumentType.SHIPMENT_ADVICE,
+                    entity.getOrder() != null ? entity.getOrder().getSeller() : null));
+        }
         return repository.save(entity);
     }
 
@@ -0,0 +1,276 @@
+package com.quorion.b2b.service.cart;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorion.b2b.model.commerce.NotificationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental detection of abandoned buyer carts
+ *
+ * Active buyer carts are walked in {@code (updated_at, id)} order from a
+ * watermark kept in {@code job_watermark}, so each run only looks at carts
+ * that changed since the previous one. Item counts and values come from
+ * aggregate SQL over the live lines; no entities are loaded. Every cart
+ * idle for longer than the threshold gets one notification for its buyer
+ * and one per seller with products in it, written as batched inserts.
+ *
+ * A chunk commits its notifications, the carts' notified version and the
+ * advanced watermark together while holding the watermark row lock, so
+ * a rerun or a second node never notifies the same cart version twice.
+ * A cart that changes again gets a new version and is notified again
+ * once it has been idle for the threshold.
+ */
+@Component
+@Slf4j
+public class AbandonedCartDetector {
+
+    static final String WATERMARK_NAME = "abandoned-cart-detector";
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS job_watermark (name varchar(100) PRIMARY KEY, " +
+                    "watermark_at timestamp NOT NULL, watermark_id uuid NOT NULL, updated_at timestamp NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS idx_cart_buyer_updated ON cart (updated_at, id) " +
+                    "WHERE is_active = true AND buyer_id IS NOT NULL",
+            // Enum check constraints are only generated when the table is created, so
+            // rebuild it in one statement from the values the enum has now
+            "ALTER TABLE notification DROP CONSTRAINT IF EXISTS notification_notification_type_check, " +
+                    "ADD CONSTRAINT notification_notification_type_check CHECK (notification_type IN (" +
+                    Arrays.stream(NotificationType.values())
+                            .map(type -> "'" + type.name() + "'")
+                            .collect(Collectors.joining(", ")) + "))"
+    };
+
+    private static final String INIT_WATERMARK =
+            "INSERT INTO job_watermark (name, watermark_at, watermark_id, updated_at) " +
+            "VALUES (:name, :at, :id, :now) ON CONFLICT (name) DO NOTHING";
+
+    private static final String LOCK_WATERMARK =
+            "SELECT watermark_at, watermark_id FROM job_watermark WHERE name = :name FOR UPDATE";
+
+    private static final String ADVANCE_WATERMARK =
+            "UPDATE job_watermark SET watermark_at = :at, watermark_id = :id, updated_at = :now WHERE name = :name";
+
+    private static final String NEXT_CARTS =
+            "WITH candidates AS (" +
+            "SELECT c.id, c.buyer_id, c.updated_at, c.version, c.abandonment_notified_version FROM cart c " +
+            "WHERE c.is_active = true AND c.buyer_id IS NOT NULL AND c.updated_at < :cutoff " +
+            "AND (c.updated_at, c.id) > (:afterAt, :afterId) " +
+            "ORDER BY c.updated_at, c.id LIMIT :limit) " +
+            "SELECT k.id, k.buyer_id, k.updated_at, k.version, " +
+            "COALESCE(k.abandonment_notified_version >= k.version, false) AS notified, " +
+            "COUNT(i.id) AS item_count, COALESCE(SUM(i.quantity * i.unit_price), 0) AS item_value " +
+            "FROM candidates k LEFT JOIN cart_item i ON i.cart_id = k.id AND i.deleted_at IS NULL " +
+            "GROUP BY k.id, k.buyer_id, k.updated_at, k.version, k.abandonment_notified_version " +
+            "ORDER BY k.updated_at, k.id";
+
+    private static final String SELLER_TOTALS =
+            "SELECT i.cart_id, p.seller_id, COUNT(*) AS item_count, SUM(i.quantity * i.unit_price) AS item_value " +
+            "FROM cart_item i JOIN product p ON p.id = i.product_id " +
+            "WHERE i.cart_id IN (:ids) AND i.deleted_at IS NULL " +
+            "GROUP BY i.cart_id, p.seller_id ORDER BY i.cart_id, p.seller_id";
+
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notification (id, created_at, updated_at, recipient_id, notification_type, title, message, " +
+            "link, data, is_read, is_email_sent, is_sms_sent) VALUES (gen_random_uuid(), :now, :now, :recipientId, " +
+            "'CART_ABANDONED', :title, :message, :link, CAST(:data AS jsonb), false, false, false)";
+
+    /**
+     * Records the version the notification was built from, never moving backwards;
+     * a cart changed since the scan is still due for its newer version
+     */
+    private static final String MARK_NOTIFIED =
+            "UPDATE cart SET abandonment_notified_version = :version WHERE id = :id " +
+            "AND (abandonment_notified_version IS NULL OR abandonment_notified_version < :version)";
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int abandonedAfterHours;
+    private final int lookbackHours;
+
+    /**
+     * A scanned cart with the totals of its live lines
+     */
+    record CartTotals(UUID cartId, UUID buyerId, LocalDateTime updatedAt, long version, boolean notified,
+                      long itemCount, BigDecimal itemValue) {
+    }
+
+    /**
+     * The live lines of one cart that belong to one seller
+     */
+    record SellerTotals(UUID cartId, UUID sellerId, long itemCount, BigDecimal itemValue) {
+    }
+
+    /**
+     * Carts scanned and carts notified in one chunk
+     */
+    private record Chunk(int scanned, int notified) {
+    }
+
+    public AbandonedCartDetector(NamedParameterJdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${quorion.b2b.cart.abandoned-chunk-size:500}") int chunkSize,
+                                 @Value("${quorion.b2b.cart.abandoned-after-hours:24}") int abandonedAfterHours,
+                                 @Value("${quorion.b2b.cart.abandoned-lookback-hours:168}") int lookbackHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.abandonedAfterHours = abandonedAfterHours;
+        this.lookbackHours = lookbackHours;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSchema() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.getJdbcTemplate().execute(statement);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${quorion.b2b.cart.abandoned-scan-interval-ms:900000}",
+            fixedDelayString = "${quorion.b2b.cart.abandoned-scan-interval-ms:900000}")
+    public void scan() {
+        int notified = detect(LocalDateTime.now());
+        if (notified > 0) {
+            log.info("Abandoned cart detector notified {} carts", notified);
+        }
+    }
+
+    /**
+     * Notify every cart idle since before {@code now} minus the threshold; returns the carts notified
+     *
+     * Carts idle for longer than the lookback window when the watermark
+     * is first created are not chased.
+     */
+    public int detect(LocalDateTime now) {
+        LocalDateTime cutoff = now.minusHours(abandonedAfterHours);
+        jdbcTemplate.update(INIT_WATERMARK, new MapSqlParameterSource("name", WATERMARK_NAME)
+                .addValue("at", cutoff.minusHours(lookbackHours))
+                .addValue("id", FIRST_ID)
+                .addValue("now", now));
+        int total = 0;
+        while (true) {
+            Chunk chunk = transactionTemplate.execute(status -> processChunk(cutoff, now));
+            total += chunk.notified();
+            if (chunk.scanned() < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    private Chunk processChunk(LocalDateTime cutoff, LocalDateTime now) {
+        MapSqlParameterSource watermark = new MapSqlParameterSource("name", WATERMARK_NAME).addValue("now", now);
+        Map<String, Object> position = jdbcTemplate.queryForMap(LOCK_WATERMARK, watermark);
+
+        List<CartTotals> carts = jdbcTemplate.query(NEXT_CARTS, new MapSqlParameterSource("cutoff", cutoff)
+                .addValue("afterAt", position.get("watermark_at"))
+                .addValue("afterId", position.get("watermark_id"))
+                .addValue("limit", chunkSize), AbandonedCartDetector::mapCart);
+        if (carts.isEmpty()) {
+            return new Chunk(0, 0);
+        }
+
+        Map<UUID, CartTotals> abandoned = new LinkedHashMap<>();
+        for (CartTotals cart : carts) {
+            if (!cart.notified() && cart.itemCount() > 0) {
+                abandoned.put(cart.cartId(), cart);
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            List<SqlParameterSource> notifications = new ArrayList<>();
+            abandoned.values().forEach(cart -> notifications.add(buyerNotification(cart, now)));
+            jdbcTemplate.query(SELLER_TOTALS, new MapSqlParameterSource("ids", abandoned.keySet()),
+                            AbandonedCartDetector::mapSeller)
+                    .forEach(seller -> notifications.add(
+                            sellerNotification(abandoned.get(seller.cartId()), seller, now)));
+            jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, notifications.toArray(SqlParameterSource[]::new));
+            jdbcTemplate.batchUpdate(MARK_NOTIFIED, abandoned.values().stream()
+                    .map(cart -> new MapSqlParameterSource("id", cart.cartId()).addValue("version", cart.version()))
+                    .toArray(SqlParameterSource[]::new));
+        }
+
+        CartTotals last = carts.get(carts.size() - 1);
+        jdbcTemplate.update(ADVANCE_WATERMARK, watermark
+                .addValue("at", last.updatedAt())
+                .addValue("id", last.cartId()));
+        return new Chunk(carts.size(), abandoned.size());
+    }
+
+    private SqlParameterSource buyerNotification(CartTotals cart, LocalDateTime now) {
+        Map<String, Object> data = data(cart, cart.itemCount(), cart.itemValue());
+        return notification(cart.buyerId(), "Items are waiting in your cart",
+                String.format("Your cart still holds %d items worth %s.", cart.itemCount(), cart.itemValue()),
+                cart, data, now);
+    }
+
+    private SqlParameterSource sellerNotification(CartTotals cart, SellerTotals seller, LocalDateTime now) {
+        Map<String, Object> data = data(cart, seller.itemCount(), seller.itemValue());
+        data.put("buyerId", cart.buyerId().toString());
+        return notification(seller.sellerId(), "A buyer left your products in their cart",
+                String.format("A cart idle since %s holds %d of your items worth %s.",
+                        cart.updatedAt(), seller.itemCount(), seller.itemValue()),
+                cart, data, now);
+    }
+
+    private SqlParameterSource notification(UUID recipientId, String title, String message, CartTotals cart,
+                                            Map<String, Object> data, LocalDateTime now) {
+        try {
+            return new MapSqlParameterSource("now", now)
+                    .addValue("recipientId", recipientId)
+                    .addValue("title", title)
+                    .addValue("message", message)
+                    .addValue("link", "/carts/" + cart.cartId())
+                    .addValue("data", objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize notification data", e);
+        }
+    }
+
+    private static Map<String, Object> data(CartTotals cart, long itemCount, BigDecimal itemValue) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("cartId", cart.cartId().toString());
+        data.put("cartVersion", cart.version());
+        data.put("itemCount", itemCount);
+        data.put("itemValue", itemValue);
+        data.put("lastUpdatedAt", cart.updatedAt().toString());
+        return data;
+    }
+
+    private static CartTotals mapCart(ResultSet rs, int rowNum) throws SQLException {
+        return new CartTotals(rs.getObject("id", UUID.class), rs.getObject("buyer_id", UUID.class),
+                rs.getObject("updated_at", LocalDateTime.class), rs.getLong("version"), rs.getBoolean("notified"),
+                rs.getLong("item_count"), rs.getBigDecimal("item_value"));
+    }
+
+    private static SellerTotals mapSeller(ResultSet rs, int rowNum) throws SQLException {
+        return new SellerTotals(rs.getObject("cart_id", UUID.class), rs.getObject("seller_id", UUID.class),
+                rs.getLong("item_count"), rs.getBigDecimal("item_value"));
+    }
+}
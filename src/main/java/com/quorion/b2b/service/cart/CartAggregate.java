@@ -0,0 +1,198 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.product.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A cart with its items indexed by product
+ *
+ * Built once from a cart loaded together with its items, after which
+ * finding the line for a product is a map lookup instead of a scan.
+ * A cart holds at most one row per product, so a soft-deleted line is
+ * revived when its product is added again; the cart's items collection
+ * only holds live rows, so callers hand over the deleted rows of the
+ * products they are about to add with {@link #restoreDeleted}. Lines
+ * created or changed through the aggregate are collected so the caller
+ * can write them in one batch.
+ */
+public final class CartAggregate {
+
+    private final Cart cart;
+    private final Map<UUID, CartItem> liveItems = new LinkedHashMap<>();
+    private final Map<UUID, CartItem> deletedItems = new HashMap<>();
+    private final Set<CartItem> detached = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<CartItem> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<CartItem> changeOrder = new ArrayList<>();
+
+    private CartAggregate(Cart cart) {
+        this.cart = cart;
+        for (CartItem item : cart.getItems()) {
+            UUID productId = item.getProduct().getId();
+            if (item.getDeletedAt() == null) {
+                liveItems.put(productId, item);
+            } else {
+                deletedItems.putIfAbsent(productId, item);
+            }
+        }
+    }
+
+    /**
+     * Index a cart whose items are already loaded
+     */
+    public static CartAggregate of(Cart cart) {
+        return new CartAggregate(cart);
+    }
+
+    public Cart cart() {
+        return cart;
+    }
+
+    /**
+     * Live lines in the order they were loaded or added
+     */
+    public Collection<CartItem> items() {
+        return Collections.unmodifiableCollection(liveItems.values());
+    }
+
+    public int size() {
+        return liveItems.size();
+    }
+
+    public boolean isEmpty() {
+        return liveItems.isEmpty();
+    }
+
+    /**
+     * The live line for a product
+     */
+    public Optional<CartItem> find(UUID productId) {
+        return Optional.ofNullable(liveItems.get(productId));
+    }
+
+    /**
+     * The live line with the given id
+     */
+    public Optional<CartItem> findItem(UUID itemId) {
+        return liveItems.values().stream()
+                .filter(item -> itemId.equals(item.getId()))
+                .findFirst();
+    }
+
+    /**
+     * Products among the given ones that have no live line
+     */
+    public Set<UUID> missing(Collection<UUID> productIds) {
+        Set<UUID> missing = new HashSet<>();
+        for (UUID productId : productIds) {
+            if (!liveItems.containsKey(productId)) {
+                missing.add(productId);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Soft-deleted rows to revive instead of inserting new lines for their products
+     */
+    public void restoreDeleted(Collection<CartItem> items) {
+        for (CartItem item : items) {
+            UUID productId = item.getProduct().getId();
+            if (item.getDeletedAt() != null && !liveItems.containsKey(productId)
+                    && deletedItems.putIfAbsent(productId, item) == null) {
+                detached.add(item);
+            }
+        }
+    }
+
+    /**
+     * Set the quantity and price of a product's line, creating it if needed
+     */
+    public CartItem put(Product product, BigDecimal quantity, BigDecimal unitPrice, String notes) {
+        CartItem item = liveItems.get(product.getId());
+        if (item == null) {
+            return create(product, quantity, unitPrice, notes);
+        }
+        item.setQuantity(quantity);
+        item.setUnitPrice(unitPrice);
+        if (notes != null) {
+            item.setNotes(notes);
+        }
+        return markChanged(item);
+    }
+
+    /**
+     * Add to the quantity of a product's line, creating it if needed
+     *
+     * An existing line keeps its unit price and notes.
+     */
+    public CartItem add(Product product, BigDecimal quantity, BigDecimal unitPrice, String notes) {
+        CartItem item = liveItems.get(product.getId());
+        if (item == null) {
+            return create(product, quantity, unitPrice, notes);
+        }
+        item.setQuantity(item.getQuantity().add(quantity));
+        return markChanged(item);
+    }
+
+    /**
+     * Soft delete a line
+     */
+    public void remove(CartItem item) {
+        UUID productId = item.getProduct().getId();
+        if (liveItems.remove(productId, item)) {
+            item.softDelete();
+            deletedItems.put(productId, item);
+            markChanged(item);
+        }
+    }
+
+    /**
+     * Lines created or changed since the last call, in the order first touched
+     */
+    public List<CartItem> drainChanges() {
+        List<CartItem> drained = new ArrayList<>(changeOrder);
+        changeOrder.clear();
+        changed.clear();
+        return drained;
+    }
+
+    private CartItem create(Product product, BigDecimal quantity, BigDecimal unitPrice, String notes) {
+        CartItem item = deletedItems.remove(product.getId());
+        if (item == null) {
+            item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            cart.getItems().add(item);
+        } else if (detached.remove(item)) {
+            cart.getItems().add(item);
+        }
+        item.setDeletedAt(null);
+        item.setQuantity(quantity);
+        item.setUnitPrice(unitPrice);
+        item.setNotes(notes != null ? notes : "");
+        liveItems.put(product.getId(), item);
+        return markChanged(item);
+    }
+
+    private CartItem markChanged(CartItem item) {
+        if (changed.add(item)) {
+            changeOrder.add(item);
+        }
+        return item;
+    }
+}
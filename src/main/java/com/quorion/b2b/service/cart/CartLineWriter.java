@@ -0,0 +1,182 @@
+package com.quorion.b2b.service.cart;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Conflict-free writes of cart lines
+ *
+ * Lines are changed with single set-based statements instead of
+ * read-modify-write through the entity, so concurrent edits of one cart
+ * combine in the database: quantity deltas are added to whatever the row
+ * holds at that moment, and an insert racing another insert of the same
+ * product turns into an update through the (cart_id, product_id) unique
+ * constraint. A soft-deleted row is revived in place. Statements are
+ * ordered by product so concurrent writers lock rows in the same order.
+ * Callers finish with {@link #bumpVersion}, which takes the cart row lock
+ * only for the remainder of the transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class CartLineWriter {
+
+    /**
+     * Lines per multi-row upsert, well below the driver's parameter limit
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String UPSERT_COLUMNS =
+            "INSERT INTO cart_item (id, created_at, updated_at, version, cart_id, product_id, quantity, unit_price, " +
+            "notes, deleted_at) VALUES ";
+
+    private static final String ADD_QUANTITIES_CONFLICT =
+            " ON CONFLICT (cart_id, product_id) DO UPDATE SET " +
+            "quantity = CASE WHEN cart_item.deleted_at IS NULL " +
+            "THEN cart_item.quantity + EXCLUDED.quantity ELSE EXCLUDED.quantity END, " +
+            "unit_price = CASE WHEN cart_item.deleted_at IS NULL " +
+            "THEN cart_item.unit_price ELSE EXCLUDED.unit_price END, " +
+            "notes = CASE WHEN cart_item.deleted_at IS NULL THEN cart_item.notes ELSE EXCLUDED.notes END, " +
+            "deleted_at = NULL, updated_at = EXCLUDED.updated_at, version = cart_item.version + 1 " +
+            "RETURNING product_id, id, quantity, (xmax = 0) AS created";
+
+    private static final String REMOVE_LINE =
+            "UPDATE cart_item SET deleted_at = :now, updated_at = :now, version = version + 1 " +
+            "WHERE id = :itemId AND cart_id = :cartId AND deleted_at IS NULL";
+
+    private static final String REMOVE_LINES =
+            "UPDATE cart_item SET deleted_at = :now, updated_at = :now, version = version + 1 " +
+            "WHERE id IN (:itemIds) AND cart_id = :cartId AND deleted_at IS NULL";
+
+    private static final String MOVE_LINES =
+            "UPDATE cart_item SET cart_id = :targetCartId, updated_at = :now, version = version + 1 " +
+            "WHERE id IN (:itemIds) AND cart_id = :cartId AND deleted_at IS NULL";
+
+    private static final String REMOVE_ALL =
+            "UPDATE cart_item SET deleted_at = :now, updated_at = :now, version = version + 1 " +
+            "WHERE cart_id = :cartId AND deleted_at IS NULL";
+
+    private static final String BUMP_VERSION =
+            "UPDATE cart SET version = version + 1, updated_at = :now " +
+            "WHERE id = :cartId AND (CAST(:expected AS bigint) IS NULL OR version = :expected) " +
+            "RETURNING version";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * A requested change to one product's line
+     */
+    public record LineDelta(UUID productId, BigDecimal quantity, BigDecimal unitPrice, String notes) {
+    }
+
+    /**
+     * A line as it stands after a write; {@code created} when the row was inserted
+     */
+    public record WrittenLine(UUID productId, UUID itemId, BigDecimal quantity, boolean created) {
+    }
+
+    /**
+     * Add quantities to product lines, creating or reviving lines as needed
+     *
+     * An existing live line keeps its unit price and notes. Each product
+     * may appear only once; callers merge duplicate deltas first.
+     */
+    public List<WrittenLine> addQuantities(UUID cartId, Collection<LineDelta> deltas) {
+        List<LineDelta> ordered = deltas.stream()
+                .sorted(Comparator.comparing(LineDelta::productId))
+                .toList();
+        List<WrittenLine> written = new ArrayList<>(ordered.size());
+        for (int from = 0; from < ordered.size(); from += CHUNK_SIZE) {
+            List<LineDelta> chunk = ordered.subList(from, Math.min(from + CHUNK_SIZE, ordered.size()));
+            MapSqlParameterSource params = params(cartId);
+            StringBuilder sql = new StringBuilder(UPSERT_COLUMNS);
+            for (int i = 0; i < chunk.size(); i++) {
+                LineDelta delta = chunk.get(i);
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("(gen_random_uuid(), :now, :now, 0, :cartId, :product").append(i)
+                        .append(", :quantity").append(i)
+                        .append(", :unitPrice").append(i)
+                        .append(", :notes").append(i).append(", NULL)");
+                params.addValue("product" + i, delta.productId())
+                        .addValue("quantity" + i, delta.quantity())
+                        .addValue("unitPrice" + i, delta.unitPrice())
+                        .addValue("notes" + i, delta.notes() != null ? delta.notes() : "");
+            }
+            sql.append(ADD_QUANTITIES_CONFLICT);
+            written.addAll(jdbcTemplate.query(sql.toString(), params, CartLineWriter::mapLine));
+        }
+        return written;
+    }
+
+    /**
+     * Soft delete one live line; false if the cart has no such line
+     */
+    public boolean removeLine(UUID cartId, UUID itemId) {
+        return jdbcTemplate.update(REMOVE_LINE, params(cartId).addValue("itemId", itemId)) > 0;
+    }
+
+    /**
+     * Soft delete the given live lines of a cart
+     */
+    public int removeLines(UUID cartId, Collection<UUID> itemIds) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(REMOVE_LINES, params(cartId).addValue("itemIds", itemIds));
+    }
+
+    /**
+     * Move the given live lines of a cart to another, empty cart
+     */
+    public int moveLines(UUID cartId, UUID targetCartId, Collection<UUID> itemIds) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(MOVE_LINES, params(cartId)
+                .addValue("targetCartId", targetCartId)
+                .addValue("itemIds", itemIds));
+    }
+
+    /**
+     * Soft delete every live line of a cart
+     */
+    public int removeAll(UUID cartId) {
+        return jdbcTemplate.update(REMOVE_ALL, params(cartId));
+    }
+
+    /**
+     * Increment the cart version if it still equals {@code expectedVersion}
+     *
+     * A null expected version always matches. Returns the new version, or
+     * empty when the cart does not exist or its version has moved on.
+     */
+    public OptionalLong bumpVersion(UUID cartId, Long expectedVersion) {
+        List<Long> versions = jdbcTemplate.queryForList(BUMP_VERSION,
+                params(cartId).addValue("expected", expectedVersion, Types.BIGINT), Long.class);
+        return versions.isEmpty() ? OptionalLong.empty() : OptionalLong.of(versions.get(0));
+    }
+
+    private static MapSqlParameterSource params(UUID cartId) {
+        return new MapSqlParameterSource("now", LocalDateTime.now()).addValue("cartId", cartId);
+    }
+
+    private static WrittenLine mapLine(ResultSet rs, int rowNum) throws SQLException {
+        return new WrittenLine(rs.getObject("product_id", UUID.class), rs.getObject("id", UUID.class),
+                rs.getBigDecimal("quantity"), rs.getBoolean("created"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.quorion.b2b.service.cart;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Background cleanup of expired carts and soft-deleted cart items
+ *
+ * Both jobs walk their rows in id order, one bounded chunk at a time. A
+ * chunk is a SELECT of the next ids followed by one UPDATE or DELETE of
+ * exactly those rows; each statement commits on its own, so locks last
+ * no longer than a single chunk. The partial indexes the jobs and the
+ * live item lookups rely on are created on startup.
+ */
+@Component
+@Slf4j
+public class CartReaper {
+
+    private static final String[] INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_cart_item_live ON cart_item (cart_id, product_id) " +
+                    "WHERE deleted_at IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_cart_item_deleted ON cart_item (deleted_at) " +
+                    "WHERE deleted_at IS NOT NULL",
+            "CREATE INDEX IF NOT EXISTS idx_cart_expiring ON cart (expires_at) " +
+                    "WHERE is_active = true AND expires_at IS NOT NULL"
+    };
+
+    private static final String NEXT_EXPIRED_CARTS =
+            "SELECT id FROM cart WHERE is_active = true AND expires_at < :now AND id > :after " +
+            "ORDER BY id LIMIT :limit";
+
+    private static final String DEACTIVATE_CARTS =
+            "UPDATE cart SET is_active = false, updated_at = :now " +
+            "WHERE id IN (:ids) AND is_active = true AND expires_at < :now";
+
+    private static final String NEXT_DELETED_ITEMS =
+            "SELECT id FROM cart_item WHERE deleted_at < :cutoff AND id > :after " +
+            "ORDER BY id LIMIT :limit";
+
+    private static final String PURGE_ITEMS =
+            "DELETE FROM cart_item WHERE id IN (:ids) AND deleted_at < :cutoff";
+
+    /**
+     * Lowest UUID in Postgres ordering, where the keyset starts
+     */
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final int retentionDays;
+
+    public CartReaper(NamedParameterJdbcTemplate jdbcTemplate,
+                      @Value("${quorion.b2b.cart.reaper-chunk-size:1000}") int chunkSize,
+                      @Value("${quorion.b2b.cart.deleted-item-retention-days:30}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.retentionDays = retentionDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        for (String index : INDEXES) {
+            jdbcTemplate.getJdbcTemplate().execute(index);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${quorion.b2b.cart.reaper-interval-ms:300000}",
+            fixedDelayString = "${quorion.b2b.cart.reaper-interval-ms:300000}")
+    public void reap() {
+        LocalDateTime now = LocalDateTime.now();
+        int deactivated = deactivateExpiredCarts(now);
+        int purged = purgeDeletedItems(now.minusDays(retentionDays));
+        if (deactivated + purged > 0) {
+            log.info("Cart reaper deactivated {} expired carts and purged {} deleted items", deactivated, purged);
+        }
+    }
+
+    /**
+     * Deactivate active carts whose expiry has passed
+     */
+    public int deactivateExpiredCarts(LocalDateTime now) {
+        return inChunks(NEXT_EXPIRED_CARTS, DEACTIVATE_CARTS, new MapSqlParameterSource("now", now));
+    }
+
+    /**
+     * Hard delete cart items soft-deleted before the cutoff
+     */
+    public int purgeDeletedItems(LocalDateTime cutoff) {
+        return inChunks(NEXT_DELETED_ITEMS, PURGE_ITEMS, new MapSqlParameterSource("cutoff", cutoff));
+    }
+
+    /**
+     * Apply a statement to the rows a keyset query finds, chunk by chunk
+     *
+     * The statement repeats the query's predicate, so rows that changed
+     * between the two are left alone.
+     */
+    private int inChunks(String nextIds, String apply, MapSqlParameterSource params) {
+        params.addValue("limit", chunkSize);
+        UUID after = FIRST_ID;
+        int total = 0;
+        while (true) {
+            List<UUID> ids = jdbcTemplate.queryForList(nextIds, params.addValue("after", after), UUID.class);
+            if (ids.isEmpty()) {
+                return total;
+            }
+            total += jdbcTemplate.update(apply, params.addValue("ids", ids));
+            if (ids.size() < chunkSize) {
+                return total;
+            }
+            after = ids.get(ids.size() - 1);
+        }
+    }
+}
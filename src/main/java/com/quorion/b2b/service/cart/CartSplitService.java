@@ -0,0 +1,374 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.dto.cart.CartSplitRequest;
+import com.quorion.b2b.dto.cart.CartSplitResult;
+import com.quorion.b2b.exception.PreconditionFailedException;
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.commerce.Lead;
+import com.quorion.b2b.model.commerce.QuoteRequest;
+import com.quorion.b2b.model.commerce.QuoteRequestDetail;
+import com.quorion.b2b.model.commerce.SalesLeadStatus;
+import com.quorion.b2b.model.product.ProductSKU;
+import com.quorion.b2b.model.tenant.MarketplaceConfig;
+import com.quorion.b2b.repository.*;
+import com.quorion.b2b.service.QuoteRequestService;
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Split of a cross-seller cart into one lead or quote request per seller
+ *
+ * The cart is loaded once with its items and products, its live lines
+ * are grouped by product seller, and the split claims the cart by moving
+ * it past the version it was planned at, so a concurrent split or a
+ * conditional edit of that version fails instead of converting the same
+ * lines twice. Each seller's document is then created on a small bounded
+ * pool, in its own transaction that also takes the seller's lines out of
+ * the cart, so the documents are written concurrently and a failing
+ * seller neither blocks nor undoes the others. A seller whose lines are no
+ * longer all in the cart fails. The pool is kept well below the connection
+ * pool size.
+ *
+ * A lead gets a cart of its own, inactive, and the seller's lines are
+ * moved into it; a quote request copies the lines, which are then removed.
+ */
+@Service
+@Slf4j
+public class CartSplitService {
+
+    private static final String SOURCE = "cart-split";
+
+    private final CartRepository cartRepository;
+    private final LeadRepository leadRepository;
+    private final TenantRepository tenantRepository;
+    private final ProductRepository productRepository;
+    private final ProductSKURepository productSKURepository;
+    private final TenantAddressRepository tenantAddressRepository;
+    private final DeliveryTermRepository deliveryTermRepository;
+    private final PaymentTermRepository paymentTermRepository;
+    private final PaymentModeRepository paymentModeRepository;
+    private final MarketplaceConfigRepository marketplaceConfigRepository;
+    private final QuoteRequestService quoteRequestService;
+    private final CartLineWriter cartLineWriter;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    /**
+     * One line of a seller's group, detached from the loading transaction
+     */
+    record SplitLine(UUID itemId, UUID productId, UUID skuId, BigDecimal quantity, BigDecimal unitPrice) {
+    }
+
+    record SellerGroup(UUID sellerId, List<SplitLine> lines) {
+
+        BigDecimal subtotal() {
+            return lines.stream()
+                    .map(line -> line.quantity().multiply(line.unitPrice()))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+
+    private record Plan(UUID buyerId, long version, List<SellerGroup> groups) {
+    }
+
+    public CartSplitService(CartRepository cartRepository,
+                            LeadRepository leadRepository,
+                            TenantRepository tenantRepository,
+                            ProductRepository productRepository,
+                            ProductSKURepository productSKURepository,
+                            TenantAddressRepository tenantAddressRepository,
+                            DeliveryTermRepository deliveryTermRepository,
+                            PaymentTermRepository paymentTermRepository,
+                            PaymentModeRepository paymentModeRepository,
+                            MarketplaceConfigRepository marketplaceConfigRepository,
+                            QuoteRequestService quoteRequestService,
+                            CartLineWriter cartLineWriter,
+                            OutboxWriter outboxWriter,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${quorion.b2b.cart.split-parallelism:4}") int parallelism) {
+        this.cartRepository = cartRepository;
+        this.leadRepository = leadRepository;
+        this.tenantRepository = tenantRepository;
+        this.productRepository = productRepository;
+        this.productSKURepository = productSKURepository;
+        this.tenantAddressRepository = tenantAddressRepository;
+        this.deliveryTermRepository = deliveryTermRepository;
+        this.paymentTermRepository = paymentTermRepository;
+        this.paymentModeRepository = paymentModeRepository;
+        this.marketplaceConfigRepository = marketplaceConfigRepository;
+        this.quoteRequestService = quoteRequestService;
+        this.cartLineWriter = cartLineWriter;
+        this.outboxWriter = outboxWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "cart-split-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Convert each seller's share of a cart into its own lead or quote request
+     */
+    public CartSplitResult split(UUID cartId, CartSplitRequest request, Long expectedVersion) {
+        validate(request);
+        Plan plan = transactionTemplate.execute(status -> plan(cartId, request, expectedVersion));
+
+        List<CompletableFuture<CartSplitResult.SellerDocument>> futures = plan.groups().stream()
+                .map(group -> CompletableFuture.supplyAsync(() -> convert(cartId, plan.buyerId(), group, request),
+                        executor))
+                .toList();
+        List<CartSplitResult.SellerDocument> documents = futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        int failed = (int) documents.stream()
+                .filter(document -> document.getStatus() == CartSplitResult.Status.FAILED)
+                .count();
+        Cart cart = transactionTemplate.execute(status -> finish(cartId, plan.version(),
+                failed < documents.size(), failed == 0));
+        log.info("Cart {} split into {} {} documents, {} failed", cartId, documents.size() - failed,
+                request.getTarget(), failed);
+
+        return CartSplitResult.builder()
+                .cartId(cartId)
+                .cartVersion(cart.getVersion())
+                .cartActive(cart.getIsActive())
+                .target(request.getTarget())
+                .convertedSellers(documents.size() - failed)
+                .failedSellers(failed)
+                .documents(documents)
+                .build();
+    }
+
+    private static void validate(CartSplitRequest request) {
+        if (request.getTarget() == CartSplitRequest.Target.LEAD) {
+            if (isBlank(request.getBuyerFirstName()) || isBlank(request.getBuyerLastName())
+                    || isBlank(request.getBuyerEmail())) {
+                throw new IllegalArgumentException("Buyer first name, last name and email are required for leads");
+            }
+        } else if (request.getWarehouseId() == null || request.getDeliveryTermId() == null
+                || request.getPaymentTermId() == null || request.getPaymentModeId() == null) {
+            throw new IllegalArgumentException(
+                    "Warehouse, delivery term, payment term and payment mode are required for quote requests");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Load the cart once and group its live lines by seller
+     */
+    private Plan plan(UUID cartId, CartSplitRequest request, Long expectedVersion) {
+        Cart cart = cartRepository.findByIdWithItemsAndProducts(cartId)
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Cart not found with id: " + cartId));
+        if (expectedVersion != null && !expectedVersion.equals(cart.getVersion())) {
+            throw new PreconditionFailedException(
+                    "Cart " + cartId + " is at version " + cart.getVersion() + ", not " + expectedVersion);
+        }
+        if (!Boolean.TRUE.equals(cart.getIsActive())) {
+            throw new IllegalArgumentException("Cannot split an inactive cart");
+        }
+        List<CartItem> items = cart.getActiveItems();
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Cannot split an empty cart");
+        }
+
+        UUID buyerId = cart.getBuyer() != null ? cart.getBuyer().getId() : null;
+        if (request.getTarget() == CartSplitRequest.Target.QUOTE) {
+            if (buyerId == null) {
+                throw new IllegalArgumentException("Quote requests need a cart with a buyer");
+            }
+            requireExists(tenantAddressRepository.existsById(request.getWarehouseId()), "Warehouse");
+            requireExists(deliveryTermRepository.existsById(request.getDeliveryTermId()), "Delivery term");
+            requireExists(paymentTermRepository.existsById(request.getPaymentTermId()), "Payment term");
+            requireExists(paymentModeRepository.existsById(request.getPaymentModeId()), "Payment mode");
+        }
+
+        // Quote lines name the product's SKU when it has exactly one active SKU
+        Map<UUID, List<ProductSKU>> skusByProduct = new HashMap<>();
+        productSKURepository.findActiveByProductIdIn(items.stream()
+                        .map(item -> item.getProduct().getId())
+                        .collect(Collectors.toSet()))
+                .forEach(sku -> skusByProduct
+                        .computeIfAbsent(sku.getProduct().getId(), k -> new ArrayList<>())
+                        .add(sku));
+
+        Map<UUID, List<SplitLine>> linesBySeller = new LinkedHashMap<>();
+        for (CartItem item : items) {
+            List<ProductSKU> skus = skusByProduct.getOrDefault(item.getProduct().getId(), List.of());
+            linesBySeller.computeIfAbsent(item.getProduct().getSeller().getId(), k -> new ArrayList<>())
+                    .add(new SplitLine(item.getId(), item.getProduct().getId(),
+                            skus.size() == 1 ? skus.get(0).getId() : null, item.getQuantity(), item.getUnitPrice()));
+        }
+
+        if (linesBySeller.size() > 1) {
+            boolean multipleSellers = marketplaceConfigRepository.findFirstByIsActiveTrueOrderByCreatedAtDesc()
+                    .map(MarketplaceConfig::getEnableMultipleSellers)
+                    .orElse(true);
+            if (!multipleSellers) {
+                throw new IllegalArgumentException("Marketplace does not allow carts with multiple sellers");
+            }
+        }
+
+        // Claim the cart at the version the plan was made from
+        OptionalLong claimed = cartLineWriter.bumpVersion(cartId, cart.getVersion());
+        if (claimed.isEmpty()) {
+            throw new PreconditionFailedException("Cart " + cartId + " has changed since version " + cart.getVersion());
+        }
+
+        return new Plan(buyerId, claimed.getAsLong(), linesBySeller.entrySet().stream()
+                .map(entry -> new SellerGroup(entry.getKey(), List.copyOf(entry.getValue())))
+                .toList());
+    }
+
+    private static void requireExists(boolean exists, String what) {
+        if (!exists) {
+            throw new jakarta.persistence.EntityNotFoundException(what + " not found");
+        }
+    }
+
+    /**
+     * Create one seller's document and take its lines out of the cart, in one transaction
+     */
+    CartSplitResult.SellerDocument convert(UUID cartId, UUID buyerId, SellerGroup group, CartSplitRequest request) {
+        CartSplitResult.SellerDocument document = CartSplitResult.SellerDocument.builder()
+                .sellerId(group.sellerId())
+                .itemCount(group.lines().size())
+                .subtotal(group.subtotal())
+                .build();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<UUID> itemIds = group.lines().stream().map(SplitLine::itemId).toList();
+                int taken;
+                if (request.getTarget() == CartSplitRequest.Target.LEAD) {
+                    Lead lead = createLead(buyerId, group, request);
+                    document.setLeadId(lead.getId());
+                    taken = cartLineWriter.moveLines(cartId, lead.getCart().getId(), itemIds);
+                } else {
+                    QuoteRequest quote = createQuote(buyerId, group, request);
+                    document.setQuoteRequestId(quote.getId());
+                    document.setQuoteNumber(quote.getNumber());
+                    taken = cartLineWriter.removeLines(cartId, itemIds);
+                }
+                if (taken != itemIds.size()) {
+                    throw new IllegalStateException("Cart " + cartId + " changed during the split: "
+                            + (itemIds.size() - taken) + " of the seller's lines are no longer in the cart");
+                }
+            });
+            document.setStatus(CartSplitResult.Status.CREATED);
+        } catch (RuntimeException e) {
+            log.warn("Failed to convert seller {} lines of cart {}: {}", group.sellerId(), cartId, e.getMessage());
+            document.setLeadId(null);
+            document.setQuoteRequestId(null);
+            document.setQuoteNumber(null);
+            document.setStatus(CartSplitResult.Status.FAILED);
+            document.setError(e.getMessage());
+        }
+        return document;
+    }
+
+    /**
+     * A lead with its own inactive cart, flushed so the seller's lines can be moved into it
+     */
+    private Lead createLead(UUID buyerId, SellerGroup group, CartSplitRequest request) {
+        Cart leadCart = new Cart();
+        if (buyerId != null) {
+            leadCart.setBuyer(tenantRepository.getReferenceById(buyerId));
+        }
+        leadCart.setIsActive(false);
+
+        Lead lead = new Lead();
+        lead.setSeller(tenantRepository.getReferenceById(group.sellerId()));
+        lead.setCart(cartRepository.saveAndFlush(leadCart));
+        lead.setBuyerFirstName(request.getBuyerFirstName());
+        lead.setBuyerLastName(request.getBuyerLastName());
+        lead.setBuyerEmail(request.getBuyerEmail());
+        lead.setBuyerPhone(request.getBuyerPhone() != null ? request.getBuyerPhone() : "");
+        lead.setBuyerCompanyName(request.getBuyerCompanyName() != null ? request.getBuyerCompanyName() : "");
+        lead.setStatus(SalesLeadStatus.NEW);
+        lead.setSource(SOURCE);
+        Lead saved = leadRepository.save(lead);
+        outboxWriter.append(AggregateType.LEAD, saved.getId(), saved.getSeller(), null, SalesLeadStatus.NEW);
+        return saved;
+    }
+
+    /**
+     * A quote request whose lines are inserted in one batch with it
+     */
+    private QuoteRequest createQuote(UUID buyerId, SellerGroup group, CartSplitRequest request) {
+        QuoteRequest quote = new QuoteRequest();
+        quote.setBuyer(tenantRepository.getReferenceById(buyerId));
+        quote.setSeller(tenantRepository.getReferenceById(group.sellerId()));
+        quote.setWarehouse(tenantAddressRepository.getReferenceById(request.getWarehouseId()));
+        quote.setDeliveryTerm(deliveryTermRepository.getReferenceById(request.getDeliveryTermId()));
+        quote.setPaymentTerm(paymentTermRepository.getReferenceById(request.getPaymentTermId()));
+        quote.setPaymentMode(paymentModeRepository.getReferenceById(request.getPaymentModeId()));
+        if (request.getCurrency() != null) {
+            quote.setCurrency(request.getCurrency());
+        }
+        for (SplitLine line : group.lines()) {
+            QuoteRequestDetail detail = new QuoteRequestDetail();
+            detail.setQuoteRequest(quote);
+            detail.setProduct(productRepository.getReferenceById(line.productId()));
+            if (line.skuId() != null) {
+                detail.setSku(productSKURepository.getReferenceById(line.skuId()));
+            }
+            detail.setNoOfUnits(line.quantity());
+            detail.setTotalQuantity(line.quantity());
+            // A zero cart price is left for pricing or the seller to fill in
+            detail.setPricePerUnit(line.unitPrice().signum() > 0 ? line.unitPrice() : null);
+            detail.setCurrency(quote.getCurrency());
+            quote.getItems().add(detail);
+        }
+        return quoteRequestService.create(quote);
+    }
+
+    /**
+     * Move the cart past its claimed version if lines left it, and deactivate it once all have
+     *
+     * A failed compare-and-set means an unconditional edit already moved the version on.
+     */
+    private Cart finish(UUID cartId, long claimedVersion, boolean anyConverted, boolean allConverted) {
+        if (anyConverted) {
+            cartLineWriter.bumpVersion(cartId, claimedVersion);
+        }
+        Cart cart = cartRepository.findById(cartId)
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Cart not found with id: " + cartId));
+        if (allConverted && Boolean.TRUE.equals(cart.getIsActive())) {
+            cart.setIsActive(false);
+            cart = cartRepository.saveAndFlush(cart);
+        }
+        return cart;
+    }
+}
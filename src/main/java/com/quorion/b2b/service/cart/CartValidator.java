@@ -0,0 +1,156 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.dto.cart.CartValidationResult;
+import com.quorion.b2b.dto.cart.PricedCartResponse;
+import com.quorion.b2b.model.product.Inventory;
+import com.quorion.b2b.model.tenant.MarketplaceConfig;
+import com.quorion.b2b.repository.InventoryRepository;
+import com.quorion.b2b.repository.MarketplaceConfigRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Checkout validation of a cart in one batched pass
+ *
+ * Lines and their current prices come from the priced cart snapshot, so
+ * pricing costs at most one batched call and nothing when the snapshot is
+ * fresh. Stock for all cart products is loaded with one inventory query
+ * and summed across warehouses, per SKU when the line's SKU is known.
+ * Cart size and order value limits come from the active marketplace
+ * config, falling back to the configured defaults.
+ */
+@Service
+@Slf4j
+public class CartValidator {
+
+    private final PricedCartService pricedCartService;
+    private final InventoryRepository inventoryRepository;
+    private final MarketplaceConfigRepository marketplaceConfigRepository;
+    private final int defaultMaxCartItems;
+    private final BigDecimal defaultMinOrderValue;
+
+    public CartValidator(PricedCartService pricedCartService,
+                         InventoryRepository inventoryRepository,
+                         MarketplaceConfigRepository marketplaceConfigRepository,
+                         @Value("${quorion.b2b.marketplace.max-cart-items:100}") int defaultMaxCartItems,
+                         @Value("${quorion.b2b.marketplace.min-order-value:0.00}") BigDecimal defaultMinOrderValue) {
+        this.pricedCartService = pricedCartService;
+        this.inventoryRepository = inventoryRepository;
+        this.marketplaceConfigRepository = marketplaceConfigRepository;
+        this.defaultMaxCartItems = defaultMaxCartItems;
+        this.defaultMinOrderValue = defaultMinOrderValue;
+    }
+
+    /**
+     * Validate a cart for checkout
+     */
+    @Transactional(readOnly = true)
+    public CartValidationResult validate(UUID cartId) {
+        PricedCartResponse priced = pricedCartService.getPricedCart(cartId);
+        Optional<MarketplaceConfig> config = marketplaceConfigRepository.findFirstByIsActiveTrueOrderByCreatedAtDesc();
+        int maxCartItems = config.map(MarketplaceConfig::getMaxCartItems).orElse(defaultMaxCartItems);
+        BigDecimal minOrderValue = config.map(MarketplaceConfig::getMinOrderValue).orElse(defaultMinOrderValue);
+
+        Map<UUID, List<Inventory>> stockByProduct = priced.getLines().isEmpty()
+                ? Map.of()
+                : inventoryRepository.findByProductIdIn(priced.getLines().stream()
+                                .map(PricedCartResponse.Line::getProductId)
+                                .collect(Collectors.toSet())).stream()
+                        .collect(Collectors.groupingBy(inventory -> inventory.getProduct().getId()));
+
+        List<String> errors = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+        if (priced.getLines().isEmpty()) {
+            errors.add("Cart is empty");
+        }
+        if (priced.getItemCount() > maxCartItems) {
+            errors.add("Cart has " + priced.getItemCount() + " items, more than the maximum of " + maxCartItems);
+        }
+        if (!priced.getLines().isEmpty() && minOrderValue != null
+                && priced.getSubtotal().compareTo(minOrderValue) < 0) {
+            errors.add("Cart subtotal " + priced.getSubtotal() + " is below the minimum order value of "
+                    + minOrderValue);
+        }
+
+        List<CartValidationResult.Line> lines = new ArrayList<>(priced.getLines().size());
+        for (PricedCartResponse.Line pricedLine : priced.getLines()) {
+            CartValidationResult.Line line = validateLine(pricedLine,
+                    stockByProduct.getOrDefault(pricedLine.getProductId(), List.of()));
+            lines.add(line);
+            line.getErrors().forEach(error -> errors.add("Item " + line.getItemId() + ": " + error));
+            line.getWarnings().forEach(warning -> warnings.add("Item " + line.getItemId() + ": " + warning));
+        }
+
+        return CartValidationResult.builder()
+                .cartId(cartId)
+                .cartVersion(priced.getCartVersion())
+                .valid(errors.isEmpty())
+                .itemCount(priced.getItemCount())
+                .maxCartItems(maxCartItems)
+                .subtotal(priced.getSubtotal())
+                .minOrderValue(minOrderValue)
+                .errors(errors)
+                .warnings(warnings)
+                .lines(lines)
+                .build();
+    }
+
+    private static CartValidationResult.Line validateLine(PricedCartResponse.Line priced, List<Inventory> stock) {
+        CartValidationResult.Line line = CartValidationResult.Line.builder()
+                .itemId(priced.getItemId())
+                .productId(priced.getProductId())
+                .skuId(priced.getSkuId())
+                .quantity(priced.getQuantity())
+                .cartUnitPrice(priced.getCartUnitPrice())
+                .currentUnitPrice(priced.isPriced() ? priced.getUnitPrice() : null)
+                .priceMatches(!priced.isRepriced())
+                .build();
+
+        if (priced.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
+            line.getErrors().add("Invalid quantity " + priced.getQuantity());
+        }
+        if (priced.getCartUnitPrice().compareTo(BigDecimal.ZERO) < 0) {
+            line.getErrors().add("Invalid unit price " + priced.getCartUnitPrice());
+        }
+
+        // Stock of the line's SKU when known, otherwise of every SKU of the product
+        List<Inventory> applicable = priced.getSkuId() == null ? stock : stock.stream()
+                .filter(inventory -> priced.getSkuId().equals(inventory.getSku().getId()))
+                .toList();
+        if (applicable.isEmpty()) {
+            line.setInStock(true);
+            line.getWarnings().add("No inventory records");
+        } else {
+            BigDecimal available = BigDecimal.valueOf(applicable.stream()
+                    .mapToLong(inventory -> inventory.getQuantityAvailable())
+                    .sum());
+            line.setQuantityAvailable(available);
+            line.setWarehouses((int) applicable.stream()
+                    .map(inventory -> inventory.getWarehouse().getId())
+                    .distinct()
+                    .count());
+            line.setInStock(available.compareTo(priced.getQuantity()) >= 0);
+            if (!line.isInStock()) {
+                line.getErrors().add("Only " + available + " available, " + priced.getQuantity() + " requested");
+            }
+        }
+
+        if (!priced.isPriced()) {
+            line.getWarnings().add("No current price");
+        } else if (priced.isRepriced()) {
+            line.getWarnings().add("Unit price " + priced.getCartUnitPrice() + " differs from current price "
+                    + priced.getUnitPrice());
+        }
+        return line;
+    }
+}
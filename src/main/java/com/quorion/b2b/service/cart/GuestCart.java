@@ -0,0 +1,131 @@
+package com.quorion.b2b.service.cart;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An anonymous cart held in memory by the {@link GuestCartStore}
+ *
+ * Lines are keyed by product like {@link CartAggregate}. Every change bumps
+ * a version; the store records the version it last wrote to the database,
+ * so a cart is dirty while the two differ. All access is synchronized on
+ * the cart, which is only ever touched by one session at a time. A cart
+ * the store has dropped is marked evicted under the same lock, so a
+ * request still holding it knows to fetch the session's cart again.
+ */
+public final class GuestCart {
+
+    private final String sessionKey;
+    private final Map<UUID, Line> lines = new LinkedHashMap<>();
+    private UUID cartId;
+    private LocalDateTime lastAccessedAt;
+    private long version;
+    private long flushedVersion;
+    private boolean evicted;
+
+    GuestCart(String sessionKey, LocalDateTime now) {
+        this.sessionKey = sessionKey;
+        this.lastAccessedAt = now;
+    }
+
+    /**
+     * A cart line; quantities and prices as in {@code cart_item}
+     */
+    public record Line(UUID productId, BigDecimal quantity, BigDecimal unitPrice, String notes) {
+
+        public BigDecimal totalPrice() {
+            return quantity.multiply(unitPrice);
+        }
+    }
+
+    /**
+     * A consistent copy of the cart for reading or writing outside the lock
+     */
+    public record Snapshot(String sessionKey, UUID cartId, List<Line> lines, LocalDateTime lastAccessedAt,
+                           long version) {
+    }
+
+    /**
+     * Rebuild a cart from its persisted copy
+     */
+    static GuestCart restore(String sessionKey, UUID cartId, List<Line> lines, LocalDateTime now) {
+        GuestCart cart = new GuestCart(sessionKey, now);
+        cart.cartId = cartId;
+        lines.forEach(line -> cart.lines.put(line.productId(), line));
+        return cart;
+    }
+
+    public String getSessionKey() {
+        return sessionKey;
+    }
+
+    public synchronized int size() {
+        return lines.size();
+    }
+
+    public synchronized boolean contains(UUID productId) {
+        return lines.containsKey(productId);
+    }
+
+    /**
+     * Set the quantity and price of a product's line, creating it if needed
+     */
+    public synchronized void put(UUID productId, BigDecimal quantity, BigDecimal unitPrice, String notes) {
+        Line existing = lines.get(productId);
+        String lineNotes = notes != null ? notes : existing != null ? existing.notes() : "";
+        lines.put(productId, new Line(productId, quantity, unitPrice, lineNotes));
+        version++;
+    }
+
+    public synchronized boolean remove(UUID productId) {
+        if (lines.remove(productId) == null) {
+            return false;
+        }
+        version++;
+        return true;
+    }
+
+    public synchronized void clear() {
+        if (!lines.isEmpty()) {
+            lines.clear();
+            version++;
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(sessionKey, cartId, new ArrayList<>(lines.values()), lastAccessedAt, version);
+    }
+
+    synchronized void touch(LocalDateTime now) {
+        lastAccessedAt = now;
+    }
+
+    synchronized LocalDateTime getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    synchronized boolean isDirty() {
+        return version != flushedVersion;
+    }
+
+    synchronized boolean isEvicted() {
+        return evicted;
+    }
+
+    synchronized void markEvicted() {
+        evicted = true;
+    }
+
+    /**
+     * Record that a snapshot was written to the given cart row
+     */
+    synchronized void markFlushed(long flushed, UUID persistedCartId) {
+        cartId = persistedCartId;
+        flushedVersion = Math.max(flushedVersion, flushed);
+    }
+}
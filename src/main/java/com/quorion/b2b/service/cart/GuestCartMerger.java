@@ -0,0 +1,113 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.repository.CartRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Merge of a guest's session cart into their account cart at login
+ *
+ * The guest cart and the buyer's active carts are resolved with one
+ * query; the guest lines are summed by product in memory and added to
+ * the buyer's most recently updated cart with one multi-row upsert, after
+ * which the guest cart is deactivated. A guest cart still held by
+ * {@link GuestCartStore} is merged from memory, since that copy is
+ * newer than anything persisted. The merge costs the same few statements
+ * whatever the size of either cart.
+ */
+@Component
+@Slf4j
+public class GuestCartMerger {
+
+    private final CartRepository cartRepository;
+    private final CartLineWriter cartLineWriter;
+    private final GuestCartStore guestCartStore;
+    private final TransactionTemplate transactionTemplate;
+
+    public GuestCartMerger(CartRepository cartRepository,
+                           CartLineWriter cartLineWriter,
+                           GuestCartStore guestCartStore,
+                           PlatformTransactionManager transactionManager) {
+        this.cartRepository = cartRepository;
+        this.cartLineWriter = cartLineWriter;
+        this.guestCartStore = guestCartStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Login runs read-only; the merge commits on its own
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Merge the session's guest cart into the buyer's cart
+     *
+     * Returns the buyer's cart id and version, or empty when the buyer has
+     * no active cart and there was nothing to merge.
+     */
+    public Optional<Versioned<UUID>> mergeAtLogin(String sessionKey, Tenant buyer) {
+        if (sessionKey == null || sessionKey.isBlank() || buyer == null) {
+            return Optional.empty();
+        }
+        GuestCart.Snapshot inMemory = guestCartStore.find(sessionKey).map(GuestCart::snapshot).orElse(null);
+        Optional<Versioned<UUID>> merged = transactionTemplate.execute(status -> merge(sessionKey, buyer, inMemory));
+        guestCartStore.remove(sessionKey);
+        return merged;
+    }
+
+    private Optional<Versioned<UUID>> merge(String sessionKey, Tenant buyer, GuestCart.Snapshot inMemory) {
+        List<Cart> carts = cartRepository.findGuestAndBuyerCarts(sessionKey, buyer);
+        Optional<Cart> guest = carts.stream().filter(Cart::isAnonymous).findFirst();
+        Optional<Cart> target = carts.stream()
+                .filter(cart -> !cart.isAnonymous())
+                .max(Comparator.comparing(Cart::getUpdatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        Map<UUID, CartLineWriter.LineDelta> deltas = new LinkedHashMap<>();
+        if (inMemory != null) {
+            inMemory.lines().forEach(line -> sum(deltas, new CartLineWriter.LineDelta(line.productId(),
+                    line.quantity(), line.unitPrice(), line.notes())));
+        } else {
+            guest.ifPresent(cart -> cart.getActiveItems().forEach(item -> sum(deltas,
+                    new CartLineWriter.LineDelta(item.getProduct().getId(), item.getQuantity(),
+                            item.getUnitPrice(), item.getNotes()))));
+        }
+
+        guest.ifPresent(cart -> {
+            cart.setIsActive(false);
+            cartRepository.save(cart);
+        });
+        if (deltas.isEmpty()) {
+            return target.map(cart -> new Versioned<>(cart.getId(), cart.getVersion()));
+        }
+
+        UUID cartId = target.map(Cart::getId).orElseGet(() -> createCart(buyer));
+        cartLineWriter.addQuantities(cartId, deltas.values());
+        long version = cartLineWriter.bumpVersion(cartId, null)
+                .orElseThrow(() -> new IllegalStateException("Cart " + cartId + " disappeared during merge"));
+
+        log.info("Guest cart {} merged into cart {} ({} lines)", sessionKey, cartId, deltas.size());
+        return Optional.of(new Versioned<>(cartId, version));
+    }
+
+    private UUID createCart(Tenant buyer) {
+        Cart cart = new Cart();
+        cart.setBuyer(buyer);
+        cart.setIsActive(true);
+        return cartRepository.saveAndFlush(cart).getId();
+    }
+
+    private static void sum(Map<UUID, CartLineWriter.LineDelta> deltas, CartLineWriter.LineDelta delta) {
+        deltas.merge(delta.productId(), delta, (existing, added) -> new CartLineWriter.LineDelta(
+                existing.productId(), existing.quantity().add(added.quantity()), existing.unitPrice(),
+                existing.notes()));
+    }
+}
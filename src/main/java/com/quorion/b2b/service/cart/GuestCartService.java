@@ -0,0 +1,138 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.dto.cart.GuestCartResponse;
+import com.quorion.b2b.model.commerce.Lead;
+import com.quorion.b2b.repository.ProductRepository;
+import com.quorion.b2b.service.CartService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Guest cart operations served from the {@link GuestCartStore}
+ *
+ * In the default LOCAL store mode adding and removing lines touches only
+ * memory (apart from checking that the product exists); the cart is
+ * written to the database when it is converted to a lead or handed to
+ * checkout. Only adding a line creates a cart.
+ */
+@Service
+@Slf4j
+public class GuestCartService {
+
+    private final GuestCartStore guestCartStore;
+    private final ProductRepository productRepository;
+    private final CartService cartService;
+    private final int maxCartItems;
+
+    public GuestCartService(GuestCartStore guestCartStore,
+                            ProductRepository productRepository,
+                            CartService cartService,
+                            @Value("${quorion.b2b.marketplace.max-cart-items:100}") int maxCartItems) {
+        this.guestCartStore = guestCartStore;
+        this.productRepository = productRepository;
+        this.cartService = cartService;
+        this.maxCartItems = maxCartItems;
+    }
+
+    /**
+     * The session's cart; a session without one gets an empty cart that is not stored
+     */
+    public GuestCartResponse getCart(String sessionKey) {
+        return toResponse(guestCartStore.read(sessionKey).orElseGet(() -> empty(sessionKey)));
+    }
+
+    /**
+     * Add or update a product's line, creating the session's cart if needed
+     */
+    public GuestCartResponse addItem(String sessionKey, UUID productId, BigDecimal quantity, BigDecimal unitPrice,
+                                     String notes) {
+        if (quantity.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        if (unitPrice.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Unit price cannot be negative");
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new jakarta.persistence.EntityNotFoundException("Product not found");
+        }
+
+        return toResponse(guestCartStore.update(sessionKey, true, cart -> {
+            if (!cart.contains(productId) && cart.size() >= maxCartItems) {
+                throw new IllegalArgumentException("Cart cannot hold more than " + maxCartItems + " items");
+            }
+            cart.put(productId, quantity, unitPrice, notes);
+        }).orElseThrow());
+    }
+
+    public GuestCartResponse removeItem(String sessionKey, UUID productId) {
+        return toResponse(guestCartStore.update(sessionKey, false, cart -> {
+            if (!cart.remove(productId)) {
+                throw new jakarta.persistence.EntityNotFoundException("Item not found in cart");
+            }
+        }).orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Item not found in cart")));
+    }
+
+    public GuestCartResponse clearCart(String sessionKey) {
+        return toResponse(guestCartStore.update(sessionKey, false, GuestCart::clear)
+                .orElseGet(() -> empty(sessionKey)));
+    }
+
+    /**
+     * Write the cart to the database for checkout
+     */
+    public GuestCartResponse checkout(String sessionKey) {
+        return toResponse(guestCartStore.persist(sessionKey)
+                .orElseThrow(() -> new IllegalArgumentException("Cannot check out an empty cart")));
+    }
+
+    /**
+     * Write the cart to the database and convert it to a lead
+     */
+    public Lead convertToLead(String sessionKey, UUID sellerId, String buyerFirstName, String buyerLastName,
+                              String buyerEmail, String buyerPhone, String buyerCompanyName) {
+        GuestCart.Snapshot cart = guestCartStore.persist(sessionKey).orElseThrow(
+                () -> new jakarta.persistence.EntityNotFoundException("Cannot convert empty cart to lead"));
+        Lead lead = cartService.convertToLead(cart.cartId(), sellerId, buyerFirstName, buyerLastName,
+                buyerEmail, buyerPhone, buyerCompanyName);
+        guestCartStore.remove(sessionKey);
+        return lead;
+    }
+
+    private static GuestCart.Snapshot empty(String sessionKey) {
+        return new GuestCart.Snapshot(sessionKey, null, List.of(), null, 0);
+    }
+
+    private static GuestCartResponse toResponse(GuestCart.Snapshot snapshot) {
+        BigDecimal totalQuantity = BigDecimal.ZERO;
+        BigDecimal subtotal = BigDecimal.ZERO;
+        GuestCartResponse.GuestCartResponseBuilder response = GuestCartResponse.builder()
+                .sessionKey(snapshot.sessionKey())
+                .cartId(snapshot.cartId())
+                .totalItems(snapshot.lines().size())
+                .lastAccessedAt(snapshot.lastAccessedAt());
+
+        List<GuestCartResponse.Line> items = new ArrayList<>(snapshot.lines().size());
+        for (GuestCart.Line line : snapshot.lines()) {
+            totalQuantity = totalQuantity.add(line.quantity());
+            subtotal = subtotal.add(line.totalPrice());
+            items.add(GuestCartResponse.Line.builder()
+                    .productId(line.productId())
+                    .quantity(line.quantity())
+                    .unitPrice(line.unitPrice())
+                    .totalPrice(line.totalPrice())
+                    .notes(line.notes())
+                    .build());
+        }
+        return response
+                .totalQuantity(totalQuantity)
+                .subtotal(subtotal)
+                .items(items)
+                .build();
+    }
+}
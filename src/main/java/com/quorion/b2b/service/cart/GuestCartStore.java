@@ -0,0 +1,407 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.tenant.MarketplaceConfig;
+import com.quorion.b2b.repository.CartItemRepository;
+import com.quorion.b2b.repository.CartRepository;
+import com.quorion.b2b.repository.MarketplaceConfigRepository;
+import com.quorion.b2b.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-memory store for anonymous carts keyed by session key
+ *
+ * In {@link Mode#LOCAL} mode guest carts live only in this process and
+ * reach the {@code cart} and {@code cart_item} tables when they are
+ * persisted explicitly (lead conversion, checkout, login) or, if
+ * write-behind is enabled, when the periodic flush finds them dirty.
+ * Carts idle for longer than the marketplace session timeout are dropped.
+ * A request that takes the store over its bound only marks it as
+ * overflowing; a scheduled task then flushes and drops the least recently
+ * used carts, so no request waits on those writes. A flush replaces the
+ * stored lines with this node's copy, so LOCAL mode is for single-node
+ * deployments and tests only. {@link Mode#DATABASE} keeps nothing in
+ * memory: every call reads the cart from the database and every change
+ * writes just the lines it touched, so any node can serve a session.
+ *
+ * Reads never create a cart; only a change made with {@code create} set
+ * does, so looking up unknown session keys cannot fill the store.
+ */
+@Component
+@Slf4j
+public class GuestCartStore {
+
+    public enum Mode {
+        LOCAL,
+        DATABASE
+    }
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final ProductRepository productRepository;
+    private final MarketplaceConfigRepository marketplaceConfigRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Mode mode;
+    private final int maxCarts;
+    private final boolean writeBehind;
+    private final int defaultTimeoutMinutes;
+
+    private final ConcurrentMap<String, GuestCart> carts = new ConcurrentHashMap<>();
+    private final AtomicBoolean overflowing = new AtomicBoolean();
+    private volatile Duration idleTimeout;
+
+    public GuestCartStore(CartRepository cartRepository,
+                          CartItemRepository cartItemRepository,
+                          ProductRepository productRepository,
+                          MarketplaceConfigRepository marketplaceConfigRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${quorion.b2b.cart.guest-store:local}") String mode,
+                          @Value("${quorion.b2b.cart.guest-max-carts:10000}") int maxCarts,
+                          @Value("${quorion.b2b.cart.guest-write-behind:true}") boolean writeBehind,
+                          @Value("${quorion.b2b.marketplace.session-timeout-minutes:30}") int defaultTimeoutMinutes) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.productRepository = productRepository;
+        this.marketplaceConfigRepository = marketplaceConfigRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.maxCarts = maxCarts;
+        this.writeBehind = writeBehind;
+        this.defaultTimeoutMinutes = defaultTimeoutMinutes;
+        this.idleTimeout = Duration.ofMinutes(defaultTimeoutMinutes);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int size() {
+        return carts.size();
+    }
+
+    /**
+     * The guest cart for a session if it is in memory
+     */
+    public Optional<GuestCart> find(String sessionKey) {
+        return Optional.ofNullable(carts.get(sessionKey));
+    }
+
+    /**
+     * A copy of the session's cart, or empty when the session has none
+     */
+    public Optional<GuestCart.Snapshot> read(String sessionKey) {
+        LocalDateTime now = LocalDateTime.now();
+        if (mode == Mode.DATABASE) {
+            return transactionTemplate.execute(status -> load(sessionKey, now)).map(GuestCart::snapshot);
+        }
+        return Optional.ofNullable(cached(sessionKey, false, now)).map(cart -> {
+            cart.touch(now);
+            return cart.snapshot();
+        });
+    }
+
+    /**
+     * Apply a change to the session's cart and return the result
+     *
+     * The cart is created when {@code create} is set; otherwise a session
+     * without a cart is left alone and empty is returned. In DATABASE mode
+     * the cart is read, changed and its changed lines written in one
+     * transaction, so an exception thrown by the change writes nothing.
+     */
+    public Optional<GuestCart.Snapshot> update(String sessionKey, boolean create, Consumer<GuestCart> change) {
+        LocalDateTime now = LocalDateTime.now();
+        if (mode == Mode.DATABASE) {
+            return transactionTemplate.execute(status -> load(sessionKey, now)
+                    .or(() -> create ? Optional.of(new GuestCart(sessionKey, now)) : Optional.empty())
+                    .map(cart -> writeThrough(cart, change)));
+        }
+        while (true) {
+            GuestCart cart = cached(sessionKey, create, now);
+            if (cart == null) {
+                return Optional.empty();
+            }
+            synchronized (cart) {
+                if (!cart.isEvicted()) {
+                    change.accept(cart);
+                    cart.touch(now);
+                    return Optional.of(cart.snapshot());
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the session's cart to the database now
+     *
+     * Returns the stored copy, whose {@code cartId} is the cart row, or
+     * empty when the session has no lines to write.
+     */
+    public Optional<GuestCart.Snapshot> persist(String sessionKey) {
+        if (mode == Mode.DATABASE) {
+            // Already written through
+            return read(sessionKey).filter(snapshot -> !snapshot.lines().isEmpty());
+        }
+        GuestCart cart = cached(sessionKey, false, LocalDateTime.now());
+        if (cart == null || cart.size() == 0) {
+            return Optional.empty();
+        }
+        persist(cart);
+        return Optional.of(cart.snapshot());
+    }
+
+    /**
+     * Forget a guest cart, e.g. once it has been claimed or converted
+     */
+    public void remove(String sessionKey) {
+        GuestCart cart = carts.get(sessionKey);
+        if (cart != null) {
+            evict(cart, false);
+        }
+    }
+
+    /**
+     * Write-behind flush of dirty carts, then eviction of idle ones
+     */
+    @Scheduled(fixedDelayString = "${quorion.b2b.cart.guest-flush-interval-ms:60000}")
+    public void flushAndEvict() {
+        refreshTimeout();
+        if (writeBehind && mode == Mode.LOCAL) {
+            flushDirty();
+        }
+        evictIdle(LocalDateTime.now());
+    }
+
+    private void persist(GuestCart cart) {
+        GuestCart.Snapshot snapshot = cart.snapshot();
+        Set<UUID> productIds = new HashSet<>();
+        snapshot.lines().forEach(line -> productIds.add(line.productId()));
+        Cart stored = transactionTemplate.execute(status -> write(snapshot, snapshot.lines(),
+                productId -> !productIds.contains(productId)));
+        cart.markFlushed(snapshot.version(), stored.getId());
+    }
+
+    int flushDirty() {
+        int flushed = 0;
+        for (GuestCart cart : carts.values()) {
+            if (cart.isDirty()) {
+                try {
+                    persist(cart);
+                    flushed++;
+                } catch (RuntimeException e) {
+                    log.warn("Failed to flush guest cart {}: {}", cart.getSessionKey(), e.getMessage());
+                }
+            }
+        }
+        if (flushed > 0) {
+            log.debug("Flushed {} guest carts", flushed);
+        }
+        return flushed;
+    }
+
+    /**
+     * Drop carts whose session has timed out
+     *
+     * A persisted copy is left for the expired cart reaper; it carries an
+     * {@code expires_at} set when it was written.
+     */
+    int evictIdle(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(idleTimeout);
+        int evicted = 0;
+        for (GuestCart cart : carts.values()) {
+            if (cart.getLastAccessedAt().isBefore(cutoff) && evict(cart, writeBehind)) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle guest carts", evicted);
+        }
+        return evicted;
+    }
+
+    /**
+     * Bring a store marked as overflowing back under its bound by dropping the least recently used carts
+     *
+     * Trims to 90% of capacity so the scan is paid once per many inserts.
+     * Dirty carts are flushed first when write-behind is enabled; a cart
+     * that fails to flush, or changes again before it is dropped, stays in
+     * memory.
+     */
+    @Scheduled(fixedDelayString = "${quorion.b2b.cart.guest-evict-interval-ms:1000}")
+    public synchronized int evictOverflow() {
+        if (!overflowing.getAndSet(false)) {
+            return 0;
+        }
+        int excess = carts.size() - maxCarts * 9 / 10;
+        if (excess <= 0 || carts.size() <= maxCarts) {
+            return 0;
+        }
+        List<GuestCart> victims = carts.values().stream()
+                .sorted(Comparator.comparing(GuestCart::getLastAccessedAt))
+                .limit(excess)
+                .toList();
+        int evicted = 0;
+        for (GuestCart cart : victims) {
+            if (writeBehind && cart.isDirty()) {
+                try {
+                    persist(cart);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to flush evicted guest cart {}: {}", cart.getSessionKey(), e.getMessage());
+                    overflowing.set(true);
+                    continue;
+                }
+            }
+            if (evict(cart, writeBehind)) {
+                evicted++;
+            }
+        }
+        log.debug("Evicted {} least recently used guest carts", evicted);
+        return evicted;
+    }
+
+    /**
+     * Drop a cart from memory unless {@code keepDirty} is set and it has unwritten changes
+     *
+     * The cart is marked evicted under its own lock, so a request that
+     * fetched it before it was dropped goes back to the map rather than
+     * changing a copy nobody will write.
+     */
+    private boolean evict(GuestCart cart, boolean keepDirty) {
+        synchronized (cart) {
+            if (keepDirty && cart.isDirty()) {
+                return false;
+            }
+            cart.markEvicted();
+            return carts.remove(cart.getSessionKey(), cart);
+        }
+    }
+
+    /**
+     * The session's cart in memory, restoring it from the database if needed
+     *
+     * Returns null when the session has no cart and {@code create} is not set.
+     */
+    private GuestCart cached(String sessionKey, boolean create, LocalDateTime now) {
+        GuestCart cart = carts.get(sessionKey);
+        if (cart != null) {
+            return cart;
+        }
+        GuestCart loaded = transactionTemplate.execute(status -> load(sessionKey, now))
+                .orElseGet(() -> create ? new GuestCart(sessionKey, now) : null);
+        if (loaded == null) {
+            return null;
+        }
+        GuestCart existing = carts.putIfAbsent(sessionKey, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (carts.size() > maxCarts) {
+            overflowing.set(true);
+        }
+        return loaded;
+    }
+
+    private void refreshTimeout() {
+        try {
+            int minutes = marketplaceConfigRepository.findFirstByIsActiveTrueOrderByCreatedAtDesc()
+                    .map(MarketplaceConfig::getSessionTimeoutMinutes)
+                    .orElse(defaultTimeoutMinutes);
+            idleTimeout = Duration.ofMinutes(minutes);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read session timeout, keeping {}: {}", idleTimeout, e.getMessage());
+        }
+    }
+
+    private Optional<GuestCart> load(String sessionKey, LocalDateTime now) {
+        return cartRepository.findBySessionKeyAndIsActiveTrue(sessionKey)
+                .filter(Cart::isAnonymous)
+                .map(cart -> GuestCart.restore(sessionKey, cart.getId(), cart.getActiveItems().stream()
+                        .map(item -> new GuestCart.Line(item.getProduct().getId(), item.getQuantity(),
+                                item.getUnitPrice(), item.getNotes()))
+                        .toList(), now));
+    }
+
+    /**
+     * Apply a change to a cart just read from the database and write only the lines it touched
+     */
+    private GuestCart.Snapshot writeThrough(GuestCart cart, Consumer<GuestCart> change) {
+        GuestCart.Snapshot before = cart.snapshot();
+        change.accept(cart);
+        GuestCart.Snapshot after = cart.snapshot();
+
+        Map<UUID, GuestCart.Line> removed = new HashMap<>();
+        before.lines().forEach(line -> removed.put(line.productId(), line));
+        List<GuestCart.Line> changed = new ArrayList<>();
+        for (GuestCart.Line line : after.lines()) {
+            if (!line.equals(removed.remove(line.productId()))) {
+                changed.add(line);
+            }
+        }
+        if (!changed.isEmpty() || !removed.isEmpty() || after.cartId() == null) {
+            Cart stored = write(after, changed, removed::containsKey);
+            cart.markFlushed(after.version(), stored.getId());
+        }
+        return cart.snapshot();
+    }
+
+    /**
+     * Write lines of a snapshot to its stored cart: one cart fetch and one batched item write
+     *
+     * Every line given is upserted and every stored line whose product
+     * matches {@code removed} is deleted; other stored lines are untouched.
+     */
+    private Cart write(GuestCart.Snapshot snapshot, List<GuestCart.Line> lines, Predicate<UUID> removed) {
+        Cart cart = Optional.ofNullable(snapshot.cartId())
+                .flatMap(cartRepository::findByIdWithItems)
+                .filter(Cart::getIsActive)
+                .or(() -> cartRepository.findBySessionKeyAndIsActiveTrue(snapshot.sessionKey()))
+                .orElseGet(() -> {
+                    Cart created = new Cart();
+                    created.setSessionKey(snapshot.sessionKey());
+                    created.setIsActive(true);
+                    return created;
+                });
+        cart.setExpiresAt(snapshot.lastAccessedAt().plus(idleTimeout));
+        cart = cartRepository.save(cart);
+
+        CartAggregate aggregate = CartAggregate.of(cart);
+        Set<UUID> missing = aggregate.missing(lines.stream().map(GuestCart.Line::productId).toList());
+        if (!missing.isEmpty()) {
+            aggregate.restoreDeleted(cartItemRepository.findDeletedByCartIdAndProductIdIn(cart.getId(), missing));
+        }
+        for (GuestCart.Line line : lines) {
+            aggregate.put(productRepository.getReferenceById(line.productId()), line.quantity(),
+                    line.unitPrice(), line.notes());
+        }
+        for (CartItem item : List.copyOf(aggregate.items())) {
+            if (removed.test(item.getProduct().getId())) {
+                aggregate.remove(item);
+            }
+        }
+        cartItemRepository.saveAll(aggregate.drainChanges());
+        return cart;
+    }
+}
@@ -0,0 +1,206 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.dto.cart.PricedCartResponse;
+import com.quorion.b2b.dto.pricing.PriceRequest;
+import com.quorion.b2b.dto.pricing.PriceResult;
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.product.ProductSKU;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.repository.CartRepository;
+import com.quorion.b2b.repository.ProductSKURepository;
+import com.quorion.b2b.service.PricingService;
+import com.quorion.b2b.service.pricing.PriceIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Priced cart snapshots, cached by cart version and pricing version
+ *
+ * A snapshot prices every line against the single active SKU of its
+ * product in one batch. It is served again as long as the cart version is
+ * unchanged and none of its SKUs has been repriced since it was computed,
+ * which costs one version query per request. Snapshots older than the
+ * configured maximum age are recomputed too, since tier and list price
+ * validity windows open and close without a pricing event. Changes on
+ * other nodes reach the index through the pricing change log within a
+ * poll interval; the short default age caps staleness should a poll fail.
+ */
+@Service
+@Slf4j
+public class PricedCartService {
+
+    private final CartRepository cartRepository;
+    private final ProductSKURepository productSKURepository;
+    private final PricingService pricingService;
+    private final PriceIndex priceIndex;
+    private final Duration maxAge;
+    private final int maxSnapshots;
+
+    private final ConcurrentMap<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private record Snapshot(PricedCartResponse response, Set<UUID> skuIds) {
+    }
+
+    public PricedCartService(CartRepository cartRepository,
+                             ProductSKURepository productSKURepository,
+                             PricingService pricingService,
+                             PriceIndex priceIndex,
+                             @Value("${quorion.b2b.cart.priced-snapshot-max-age-seconds:60}") long maxAgeSeconds,
+                             @Value("${quorion.b2b.cart.priced-snapshot-cache-size:10000}") int maxSnapshots) {
+        this.cartRepository = cartRepository;
+        this.productSKURepository = productSKURepository;
+        this.pricingService = pricingService;
+        this.priceIndex = priceIndex;
+        this.maxAge = Duration.ofSeconds(maxAgeSeconds);
+        this.maxSnapshots = maxSnapshots;
+    }
+
+    /**
+     * The priced snapshot of a cart, recomputed only when it is stale
+     */
+    @Transactional(readOnly = true)
+    public PricedCartResponse getPricedCart(UUID cartId) {
+        Long cartVersion = cartRepository.findVersionById(cartId).orElse(null);
+        if (cartVersion == null) {
+            snapshots.remove(cartId);
+            throw new jakarta.persistence.EntityNotFoundException("Cart not found with id: " + cartId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        Snapshot cached = snapshots.get(cartId);
+        if (cached != null && isFresh(cached, cartVersion, now)) {
+            return cached.response();
+        }
+
+        // Read before pricing, so a price change during pricing leaves the snapshot stale
+        long pricingVersion = priceIndex.generation();
+        Cart cart = cartRepository.findByIdWithItems(cartId)
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Cart not found with id: " + cartId));
+        Snapshot snapshot = price(cart, pricingVersion, now);
+        snapshots.put(cartId, snapshot);
+        if (snapshots.size() > maxSnapshots) {
+            evictOverflow();
+        }
+        log.debug("Priced cart {} at version {} and pricing version {}", cartId, cart.getVersion(), pricingVersion);
+        return snapshot.response();
+    }
+
+    private boolean isFresh(Snapshot snapshot, long cartVersion, LocalDateTime now) {
+        PricedCartResponse response = snapshot.response();
+        return response.getCartVersion() == cartVersion
+                && response.getPricedAt().plus(maxAge).isAfter(now)
+                && !priceIndex.changedSince(snapshot.skuIds(), response.getPricingVersion());
+    }
+
+    private Snapshot price(Cart cart, long pricingVersion, LocalDateTime now) {
+        List<CartItem> items = List.copyOf(cart.getItems());
+        Map<UUID, List<ProductSKU>> skusByProduct = new HashMap<>();
+        if (!items.isEmpty()) {
+            productSKURepository.findActiveByProductIdIn(items.stream()
+                            .map(item -> item.getProduct().getId())
+                            .collect(Collectors.toSet()))
+                    .forEach(sku -> skusByProduct
+                            .computeIfAbsent(sku.getProduct().getId(), k -> new ArrayList<>())
+                            .add(sku));
+        }
+
+        // Lines whose product has exactly one active SKU are priced in one batch
+        UUID buyerId = cart.getBuyer() != null ? cart.getBuyer().getId() : null;
+        List<PriceRequest> requests = new ArrayList<>();
+        List<UUID> lineSkus = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            List<ProductSKU> skus = skusByProduct.getOrDefault(item.getProduct().getId(), List.of());
+            if (skus.size() != 1) {
+                lineSkus.add(null);
+                continue;
+            }
+            ProductSKU sku = skus.get(0);
+            Tenant seller = sku.getProduct().getSeller();
+            lineSkus.add(sku.getId());
+            requests.add(PriceRequest.builder()
+                    .skuId(sku.getId())
+                    .quantity(item.getQuantity())
+                    .buyerId(buyerId)
+                    .sellerId(seller != null ? seller.getId() : null)
+                    .build());
+        }
+        List<PriceResult> prices = pricingService.calculatePrices(requests);
+
+        List<PricedCartResponse.Line> lines = new ArrayList<>(items.size());
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal totalQuantity = BigDecimal.ZERO;
+        int repriced = 0;
+        int next = 0;
+        for (int i = 0; i < items.size(); i++) {
+            CartItem item = items.get(i);
+            UUID skuId = lineSkus.get(i);
+            PriceResult price = skuId != null ? prices.get(next++) : null;
+            boolean priced = price != null && price.isPriced();
+
+            PricedCartResponse.Line line = PricedCartResponse.Line.builder()
+                    .itemId(item.getId())
+                    .productId(item.getProduct().getId())
+                    .skuId(skuId)
+                    .quantity(item.getQuantity())
+                    .cartUnitPrice(item.getUnitPrice())
+                    .unitPrice(priced ? price.getUnitPrice() : item.getUnitPrice())
+                    .lineTotal(priced ? price.getTotalPrice() : item.getTotalPrice())
+                    .priced(priced)
+                    .repriced(priced && price.getUnitPrice().compareTo(item.getUnitPrice()) != 0)
+                    .build();
+            lines.add(line);
+            subtotal = subtotal.add(line.getLineTotal());
+            totalQuantity = totalQuantity.add(line.getQuantity());
+            if (line.isRepriced()) {
+                repriced++;
+            }
+        }
+
+        PricedCartResponse response = PricedCartResponse.builder()
+                .cartId(cart.getId())
+                .cartVersion(cart.getVersion())
+                .pricingVersion(pricingVersion)
+                .pricedAt(now)
+                .itemCount(lines.size())
+                .totalQuantity(totalQuantity)
+                .subtotal(subtotal)
+                .repricedLines(repriced)
+                .lines(lines)
+                .build();
+        return new Snapshot(response, lineSkus.stream()
+                .filter(skuId -> skuId != null)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    /**
+     * Drop the least recently priced snapshots down to 90% of capacity
+     */
+    private synchronized void evictOverflow() {
+        int excess = snapshots.size() - maxSnapshots * 9 / 10;
+        if (excess <= 0 || snapshots.size() <= maxSnapshots) {
+            return;
+        }
+        snapshots.entrySet().stream()
+                .sorted(Comparator.comparing(entry -> entry.getValue().response().getPricedAt()))
+                .limit(excess)
+                .toList()
+                .forEach(entry -> snapshots.remove(entry.getKey(), entry.getValue()));
+    }
+}
@@ -0,0 +1,7 @@
+package com.quorion.b2b.service.cart;
+
+/**
+ * A result together with the cart version it was written at
+ */
+public record Versioned<T>(T value, long version) {
+}
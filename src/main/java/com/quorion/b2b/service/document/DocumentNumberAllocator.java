@@ -0,0 +1,217 @@
+package com.quorion.b2b.service.document;
+
+import com.quorion.b2b.model.commerce.DocumentNumberFormat;
+import com.quorion.b2b.model.commerce.DocumentType;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.repository.DocumentNumberFormatRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Unique document numbers for quotes, orders, shipments and invoices
+ *
+ * Numbers come from counters in the {@code document_sequence} table, one
+ * per document type and prefix. A node reserves a block of values with a
+ * single upsert that advances the counter, committed on its own so a
+ * rolled back caller never returns a block another node could get, and
+ * then hands the block out from memory with an atomic increment. Only
+ * the thread that finds the block used up goes to the database. Blocks
+ * left unused at shutdown are gaps, never duplicates.
+ *
+ * Sellers can set their own prefix and pattern per document type in
+ * {@code document_number_format}; the rest use the type's default prefix.
+ * Numbers stay unique across sellers because every pattern starts with
+ * its prefix, no prefix of a type starts with another one, and sellers
+ * sharing a prefix share its counter and pattern. Formats breaking these
+ * rules are ignored with a warning, and their sellers use the default.
+ */
+@Component
+@Slf4j
+public class DocumentNumberAllocator {
+
+    private static final String SCHEMA =
+            "CREATE TABLE IF NOT EXISTS document_sequence (sequence_key varchar(100) PRIMARY KEY, " +
+            "next_value bigint NOT NULL, updated_at timestamp NOT NULL)";
+
+    private static final String RESERVE_BLOCK =
+            "INSERT INTO document_sequence (sequence_key, next_value, updated_at) VALUES (:key, 1 + :size, :now) " +
+            "ON CONFLICT (sequence_key) DO UPDATE SET next_value = document_sequence.next_value + :size, " +
+            "updated_at = :now RETURNING next_value";
+
+    private static final Pattern SEQ_TOKEN = Pattern.compile("\\{seq(?::(\\d{1,2}))?}");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DocumentNumberFormatRepository formatRepository;
+    private final int blockSize;
+
+    private final ConcurrentMap<String, AtomicReference<Block>> blocks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DocumentType, Map<UUID, Format>> formats = new ConcurrentHashMap<>();
+
+    /**
+     * Values {@code [next, end)} reserved by this node
+     */
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    /**
+     * Prefix and pattern a number is rendered with
+     */
+    record Format(String prefix, String pattern) {
+    }
+
+    public DocumentNumberAllocator(NamedParameterJdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   DocumentNumberFormatRepository formatRepository,
+                                   @Value("${quorion.b2b.documents.number-block-size:100}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.formatRepository = formatRepository;
+        this.blockSize = blockSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSchema() {
+        jdbcTemplate.getJdbcTemplate().execute(SCHEMA);
+    }
+
+    /**
+     * Drop cached formats so edits to {@code document_number_format} take effect
+     */
+    @Scheduled(fixedDelayString = "${quorion.b2b.documents.format-refresh-ms:300000}")
+    public void refreshFormats() {
+        formats.clear();
+    }
+
+    /**
+     * The next number for a document of the given seller; a null seller uses the default format
+     */
+    public String next(DocumentType type, Tenant seller) {
+        return next(type, seller != null ? seller.getId() : null);
+    }
+
+    public String next(DocumentType type, UUID sellerId) {
+        Format format = format(type, sellerId);
+        long value = nextValue(type.name() + ":" + format.prefix());
+        return render(format.pattern(), format.prefix(), value, Year.now().getValue());
+    }
+
+    private long nextValue(String key) {
+        AtomicReference<Block> holder = blocks.computeIfAbsent(key, k -> new AtomicReference<>(new Block(0, 0)));
+        while (true) {
+            Block block = holder.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            synchronized (holder) {
+                if (holder.get() == block) {
+                    holder.set(reserve(key));
+                }
+            }
+        }
+    }
+
+    private Block reserve(String key) {
+        Long end = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(RESERVE_BLOCK,
+                new MapSqlParameterSource("key", key)
+                        .addValue("size", blockSize)
+                        .addValue("now", LocalDateTime.now()), Long.class));
+        log.debug("Reserved document numbers [{}, {}) for {}", end - blockSize, end, key);
+        return new Block(end - blockSize, end);
+    }
+
+    private Format format(DocumentType type, UUID sellerId) {
+        Format defaultFormat = new Format(type.getDefaultPrefix(), DocumentNumberFormat.DEFAULT_PATTERN);
+        if (sellerId == null) {
+            return defaultFormat;
+        }
+        return formats.computeIfAbsent(type, t -> validated(t, formatRepository.findByDocumentType(t)))
+                .getOrDefault(sellerId, defaultFormat);
+    }
+
+    /**
+     * The configured formats of a type that keep numbers unique, by seller
+     *
+     * All formats of the type are checked together, so every node drops
+     * the same ones whatever seller it is asked about first.
+     */
+    static Map<UUID, Format> validated(DocumentType type, List<DocumentNumberFormat> configured) {
+        Map<UUID, Format> candidates = new HashMap<>();
+        for (DocumentNumberFormat format : configured) {
+            String pattern = format.getPattern();
+            if (pattern == null || !pattern.startsWith("{prefix}") || !SEQ_TOKEN.matcher(pattern).find()) {
+                log.warn("Ignoring {} number pattern '{}' that does not start with {prefix} and contain {seq}",
+                        type, pattern);
+                continue;
+            }
+            candidates.put(format.getSeller().getId(), new Format(format.getPrefix(), pattern));
+        }
+
+        // The default format is in use by every seller without one of their own
+        Map<String, Set<String>> patternsByPrefix = new HashMap<>();
+        patternsByPrefix.computeIfAbsent(type.getDefaultPrefix(), p -> new HashSet<>())
+                .add(DocumentNumberFormat.DEFAULT_PATTERN);
+        candidates.values().forEach(format -> patternsByPrefix
+                .computeIfAbsent(format.prefix(), p -> new HashSet<>())
+                .add(format.pattern()));
+
+        Map<UUID, Format> valid = new HashMap<>();
+        candidates.forEach((sellerId, format) -> {
+            String prefix = format.prefix();
+            boolean overlaps = patternsByPrefix.keySet().stream()
+                    .anyMatch(other -> !other.equals(prefix) && (other.startsWith(prefix) || prefix.startsWith(other)));
+            if (overlaps || patternsByPrefix.get(prefix).size() > 1) {
+                log.warn("Ignoring {} number prefix '{}' of seller {}: it overlaps another prefix or is shared " +
+                        "with a different pattern", type, prefix, sellerId);
+            } else {
+                valid.put(sellerId, format);
+            }
+        });
+        return valid;
+    }
+
+    static String render(String pattern, String prefix, long value, int year) {
+        Matcher matcher = SEQ_TOKEN.matcher(pattern.replace("{prefix}", prefix).replace("{yyyy}", Integer.toString(year)));
+        StringBuilder number = new StringBuilder();
+        while (matcher.find()) {
+            String width = matcher.group(1);
+            String seq = width == null ? Long.toString(value) : String.format("%0" + width + "d", value);
+            matcher.appendReplacement(number, Matcher.quoteReplacement(seq));
+        }
+        matcher.appendTail(number);
+        return number.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.quorion.b2b.service.history;
+
+import com.quorion.b2b.service.outbox.OutboxEvent;
+import com.quorion.b2b.service.outbox.OutboxSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Appends quote, order and lead status changes to the {@code status_transition} history
+ *
+ * Fed from the outbox, so transition methods only pay for the outbox row
+ * and the history is written in batches of one multi-row INSERT. Rows are
+ * facts only; how long a stage took is worked out when reporting, so it
+ * does not matter in which order concurrent or retried batches land.
+ *
+ * The table is range partitioned by month on {@code occurred_at} with a
+ * BRIN index on it, so time-range reports prune to the months they cover.
+ * Monthly partitions are created ahead of time; events outside them, such
+ * as an old backlog, go to the default partition instead of failing.
+ */
+@Component
+@Slf4j
+public class StatusHistoryRecorder implements OutboxSubscriber {
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS status_transition (event_id bigint NOT NULL, " +
+                    "aggregate_type varchar(20) NOT NULL, aggregate_id uuid NOT NULL, seller_id uuid, " +
+                    "from_status varchar(30), to_status varchar(30) NOT NULL, occurred_at timestamp NOT NULL) " +
+                    "PARTITION BY RANGE (occurred_at)",
+            "CREATE TABLE IF NOT EXISTS status_transition_default PARTITION OF status_transition DEFAULT",
+            "CREATE INDEX IF NOT EXISTS idx_status_transition_occurred ON status_transition USING brin (occurred_at)",
+            "CREATE INDEX IF NOT EXISTS idx_status_transition_seller " +
+                    "ON status_transition (seller_id, aggregate_type, occurred_at)"
+    };
+
+    private static final String CREATE_PARTITION =
+            "CREATE TABLE IF NOT EXISTS status_transition_y%04dm%02d PARTITION OF status_transition " +
+            "FOR VALUES FROM ('%s') TO ('%s')";
+
+    private static final String INSERT =
+            "INSERT INTO status_transition (event_id, aggregate_type, aggregate_id, seller_id, from_status, " +
+            "to_status, occurred_at) VALUES (:eventId, :type, :id, :sellerId, :from, :to, :occurredAt)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int partitionsAhead;
+
+    public StatusHistoryRecorder(NamedParameterJdbcTemplate jdbcTemplate,
+                                 @Value("${quorion.b2b.history.partitions-ahead:3}") int partitionsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSchema() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.getJdbcTemplate().execute(statement);
+        }
+        createPartitions();
+    }
+
+    /**
+     * Create the monthly partitions from last month to {@code partitionsAhead} months ahead
+     *
+     * A month that already has rows in the default partition cannot get its
+     * own; it is skipped and its rows stay in the default partition.
+     */
+    @Scheduled(cron = "${quorion.b2b.history.partition-cron:0 0 3 * * *}")
+    public void createPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int offset = -1; offset <= partitionsAhead; offset++) {
+            YearMonth month = current.plusMonths(offset);
+            LocalDate start = month.atDay(1);
+            try {
+                jdbcTemplate.getJdbcTemplate().execute(CREATE_PARTITION.formatted(month.getYear(),
+                        month.getMonthValue(), start, start.plusMonths(1)));
+            } catch (DataAccessException e) {
+                log.warn("Could not create status history partition for {}: {}", month, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onEvents(List<OutboxEvent> events) {
+        SqlParameterSource[] rows = events.stream()
+                .map(event -> new MapSqlParameterSource("eventId", event.id())
+                        .addValue("type", event.aggregateType().name())
+                        .addValue("id", event.aggregateId())
+                        .addValue("sellerId", event.sellerId())
+                        .addValue("from", event.fromStatus())
+                        .addValue("to", event.toStatus())
+                        .addValue("occurredAt", event.occurredAt()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        log.debug("Recorded {} status transitions", rows.length);
+    }
+}
@@ -0,0 +1,72 @@
+package com.quorion.b2b.service.history;
+
+import com.quorion.b2b.dto.history.StageDuration;
+import com.quorion.b2b.service.outbox.AggregateType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cycle-time reports over the status transition history
+ *
+ * A stage lasts from the transition that entered a status to the one that
+ * left it. Both are paired with {@code lag()} over each aggregate's
+ * transitions when the report runs, so durations are right whatever order
+ * the history was written in. Only transitions whose previous row entered
+ * the status they leave are timed. The scan covers the requested range
+ * plus a bounded lookback for stages that started before it, and the
+ * monthly partitions and the seller index keep it to that window.
+ */
+@Service
+public class StatusHistoryService {
+
+    private static final String STAGE_DURATIONS =
+            "WITH stages AS (SELECT from_status, to_status, occurred_at, " +
+            "lag(to_status) OVER w AS entered_status, lag(occurred_at) OVER w AS entered_at " +
+            "FROM status_transition WHERE aggregate_type = :type AND seller_id = :sellerId " +
+            "AND occurred_at >= :since AND occurred_at < :to " +
+            "WINDOW w AS (PARTITION BY aggregate_id ORDER BY occurred_at, event_id)) " +
+            "SELECT from_status, to_status, count(*) AS transitions, " +
+            "percentile_cont(0.5) WITHIN GROUP (ORDER BY extract(epoch FROM occurred_at - entered_at)) AS p50, " +
+            "percentile_cont(0.95) WITHIN GROUP (ORDER BY extract(epoch FROM occurred_at - entered_at)) AS p95 " +
+            "FROM stages WHERE occurred_at >= :from AND entered_status = from_status " +
+            "GROUP BY from_status, to_status ORDER BY from_status, to_status";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int stageLookbackDays;
+
+    public StatusHistoryService(NamedParameterJdbcTemplate jdbcTemplate,
+                                @Value("${quorion.b2b.history.stage-lookback-days:90}") int stageLookbackDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stageLookbackDays = stageLookbackDays;
+    }
+
+    /**
+     * p50 and p95 time in each status for a seller's transitions in {@code [from, to)}
+     *
+     * Stages that started more than the lookback before {@code from} are left out.
+     */
+    public List<StageDuration> stageDurations(AggregateType type, UUID sellerId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Range start must be before its end");
+        }
+        return jdbcTemplate.query(STAGE_DURATIONS, new MapSqlParameterSource("type", type.name())
+                        .addValue("sellerId", sellerId)
+                        .addValue("since", from.minusDays(stageLookbackDays))
+                        .addValue("from", from)
+                        .addValue("to", to),
+                (rs, rowNum) -> StageDuration.builder()
+                        .aggregateType(type)
+                        .fromStatus(rs.getString("from_status"))
+                        .toStatus(rs.getString("to_status"))
+                        .transitions(rs.getLong("transitions"))
+                        .p50Seconds(rs.getDouble("p50"))
+                        .p95Seconds(rs.getDouble("p95"))
+                        .build());
+    }
+}
@@ -0,0 +1,56 @@
+package com.quorion.b2b.service.order;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Set-based writes of purchase order lines
+ *
+ * Copying a quote's lines into an order is one INSERT ... SELECT on the
+ * caller's connection, so a quote with thousands of lines costs one
+ * statement and never loads a line into memory. The statement reports
+ * how many lines the quote has, how many were copied and their total.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderLineWriter {
+
+    /**
+     * Lines without a SKU or price cannot be ordered and are not copied
+     */
+    private static final String COPY_QUOTE_LINES =
+            "WITH lines AS (SELECT product_id, sku_id, no_of_units, total_quantity, price_per_unit, currency " +
+            "FROM quote_request_detail WHERE quote_request_id = :quoteId), " +
+            "copied AS (INSERT INTO purchase_order_detail (id, created_at, updated_at, order_id, product_id, " +
+            "sku_id, no_of_units, total_quantity, price_per_unit, currency) " +
+            "SELECT gen_random_uuid(), :now, :now, :orderId, product_id, sku_id, no_of_units, total_quantity, " +
+            "price_per_unit, currency FROM lines WHERE sku_id IS NOT NULL AND price_per_unit IS NOT NULL " +
+            "RETURNING total_quantity, price_per_unit) " +
+            "SELECT (SELECT count(*) FROM lines) AS quoted, count(*) AS copied, " +
+            "COALESCE(sum(total_quantity * price_per_unit), 0) AS subtotal FROM copied";
+
+    /**
+     * Line counts and value of a copy
+     */
+    public record CopiedLines(int quoted, int copied, BigDecimal subtotal) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Copy the priced lines of a quote into an order that is already flushed
+     */
+    public CopiedLines copyQuoteLines(UUID quoteId, UUID orderId) {
+        return jdbcTemplate.queryForObject(COPY_QUOTE_LINES, new MapSqlParameterSource("quoteId", quoteId)
+                        .addValue("orderId", orderId)
+                        .addValue("now", LocalDateTime.now()),
+                (rs, rowNum) -> new CopiedLines(rs.getInt("quoted"), rs.getInt("copied"),
+                        rs.getBigDecimal("subtotal")));
+    }
+}
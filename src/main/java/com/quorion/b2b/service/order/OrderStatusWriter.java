@@ -0,0 +1,98 @@
+package com.quorion.b2b.service.order;
+
+import com.quorion.b2b.model.commerce.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Compare-and-set writes of purchase order status
+ *
+ * A transition is one conditional UPDATE that only matches orders still
+ * in the expected status, so of two concurrent transitions of an order
+ * exactly one wins, without reading the order first. The ids that did
+ * change come back through RETURNING; every other order was either
+ * missing or in another status.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusWriter {
+
+    /**
+     * Ids per statement, well below the driver's parameter limit
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String TRANSITION =
+            "UPDATE purchase_order SET status = :to, updated_at = :now " +
+            "WHERE id IN (:ids) AND status = :from RETURNING id";
+
+    /**
+     * Locks the order in the subquery so the status it had can be returned;
+     * a concurrent cancel waits on the lock and then no longer matches
+     */
+    private static final String CANCEL =
+            "UPDATE purchase_order o SET status = :cancelled, is_active = false, updated_at = :now " +
+            "FROM (SELECT id, status FROM purchase_order WHERE id = :id AND status NOT IN (:final) FOR UPDATE) previous " +
+            "WHERE o.id = previous.id AND o.status NOT IN (:final) RETURNING previous.status";
+
+    private static final String CURRENT_STATUSES =
+            "SELECT id, status FROM purchase_order WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Move the orders that are in {@code from} to {@code to}; returns the ids that moved
+     */
+    public List<UUID> transition(Collection<UUID> orderIds, OrderStatus from, OrderStatus to) {
+        List<UUID> ids = List.copyOf(orderIds);
+        List<UUID> moved = new ArrayList<>(ids.size());
+        for (int start = 0; start < ids.size(); start += CHUNK_SIZE) {
+            MapSqlParameterSource params = new MapSqlParameterSource("now", LocalDateTime.now())
+                    .addValue("ids", ids.subList(start, Math.min(start + CHUNK_SIZE, ids.size())))
+                    .addValue("from", from.name())
+                    .addValue("to", to.name());
+            moved.addAll(jdbcTemplate.queryForList(TRANSITION, params, UUID.class));
+        }
+        return moved;
+    }
+
+    /**
+     * Cancel the order unless it is already cancelled or completed; returns the status it had
+     */
+    public Optional<OrderStatus> cancel(UUID orderId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("now", LocalDateTime.now())
+                .addValue("id", orderId)
+                .addValue("cancelled", OrderStatus.CANCELLED.name())
+                .addValue("final", List.of(OrderStatus.CANCELLED.name(), OrderStatus.COMPLETED.name()));
+        return jdbcTemplate.queryForList(CANCEL, params, String.class).stream()
+                .findFirst()
+                .map(OrderStatus::valueOf);
+    }
+
+    /**
+     * Current status of each of the given orders that exists
+     */
+    public Map<UUID, OrderStatus> currentStatuses(Collection<UUID> orderIds) {
+        List<UUID> ids = List.copyOf(orderIds);
+        Map<UUID, OrderStatus> statuses = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += CHUNK_SIZE) {
+            jdbcTemplate.query(CURRENT_STATUSES,
+                    new MapSqlParameterSource("ids", ids.subList(start, Math.min(start + CHUNK_SIZE, ids.size()))),
+                    rs -> {
+                        statuses.put(rs.getObject("id", UUID.class), OrderStatus.valueOf(rs.getString("status")));
+                    });
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,10 @@
+package com.quorion.b2b.service.outbox;
+
+/**
+ * Entities whose status changes are published through the outbox
+ */
+public enum AggregateType {
+    QUOTE_REQUEST,
+    PURCHASE_ORDER,
+    LEAD
+}
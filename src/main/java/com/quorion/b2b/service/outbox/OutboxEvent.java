@@ -0,0 +1,14 @@
+package com.quorion.b2b.service.outbox;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A committed status change, as delivered to subscribers
+ *
+ * {@code id} increases with the order events were appended in;
+ * {@code fromStatus} is null when the entity was created.
+ */
+public record OutboxEvent(long id, AggregateType aggregateType, UUID aggregateId, UUID sellerId,
+                          String fromStatus, String toStatus, LocalDateTime occurredAt) {
+}
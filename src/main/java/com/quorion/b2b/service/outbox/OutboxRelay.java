@@ -0,0 +1,201 @@
+package com.quorion.b2b.service.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Delivers outbox events to in-process subscribers
+ *
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED} in id order,
+ * handed to every {@link OutboxSubscriber} and deleted, all in one
+ * transaction, so relays on several nodes drain disjoint batches without
+ * waiting on each other; across nodes, batches may be delivered
+ * concurrently.
+ *
+ * Events of one aggregate are delivered in append order: an event is only
+ * claimed once no earlier event of its aggregate is left in the table, so
+ * a batch carries at most one event per aggregate and an event claimed by
+ * another node holds back the later ones until it is delivered.
+ *
+ * When a batch fails it is rolled back and its events are redelivered one
+ * at a time, so only the events that fail again are postponed, with a
+ * backoff. A postponed event holds back later events of its own aggregate
+ * only. An event that has used up {@code maxAttempts} is marked dead
+ * ({@code dead_at}); it stays in the table for inspection and no longer
+ * blocks its aggregate.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String CLAIM =
+            "SELECT e.id, e.aggregate_type, e.aggregate_id, e.seller_id, e.from_status, e.to_status, " +
+            "e.occurred_at FROM outbox_event e WHERE e.dead_at IS NULL AND e.available_at <= :now " +
+            "AND NOT EXISTS (SELECT 1 FROM outbox_event earlier WHERE earlier.aggregate_id = e.aggregate_id " +
+            "AND earlier.id < e.id AND earlier.dead_at IS NULL) ";
+
+    private static final String CLAIM_BATCH = CLAIM + "ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM_ONE = CLAIM + "AND e.id = :id FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_BATCH =
+            "DELETE FROM outbox_event WHERE id IN (:ids)";
+
+    private static final String POSTPONE =
+            "UPDATE outbox_event SET attempts = attempts + 1, available_at = :retryAt, last_error = :error, " +
+            "dead_at = CASE WHEN attempts + 1 >= :maxAttempts THEN :now END " +
+            "WHERE id = :id RETURNING dead_at IS NOT NULL";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<OutboxSubscriber> subscribers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int retryDelaySeconds;
+
+    public OutboxRelay(NamedParameterJdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       ObjectProvider<OutboxSubscriber> subscribers,
+                       @Value("${quorion.b2b.outbox.batch-size:500}") int batchSize,
+                       @Value("${quorion.b2b.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${quorion.b2b.outbox.retry-delay-seconds:30}") int retryDelaySeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.subscribers = subscribers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelaySeconds = retryDelaySeconds;
+    }
+
+    /**
+     * Drain the outbox until a batch comes back empty or an event fails
+     *
+     * A short batch does not end the run, since delivering it may have
+     * released later events of the same aggregates.
+     */
+    @Scheduled(fixedDelayString = "${quorion.b2b.outbox.poll-interval-ms:500}")
+    public void relay() {
+        int delivered = 0;
+        while (true) {
+            List<OutboxEvent> batch;
+            try {
+                batch = transactionTemplate.execute(status -> deliverBatch());
+            } catch (DeliveryFailedException e) {
+                delivered += redeliverOneByOne(e.ids);
+                break;
+            }
+            delivered += batch.size();
+            if (batch.isEmpty()) {
+                break;
+            }
+        }
+        if (delivered > 0) {
+            log.debug("Relayed {} outbox events", delivered);
+        }
+    }
+
+    /**
+     * Claim, deliver and delete the next batch of events free to go
+     */
+    List<OutboxEvent> deliverBatch() {
+        List<OutboxEvent> batch = jdbcTemplate.query(CLAIM_BATCH, params().addValue("limit", batchSize),
+                OutboxRelay::mapEvent);
+        if (!batch.isEmpty()) {
+            deliver(batch);
+        }
+        return batch;
+    }
+
+    /**
+     * Deliver the events of a failed batch one per transaction, postponing each that fails again
+     */
+    private int redeliverOneByOne(List<Long> ids) {
+        int delivered = 0;
+        for (Long id : ids) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> deliverOne(id)))) {
+                    delivered++;
+                }
+            } catch (DeliveryFailedException e) {
+                postpone(id, e.getCause());
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Claim, deliver and delete one event; false if it is gone or claimed elsewhere
+     */
+    boolean deliverOne(long id) {
+        List<OutboxEvent> claimed = jdbcTemplate.query(CLAIM_ONE, params().addValue("id", id), OutboxRelay::mapEvent);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+        deliver(claimed);
+        return true;
+    }
+
+    private void deliver(List<OutboxEvent> events) {
+        List<Long> ids = events.stream().map(OutboxEvent::id).toList();
+        try {
+            subscribers.orderedStream().forEach(subscriber -> subscriber.onEvents(events));
+        } catch (RuntimeException e) {
+            throw new DeliveryFailedException(ids, e);
+        }
+        jdbcTemplate.update(DELETE_BATCH, new MapSqlParameterSource("ids", ids));
+    }
+
+    private MapSqlParameterSource params() {
+        return new MapSqlParameterSource("now", LocalDateTime.now());
+    }
+
+    /**
+     * Schedule a retry of a failed event, or mark it dead once it is out of attempts
+     */
+    private void postpone(long id, Throwable cause) {
+        Boolean dead = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(POSTPONE,
+                params().addValue("id", id)
+                        .addValue("maxAttempts", maxAttempts)
+                        .addValue("retryAt", LocalDateTime.now().plusSeconds(retryDelaySeconds))
+                        .addValue("error", String.valueOf(cause.getMessage())), Boolean.class));
+        if (Boolean.TRUE.equals(dead)) {
+            log.error("Outbox delivery of event {} failed {} times, giving up: {}", id, maxAttempts,
+                    cause.getMessage());
+        } else {
+            log.warn("Outbox delivery of event {} failed, retrying in {}s: {}", id, retryDelaySeconds,
+                    cause.getMessage());
+        }
+    }
+
+    private static OutboxEvent mapEvent(ResultSet rs, int rowNum) throws SQLException {
+        return new OutboxEvent(rs.getLong("id"), AggregateType.valueOf(rs.getString("aggregate_type")),
+                rs.getObject("aggregate_id", UUID.class), rs.getObject("seller_id", UUID.class),
+                rs.getString("from_status"), rs.getString("to_status"),
+                rs.getObject("occurred_at", LocalDateTime.class));
+    }
+
+    /**
+     * A subscriber failed; carries the claimed ids out of the rolled back transaction
+     */
+    private static final class DeliveryFailedException extends RuntimeException {
+        private final List<Long> ids;
+
+        DeliveryFailedException(List<Long> ids, Throwable cause) {
+            super(cause);
+            this.ids = ids;
+        }
+    }
+}
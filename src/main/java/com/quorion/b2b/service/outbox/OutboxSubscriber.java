@@ -0,0 +1,17 @@
+package com.quorion.b2b.service.outbox;
+
+import java.util.List;
+
+/**
+ * In-process consumer of outbox events
+ *
+ * Called by {@link OutboxRelay} on its own thread, inside the transaction
+ * that claimed the batch, with events in append order. Database writes
+ * made here commit together with the removal of the batch from the
+ * outbox; throwing rolls the whole batch back for a later retry, so
+ * subscribers must tolerate seeing an event more than once.
+ */
+public interface OutboxSubscriber {
+
+    void onEvents(List<OutboxEvent> events);
+}
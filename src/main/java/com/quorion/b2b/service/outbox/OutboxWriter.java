@@ -0,0 +1,83 @@
+package com.quorion.b2b.service.outbox;
+
+import com.quorion.b2b.model.tenant.Tenant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Appends status change events to the {@code outbox_event} table
+ *
+ * Appends run on the caller's connection, so an event commits or rolls
+ * back with the change it describes, and cost one INSERT; nothing waits
+ * for subscribers. {@link OutboxRelay} delivers and removes the rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    /**
+     * Delivered rows are deleted, so the table stays small and the primary key serves the relay's scan;
+     * the aggregate index serves its check for an earlier pending event of the same aggregate
+     */
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS outbox_event (id bigserial PRIMARY KEY, " +
+                    "aggregate_type varchar(20) NOT NULL, aggregate_id uuid NOT NULL, seller_id uuid, " +
+                    "from_status varchar(30), to_status varchar(30) NOT NULL, occurred_at timestamp NOT NULL, " +
+                    "available_at timestamp NOT NULL, attempts integer NOT NULL DEFAULT 0, last_error text, " +
+                    "dead_at timestamp)",
+            "ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS dead_at timestamp",
+            "CREATE INDEX IF NOT EXISTS idx_outbox_event_aggregate ON outbox_event (aggregate_id, id) " +
+                    "WHERE dead_at IS NULL"
+    };
+
+    private static final String APPEND =
+            "INSERT INTO outbox_event (aggregate_type, aggregate_id, seller_id, from_status, to_status, " +
+            "occurred_at, available_at) VALUES (:type, :id, :sellerId, :from, :to, :now, :now)";
+
+    private static final String APPEND_ORDER_TRANSITIONS =
+            "INSERT INTO outbox_event (aggregate_type, aggregate_id, seller_id, from_status, to_status, " +
+            "occurred_at, available_at) SELECT 'PURCHASE_ORDER', o.id, o.seller_id, :from, :to, :now, :now " +
+            "FROM purchase_order o WHERE o.id IN (:ids) ORDER BY o.id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSchema() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.getJdbcTemplate().execute(statement);
+        }
+    }
+
+    /**
+     * Record that an entity moved from one status to another; {@code from} is null on creation
+     */
+    public void append(AggregateType type, UUID aggregateId, Tenant seller, Enum<?> from, Enum<?> to) {
+        jdbcTemplate.update(APPEND, new MapSqlParameterSource("type", type.name())
+                .addValue("id", aggregateId)
+                .addValue("sellerId", seller != null ? seller.getId() : null)
+                .addValue("from", from != null ? from.name() : null)
+                .addValue("to", to.name())
+                .addValue("now", LocalDateTime.now()));
+    }
+
+    /**
+     * Record a transition of many purchase orders with one INSERT ... SELECT
+     */
+    public int appendOrderTransitions(Collection<UUID> orderIds, Enum<?> from, Enum<?> to) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(APPEND_ORDER_TRANSITIONS, new MapSqlParameterSource("ids", orderIds)
+                .addValue("from", from.name())
+                .addValue("to", to.name())
+                .addValue("now", LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,258 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.model.commerce.EffectivePrice;
+import com.quorion.b2b.repository.ListPriceRepository;
+import com.quorion.b2b.repository.PriceTierRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the {@link EffectivePrice} projection
+ *
+ * Rows of a SKU are rebuilt after a {@link PricingChangedEvent} commits,
+ * with one INSERT ... SELECT per source table scoped to the changed SKUs.
+ * Every rebuild holds a transaction-level advisory lock, so nodes never
+ * interleave deletes and inserts of the same rows.
+ * A single task is kept scheduled at the next instant a tier or list price
+ * validity window opens or closes; it rebuilds the SKUs crossing that
+ * boundary and schedules the one after.
+ */
+@Component
+@Slf4j
+public class EffectivePriceProjector {
+
+    /**
+     * SKUs per statement, well below the driver's parameter limit
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * Serializes projection writes across nodes for the rest of the transaction
+     */
+    private static final String LOCK = "SELECT pg_advisory_xact_lock(hashtext('effective_price'))";
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(hashtext('effective_price'))";
+
+    private static final String DELETE_ALL = "DELETE FROM effective_price";
+
+    private static final String DELETE_SKUS = "DELETE FROM effective_price WHERE sku_id IN (:skuIds)";
+
+    /**
+     * Discount applied like {@link SkuPriceBook}: percent to basis points,
+     * then the price rounded half up to cents unless the discount is zero
+     */
+    private static final String DISCOUNTED_PRICE =
+            "CASE WHEN round(coalesce(discount_percent, 0) * 100) = 0 THEN price_per_uom " +
+            "ELSE round(price_per_uom * (10000 - round(discount_percent * 100)) / 10000, 2) END";
+
+    private static final String INSERT_TIERS =
+            "INSERT INTO effective_price (id, created_at, updated_at, sku_id, buyer_id, destination_id, seller_id, " +
+            "minimum_quantity, maximum_quantity, unit_price, currency, source, valid_until) " +
+            "SELECT gen_random_uuid(), :now, :now, product_sku_id, buyer_id, destination_id, seller_id, " +
+            "minimum_uom_quantity, maximum_uom_quantity, " + DISCOUNTED_PRICE + ", coalesce(currency, '" +
+            SkuPriceBook.DEFAULT_CURRENCY + "'), " +
+            "CASE WHEN buyer_id IS NOT NULL AND destination_id IS NOT NULL THEN 'BUYER_DESTINATION' " +
+            "WHEN buyer_id IS NOT NULL THEN 'BUYER' WHEN destination_id IS NOT NULL THEN 'DESTINATION' " +
+            "ELSE 'GENERAL' END, valid_to_date FROM price_tier WHERE is_active " +
+            "AND (valid_from_date IS NULL OR valid_from_date <= :now) AND (valid_to_date IS NULL OR valid_to_date >= :now)";
+
+    private static final String INSERT_LIST_PRICES =
+            "INSERT INTO effective_price (id, created_at, updated_at, sku_id, minimum_quantity, unit_price, " +
+            "currency, source, valid_until) " +
+            "SELECT gen_random_uuid(), :now, :now, sku_id, 0, price, coalesce(currency, '" +
+            SkuPriceBook.DEFAULT_CURRENCY + "'), 'LIST', end_date FROM list_price WHERE is_active " +
+            "AND (start_date IS NULL OR start_date <= :now) AND (end_date IS NULL OR end_date >= :now)";
+
+    private static final String FOR_TIER_SKUS = " AND product_sku_id IN (:skuIds)";
+
+    private static final String FOR_LIST_PRICE_SKUS = " AND sku_id IN (:skuIds)";
+
+    private final PriceTierRepository priceTierRepository;
+    private final ListPriceRepository listPriceRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object scheduleLock = new Object();
+    private ScheduledFuture<?> nextBoundaryTask;
+
+    /**
+     * Start of the window not yet covered by a boundary refresh
+     */
+    private LocalDateTime windowStart = LocalDateTime.now();
+
+    public EffectivePriceProjector(PriceTierRepository priceTierRepository,
+                                   ListPriceRepository listPriceRepository,
+                                   NamedParameterJdbcTemplate jdbcTemplate,
+                                   TaskScheduler taskScheduler,
+                                   PlatformTransactionManager transactionManager) {
+        this.priceTierRepository = priceTierRepository;
+        this.listPriceRepository = listPriceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        // Refreshes run after the pricing write has committed, so they need their own transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Rebuild once per cluster start; nodes starting while another rebuilds skip it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild(false);
+        scheduleNextBoundary();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricingChanged(PricingChangedEvent event) {
+        if (event.remote()) {
+            // The node that wrote the prices has already rebuilt the rows
+            return;
+        }
+        if (event.affectsAll()) {
+            rebuildAll();
+        } else {
+            refresh(event.skuIds());
+        }
+        scheduleNextBoundary();
+    }
+
+    /**
+     * Re-materialize the rows of the given SKUs
+     */
+    public void refresh(Collection<UUID> skuIds) {
+        if (skuIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(skuIds);
+        Integer rows = transactionTemplate.execute(status -> {
+            lock(true);
+            LocalDateTime now = LocalDateTime.now();
+            int inserted = 0;
+            for (int start = 0; start < ids.size(); start += CHUNK_SIZE) {
+                MapSqlParameterSource params = new MapSqlParameterSource("now", now)
+                        .addValue("skuIds", ids.subList(start, Math.min(start + CHUNK_SIZE, ids.size())));
+                jdbcTemplate.update(DELETE_SKUS, params);
+                inserted += jdbcTemplate.update(INSERT_TIERS + FOR_TIER_SKUS, params);
+                inserted += jdbcTemplate.update(INSERT_LIST_PRICES + FOR_LIST_PRICE_SKUS, params);
+            }
+            return inserted;
+        });
+        log.debug("Materialized {} effective prices for {} SKUs", rows, ids.size());
+    }
+
+    /**
+     * Re-materialize the whole projection, after any rebuild or refresh in progress
+     */
+    public void rebuildAll() {
+        rebuild(true);
+    }
+
+    private void rebuild(boolean waitForLock) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer rows = transactionTemplate.execute(status -> {
+            if (!lock(waitForLock)) {
+                return null;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource("now", now);
+            jdbcTemplate.update(DELETE_ALL, params);
+            return jdbcTemplate.update(INSERT_TIERS, params) + jdbcTemplate.update(INSERT_LIST_PRICES, params);
+        });
+        if (rows == null) {
+            log.info("Effective price projection is being rebuilt elsewhere, skipping");
+            return;
+        }
+        synchronized (scheduleLock) {
+            windowStart = now;
+        }
+        log.info("Rebuilt effective price projection with {} rows", rows);
+    }
+
+    /**
+     * Take the projection lock for the current transaction; false if taken elsewhere and not waiting
+     */
+    private boolean lock(boolean wait) {
+        if (wait) {
+            jdbcTemplate.getJdbcTemplate().execute(LOCK);
+            return true;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.getJdbcTemplate().queryForObject(TRY_LOCK, Boolean.class));
+    }
+
+    /**
+     * Schedule a refresh at the next validity boundary, replacing any pending one
+     *
+     * Boundaries are searched from the start of the uncovered window, so a
+     * boundary whose task was cancelled before it ran fires immediately.
+     */
+    void scheduleNextBoundary() {
+        synchronized (scheduleLock) {
+            LocalDateTime from = windowStart;
+            LocalDateTime next = Stream.of(
+                            priceTierRepository.findNextValidFrom(from),
+                            closesAfter(priceTierRepository.findNextValidTo(from)),
+                            listPriceRepository.findNextStartDate(from),
+                            closesAfter(listPriceRepository.findNextEndDate(from)))
+                    .filter(Objects::nonNull)
+                    .min(LocalDateTime::compareTo)
+                    .orElse(null);
+
+            if (nextBoundaryTask != null) {
+                nextBoundaryTask.cancel(false);
+                nextBoundaryTask = null;
+            }
+            if (next == null) {
+                return;
+            }
+            nextBoundaryTask = taskScheduler.schedule(this::onBoundary,
+                    next.atZone(ZoneId.systemDefault()).toInstant());
+            log.debug("Next effective price boundary at {}", next);
+        }
+    }
+
+    private void onBoundary() {
+        LocalDateTime from;
+        LocalDateTime to = LocalDateTime.now();
+        synchronized (scheduleLock) {
+            from = windowStart;
+        }
+
+        Set<UUID> skuIds = new HashSet<>(priceTierRepository.findSkuIdsWithBoundaryBetween(from, to));
+        skuIds.addAll(listPriceRepository.findSkuIdsWithBoundaryBetween(from, to));
+        refresh(skuIds);
+        log.info("Refreshed effective prices for {} SKUs crossing a validity boundary", skuIds.size());
+
+        synchronized (scheduleLock) {
+            windowStart = to;
+        }
+        scheduleNextBoundary();
+    }
+
+    /**
+     * Validity ends are inclusive, so the row disappears just after the end
+     */
+    private static LocalDateTime closesAfter(LocalDateTime end) {
+        return end != null ? end.plusNanos(1_000_000) : null;
+    }
+}
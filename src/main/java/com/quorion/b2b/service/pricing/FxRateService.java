@@ -0,0 +1,252 @@
+package com.quorion.b2b.service.pricing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorion.b2b.dto.pricing.PriceImportResult;
+import com.quorion.b2b.model.commerce.FxRate;
+import com.quorion.b2b.repository.FxRateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Loads exchange rates into the {@link FxRateTable}
+ *
+ * Rates are imported from a local CSV or NDJSON file with the columns
+ * base_currency, quote_currency, rate and as_of. Imported rows replace the
+ * stored rate of the same pair, and the in-memory snapshot is rebuilt and
+ * swapped once the import has committed. Other nodes notice the import by
+ * polling the latest {@code updated_at} and row count of {@code fx_rate},
+ * and rebuild their snapshot when either moves.
+ */
+@Service
+@Slf4j
+public class FxRateService {
+
+    private final FxRateRepository fxRateRepository;
+    private final FxRateTable fxRateTable;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String ratesFile;
+    private final String pivotCurrency;
+
+    private volatile RatesVersion loaded;
+
+    public FxRateService(FxRateRepository fxRateRepository,
+                         FxRateTable fxRateTable,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${quorion.b2b.pricing.fx-rates-file:}") String ratesFile,
+                         @Value("${quorion.b2b.marketplace.default-currency:USD}") String pivotCurrency) {
+        this.fxRateRepository = fxRateRepository;
+        this.fxRateTable = fxRateTable;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ratesFile = ratesFile;
+        this.pivotCurrency = pivotCurrency;
+    }
+
+    /**
+     * Import the configured rates file, if any, and load the snapshot
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!ratesFile.isBlank()) {
+            importConfiguredFile();
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Re-import the rates file named by {@code quorion.b2b.pricing.fx-rates-file}
+     */
+    public PriceImportResult importConfiguredFile() {
+        if (ratesFile.isBlank()) {
+            throw new IllegalArgumentException("No FX rates file is configured");
+        }
+        return importFile(Path.of(ratesFile));
+    }
+
+    /**
+     * Import rates from a local file; NDJSON when the name ends in .ndjson or .jsonl, CSV otherwise
+     */
+    public PriceImportResult importFile(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        PriceImportFormat format = name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                ? PriceImportFormat.NDJSON
+                : PriceImportFormat.CSV;
+        try (InputStream input = Files.newInputStream(path)) {
+            return importRates(input, format);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read FX rates from " + path, e);
+        }
+    }
+
+    PriceImportResult importRates(InputStream input, PriceImportFormat format) {
+        PriceImportResult result = PriceImportResult.builder().build();
+        Map<String, FxRate> parsed = new HashMap<>();
+
+        try (PriceRowReader reader = new PriceRowReader(input, format, objectMapper)) {
+            PriceRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                result.setTotalRows(result.getTotalRows() + 1);
+                try {
+                    if (row.error() != null) {
+                        throw new IllegalArgumentException(row.error());
+                    }
+                    FxRate rate = parse(row);
+                    parsed.put(rate.getBaseCurrency() + rate.getQuoteCurrency(), rate);
+                } catch (IllegalArgumentException e) {
+                    result.setFailedRows(result.getFailedRows() + 1);
+                    if (result.getErrors().size() < PriceListImportService.MAX_REPORTED_ERRORS) {
+                        result.getErrors().add(new PriceImportResult.RowError(row.number(), e.getMessage()));
+                    } else {
+                        result.setErrorsTruncated(true);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read FX rates", e);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, FxRate> stored = new HashMap<>();
+            fxRateRepository.findAll().forEach(rate -> stored.put(rate.getBaseCurrency() + rate.getQuoteCurrency(), rate));
+
+            List<FxRate> changed = new ArrayList<>(parsed.size());
+            parsed.forEach((pair, rate) -> {
+                FxRate existing = stored.get(pair);
+                if (existing != null) {
+                    existing.setRate(rate.getRate());
+                    existing.setAsOf(rate.getAsOf());
+                    changed.add(existing);
+                } else {
+                    changed.add(rate);
+                }
+            });
+            fxRateRepository.saveAll(changed);
+        });
+        result.setImportedRows(parsed.size());
+        refresh();
+
+        log.info("Imported {} FX rates, {} rows failed", result.getImportedRows(), result.getFailedRows());
+        return result;
+    }
+
+    /**
+     * Rebuild the snapshot from the stored rates and swap it in
+     */
+    public FxRateSnapshot refresh() {
+        List<FxRate> rates = fxRateRepository.findAll();
+        FxRateSnapshot snapshot = FxRateSnapshot.of(rates, pivotCurrency);
+        fxRateTable.swap(snapshot);
+        loaded = new RatesVersion(rates.stream()
+                .map(FxRate::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null), rates.size());
+        log.debug("Loaded FX rates for {} currencies", snapshot.currencies().size());
+        return snapshot;
+    }
+
+    /**
+     * Rebuild the snapshot when the stored rates changed since it was loaded, e.g. by an import on another node
+     */
+    @Scheduled(fixedDelayString = "${quorion.b2b.pricing.fx-poll-interval-ms:30000}")
+    public void pollForChanges() {
+        try {
+            RatesVersion stored = new RatesVersion(fxRateRepository.findLatestUpdatedAt().orElse(null),
+                    fxRateRepository.count());
+            if (!stored.equals(loaded)) {
+                refresh();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to check FX rates for changes: {}", e.getMessage());
+        }
+    }
+
+    public List<FxRate> getAll() {
+        return fxRateRepository.findAll();
+    }
+
+    /**
+     * What a snapshot was built from; compared by value, so clocks on different nodes do not matter
+     */
+    private record RatesVersion(LocalDateTime updatedAt, long count) {
+    }
+
+    private static FxRate parse(PriceRowReader.Row row) {
+        String base = currency(row, "basecurrency");
+        String quote = currency(row, "quotecurrency");
+        if (base.equals(quote)) {
+            throw new IllegalArgumentException("base_currency and quote_currency must differ");
+        }
+
+        String rateText = row.fields().get("rate");
+        if (rateText == null || rateText.isBlank()) {
+            throw new IllegalArgumentException("rate is required");
+        }
+        BigDecimal rate;
+        try {
+            rate = new BigDecimal(rateText.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("rate is not a number: " + rateText);
+        }
+        if (rate.signum() <= 0) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+
+        return FxRate.builder()
+                .baseCurrency(base)
+                .quoteCurrency(quote)
+                .rate(rate)
+                .asOf(asOf(row))
+                .build();
+    }
+
+    private static String currency(PriceRowReader.Row row, String field) {
+        String value = row.fields().get(field);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        String currency = value.trim().toUpperCase();
+        if (currency.length() != 3) {
+            throw new IllegalArgumentException(field + " must be a 3 letter code: " + value);
+        }
+        return currency;
+    }
+
+    private static LocalDateTime asOf(PriceRowReader.Row row) {
+        String value = row.fields().get("asof");
+        if (value == null || value.isBlank()) {
+            return LocalDateTime.now();
+        }
+        String text = value.trim();
+        try {
+            return text.length() == 10 ? LocalDate.parse(text).atStartOfDay() : LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("as_of is not an ISO date or date-time: " + value);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.model.commerce.FxRate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable table of exchange rates between every pair of known currencies
+ *
+ * Built once from the stored rates: each rate is added with its inverse,
+ * and pairs without a direct rate are crossed through the pivot currency.
+ * Lookups are two map reads, so converting a price costs no query.
+ */
+public final class FxRateSnapshot {
+
+    /**
+     * Snapshot with no rates; only same-currency conversion succeeds
+     */
+    public static final FxRateSnapshot EMPTY = new FxRateSnapshot(Map.of());
+
+    private static final MathContext RATE_PRECISION = new MathContext(16, RoundingMode.HALF_UP);
+    private static final int RATE_SCALE = 8;
+
+    private final Map<String, Map<String, BigDecimal>> rates;
+
+    private FxRateSnapshot(Map<String, Map<String, BigDecimal>> rates) {
+        this.rates = rates;
+    }
+
+    /**
+     * Build a snapshot from stored rates
+     *
+     * A direct rate always wins over its inverse or a cross rate.
+     */
+    public static FxRateSnapshot of(List<FxRate> stored, String pivotCurrency) {
+        Map<String, Map<String, BigDecimal>> direct = new HashMap<>();
+        for (FxRate rate : stored) {
+            put(direct, rate.getBaseCurrency(), rate.getQuoteCurrency(), rate.getRate());
+        }
+
+        Map<String, Map<String, BigDecimal>> all = new HashMap<>();
+        direct.forEach((base, quotes) -> quotes.forEach((quote, rate) -> {
+            put(all, base, quote, rate);
+            putIfAbsent(all, quote, base, BigDecimal.ONE.divide(rate, RATE_PRECISION));
+        }));
+
+        Map<String, BigDecimal> fromPivot = all.getOrDefault(pivotCurrency, Map.of());
+        for (Map.Entry<String, BigDecimal> from : fromPivot.entrySet()) {
+            for (Map.Entry<String, BigDecimal> to : fromPivot.entrySet()) {
+                if (!from.getKey().equals(to.getKey())) {
+                    putIfAbsent(all, from.getKey(), to.getKey(), to.getValue().divide(from.getValue(), RATE_PRECISION));
+                }
+            }
+        }
+
+        Map<String, Map<String, BigDecimal>> compiled = new HashMap<>();
+        all.forEach((base, quotes) -> {
+            Map<String, BigDecimal> scaled = new HashMap<>();
+            quotes.forEach((quote, rate) -> scaled.put(quote, rate.setScale(RATE_SCALE, RoundingMode.HALF_UP)));
+            compiled.put(base, Collections.unmodifiableMap(scaled));
+        });
+        return new FxRateSnapshot(Collections.unmodifiableMap(compiled));
+    }
+
+    /**
+     * Units of {@code to} per unit of {@code from}
+     *
+     * @return the rate, one for the same currency, or null if unknown
+     */
+    public BigDecimal rate(String from, String to) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        Map<String, BigDecimal> quotes = rates.get(from);
+        return quotes != null ? quotes.get(to) : null;
+    }
+
+    /**
+     * Convert {@link Money} minor units between currencies, rounding HALF_UP
+     *
+     * @return the converted amount, or {@link Money#NONE} if no rate is known
+     */
+    public long convert(long units, String from, String to) {
+        if (from.equals(to)) {
+            return units;
+        }
+        BigDecimal rate = rate(from, to);
+        if (rate == null) {
+            return Money.NONE;
+        }
+        return Money.fromBigDecimal(BigDecimal.valueOf(units, Money.SCALE).multiply(rate));
+    }
+
+    public Set<String> currencies() {
+        return rates.keySet();
+    }
+
+    private static void put(Map<String, Map<String, BigDecimal>> rates, String base, String quote, BigDecimal rate) {
+        rates.computeIfAbsent(base, k -> new HashMap<>()).put(quote, rate);
+    }
+
+    private static void putIfAbsent(Map<String, Map<String, BigDecimal>> rates, String base, String quote, BigDecimal rate) {
+        rates.computeIfAbsent(base, k -> new HashMap<>()).putIfAbsent(quote, rate);
+    }
+}
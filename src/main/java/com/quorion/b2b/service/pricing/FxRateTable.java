@@ -0,0 +1,26 @@
+package com.quorion.b2b.service.pricing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Current exchange rate snapshot
+ *
+ * Readers take the snapshot without locking; a reload builds a new
+ * {@link FxRateSnapshot} and swaps it in, so a price is always converted
+ * against one consistent set of rates.
+ */
+@Component
+public class FxRateTable {
+
+    private final AtomicReference<FxRateSnapshot> snapshot = new AtomicReference<>(FxRateSnapshot.EMPTY);
+
+    public FxRateSnapshot current() {
+        return snapshot.get();
+    }
+
+    public void swap(FxRateSnapshot next) {
+        snapshot.set(next);
+    }
+}
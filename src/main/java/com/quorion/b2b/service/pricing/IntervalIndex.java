@@ -0,0 +1,116 @@
+package com.quorion.b2b.service.pricing;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable index of half-open time intervals {@code [start, end)}
+ *
+ * Intervals are sorted by start and laid out as an implicit balanced tree
+ * in which every node knows the latest end in its subtree, so a point or
+ * range query visits O(log n + k) nodes for k matches.
+ */
+final class IntervalIndex<T> {
+
+    /**
+     * End of an interval that is still open
+     */
+    static final long OPEN = Long.MAX_VALUE;
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final Object[] values;
+
+    private IntervalIndex(long[] starts, long[] ends, Object[] values) {
+        this.starts = starts;
+        this.ends = ends;
+        this.values = values;
+        this.maxEnds = new long[starts.length];
+        buildMaxEnds(0, starts.length);
+    }
+
+    /**
+     * An interval and its value, collected before the index is built
+     */
+    record Entry<T>(long start, long end, T value) {
+    }
+
+    static <T> IntervalIndex<T> of(List<Entry<T>> entries) {
+        Entry<?>[] sorted = entries.toArray(Entry<?>[]::new);
+        Arrays.sort(sorted, Comparator.comparingLong(Entry::start));
+
+        long[] starts = new long[sorted.length];
+        long[] ends = new long[sorted.length];
+        Object[] values = new Object[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            starts[i] = sorted[i].start();
+            ends[i] = sorted[i].end();
+            values[i] = sorted[i].value();
+        }
+        return new IntervalIndex<>(starts, ends, values);
+    }
+
+    /**
+     * Microseconds since the epoch, the resolution of stored timestamps
+     */
+    static long key(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    /**
+     * Values whose interval contains the point
+     */
+    List<T> at(long point) {
+        List<T> found = new ArrayList<>();
+        collect(0, starts.length, point, point + 1, found);
+        return found;
+    }
+
+    /**
+     * Values whose interval overlaps {@code [from, to)}
+     */
+    List<T> overlapping(long from, long to) {
+        List<T> found = new ArrayList<>();
+        if (from < to) {
+            collect(0, starts.length, from, to, found);
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int low, int high, long from, long to, List<T> found) {
+        if (low >= high) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        if (maxEnds[mid] <= from) {
+            return;
+        }
+        collect(low, mid, from, to, found);
+        if (starts[mid] < to) {
+            if (ends[mid] > from) {
+                found.add((T) values[mid]);
+            }
+            collect(mid + 1, high, from, to, found);
+        }
+    }
+
+    private long buildMaxEnds(int low, int high) {
+        if (low >= high) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (low + high) >>> 1;
+        long max = Math.max(ends[mid], Math.max(buildMaxEnds(low, mid), buildMaxEnds(mid + 1, high)));
+        maxEnds[mid] = max;
+        return max;
+    }
+}
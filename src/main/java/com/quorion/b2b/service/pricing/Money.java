@@ -0,0 +1,110 @@
+package com.quorion.b2b.service.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on primitive longs
+ *
+ * Amounts are held as long minor units at {@link #SCALE} decimal places
+ * (hundredths of a cent), so the pricing hot path compares and discounts
+ * prices without allocating. Conversion to and from {@link BigDecimal}
+ * happens only when a price book is compiled and when a price is returned.
+ *
+ * Rounding matches the previous BigDecimal implementation exactly: the
+ * discount factor is rounded HALF_UP to four decimals and the discounted
+ * price HALF_UP to cents. Entity prices have two decimals, so conversion
+ * into minor units is always exact.
+ */
+public final class Money {
+
+    /**
+     * Decimal places of the minor unit
+     */
+    public static final int SCALE = 4;
+
+    /**
+     * Minor units per cent
+     */
+    private static final long UNITS_PER_CENT = 100L;
+
+    /**
+     * A discount factor of 1, in ten-thousandths
+     */
+    private static final long FULL_FACTOR = 10_000L;
+
+    /**
+     * Marker for "no price" in primitive price slots
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private Money() {
+    }
+
+    /**
+     * Convert an amount to minor units, rounding HALF_UP beyond {@link #SCALE} decimals
+     */
+    public static long fromBigDecimal(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convert minor units back to an amount, with two decimals when the
+     * value is a whole number of cents
+     */
+    public static BigDecimal toBigDecimal(long units) {
+        if (units % UNITS_PER_CENT == 0) {
+            return BigDecimal.valueOf(units / UNITS_PER_CENT, 2);
+        }
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    /**
+     * Discount percentage as basis points (hundredths of a percent),
+     * rounded HALF_UP like {@code percent / 100} at four decimals
+     */
+    public static long discountBasisPoints(BigDecimal discountPercent) {
+        if (discountPercent == null) {
+            return 0L;
+        }
+        return discountPercent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Apply a discount and round the result HALF_UP to cents
+     *
+     * A zero discount returns the amount unchanged, without rounding.
+     */
+    public static long applyDiscount(long units, long discountBasisPoints) {
+        if (discountBasisPoints == 0L) {
+            return units;
+        }
+        long product = Math.multiplyExact(units, FULL_FACTOR - discountBasisPoints);
+        return divideHalfUp(product, FULL_FACTOR * UNITS_PER_CENT) * UNITS_PER_CENT;
+    }
+
+    /**
+     * Lower of two amounts, treating {@link #NONE} as absent
+     */
+    public static long min(long a, long b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    /**
+     * Integer division rounding half away from zero, as {@link RoundingMode#HALF_UP}
+     */
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+}
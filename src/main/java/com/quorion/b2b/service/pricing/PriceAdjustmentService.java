@@ -0,0 +1,194 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.dto.pricing.PriceAdjustmentRequest;
+import com.quorion.b2b.dto.pricing.PriceAdjustmentResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based mass adjustment of price tiers
+ *
+ * Matching tiers are walked in primary key order, {@code chunkSize} at a
+ * time. Each chunk is changed by one UPDATE (or INSERT ... SELECT when
+ * cloning) in its own short transaction, so large sellers never hold a
+ * long transaction or load tiers into memory. Every tier a chunk writes
+ * is appended to the price history and announced with a
+ * {@link PricingChangedEvent} in the same transaction, so a chunk that
+ * fails leaves every earlier one committed and invalidated. Tiers whose
+ * new price would fall below a cent or overflow {@code numeric(10,2)}
+ * are skipped.
+ */
+@Service
+@Slf4j
+public class PriceAdjustmentService {
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
+    /**
+     * New price expression; rounding matches BigDecimal HALF_UP to cents
+     */
+    private static final String NEW_PRICE = "ROUND(price_per_uom * :factor + :amount, 2)";
+
+    /**
+     * Prices a {@code numeric(10,2)} column can hold, from one cent
+     */
+    private static final String NEW_PRICE_FITS = NEW_PRICE + " BETWEEN 0.01 AND 99999999.99";
+
+    private static final String UPDATE_PRICES =
+            "UPDATE price_tier SET price_per_uom = " + NEW_PRICE + ", updated_at = :now " +
+            "WHERE id IN (:ids) AND " + NEW_PRICE_FITS;
+
+    private static final String CLONE_TIERS =
+            "INSERT INTO price_tier (id, created_at, updated_at, seller_id, buyer_id, destination_id, " +
+            "product_sku_id, delivery_term_id, payment_term_id, minimum_uom_quantity, maximum_uom_quantity, " +
+            "price_per_uom, discount_percent, currency, valid_from_date, valid_to_date, is_active) " +
+            "SELECT gen_random_uuid(), :now, :now, seller_id, buyer_id, destination_id, " +
+            "product_sku_id, delivery_term_id, payment_term_id, minimum_uom_quantity, maximum_uom_quantity, " +
+            NEW_PRICE + ", discount_percent, currency, :validFrom, valid_to_date, is_active " +
+            "FROM price_tier WHERE id IN (:ids) AND " + NEW_PRICE_FITS;
+
+    private static final String CLOSE_CLONED_TIERS =
+            "UPDATE price_tier SET valid_to_date = :closeAt, updated_at = :now " +
+            "WHERE id IN (:ids) AND " + NEW_PRICE_FITS;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PriceHistoryRecorder priceHistoryRecorder;
+    private final int chunkSize;
+
+    public PriceAdjustmentService(NamedParameterJdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PriceHistoryRecorder priceHistoryRecorder,
+                                  @Value("${quorion.b2b.pricing.adjustment-chunk-size:5000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.priceHistoryRecorder = priceHistoryRecorder;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Apply a percent or absolute change to every matching active tier
+     */
+    public PriceAdjustmentResult adjust(PriceAdjustmentRequest request) {
+        boolean percent = request.getPercentChange() != null;
+        if (percent == (request.getAmountChange() != null)) {
+            throw new IllegalArgumentException("Exactly one of percentChange or amountChange must be provided");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        boolean clone = request.getValidFrom() != null && request.getValidFrom().isAfter(startedAt);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("sellerId", request.getSellerId())
+                .addValue("startedAt", startedAt)
+                .addValue("now", startedAt)
+                .addValue("factor", percent
+                        ? BigDecimal.ONE.add(request.getPercentChange().divide(ONE_HUNDRED))
+                        : BigDecimal.ONE)
+                .addValue("amount", percent ? BigDecimal.ZERO : request.getAmountChange())
+                .addValue("limit", chunkSize);
+        if (clone) {
+            params.addValue("validFrom", request.getValidFrom())
+                    .addValue("closeAt", request.getValidFrom().minusNanos(1_000));
+        }
+        String selectFirstChunk = selectChunkSql(request, clone, params, false);
+        String selectNextChunk = selectChunkSql(request, clone, params, true);
+
+        long matched = 0;
+        long adjusted = 0;
+        UUID after = null;
+
+        while (true) {
+            params.addValue("after", after);
+            List<UUID[]> chunk = jdbcTemplate.query(after == null ? selectFirstChunk : selectNextChunk, params,
+                    (rs, rowNum) -> new UUID[]{rs.getObject("id", UUID.class), rs.getObject("product_sku_id", UUID.class)});
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            params.addValue("ids", chunk.stream().map(row -> row[0]).toList());
+            Set<UUID> chunkSkuIds = chunk.stream().map(row -> row[1]).collect(Collectors.toSet());
+            Integer changed = transactionTemplate.execute(status -> {
+                int count;
+                if (!clone) {
+                    count = jdbcTemplate.update(UPDATE_PRICES, params);
+                } else {
+                    count = jdbcTemplate.update(CLONE_TIERS, params);
+                    jdbcTemplate.update(CLOSE_CLONED_TIERS, params);
+                }
+                if (count > 0) {
+                    priceHistoryRecorder.recordTiersChangedAt(chunkSkuIds, startedAt);
+                    eventPublisher.publishEvent(new PricingChangedEvent(chunkSkuIds));
+                }
+                return count;
+            });
+
+            matched += chunk.size();
+            adjusted += changed != null ? changed : 0;
+            after = chunk.get(chunk.size() - 1)[0];
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        log.info("Adjusted {} of {} price tiers for seller {}{}", adjusted, matched, request.getSellerId(),
+                clone ? " from " + request.getValidFrom() : "");
+
+        return PriceAdjustmentResult.builder()
+                .matchedTiers(matched)
+                .adjustedTiers(adjusted)
+                .skippedTiers(matched - adjusted)
+                .cloned(clone)
+                .validFrom(clone ? request.getValidFrom() : null)
+                .build();
+    }
+
+    /**
+     * Keyset query for the next chunk of matching tier ids
+     *
+     * Only tiers that existed when the adjustment started are considered,
+     * so clones are never picked up again. When cloning, only tiers still
+     * valid at the new start date are matched.
+     */
+    private static String selectChunkSql(PriceAdjustmentRequest request, boolean clone,
+                                         MapSqlParameterSource params, boolean afterCursor) {
+        StringBuilder sql = new StringBuilder("SELECT pt.id, pt.product_sku_id FROM price_tier pt ");
+        if (request.getCategory() != null) {
+            sql.append("JOIN product_sku s ON s.id = pt.product_sku_id JOIN product p ON p.id = s.product_id ");
+        }
+        sql.append("WHERE pt.seller_id = :sellerId AND pt.is_active = true AND pt.created_at < :startedAt ");
+        if (request.getSkuId() != null) {
+            sql.append("AND pt.product_sku_id = :skuId ");
+            params.addValue("skuId", request.getSkuId());
+        }
+        if (request.getCategory() != null) {
+            sql.append("AND p.category = :category ");
+            params.addValue("category", request.getCategory());
+        }
+        if (clone) {
+            sql.append("AND (pt.valid_from_date IS NULL OR pt.valid_from_date < :validFrom) ")
+                    .append("AND (pt.valid_to_date IS NULL OR pt.valid_to_date >= :validFrom) ");
+        }
+        if (afterCursor) {
+            sql.append("AND pt.id > :after ");
+        }
+        sql.append("ORDER BY pt.id LIMIT :limit");
+        return sql.toString();
+    }
+}
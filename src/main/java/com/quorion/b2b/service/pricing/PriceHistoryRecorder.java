@@ -0,0 +1,131 @@
+package com.quorion.b2b.service.pricing;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Appends price tier and list price versions to the price history
+ *
+ * Every write is one INSERT ... SELECT copying the current rows, so JPA
+ * services and JDBC bulk paths record history the same way and inside
+ * their own transaction. A version is stamped with the row's
+ * {@code updated_at} and skipped if that version is already recorded,
+ * which makes recording idempotent: rows that did not change add nothing.
+ * JPA callers must flush before recording.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceHistoryRecorder {
+
+    private static final String NEXT_VERSION =
+            "COALESCE((SELECT MAX(h.version) FROM price_history h WHERE h.source_id = src.id), 0) + 1";
+
+    private static final String RECORD_TIERS =
+            "INSERT INTO price_history (id, created_at, updated_at, kind, source_id, version, sku_id, seller_id, " +
+            "buyer_id, destination_id, delivery_term_id, payment_term_id, minimum_quantity, maximum_quantity, " +
+            "price, discount_percent, currency, valid_from, valid_to, is_active, removed, recorded_at) " +
+            "SELECT gen_random_uuid(), :now, :now, 'PRICE_TIER', src.id, " + NEXT_VERSION + ", src.product_sku_id, " +
+            "src.seller_id, src.buyer_id, src.destination_id, src.delivery_term_id, src.payment_term_id, " +
+            "src.minimum_uom_quantity, src.maximum_uom_quantity, src.price_per_uom, src.discount_percent, " +
+            "src.currency, src.valid_from_date, src.valid_to_date, src.is_active, %s " +
+            "FROM price_tier src WHERE %s";
+
+    private static final String RECORD_LIST_PRICES =
+            "INSERT INTO price_history (id, created_at, updated_at, kind, source_id, version, sku_id, " +
+            "minimum_quantity, price, currency, valid_from, valid_to, is_active, removed, recorded_at) " +
+            "SELECT gen_random_uuid(), :now, :now, 'LIST_PRICE', src.id, " + NEXT_VERSION + ", src.sku_id, " +
+            "0, src.price, src.currency, src.start_date, src.end_date, src.is_active, %s " +
+            "FROM list_price src WHERE %s";
+
+    /**
+     * Version stamped with the row's last change, unless already recorded
+     */
+    private static final String CURRENT_VERSION = "false, COALESCE(src.updated_at, src.created_at)";
+
+    private static final String NOT_YET_RECORDED =
+            "NOT EXISTS (SELECT 1 FROM price_history h WHERE h.source_id = src.id " +
+            "AND h.recorded_at = COALESCE(src.updated_at, src.created_at))";
+
+    private static final String REMOVED_VERSION = "true, :now";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Record the current state of price tiers
+     */
+    public int recordTiers(Collection<UUID> tierIds) {
+        if (tierIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(RECORD_TIERS.formatted(CURRENT_VERSION, "src.id IN (:ids) AND " + NOT_YET_RECORDED),
+                params().addValue("ids", tierIds));
+    }
+
+    /**
+     * Record the current state of list prices
+     */
+    public int recordListPrices(Collection<UUID> listPriceIds) {
+        if (listPriceIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(RECORD_LIST_PRICES.formatted(CURRENT_VERSION, "src.id IN (:ids) AND " + NOT_YET_RECORDED),
+                params().addValue("ids", listPriceIds));
+    }
+
+    /**
+     * Record every tier of the given SKUs that was written at {@code changedAt}
+     *
+     * For bulk statements that create rows whose ids the caller never sees.
+     */
+    public int recordTiersChangedAt(Collection<UUID> skuIds, LocalDateTime changedAt) {
+        if (skuIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(RECORD_TIERS.formatted(CURRENT_VERSION,
+                        "src.product_sku_id IN (:skuIds) AND src.updated_at = :changedAt AND " + NOT_YET_RECORDED),
+                params().addValue("skuIds", skuIds).addValue("changedAt", changedAt));
+    }
+
+    /**
+     * Record that a price tier is about to be deleted; call before the delete
+     */
+    public int recordTierRemoved(UUID tierId) {
+        return jdbcTemplate.update(RECORD_TIERS.formatted(REMOVED_VERSION, "src.id = :id"),
+                params().addValue("id", tierId));
+    }
+
+    /**
+     * Record that a list price is about to be deleted; call before the delete
+     */
+    public int recordListPriceRemoved(UUID listPriceId) {
+        return jdbcTemplate.update(RECORD_LIST_PRICES.formatted(REMOVED_VERSION, "src.id = :id"),
+                params().addValue("id", listPriceId));
+    }
+
+    /**
+     * Record a first version of every row written before history was kept,
+     * or changed without going through the recorder
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int tiers = jdbcTemplate.update(RECORD_TIERS.formatted(CURRENT_VERSION, NOT_YET_RECORDED), params());
+        int listPrices = jdbcTemplate.update(RECORD_LIST_PRICES.formatted(CURRENT_VERSION, NOT_YET_RECORDED), params());
+        if (tiers + listPrices > 0) {
+            log.info("Backfilled price history with {} tier and {} list price versions", tiers, listPrices);
+        }
+    }
+
+    private static MapSqlParameterSource params() {
+        return new MapSqlParameterSource("now", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,139 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.dto.pricing.PriceChange;
+import com.quorion.b2b.dto.pricing.PriceResult;
+import com.quorion.b2b.model.commerce.PriceHistory;
+import com.quorion.b2b.model.commerce.PriceHistoryKind;
+import com.quorion.b2b.repository.PriceHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Point-in-time prices and price change analytics from the price history
+ *
+ * The history of a SKU is loaded with one query and compiled into a
+ * {@link SkuPriceHistory} on first use, then served from memory until a
+ * {@link PricingChangedEvent} for that SKU commits, like {@link PriceIndex}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceHistoryService {
+
+    private final PriceHistoryRepository priceHistoryRepository;
+
+    private final ConcurrentMap<UUID, SkuPriceHistory> histories = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The price {@code calculatePrice} would have returned at the context's time
+     *
+     * Uses the tiers and list prices as recorded at that time and evaluates
+     * their validity windows against it. Variant adjustments are not
+     * versioned and are not applied.
+     */
+    @Transactional(readOnly = true)
+    public PriceResult priceAt(UUID skuId, PricingContext context) {
+        SkuPriceBook.PricePoint point = get(skuId).bookAt(context.at()).resolvePoint(context, null, null);
+
+        PriceResult.PriceResultBuilder result = PriceResult.builder()
+                .skuId(skuId)
+                .quantity(context.quantity());
+        if (point == null) {
+            return result.build();
+        }
+        BigDecimal unitPrice = Money.toBigDecimal(point.price());
+        return result
+                .unitPrice(unitPrice)
+                .totalPrice(unitPrice.multiply(context.quantity()).setScale(2, RoundingMode.HALF_UP))
+                .currency(point.currency())
+                .build();
+    }
+
+    /**
+     * Changes to a SKU's tiers and list prices recorded in {@code [from, to)}
+     */
+    @Transactional(readOnly = true)
+    public List<PriceChange> changes(UUID skuId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        return get(skuId).changesBetween(from, to).stream()
+                .map(PriceHistoryService::toChange)
+                .toList();
+    }
+
+    SkuPriceHistory get(UUID skuId) {
+        SkuPriceHistory history = histories.get(skuId);
+        if (history != null) {
+            return history;
+        }
+
+        long observed = generation.get();
+        SkuPriceHistory loaded = SkuPriceHistory.compile(skuId,
+                priceHistoryRepository.findBySkuIdOrderBySourceIdAscVersionAsc(skuId));
+        SkuPriceHistory existing = histories.putIfAbsent(skuId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (generation.get() != observed) {
+            histories.remove(skuId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop affected histories once the writing transaction has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricingChanged(PricingChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.affectsAll()) {
+            histories.clear();
+        } else {
+            event.skuIds().forEach(histories::remove);
+        }
+    }
+
+    private static PriceChange toChange(SkuPriceHistory.Version version) {
+        PriceHistory row = version.row();
+        PriceHistory previous = version.previous();
+        boolean removed = Boolean.TRUE.equals(row.getRemoved());
+
+        return PriceChange.builder()
+                .recordedAt(row.getRecordedAt())
+                .kind(row.getKind())
+                .sourceId(row.getSourceId())
+                .version(row.getVersion())
+                .changeType(removed ? PriceChange.ChangeType.REMOVED
+                        : previous == null ? PriceChange.ChangeType.CREATED
+                        : PriceChange.ChangeType.UPDATED)
+                .sellerId(row.getSellerId())
+                .buyerId(row.getBuyerId())
+                .destinationId(row.getDestinationId())
+                .minimumQuantity(row.getMinimumQuantity())
+                .maximumQuantity(row.getMaximumQuantity())
+                .currency(row.getCurrency())
+                .previousPrice(previous != null ? effectivePrice(previous) : null)
+                .price(removed ? null : effectivePrice(row))
+                .build();
+    }
+
+    private static BigDecimal effectivePrice(PriceHistory row) {
+        return row.getKind() == PriceHistoryKind.PRICE_TIER
+                ? SkuPriceBook.applyDiscount(row.getPrice(), row.getDiscountPercent())
+                : row.getPrice();
+    }
+}
@@ -0,0 +1,16 @@
+package com.quorion.b2b.service.pricing;
+
+/**
+ * Wire format of a price list import
+ */
+public enum PriceImportFormat {
+    /**
+     * Comma separated values with a header row
+     */
+    CSV,
+
+    /**
+     * One JSON object per line
+     */
+    NDJSON
+}
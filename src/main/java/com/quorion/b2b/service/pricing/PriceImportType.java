@@ -0,0 +1,9 @@
+package com.quorion.b2b.service.pricing;
+
+/**
+ * Kind of rows in a price list import
+ */
+public enum PriceImportType {
+    PRICE_TIER,
+    LIST_PRICE
+}
@@ -0,0 +1,229 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.model.commerce.PriceTier;
+import com.quorion.b2b.model.product.ListPrice;
+import com.quorion.b2b.model.product.ProductVariant;
+import com.quorion.b2b.repository.ListPriceRepository;
+import com.quorion.b2b.repository.PriceTierRepository;
+import com.quorion.b2b.repository.ProductVariantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory price index
+ *
+ * Holds one compiled {@link SkuPriceBook} per SKU. A book is loaded on
+ * first use with one tier, one list price and one variant query, then
+ * served from memory until a {@link PricingChangedEvent} for that SKU commits,
+ * on this node or, through {@link PricingChangeLog}, on another one.
+ * The generation counter doubles as a pricing version for caches built on
+ * top of the index, such as priced cart snapshots.
+ *
+ * Books are reloaded once they reach the maximum age, which also bounds
+ * how long a missed change can be served. A scheduled trim drops expired
+ * books and, above the maximum size, the oldest ones, off the request path.
+ */
+@Component
+@Slf4j
+public class PriceIndex {
+
+    private final PriceTierRepository priceTierRepository;
+    private final ListPriceRepository listPriceRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final int maxBooks;
+    private final long maxAgeNanos;
+
+    private final ConcurrentMap<UUID, Cached> books = new ConcurrentHashMap<>();
+
+    private record Cached(SkuPriceBook book, long loadedAt) {
+    }
+
+    /**
+     * Bumped on every invalidation so that a book loaded concurrently
+     * with a price write is never cached with stale rows
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Generation at which each SKU was last invalidated
+     */
+    private final ConcurrentMap<UUID, Long> changedAt = new ConcurrentHashMap<>();
+    private volatile long allChangedAt;
+
+    public PriceIndex(PriceTierRepository priceTierRepository,
+                      ListPriceRepository listPriceRepository,
+                      ProductVariantRepository productVariantRepository,
+                      @Value("${quorion.b2b.pricing.index-max-books:50000}") int maxBooks,
+                      @Value("${quorion.b2b.pricing.index-max-age-seconds:900}") long maxAgeSeconds) {
+        this.priceTierRepository = priceTierRepository;
+        this.listPriceRepository = listPriceRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.maxBooks = maxBooks;
+        this.maxAgeNanos = Duration.ofSeconds(maxAgeSeconds).toNanos();
+    }
+
+    /**
+     * Current pricing version; moves forward on every price change
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Whether prices of any of the given SKUs changed after a generation
+     */
+    public boolean changedSince(Collection<UUID> skuIds, long since) {
+        if (generation.get() == since) {
+            return false;
+        }
+        if (allChangedAt > since) {
+            return true;
+        }
+        for (UUID skuId : skuIds) {
+            Long at = changedAt.get(skuId);
+            if (at != null && at > since) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the price book for a SKU, loading it on a cache miss
+     */
+    public SkuPriceBook get(UUID skuId) {
+        SkuPriceBook book = cached(skuId, System.nanoTime());
+        if (book != null) {
+            return book;
+        }
+
+        long observed = generation.get();
+        SkuPriceBook loaded = SkuPriceBook.compile(skuId,
+                priceTierRepository.findByProductSkuId(skuId),
+                listPriceRepository.findBySkuId(skuId),
+                productVariantRepository.findBySkuId(skuId));
+        return cache(loaded, observed);
+    }
+
+    /**
+     * Get price books for many SKUs
+     *
+     * All cache misses are loaded together with one tier, one list price
+     * and one variant query, whatever the number of SKUs.
+     */
+    public Map<UUID, SkuPriceBook> getAll(Collection<UUID> skuIds) {
+        Map<UUID, SkuPriceBook> result = new HashMap<>();
+        Set<UUID> missing = new LinkedHashSet<>();
+        long now = System.nanoTime();
+        for (UUID skuId : skuIds) {
+            SkuPriceBook book = cached(skuId, now);
+            if (book != null) {
+                result.put(skuId, book);
+            } else {
+                missing.add(skuId);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long observed = generation.get();
+        Map<UUID, List<PriceTier>> tiersBySku = priceTierRepository.findByProductSkuIdIn(missing).stream()
+                .collect(Collectors.groupingBy(tier -> tier.getProductSku().getId()));
+        Map<UUID, List<ListPrice>> pricesBySku = listPriceRepository.findBySkuIdIn(missing).stream()
+                .collect(Collectors.groupingBy(price -> price.getSku().getId()));
+        Map<UUID, List<ProductVariant>> variantsBySku = productVariantRepository.findBySkuIdIn(missing).stream()
+                .collect(Collectors.groupingBy(variant -> variant.getSku().getId()));
+
+        for (UUID skuId : missing) {
+            SkuPriceBook loaded = SkuPriceBook.compile(skuId,
+                    tiersBySku.getOrDefault(skuId, List.of()),
+                    pricesBySku.getOrDefault(skuId, List.of()),
+                    variantsBySku.getOrDefault(skuId, List.of()));
+            result.put(skuId, cache(loaded, observed));
+        }
+        log.debug("Compiled {} price books in one batch", missing.size());
+        return result;
+    }
+
+    private SkuPriceBook cached(UUID skuId, long now) {
+        Cached cached = books.get(skuId);
+        return cached != null && now - cached.loadedAt() < maxAgeNanos ? cached.book() : null;
+    }
+
+    private SkuPriceBook cache(SkuPriceBook loaded, long observed) {
+        Cached entry = new Cached(loaded, System.nanoTime());
+        books.put(loaded.getSkuId(), entry);
+        if (generation.get() != observed) {
+            books.remove(loaded.getSkuId(), entry);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop expired books, then the oldest ones down to 90% of capacity
+     */
+    @Scheduled(fixedDelayString = "${quorion.b2b.pricing.index-trim-interval-ms:10000}")
+    public void trim() {
+        long now = System.nanoTime();
+        books.entrySet().removeIf(entry -> now - entry.getValue().loadedAt() >= maxAgeNanos);
+        int excess = books.size() - maxBooks * 9 / 10;
+        if (books.size() <= maxBooks || excess <= 0) {
+            return;
+        }
+        books.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().loadedAt()))
+                .limit(excess)
+                .toList()
+                .forEach(entry -> books.remove(entry.getKey(), entry.getValue()));
+        log.debug("Trimmed {} price books", excess);
+    }
+
+    public int size() {
+        return books.size();
+    }
+
+    public void invalidate(UUID skuId) {
+        changedAt.put(skuId, generation.incrementAndGet());
+        books.remove(skuId);
+    }
+
+    public void invalidateAll() {
+        long at = generation.incrementAndGet();
+        allChangedAt = at;
+        changedAt.values().removeIf(changed -> changed <= at);
+        books.clear();
+    }
+
+    /**
+     * Drop affected books once the writing transaction has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricingChanged(PricingChangedEvent event) {
+        if (event.affectsAll()) {
+            log.debug("Invalidating all price books");
+            invalidateAll();
+        } else {
+            log.debug("Invalidating price books for SKUs {}", event.skuIds());
+            event.skuIds().forEach(this::invalidate);
+        }
+    }
+}
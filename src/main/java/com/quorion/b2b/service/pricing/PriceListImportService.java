@@ -0,0 +1,433 @@
+package com.quorion.b2b.service.pricing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorion.b2b.dto.pricing.PriceImportResult;
+import com.quorion.b2b.model.product.ProductSKU;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.model.tenant.TenantAddress;
+import com.quorion.b2b.repository.ProductSKURepository;
+import com.quorion.b2b.repository.TenantAddressRepository;
+import com.quorion.b2b.repository.TenantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Streaming bulk import of price tiers and list prices
+ *
+ * Rows are read incrementally and processed in chunks. For each chunk the
+ * SKU numbers, tenant codes and address ids not seen before are resolved
+ * with one query each and cached for the rest of the import, rows are
+ * validated in parallel, and valid rows are written with a JDBC batch
+ * insert in their own transaction, together with their first price
+ * history version and a {@link PricingChangedEvent} for the chunk's SKUs,
+ * so a failing chunk leaves every earlier one committed and invalidated.
+ * Amounts are checked against the scale and precision of their columns.
+ *
+ * Price tier columns: sku_number, seller_code, buyer_code, destination_id,
+ * minimum_quantity, maximum_quantity, price_per_uom, discount_percent,
+ * currency, valid_from, valid_to. List price columns: sku_number, price,
+ * currency, start_date, end_date. Names are matched ignoring case and
+ * underscores.
+ */
+@Service
+@Slf4j
+public class PriceListImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_PRICE_TIER =
+            "INSERT INTO price_tier (id, created_at, updated_at, seller_id, buyer_id, destination_id, " +
+            "product_sku_id, minimum_uom_quantity, maximum_uom_quantity, price_per_uom, discount_percent, " +
+            "currency, valid_from_date, valid_to_date, is_active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true)";
+
+    private static final String INSERT_LIST_PRICE =
+            "INSERT INTO list_price (id, created_at, updated_at, sku_id, price, currency, " +
+            "start_date, end_date, is_active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, true)";
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+    private static final BigDecimal MINIMUM_AMOUNT = new BigDecimal("0.01");
+    // numeric(10,2) amounts and numeric(5,2) discount percentages
+    private static final int AMOUNT_PRECISION = 10;
+    private static final int PERCENT_PRECISION = 5;
+    private static final int SCALE = 2;
+    private static final String DEFAULT_CURRENCY = "USD";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductSKURepository productSKURepository;
+    private final TenantRepository tenantRepository;
+    private final TenantAddressRepository tenantAddressRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final PriceHistoryRecorder priceHistoryRecorder;
+    private final int chunkSize;
+
+    public PriceListImportService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ProductSKURepository productSKURepository,
+                                  TenantRepository tenantRepository,
+                                  TenantAddressRepository tenantAddressRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ObjectMapper objectMapper,
+                                  PriceHistoryRecorder priceHistoryRecorder,
+                                  @Value("${quorion.b2b.pricing.import-chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productSKURepository = productSKURepository;
+        this.tenantRepository = tenantRepository;
+        this.tenantAddressRepository = tenantAddressRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.priceHistoryRecorder = priceHistoryRecorder;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import a price list
+     *
+     * @param dryRun validate and report without writing anything
+     */
+    public PriceImportResult importPrices(InputStream input, PriceImportType type,
+                                          PriceImportFormat format, boolean dryRun) {
+        PriceImportResult result = PriceImportResult.builder().dryRun(dryRun).build();
+        Lookups lookups = new Lookups();
+
+        try (PriceRowReader reader = new PriceRowReader(input, format, objectMapper)) {
+            List<PriceRowReader.Row> chunk = new ArrayList<>(chunkSize);
+            PriceRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, type, dryRun, lookups, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, type, dryRun, lookups, result);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read price list", e);
+        }
+
+        log.info("{} import of {} rows: {} imported, {} failed{}", type, result.getTotalRows(),
+                result.getImportedRows(), result.getFailedRows(), dryRun ? " (dry run)" : "");
+        return result;
+    }
+
+    private void processChunk(List<PriceRowReader.Row> chunk, PriceImportType type, boolean dryRun,
+                              Lookups lookups, PriceImportResult result) {
+        lookups.resolve(chunk, type);
+
+        List<ValidatedRow> validated = chunk.parallelStream()
+                .map(row -> type == PriceImportType.PRICE_TIER
+                        ? validatePriceTier(row, lookups)
+                        : validateListPrice(row, lookups))
+                .toList();
+
+        List<Object[]> batch = new ArrayList<>(validated.size());
+        Set<UUID> skuIds = new HashSet<>();
+        for (ValidatedRow row : validated) {
+            if (row.error() != null) {
+                result.setFailedRows(result.getFailedRows() + 1);
+                if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                    result.getErrors().add(new PriceImportResult.RowError(row.number(), row.error()));
+                } else {
+                    result.setErrorsTruncated(true);
+                }
+            } else {
+                batch.add(row.params());
+                skuIds.add(row.skuId());
+            }
+        }
+
+        if (!dryRun && !batch.isEmpty()) {
+            String sql = type == PriceImportType.PRICE_TIER ? INSERT_PRICE_TIER : INSERT_LIST_PRICE;
+            List<UUID> ids = batch.stream().map(params -> (UUID) params[0]).toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(sql, batch);
+                if (type == PriceImportType.PRICE_TIER) {
+                    priceHistoryRecorder.recordTiers(ids);
+                } else {
+                    priceHistoryRecorder.recordListPrices(ids);
+                }
+                eventPublisher.publishEvent(new PricingChangedEvent(Set.copyOf(skuIds)));
+            });
+        }
+        result.setTotalRows(result.getTotalRows() + chunk.size());
+        result.setImportedRows(result.getImportedRows() + batch.size());
+    }
+
+    private ValidatedRow validatePriceTier(PriceRowReader.Row row, Lookups lookups) {
+        if (row.error() != null) {
+            return ValidatedRow.failed(row, row.error());
+        }
+        try {
+            UUID skuId = lookups.sku(required(row, "skunumber"));
+            UUID sellerId = lookups.tenant(required(row, "sellercode"));
+            UUID buyerId = lookups.tenant(required(row, "buyercode"));
+            UUID destinationId = lookups.address(required(row, "destinationid"), buyerId);
+
+            BigDecimal minimum = amount(row, "minimumquantity", true);
+            BigDecimal maximum = amount(row, "maximumquantity", false);
+            if (maximum != null && maximum.compareTo(minimum) < 0) {
+                throw new RowException("maximum_quantity is below minimum_quantity");
+            }
+            BigDecimal price = amount(row, "priceperuom", true);
+            BigDecimal discount = decimal(row, "discountpercent", false, PERCENT_PRECISION);
+            if (discount != null && (discount.signum() < 0 || discount.compareTo(ONE_HUNDRED) > 0)) {
+                throw new RowException("discount_percent must be between 0 and 100");
+            }
+            LocalDateTime validFrom = dateTime(row, "validfrom");
+            LocalDateTime validTo = dateTime(row, "validto");
+            checkWindow(validFrom, validTo);
+
+            LocalDateTime now = LocalDateTime.now();
+            return new ValidatedRow(row.number(), skuId, new Object[]{
+                    UUID.randomUUID(), now, now, sellerId, buyerId, destinationId, skuId,
+                    minimum, maximum, price, discount, currency(row), validFrom, validTo}, null);
+        } catch (RowException e) {
+            return ValidatedRow.failed(row, e.getMessage());
+        }
+    }
+
+    private ValidatedRow validateListPrice(PriceRowReader.Row row, Lookups lookups) {
+        if (row.error() != null) {
+            return ValidatedRow.failed(row, row.error());
+        }
+        try {
+            UUID skuId = lookups.sku(required(row, "skunumber"));
+            BigDecimal price = amount(row, "price", true);
+            LocalDateTime startDate = dateTime(row, "startdate");
+            LocalDateTime endDate = dateTime(row, "enddate");
+            checkWindow(startDate, endDate);
+
+            LocalDateTime now = LocalDateTime.now();
+            return new ValidatedRow(row.number(), skuId, new Object[]{
+                    UUID.randomUUID(), now, now, skuId, price, currency(row), startDate, endDate}, null);
+        } catch (RowException e) {
+            return ValidatedRow.failed(row, e.getMessage());
+        }
+    }
+
+    private static String required(PriceRowReader.Row row, String field) {
+        String value = row.fields().get(field);
+        if (value == null || value.isBlank()) {
+            throw new RowException(field + " is required");
+        }
+        return value.trim();
+    }
+
+    /**
+     * A number that fits a {@code numeric(precision, 2)} column
+     */
+    private static BigDecimal decimal(PriceRowReader.Row row, String field, boolean required, int precision) {
+        String value = required ? required(row, field) : row.fields().get(field);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        BigDecimal number;
+        try {
+            number = new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RowException(field + " is not a number: " + value);
+        }
+        if (number.stripTrailingZeros().scale() > SCALE) {
+            throw new RowException(field + " has more than " + SCALE + " decimal places: " + value);
+        }
+        BigDecimal limit = BigDecimal.TEN.pow(precision - SCALE);
+        if (number.abs().compareTo(limit) >= 0) {
+            throw new RowException(field + " must be below " + limit + ": " + value);
+        }
+        return number;
+    }
+
+    private static BigDecimal amount(PriceRowReader.Row row, String field, boolean required) {
+        BigDecimal value = decimal(row, field, required, AMOUNT_PRECISION);
+        if (value != null && value.compareTo(MINIMUM_AMOUNT) < 0) {
+            throw new RowException(field + " must be at least " + MINIMUM_AMOUNT);
+        }
+        return value;
+    }
+
+    private static LocalDateTime dateTime(PriceRowReader.Row row, String field) {
+        String value = row.fields().get(field);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            return text.length() == 10 ? LocalDate.parse(text).atStartOfDay() : LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new RowException(field + " is not an ISO date or date-time: " + value);
+        }
+    }
+
+    private static void checkWindow(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new RowException("validity window ends before it starts");
+        }
+    }
+
+    private static String currency(PriceRowReader.Row row) {
+        String value = row.fields().get("currency");
+        if (value == null || value.isBlank()) {
+            return DEFAULT_CURRENCY;
+        }
+        String currency = value.trim().toUpperCase();
+        if (currency.length() != 3) {
+            throw new RowException("currency must be a 3 letter code: " + value);
+        }
+        return currency;
+    }
+
+    /**
+     * A validated row ready for the batch insert, or the reason it was rejected
+     */
+    private record ValidatedRow(long number, UUID skuId, Object[] params, String error) {
+
+        static ValidatedRow failed(PriceRowReader.Row row, String error) {
+            return new ValidatedRow(row.number(), null, null, error);
+        }
+    }
+
+    private static class RowException extends RuntimeException {
+        RowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * Reference data resolved during one import
+     *
+     * Keys are resolved in bulk before a chunk is validated; validation
+     * threads only read the maps afterwards.
+     */
+    private class Lookups {
+
+        private final Map<String, UUID> skuIds = new HashMap<>();
+        private final Map<String, UUID> tenantIds = new HashMap<>();
+        private final Map<UUID, UUID> addressTenantIds = new HashMap<>();
+        private final Set<String> unknownSkus = new HashSet<>();
+        private final Set<String> unknownTenants = new HashSet<>();
+        private final Set<UUID> unknownAddresses = new HashSet<>();
+
+        void resolve(List<PriceRowReader.Row> chunk, PriceImportType type) {
+            Set<String> skuNumbers = new HashSet<>();
+            Set<String> tenantCodes = new HashSet<>();
+            Set<UUID> addressIds = new HashSet<>();
+
+            for (PriceRowReader.Row row : chunk) {
+                collect(row, "skunumber", skuNumbers, skuIds.keySet(), unknownSkus);
+                if (type == PriceImportType.PRICE_TIER) {
+                    collect(row, "sellercode", tenantCodes, tenantIds.keySet(), unknownTenants);
+                    collect(row, "buyercode", tenantCodes, tenantIds.keySet(), unknownTenants);
+                    UUID addressId = parseUuid(row.fields().get("destinationid"));
+                    if (addressId != null && !addressTenantIds.containsKey(addressId)
+                            && !unknownAddresses.contains(addressId)) {
+                        addressIds.add(addressId);
+                    }
+                }
+            }
+
+            load(skuNumbers, productSKURepository::findByNumberIn, ProductSKU::getNumber, ProductSKU::getId,
+                    skuIds, unknownSkus);
+            load(tenantCodes, tenantRepository::findByCodeIn, Tenant::getCode, Tenant::getId,
+                    tenantIds, unknownTenants);
+            load(addressIds, tenantAddressRepository::findAllById, TenantAddress::getId,
+                    address -> address.getTenant().getId(), addressTenantIds, unknownAddresses);
+        }
+
+        UUID sku(String number) {
+            UUID id = skuIds.get(number);
+            if (id == null) {
+                throw new RowException("Unknown SKU number: " + number);
+            }
+            return id;
+        }
+
+        UUID tenant(String code) {
+            UUID id = tenantIds.get(code);
+            if (id == null) {
+                throw new RowException("Unknown tenant code: " + code);
+            }
+            return id;
+        }
+
+        UUID address(String value, UUID buyerId) {
+            UUID addressId = parseUuid(value);
+            if (addressId == null) {
+                throw new RowException("destination_id is not a UUID: " + value);
+            }
+            UUID tenantId = addressTenantIds.get(addressId);
+            if (tenantId == null) {
+                throw new RowException("Unknown destination address: " + value);
+            }
+            if (!tenantId.equals(buyerId)) {
+                throw new RowException("Destination address " + value + " does not belong to the buyer");
+            }
+            return addressId;
+        }
+
+        private static void collect(PriceRowReader.Row row, String field, Set<String> pending,
+                                    Set<String> known, Set<String> unknown) {
+            String value = row.fields().get(field);
+            if (value != null && !value.isBlank()) {
+                String key = value.trim();
+                if (!known.contains(key) && !unknown.contains(key)) {
+                    pending.add(key);
+                }
+            }
+        }
+
+        private static <K, E> void load(Set<K> keys, Function<Collection<K>, List<E>> query,
+                                        Function<E, K> keyOf, Function<E, UUID> valueOf,
+                                        Map<K, UUID> found, Set<K> unknown) {
+            if (keys.isEmpty()) {
+                return;
+            }
+            for (E entity : query.apply(keys)) {
+                found.put(keyOf.apply(entity), valueOf.apply(entity));
+            }
+            for (K key : keys) {
+                if (!found.containsKey(key)) {
+                    unknown.add(key);
+                }
+            }
+        }
+
+        private static UUID parseUuid(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return UUID.fromString(value.trim());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
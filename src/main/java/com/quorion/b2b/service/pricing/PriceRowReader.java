@@ -0,0 +1,141 @@
+package com.quorion.b2b.service.pricing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads price list rows one line at a time
+ *
+ * Each row is returned as a map of lower-cased field name to raw text, so
+ * CSV and NDJSON feed the same validation. Only the current line is held
+ * in memory. A line that cannot be parsed is reported through
+ * {@link Row#error()} instead of aborting the import.
+ */
+final class PriceRowReader implements AutoCloseable {
+
+    private final BufferedReader reader;
+    private final PriceImportFormat format;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long lineNumber;
+
+    PriceRowReader(InputStream input, PriceImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * A parsed row, numbered by its line in the input
+     */
+    record Row(long number, Map<String, String> fields, String error) {
+    }
+
+    /**
+     * Next non-blank row, or null at end of input
+     */
+    Row next() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == PriceImportFormat.CSV && header == null) {
+                    header = splitCsv(line).stream().map(PriceRowReader::normalize).toList();
+                    continue;
+                }
+                return format == PriceImportFormat.CSV ? csvRow(line) : jsonRow(line);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read price list", e);
+        }
+    }
+
+    private Row csvRow(String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() > header.size()) {
+            return new Row(lineNumber, Map.of(), "Expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return new Row(lineNumber, fields, null);
+    }
+
+    private Row jsonRow(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            return new Row(lineNumber, Map.of(), "Malformed JSON");
+        }
+        if (!node.isObject()) {
+            return new Row(lineNumber, Map.of(), "Expected a JSON object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            if (!entry.getValue().isNull()) {
+                fields.put(normalize(entry.getKey()), entry.getValue().asText());
+            }
+        }
+        return new Row(lineNumber, fields, null);
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields and doubled quotes
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().replace("_", "").toLowerCase();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
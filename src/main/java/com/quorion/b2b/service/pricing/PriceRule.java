@@ -0,0 +1,86 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.model.commerce.PriceTier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Precompiled applicability check of one price tier
+ *
+ * {@link #compile} keeps only the conditions a tier actually sets, so an
+ * unrestricted tier costs a single call and each extra dimension a tier
+ * restricts adds one comparison, never a query.
+ */
+@FunctionalInterface
+interface PriceRule {
+
+    PriceRule ALWAYS = context -> true;
+
+    boolean appliesTo(PricingContext context);
+
+    /**
+     * Build the rule for a tier's seller, maximum quantity, validity window and terms
+     *
+     * Terms only exclude a tier when the context names a different term.
+     */
+    static PriceRule compile(PriceTier tier) {
+        List<PriceRule> conditions = new ArrayList<>(6);
+
+        BigDecimal maximum = tier.getMaximumUomQuantity();
+        if (maximum != null) {
+            conditions.add(context -> context.quantity().compareTo(maximum) <= 0);
+        }
+
+        UUID sellerId = tier.getSeller() != null ? tier.getSeller().getId() : null;
+        conditions.add(context -> context.sellerId() == null || context.sellerId().equals(sellerId));
+
+        LocalDateTime validFrom = tier.getValidFromDate();
+        if (validFrom != null) {
+            conditions.add(context -> !context.at().isBefore(validFrom));
+        }
+        LocalDateTime validTo = tier.getValidToDate();
+        if (validTo != null) {
+            conditions.add(context -> !context.at().isAfter(validTo));
+        }
+
+        UUID deliveryTermId = tier.getDeliveryTerm() != null ? tier.getDeliveryTerm().getId() : null;
+        if (deliveryTermId != null) {
+            conditions.add(context -> context.deliveryTermId() == null
+                    || context.deliveryTermId().equals(deliveryTermId));
+        }
+        UUID paymentTermId = tier.getPaymentTerm() != null ? tier.getPaymentTerm().getId() : null;
+        if (paymentTermId != null) {
+            conditions.add(context -> context.paymentTermId() == null
+                    || context.paymentTermId().equals(paymentTermId));
+        }
+
+        return allOf(conditions);
+    }
+
+    private static PriceRule allOf(List<PriceRule> conditions) {
+        return switch (conditions.size()) {
+            case 0 -> ALWAYS;
+            case 1 -> conditions.get(0);
+            case 2 -> {
+                PriceRule first = conditions.get(0);
+                PriceRule second = conditions.get(1);
+                yield context -> first.appliesTo(context) && second.appliesTo(context);
+            }
+            default -> {
+                PriceRule[] all = conditions.toArray(PriceRule[]::new);
+                yield context -> {
+                    for (PriceRule rule : all) {
+                        if (!rule.appliesTo(context)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+            }
+        };
+    }
+}
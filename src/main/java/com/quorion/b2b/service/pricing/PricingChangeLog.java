@@ -0,0 +1,161 @@
+package com.quorion.b2b.service.pricing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Shares pricing changes between nodes
+ *
+ * Every local {@link PricingChangedEvent} is appended to
+ * {@code pricing_change} in the writing transaction, numbered from the
+ * single {@code pricing_version} row. The row stays locked until the
+ * writer commits, so versions become visible strictly in order. Each node
+ * polls for versions after the last one it applied and replays those other
+ * nodes wrote as remote events, which invalidates its price books, price
+ * histories and priced cart snapshots. A gap in the versions, left by a purge while the
+ * node was not polling, is replayed as a change to all SKUs.
+ */
+@Component
+@Slf4j
+public class PricingChangeLog {
+
+    /**
+     * SKUs per logged change; larger changes are logged as affecting all SKUs
+     */
+    private static final int MAX_LOGGED_SKUS = 1000;
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS pricing_version (id int PRIMARY KEY, version bigint NOT NULL)",
+            "INSERT INTO pricing_version (id, version) VALUES (1, 0) ON CONFLICT DO NOTHING",
+            "CREATE TABLE IF NOT EXISTS pricing_change (version bigint PRIMARY KEY, node_id uuid NOT NULL, " +
+                    "sku_ids uuid[], changed_at timestamp NOT NULL)"
+    };
+
+    private static final String CURRENT_VERSION = "SELECT version FROM pricing_version WHERE id = 1";
+
+    private static final String RECORD_SKUS =
+            "WITH next AS (UPDATE pricing_version SET version = version + 1 WHERE id = 1 RETURNING version) " +
+            "INSERT INTO pricing_change (version, node_id, sku_ids, changed_at) " +
+            "SELECT version, :nodeId, ARRAY[:skuIds]::uuid[], :now FROM next";
+
+    private static final String RECORD_ALL =
+            "WITH next AS (UPDATE pricing_version SET version = version + 1 WHERE id = 1 RETURNING version) " +
+            "INSERT INTO pricing_change (version, node_id, sku_ids, changed_at) " +
+            "SELECT version, :nodeId, NULL, :now FROM next";
+
+    private static final String CHANGES_AFTER =
+            "SELECT version, node_id, sku_ids FROM pricing_change WHERE version > :seen ORDER BY version";
+
+    private static final String PURGE = "DELETE FROM pricing_change WHERE changed_at < :cutoff";
+
+    record Change(long version, UUID nodeId, Set<UUID> skuIds) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int retentionHours;
+
+    /**
+     * Marks the changes written by this node, which its caches already dropped
+     */
+    private final UUID nodeId = UUID.randomUUID();
+
+    private volatile long seen = -1;
+
+    public PricingChangeLog(NamedParameterJdbcTemplate jdbcTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${quorion.b2b.pricing.change-retention-hours:24}") int retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.retentionHours = retentionHours;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSchema() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.getJdbcTemplate().execute(statement);
+        }
+        seen = jdbcTemplate.queryForObject(CURRENT_VERSION, new MapSqlParameterSource(), Long.class);
+    }
+
+    /**
+     * Log a local change just before the writing transaction commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPricingChanged(PricingChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("now", LocalDateTime.now())
+                .addValue("nodeId", nodeId);
+        String sql = RECORD_ALL;
+        if (!event.affectsAll() && event.skuIds().size() <= MAX_LOGGED_SKUS) {
+            params.addValue("skuIds", event.skuIds());
+            sql = RECORD_SKUS;
+        }
+        jdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Replay the changes other nodes committed since the last poll
+     */
+    @Scheduled(fixedDelayString = "${quorion.b2b.pricing.change-poll-interval-ms:1000}")
+    public void poll() {
+        if (seen < 0) {
+            return;
+        }
+        List<Change> changes = jdbcTemplate.query(CHANGES_AFTER, new MapSqlParameterSource("seen", seen),
+                (rs, rowNum) -> new Change(rs.getLong("version"),
+                        rs.getObject("node_id", UUID.class), skuIds(rs.getArray("sku_ids"))));
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        if (changes.get(0).version() != seen + 1) {
+            log.info("Pricing changes after version {} were purged, invalidating all price caches", seen);
+            eventPublisher.publishEvent(new PricingChangedEvent(Set.of(), true));
+        }
+        for (Change change : changes) {
+            if (!nodeId.equals(change.nodeId())) {
+                eventPublisher.publishEvent(new PricingChangedEvent(change.skuIds(), true));
+            }
+        }
+        seen = changes.get(changes.size() - 1).version();
+        log.debug("Applied pricing changes up to version {}", seen);
+    }
+
+    @Scheduled(cron = "${quorion.b2b.pricing.change-purge-cron:0 15 * * * *}")
+    public void purge() {
+        int purged = jdbcTemplate.update(PURGE,
+                new MapSqlParameterSource("cutoff", LocalDateTime.now().minusHours(retentionHours)));
+        log.debug("Purged {} pricing changes", purged);
+    }
+
+    private static Set<UUID> skuIds(Array array) throws SQLException {
+        if (array == null) {
+            return Set.of();
+        }
+        List<UUID> ids = new ArrayList<>();
+        for (Object id : (Object[]) array.getArray()) {
+            ids.add((UUID) id);
+        }
+        return Set.copyOf(ids);
+    }
+}
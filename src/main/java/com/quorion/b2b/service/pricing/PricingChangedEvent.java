@@ -0,0 +1,31 @@
+package com.quorion.b2b.service.pricing;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published whenever price tiers or list prices are written
+ *
+ * An empty SKU set means the change could not be narrowed down to
+ * specific SKUs and every cached price book must be dropped. Changes made
+ * by another node are replayed locally by {@link PricingChangeLog} with
+ * {@code remote} set; they only invalidate caches, the data is already written.
+ */
+public record PricingChangedEvent(Set<UUID> skuIds, boolean remote) {
+
+    public PricingChangedEvent(Set<UUID> skuIds) {
+        this(skuIds, false);
+    }
+
+    public static PricingChangedEvent forSku(UUID skuId) {
+        return skuId != null ? new PricingChangedEvent(Set.of(skuId)) : forAll();
+    }
+
+    public static PricingChangedEvent forAll() {
+        return new PricingChangedEvent(Set.of());
+    }
+
+    public boolean affectsAll() {
+        return skuIds.isEmpty();
+    }
+}
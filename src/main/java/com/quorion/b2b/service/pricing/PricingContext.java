@@ -0,0 +1,31 @@
+package com.quorion.b2b.service.pricing;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Everything a price can depend on, evaluated against a compiled {@link SkuPriceBook}
+ *
+ * Every dimension except quantity and time is optional. A null delivery or
+ * payment term matches tiers for any term, as before terms were considered.
+ *
+ * @param variantId product variant whose price adjustment applies, if any
+ */
+public record PricingContext(BigDecimal quantity,
+                             UUID buyerId,
+                             UUID destinationId,
+                             UUID sellerId,
+                             UUID deliveryTermId,
+                             UUID paymentTermId,
+                             UUID variantId,
+                             LocalDateTime at) {
+
+    /**
+     * Context without terms or variant
+     */
+    public static PricingContext of(BigDecimal quantity, UUID buyerId, UUID destinationId,
+                                    UUID sellerId, LocalDateTime at) {
+        return new PricingContext(quantity, buyerId, destinationId, sellerId, null, null, null, at);
+    }
+}
@@ -0,0 +1,369 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.model.commerce.PriceTier;
+import com.quorion.b2b.model.product.ListPrice;
+import com.quorion.b2b.model.product.ProductVariant;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compiled, immutable pricing data for a single SKU
+ *
+ * Active price tiers are grouped by the context they apply to
+ * (buyer + destination, buyer, destination, general) and sorted by
+ * minimum quantity, so the fallback chain of {@code PricingService}
+ * resolves with map lookups and a bounded scan instead of queries.
+ * Each tier carries a precompiled {@link PriceRule} for its seller,
+ * quantity ceiling, validity window and delivery and payment terms, and
+ * variant price adjustments are kept per variant, so a
+ * {@link PricingContext} is evaluated entirely in memory.
+ * Prices are held as {@link Money} minor units, so resolving a price
+ * allocates nothing until the winner is converted back. When a target
+ * currency is requested, candidates in other currencies are compared
+ * after conversion through an {@link FxRateSnapshot}.
+ */
+public final class SkuPriceBook {
+
+    /**
+     * Currency assumed for rows that do not carry one, as on the entities
+     */
+    static final String DEFAULT_CURRENCY = "USD";
+
+    private static final Comparator<TierBand> BY_MINIMUM_QUANTITY =
+            Comparator.comparing(TierBand::minimumQuantity);
+
+    private final UUID skuId;
+    private final Map<UUID, Map<UUID, TierBand[]>> byBuyerAndDestination;
+    private final Map<UUID, TierBand[]> byBuyer;
+    private final Map<UUID, TierBand[]> byDestination;
+    private final TierBand[] general;
+    private final ListPriceEntry[] listPrices;
+    private final Map<UUID, Long> variantAdjustments;
+
+    private SkuPriceBook(UUID skuId,
+                         Map<UUID, Map<UUID, TierBand[]>> byBuyerAndDestination,
+                         Map<UUID, TierBand[]> byBuyer,
+                         Map<UUID, TierBand[]> byDestination,
+                         TierBand[] general,
+                         ListPriceEntry[] listPrices,
+                         Map<UUID, Long> variantAdjustments) {
+        this.skuId = skuId;
+        this.byBuyerAndDestination = byBuyerAndDestination;
+        this.byBuyer = byBuyer;
+        this.byDestination = byDestination;
+        this.general = general;
+        this.listPrices = listPrices;
+        this.variantAdjustments = variantAdjustments;
+    }
+
+    /**
+     * Build a price book from the tier and list price rows of one SKU
+     */
+    public static SkuPriceBook compile(UUID skuId, List<PriceTier> tiers, List<ListPrice> prices) {
+        return compile(skuId, tiers, prices, List.of());
+    }
+
+    /**
+     * Build a price book from the tier, list price and variant rows of one SKU
+     */
+    public static SkuPriceBook compile(UUID skuId, List<PriceTier> tiers, List<ListPrice> prices,
+                                       List<ProductVariant> variants) {
+        Map<UUID, Map<UUID, List<TierBand>>> buyerDestination = new HashMap<>();
+        Map<UUID, List<TierBand>> buyer = new HashMap<>();
+        Map<UUID, List<TierBand>> destination = new HashMap<>();
+        List<TierBand> general = new ArrayList<>();
+
+        for (PriceTier tier : tiers) {
+            if (!Boolean.TRUE.equals(tier.getIsActive())) {
+                continue;
+            }
+
+            UUID buyerId = tier.getBuyer() != null ? tier.getBuyer().getId() : null;
+            UUID destinationId = tier.getDestination() != null ? tier.getDestination().getId() : null;
+            TierBand band = TierBand.of(tier);
+
+            if (buyerId != null && destinationId != null) {
+                buyerDestination.computeIfAbsent(buyerId, k -> new HashMap<>())
+                        .computeIfAbsent(destinationId, k -> new ArrayList<>())
+                        .add(band);
+            }
+            if (buyerId != null) {
+                buyer.computeIfAbsent(buyerId, k -> new ArrayList<>()).add(band);
+            }
+            if (destinationId != null) {
+                destination.computeIfAbsent(destinationId, k -> new ArrayList<>()).add(band);
+            }
+            if (buyerId == null && destinationId == null) {
+                general.add(band);
+            }
+        }
+
+        Map<UUID, Map<UUID, TierBand[]>> compiledBuyerDestination = new HashMap<>();
+        buyerDestination.forEach((buyerId, byDest) -> compiledBuyerDestination.put(buyerId, sortAll(byDest)));
+
+        ListPriceEntry[] listEntries = prices.stream()
+                .filter(lp -> Boolean.TRUE.equals(lp.getIsActive()))
+                .map(lp -> new ListPriceEntry(Money.fromBigDecimal(lp.getPrice()), currencyOf(lp.getCurrency()),
+                        lp.getStartDate(), lp.getEndDate()))
+                .toArray(ListPriceEntry[]::new);
+
+        Map<UUID, Long> adjustments = new HashMap<>();
+        for (ProductVariant variant : variants) {
+            if (Boolean.TRUE.equals(variant.getIsActive()) && variant.getPriceAdjustment() != null
+                    && variant.getPriceAdjustment().signum() != 0) {
+                adjustments.put(variant.getId(), Money.fromBigDecimal(variant.getPriceAdjustment()));
+            }
+        }
+
+        return new SkuPriceBook(skuId, compiledBuyerDestination, sortAll(buyer), sortAll(destination),
+                sort(general), listEntries, adjustments);
+    }
+
+    public UUID getSkuId() {
+        return skuId;
+    }
+
+    /**
+     * Resolve the unit price following the buyer/destination fallback chain
+     *
+     * @return the best tier price, the list price, or null if nothing applies
+     */
+    public BigDecimal resolve(BigDecimal quantity, UUID buyerId, UUID destinationId,
+                              UUID sellerId, LocalDateTime now) {
+        long price = resolveUnits(quantity, buyerId, destinationId, sellerId, now);
+        return price != Money.NONE ? Money.toBigDecimal(price) : null;
+    }
+
+    /**
+     * Resolve the unit price in {@link Money} minor units
+     *
+     * @return the price, or {@link Money#NONE} if nothing applies
+     */
+    public long resolveUnits(BigDecimal quantity, UUID buyerId, UUID destinationId,
+                             UUID sellerId, LocalDateTime now) {
+        PricePoint point = resolvePoint(PricingContext.of(quantity, buyerId, destinationId, sellerId, now),
+                null, null);
+        return point != null ? point.price() : Money.NONE;
+    }
+
+    /**
+     * Resolve the winning tier or list price for a context, comparing candidates in a target currency
+     *
+     * Within each level of the fallback chain the cheapest applicable
+     * candidate after conversion wins; candidates that cannot be converted
+     * are skipped. The context's variant adjustment is added to the winner.
+     *
+     * @param currency target currency, or null to compare source prices as stored
+     * @param rates rates used when {@code currency} is set
+     * @return the winning price in its source currency, or null if nothing applies
+     */
+    public PricePoint resolvePoint(PricingContext context, String currency, FxRateSnapshot rates) {
+        PricePoint point = resolveBase(context, currency, rates);
+        if (point == null || context.variantId() == null) {
+            return point;
+        }
+        Long adjustment = variantAdjustments.get(context.variantId());
+        return adjustment != null
+                ? new AdjustedPrice(Math.max(0L, point.price() + adjustment), point.currency())
+                : point;
+    }
+
+    private PricePoint resolveBase(PricingContext context, String currency, FxRateSnapshot rates) {
+        UUID buyerId = context.buyerId();
+        UUID destinationId = context.destinationId();
+
+        if (buyerId != null && destinationId != null) {
+            Map<UUID, TierBand[]> forBuyer = byBuyerAndDestination.get(buyerId);
+            PricePoint point = forBuyer != null
+                    ? bestBand(forBuyer.get(destinationId), context, currency, rates)
+                    : null;
+            if (point != null) {
+                return point;
+            }
+        }
+
+        if (buyerId != null) {
+            PricePoint point = bestBand(byBuyer.get(buyerId), context, currency, rates);
+            if (point != null) {
+                return point;
+            }
+        }
+
+        if (destinationId != null) {
+            PricePoint point = bestBand(byDestination.get(destinationId), context, currency, rates);
+            if (point != null) {
+                return point;
+            }
+        }
+
+        PricePoint volumePoint = bestBand(general, context, currency, rates);
+        if (volumePoint != null) {
+            return volumePoint;
+        }
+
+        return bestListPrice(context.at(), currency, rates);
+    }
+
+    /**
+     * Lowest active list price valid at the given time
+     */
+    public BigDecimal listPrice(LocalDateTime now) {
+        PricePoint point = bestListPrice(now, null, null);
+        return point != null ? Money.toBigDecimal(point.price()) : null;
+    }
+
+    private PricePoint bestListPrice(LocalDateTime now, String currency, FxRateSnapshot rates) {
+        PricePoint best = null;
+        long bestUnits = Money.NONE;
+        for (ListPriceEntry entry : listPrices) {
+            if (!entry.isValidAt(now)) {
+                continue;
+            }
+            long units = comparableUnits(entry, currency, rates);
+            if (units != Money.NONE && (bestUnits == Money.NONE || units < bestUnits)) {
+                best = entry;
+                bestUnits = units;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Whether the SKU has an active list price or any active tier
+     */
+    public boolean hasPricing(LocalDateTime now) {
+        return bestListPrice(now, null, null) != null
+                || general.length > 0
+                || !byBuyer.isEmpty()
+                || !byDestination.isEmpty();
+    }
+
+    /**
+     * Lowest priced tier covering the quantity
+     *
+     * Bands are sorted by minimum quantity, so only the prefix whose
+     * minimum is at or below the requested quantity is scanned.
+     */
+    private static TierBand bestBand(TierBand[] bands, PricingContext context,
+                                     String currency, FxRateSnapshot rates) {
+        if (bands == null || bands.length == 0) {
+            return null;
+        }
+
+        int end = upperBound(bands, context.quantity());
+        TierBand best = null;
+        long bestUnits = Money.NONE;
+        for (int i = 0; i < end; i++) {
+            TierBand band = bands[i];
+            if (!band.rule().appliesTo(context)) {
+                continue;
+            }
+            long units = comparableUnits(band, currency, rates);
+            if (units != Money.NONE && (bestUnits == Money.NONE || units < bestUnits)) {
+                best = band;
+                bestUnits = units;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Price of a candidate in the target currency, or as stored when no target is set
+     */
+    private static long comparableUnits(PricePoint point, String currency, FxRateSnapshot rates) {
+        if (currency == null) {
+            return point.price();
+        }
+        return rates.convert(point.price(), point.currency(), currency);
+    }
+
+    private static int upperBound(TierBand[] bands, BigDecimal quantity) {
+        int low = 0;
+        int high = bands.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bands[mid].minimumQuantity().compareTo(quantity) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Map<UUID, TierBand[]> sortAll(Map<UUID, List<TierBand>> grouped) {
+        Map<UUID, TierBand[]> sorted = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, bands) -> sorted.put(key, sort(bands)));
+        return sorted;
+    }
+
+    private static TierBand[] sort(List<TierBand> bands) {
+        TierBand[] sorted = bands.toArray(TierBand[]::new);
+        Arrays.sort(sorted, BY_MINIMUM_QUANTITY);
+        return sorted;
+    }
+
+    /**
+     * Currency of a stored row, defaulting like the entities do
+     */
+    public static String currencyOf(String currency) {
+        return currency != null ? currency : DEFAULT_CURRENCY;
+    }
+
+    /**
+     * Apply discount percentage to base price
+     */
+    static BigDecimal applyDiscount(BigDecimal basePrice, BigDecimal discountPercent) {
+        return Money.toBigDecimal(Money.applyDiscount(
+                Money.fromBigDecimal(basePrice), Money.discountBasisPoints(discountPercent)));
+    }
+
+    /**
+     * A resolved price in {@link Money} minor units and the currency it is stored in
+     */
+    public interface PricePoint {
+        long price();
+
+        String currency();
+    }
+
+    /**
+     * A price tier reduced to its minimum quantity, its applicability rule
+     * and its price, discount pre-applied and in {@link Money} minor units
+     */
+    record TierBand(BigDecimal minimumQuantity, long price, String currency,
+                    PriceRule rule) implements PricePoint {
+
+        static TierBand of(PriceTier tier) {
+            return new TierBand(
+                    tier.getMinimumUomQuantity(),
+                    Money.applyDiscount(Money.fromBigDecimal(tier.getPricePerUom()),
+                            Money.discountBasisPoints(tier.getDiscountPercent())),
+                    currencyOf(tier.getCurrency()),
+                    PriceRule.compile(tier));
+        }
+    }
+
+    /**
+     * A price with a variant adjustment applied
+     */
+    record AdjustedPrice(long price, String currency) implements PricePoint {
+    }
+
+    record ListPriceEntry(long price, String currency, LocalDateTime startDate,
+                          LocalDateTime endDate) implements PricePoint {
+
+        boolean isValidAt(LocalDateTime now) {
+            return (startDate == null || !startDate.isAfter(now))
+                    && (endDate == null || !endDate.isBefore(now));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.model.BaseEntity;
+import com.quorion.b2b.model.commerce.DeliveryTerm;
+import com.quorion.b2b.model.commerce.PaymentTerm;
+import com.quorion.b2b.model.commerce.PriceHistory;
+import com.quorion.b2b.model.commerce.PriceHistoryKind;
+import com.quorion.b2b.model.commerce.PriceTier;
+import com.quorion.b2b.model.product.ListPrice;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.model.tenant.TenantAddress;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Interval-indexed price history of a single SKU
+ *
+ * Each recorded version becomes an interval from its {@code recordedAt}
+ * to the next version of the same row. Versions are turned into detached
+ * tiers and list prices once, when the history is built, so the price at
+ * a past time is a stabbing query plus compiling the few rows found.
+ */
+public final class SkuPriceHistory {
+
+    private final UUID skuId;
+    private final IntervalIndex<PriceTier> tiers;
+    private final IntervalIndex<ListPrice> listPrices;
+    private final IntervalIndex<Version> versions;
+
+    private SkuPriceHistory(UUID skuId, IntervalIndex<PriceTier> tiers, IntervalIndex<ListPrice> listPrices,
+                            IntervalIndex<Version> versions) {
+        this.skuId = skuId;
+        this.tiers = tiers;
+        this.listPrices = listPrices;
+        this.versions = versions;
+    }
+
+    /**
+     * A recorded version with the version it replaced, if any
+     */
+    public record Version(PriceHistory row, PriceHistory previous) {
+    }
+
+    /**
+     * Build the history from the versions of one SKU, ordered by source row and version
+     */
+    public static SkuPriceHistory compile(UUID skuId, List<PriceHistory> rows) {
+        List<IntervalIndex.Entry<PriceTier>> tierEntries = new ArrayList<>();
+        List<IntervalIndex.Entry<ListPrice>> listEntries = new ArrayList<>();
+        List<IntervalIndex.Entry<Version>> versionEntries = new ArrayList<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            PriceHistory row = rows.get(i);
+            PriceHistory next = i + 1 < rows.size() && rows.get(i + 1).getSourceId().equals(row.getSourceId())
+                    ? rows.get(i + 1)
+                    : null;
+            PriceHistory previous = i > 0 && rows.get(i - 1).getSourceId().equals(row.getSourceId())
+                    ? rows.get(i - 1)
+                    : null;
+
+            long start = IntervalIndex.key(row.getRecordedAt());
+            long end = next != null ? IntervalIndex.key(next.getRecordedAt()) : IntervalIndex.OPEN;
+            versionEntries.add(new IntervalIndex.Entry<>(start, start + 1, new Version(row, previous)));
+
+            if (Boolean.TRUE.equals(row.getRemoved()) || end <= start) {
+                continue;
+            }
+            if (row.getKind() == PriceHistoryKind.PRICE_TIER) {
+                tierEntries.add(new IntervalIndex.Entry<>(start, end, toTier(row)));
+            } else {
+                listEntries.add(new IntervalIndex.Entry<>(start, end, toListPrice(row)));
+            }
+        }
+
+        return new SkuPriceHistory(skuId, IntervalIndex.of(tierEntries), IntervalIndex.of(listEntries),
+                IntervalIndex.of(versionEntries));
+    }
+
+    public UUID getSkuId() {
+        return skuId;
+    }
+
+    /**
+     * The price book as it stood at a past time
+     *
+     * Validity windows are evaluated by the caller against the same time.
+     */
+    public SkuPriceBook bookAt(LocalDateTime time) {
+        long key = IntervalIndex.key(time);
+        return SkuPriceBook.compile(skuId, tiers.at(key), listPrices.at(key));
+    }
+
+    /**
+     * Versions recorded in {@code [from, to)}, oldest first
+     */
+    public List<Version> changesBetween(LocalDateTime from, LocalDateTime to) {
+        List<Version> changes = new ArrayList<>(
+                versions.overlapping(IntervalIndex.key(from), IntervalIndex.key(to)));
+        changes.sort(Comparator.comparing((Version version) -> version.row().getRecordedAt())
+                .thenComparing(version -> version.row().getVersion()));
+        return changes;
+    }
+
+    private static PriceTier toTier(PriceHistory row) {
+        PriceTier tier = PriceTier.builder()
+                .seller(reference(new Tenant(), row.getSellerId()))
+                .buyer(reference(new Tenant(), row.getBuyerId()))
+                .destination(reference(new TenantAddress(), row.getDestinationId()))
+                .deliveryTerm(reference(new DeliveryTerm(), row.getDeliveryTermId()))
+                .paymentTerm(reference(new PaymentTerm(), row.getPaymentTermId()))
+                .minimumUomQuantity(row.getMinimumQuantity())
+                .maximumUomQuantity(row.getMaximumQuantity())
+                .pricePerUom(row.getPrice())
+                .discountPercent(row.getDiscountPercent())
+                .currency(row.getCurrency())
+                .validFromDate(row.getValidFrom())
+                .validToDate(row.getValidTo())
+                .isActive(row.getIsActive())
+                .build();
+        tier.setId(row.getSourceId());
+        return tier;
+    }
+
+    private static ListPrice toListPrice(PriceHistory row) {
+        ListPrice price = ListPrice.builder()
+                .price(row.getPrice())
+                .currency(row.getCurrency())
+                .startDate(row.getValidFrom())
+                .endDate(row.getValidTo())
+                .isActive(row.getIsActive())
+                .build();
+        price.setId(row.getSourceId());
+        return price;
+    }
+
+    private static <E extends BaseEntity> E reference(E entity, UUID id) {
+        if (id == null) {
+            return null;
+        }
+        entity.setId(id);
+        return entity;
+    }
+}
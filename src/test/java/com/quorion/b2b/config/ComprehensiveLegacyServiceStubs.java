@@ -50,7 +50,8 @@ public class ComprehensiveLegacyServiceStubs {
             org.springframework.security.crypto.password.PasswordEncoder passwordEncoder,
             org.springframework.security.authentication.AuthenticationManager authenticationManager,
             com.quorion.b2b.security.JwtTokenProvider jwtTokenProvider) {
-        return new AuthService(userRepository, tenantRepository, passwordEncoder, authenticationManager, jwtTokenProvider);
+        return new AuthService(userRepository, tenantRepository, passwordEncoder, authenticationManager, jwtTokenProvider,
+                Mockito.mock(com.quorion.b2b.service.cart.GuestCartMerger.class));
     }
     
     @Bean
@@ -86,26 +87,34 @@ public class ComprehensiveLegacyServiceStubs {
 
     @Bean
     @Primary
-    public ListPriceService listPriceService(ListPriceRepository listPriceRepository) {
-        return new ListPriceService(listPriceRepository);
+    public ListPriceService listPriceService(ListPriceRepository listPriceRepository,
+            org.springframework.context.ApplicationEventPublisher eventPublisher,
+            com.quorion.b2b.service.pricing.PriceHistoryRecorder priceHistoryRecorder) {
+        return new ListPriceService(listPriceRepository, eventPublisher, priceHistoryRecorder);
     }
 
     @Bean
     @Primary
-    public PurchaseOrderService purchaseOrderService(PurchaseOrderRepository purchaseOrderRepository) {
-        return new PurchaseOrderService(purchaseOrderRepository);
+    public PurchaseOrderService purchaseOrderService(PurchaseOrderRepository purchaseOrderRepository,
+                                                     com.quorion.b2b.service.order.OrderStatusWriter orderStatusWriter,
+                                                     com.quorion.b2b.service.outbox.OutboxWriter outboxWriter) {
+        return new PurchaseOrderService(purchaseOrderRepository, orderStatusWriter, outboxWriter);
     }
 
     @Bean
     @Primary
-    public QuoteRequestService quoteRequestService(QuoteRequestRepository quoteRequestRepository, PurchaseOrderRepository purchaseOrderRepository) {
-        return new QuoteRequestService(quoteRequestRepository, purchaseOrderRepository);
+    public QuoteRequestService quoteRequestService(QuoteRequestRepository quoteRequestRepository, PurchaseOrderRepository purchaseOrderRepository, PricingService pricingService,
+                                                   com.quorion.b2b.service.document.DocumentNumberAllocator documentNumberAllocator,
+                                                   com.quorion.b2b.service.outbox.OutboxWriter outboxWriter,
+                                                   com.quorion.b2b.service.order.OrderLineWriter orderLineWriter) {
+        return new QuoteRequestService(quoteRequestRepository, purchaseOrderRepository, pricingService, documentNumberAllocator, outboxWriter, orderLineWriter);
     }
 
     @Bean
     @Primary
-    public LeadService leadService(LeadRepository leadRepository) {
-        return new LeadService(leadRepository);
+    public LeadService leadService(LeadRepository leadRepository,
+                                   com.quorion.b2b.service.outbox.OutboxWriter outboxWriter) {
+        return new LeadService(leadRepository, outboxWriter);
     }
 
     @Bean
@@ -122,8 +131,9 @@ public class ComprehensiveLegacyServiceStubs {
 
     @Bean
     @Primary
-    public ShipmentAdviceService shipmentAdviceService(ShipmentAdviceRepository shipmentAdviceRepository) {
-        return new ShipmentAdviceService(shipmentAdviceRepository);
+    public ShipmentAdviceService shipmentAdviceService(ShipmentAdviceRepository shipmentAdviceRepository,
+                                                       com.quorion.b2b.service.document.DocumentNumberAllocator documentNumberAllocator) {
+        return new ShipmentAdviceService(shipmentAdviceRepository, documentNumberAllocator);
     }
 
     @Bean
@@ -146,8 +156,10 @@ public class ComprehensiveLegacyServiceStubs {
 
     @Bean
     @Primary
-    public PriceTierService priceTierService(PriceTierRepository priceTierRepository) {
-        return new PriceTierService(priceTierRepository);
+    public PriceTierService priceTierService(PriceTierRepository priceTierRepository,
+            org.springframework.context.ApplicationEventPublisher eventPublisher,
+            com.quorion.b2b.service.pricing.PriceHistoryRecorder priceHistoryRecorder) {
+        return new PriceTierService(priceTierRepository, eventPublisher, priceHistoryRecorder);
     }
 
     @Bean
@@ -0,0 +1,237 @@
+package com.quorion.b2b.service;
+
+import com.quorion.b2b.dto.cart.BulkCartResult;
+import com.quorion.b2b.exception.PreconditionFailedException;
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.commerce.Lead;
+import com.quorion.b2b.model.commerce.SalesLeadStatus;
+import com.quorion.b2b.model.product.Product;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.repository.*;
+import com.quorion.b2b.service.cart.CartLineWriter;
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CartService
+ * Tests bulk cart writes: per-line outcomes, merged deltas and version preconditions
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartService Tests")
+class CartServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private TenantRepository tenantRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private LeadRepository leadRepository;
+
+    @Mock
+    private CartLineWriter cartLineWriter;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    private CartService cartService;
+
+    private Cart cart;
+    private Product bolts;
+    private Product nuts;
+    private CartItem boltsItem;
+
+    @BeforeEach
+    void setUp() {
+        cartService = new CartService(cartRepository, cartItemRepository, tenantRepository, customerRepository,
+                productRepository, leadRepository, cartLineWriter, outboxWriter);
+
+        bolts = product("Bolts");
+        nuts = product("Nuts");
+
+        cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        cart.setIsActive(true);
+        boltsItem = new CartItem();
+        boltsItem.setId(UUID.randomUUID());
+        boltsItem.setCart(cart);
+        boltsItem.setProduct(bolts);
+        boltsItem.setQuantity(new BigDecimal("10"));
+        boltsItem.setUnitPrice(new BigDecimal("1.50"));
+        cart.getItems().add(boltsItem);
+    }
+
+    @Test
+    @DisplayName("Should report each bulk line and write merged deltas in one statement")
+    @SuppressWarnings("unchecked")
+    void testAddBulkItems() {
+        UUID missingProductId = UUID.randomUUID();
+        UUID nutsItemId = UUID.randomUUID();
+        when(cartRepository.existsById(cart.getId())).thenReturn(true);
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(bolts, nuts));
+        when(cartLineWriter.addQuantities(eq(cart.getId()), any())).thenReturn(List.of(
+                new CartLineWriter.WrittenLine(bolts.getId(), boltsItem.getId(), new BigDecimal("15"), false),
+                new CartLineWriter.WrittenLine(nuts.getId(), nutsItemId, new BigDecimal("25"), true)));
+        when(cartLineWriter.bumpVersion(cart.getId(), null)).thenReturn(OptionalLong.of(7));
+
+        BulkCartResult result = cartService.addBulkItems(cart.getId(), List.of(
+                new CartService.BulkItemRequest(bolts.getId(), new BigDecimal("5"), new BigDecimal("1.50"), null),
+                new CartService.BulkItemRequest(nuts.getId(), new BigDecimal("20"), new BigDecimal("0.25"), null),
+                new CartService.BulkItemRequest(missingProductId, BigDecimal.ONE, BigDecimal.ONE, null),
+                new CartService.BulkItemRequest(nuts.getId(), BigDecimal.ZERO, new BigDecimal("0.25"), null),
+                new CartService.BulkItemRequest(nuts.getId(), new BigDecimal("5"), new BigDecimal("0.30"), null)),
+                null);
+
+        assertEquals(7, result.getCartVersion());
+        assertEquals(1, result.getCreatedLines());
+        assertEquals(2, result.getUpdatedLines());
+        assertEquals(2, result.getRejectedLines());
+
+        List<BulkCartResult.Line> lines = result.getLines();
+        assertEquals(BulkCartResult.LineStatus.UPDATED, lines.get(0).getStatus());
+        assertEquals(boltsItem.getId(), lines.get(0).getItemId());
+        assertEquals(new BigDecimal("15"), lines.get(0).getQuantity());
+        assertEquals(BulkCartResult.LineStatus.CREATED, lines.get(1).getStatus());
+        assertEquals(BulkCartResult.LineStatus.REJECTED, lines.get(2).getStatus());
+        assertEquals("Product not found: " + missingProductId, lines.get(2).getError());
+        assertEquals(BulkCartResult.LineStatus.REJECTED, lines.get(3).getStatus());
+        assertEquals(4, lines.get(3).getLine());
+        assertEquals(BulkCartResult.LineStatus.UPDATED, lines.get(4).getStatus());
+        assertEquals(nutsItemId, lines.get(4).getItemId());
+
+        ArgumentCaptor<Collection<CartLineWriter.LineDelta>> deltas = ArgumentCaptor.forClass(Collection.class);
+        verify(cartLineWriter, times(1)).addQuantities(eq(cart.getId()), deltas.capture());
+        assertEquals(List.of(
+                new CartLineWriter.LineDelta(bolts.getId(), new BigDecimal("5"), new BigDecimal("1.50"), null),
+                new CartLineWriter.LineDelta(nuts.getId(), new BigDecimal("25"), new BigDecimal("0.25"), null)),
+                List.copyOf(deltas.getValue()));
+        verify(productRepository, times(1)).findAllById(anyIterable());
+        verify(cartItemRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should keep the cart version when every bulk line is rejected")
+    void testAddBulkItemsAllRejected() {
+        when(cartRepository.existsById(cart.getId())).thenReturn(true);
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(cartRepository.findVersionById(cart.getId())).thenReturn(Optional.of(3L));
+
+        BulkCartResult result = cartService.addBulkItems(cart.getId(), List.of(
+                new CartService.BulkItemRequest(UUID.randomUUID(), BigDecimal.ONE, BigDecimal.ONE, null)), 3L);
+
+        assertEquals(3, result.getCartVersion());
+        assertEquals(1, result.getRejectedLines());
+        verify(cartLineWriter, never()).addQuantities(any(), any());
+        verify(cartLineWriter, never()).bumpVersion(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fail with a precondition error when the cart version has moved on")
+    void testStaleVersion() {
+        when(cartLineWriter.removeLine(cart.getId(), boltsItem.getId())).thenReturn(true);
+        when(cartLineWriter.bumpVersion(cart.getId(), 3L)).thenReturn(OptionalLong.empty());
+        when(cartRepository.existsById(cart.getId())).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> cartService.removeItem(cart.getId(), boltsItem.getId(), 3L));
+    }
+
+    @Test
+    @DisplayName("Should clone all live lines with a single batched write")
+    @SuppressWarnings("unchecked")
+    void testCloneCart() {
+        when(cartRepository.findByIdWithItems(cart.getId())).thenReturn(Optional.of(cart));
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Cart clone = cartService.cloneCart(cart.getId(), null, null);
+
+        ArgumentCaptor<Iterable<CartItem>> written = ArgumentCaptor.forClass(Iterable.class);
+        verify(cartItemRepository, times(1)).saveAll(written.capture());
+        List<CartItem> items = (List<CartItem>) written.getValue();
+        assertEquals(1, items.size());
+        assertSame(clone, items.get(0).getCart());
+        assertEquals(bolts, items.get(0).getProduct());
+        assertEquals(new BigDecimal("10"), items.get(0).getQuantity());
+        verify(cartItemRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should delete all lines, soft-deleted ones included, before deleting the cart")
+    void testDeleteCartWithSoftDeletedLine() {
+        CartItem removed = new CartItem();
+        removed.setId(UUID.randomUUID());
+        removed.setCart(cart);
+        removed.setProduct(nuts);
+        removed.setQuantity(BigDecimal.ONE);
+        removed.softDelete();
+        // Hidden from cart.getItems() by the live-lines restriction, so the cascade never sees it
+        assertFalse(cart.getItems().contains(removed));
+        when(cartRepository.findById(cart.getId())).thenReturn(Optional.of(cart));
+        when(cartItemRepository.deleteAllByCartId(cart.getId())).thenReturn(2);
+
+        cartService.deleteCart(cart.getId());
+
+        InOrder inOrder = inOrder(cartItemRepository, cartRepository);
+        inOrder.verify(cartItemRepository).deleteAllByCartId(cart.getId());
+        inOrder.verify(cartRepository).delete(cart);
+    }
+
+    @Test
+    @DisplayName("Should append a lead event in the transaction that converts the cart")
+    void testConvertToLead() {
+        Tenant seller = new Tenant();
+        seller.setId(UUID.randomUUID());
+        UUID leadId = UUID.randomUUID();
+        when(cartRepository.findByIdWithItems(cart.getId())).thenReturn(Optional.of(cart));
+        when(tenantRepository.findById(seller.getId())).thenReturn(Optional.of(seller));
+        when(leadRepository.save(any(Lead.class))).thenAnswer(invocation -> {
+            Lead lead = invocation.getArgument(0);
+            lead.setId(leadId);
+            return lead;
+        });
+
+        cartService.convertToLead(cart.getId(), seller.getId(), "Ada", "Buyer", "ada@example.com", null, null);
+
+        verify(outboxWriter).append(AggregateType.LEAD, leadId, seller, null, SalesLeadStatus.NEW);
+        assertFalse(cart.getIsActive());
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setName(name);
+        return product;
+    }
+}
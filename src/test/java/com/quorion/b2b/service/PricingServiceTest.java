@@ -1,17 +1,31 @@
 package com.quorion.b2b.service;
 
+import com.quorion.b2b.dto.pricing.PriceRequest;
+import com.quorion.b2b.dto.pricing.PriceResult;
+import com.quorion.b2b.model.commerce.DeliveryTerm;
+import com.quorion.b2b.model.commerce.EffectivePrice;
+import com.quorion.b2b.model.commerce.FxRate;
+import com.quorion.b2b.model.commerce.PaymentTerm;
+import com.quorion.b2b.model.commerce.PriceSource;
 import com.quorion.b2b.model.commerce.PriceTier;
 import com.quorion.b2b.model.product.ListPrice;
 import com.quorion.b2b.model.product.ProductSKU;
+import com.quorion.b2b.model.product.ProductVariant;
 import com.quorion.b2b.model.tenant.Tenant;
 import com.quorion.b2b.model.tenant.TenantAddress;
+import com.quorion.b2b.repository.EffectivePriceRepository;
 import com.quorion.b2b.repository.ListPriceRepository;
 import com.quorion.b2b.repository.PriceTierRepository;
+import com.quorion.b2b.repository.ProductVariantRepository;
+import com.quorion.b2b.service.pricing.FxRateSnapshot;
+import com.quorion.b2b.service.pricing.FxRateTable;
+import com.quorion.b2b.service.pricing.PriceIndex;
+import com.quorion.b2b.service.pricing.PricingChangedEvent;
+import com.quorion.b2b.service.pricing.PricingContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -23,6 +37,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -39,7 +54,16 @@ class PricingServiceTest {
     @Mock
     private ListPriceRepository listPriceRepository;
 
-    @InjectMocks
+    @Mock
+    private EffectivePriceRepository effectivePriceRepository;
+
+    @Mock
+    private ProductVariantRepository productVariantRepository;
+
+    private PriceIndex priceIndex;
+
+    private FxRateTable fxRateTable;
+
     private PricingService pricingService;
 
     private UUID skuId;
@@ -53,6 +77,11 @@ class PricingServiceTest {
         buyerId = UUID.randomUUID();
         sellerId = UUID.randomUUID();
         destinationId = UUID.randomUUID();
+
+        priceIndex = new PriceIndex(priceTierRepository, listPriceRepository, productVariantRepository, 50000, 900);
+        fxRateTable = new FxRateTable();
+        pricingService = new PricingService(priceTierRepository, priceIndex,
+                effectivePriceRepository, fxRateTable);
     }
 
     @Test
@@ -81,8 +110,7 @@ class PricingServiceTest {
         BigDecimal quantity = new BigDecimal("50");
         List<PriceTier> buyerTiers = createBuyerSpecificTiers(buyerId);
 
-        when(priceTierRepository.findByProductSkuIdAndBuyerId(skuId, buyerId))
-                .thenReturn(buyerTiers);
+        when(priceTierRepository.findByProductSkuId(skuId)).thenReturn(buyerTiers);
 
         // Act
         BigDecimal price = pricingService.calculatePrice(skuId, quantity, buyerId, null, null);
@@ -91,7 +119,7 @@ class PricingServiceTest {
         assertNotNull(price);
         // Buyer-specific price should be 7.50
         assertEquals(new BigDecimal("7.50"), price);
-        verify(priceTierRepository).findByProductSkuIdAndBuyerId(skuId, buyerId);
+        verify(priceTierRepository).findByProductSkuId(skuId);
     }
 
     @Test
@@ -101,8 +129,7 @@ class PricingServiceTest {
         BigDecimal quantity = new BigDecimal("30");
         List<PriceTier> destTiers = createDestinationSpecificTiers(destinationId);
 
-        when(priceTierRepository.findByProductSkuIdAndDestinationId(skuId, destinationId))
-                .thenReturn(destTiers);
+        when(priceTierRepository.findByProductSkuId(skuId)).thenReturn(destTiers);
 
         // Act
         BigDecimal price = pricingService.calculatePrice(skuId, quantity, null, destinationId, null);
@@ -111,7 +138,7 @@ class PricingServiceTest {
         assertNotNull(price);
         // Destination-specific price should be 9.00
         assertEquals(new BigDecimal("9.00"), price);
-        verify(priceTierRepository).findByProductSkuIdAndDestinationId(skuId, destinationId);
+        verify(priceTierRepository).findByProductSkuId(skuId);
     }
 
     @Test
@@ -121,8 +148,7 @@ class PricingServiceTest {
         BigDecimal quantity = new BigDecimal("50");
         List<PriceTier> combinedTiers = createBuyerDestinationTiers(buyerId, destinationId);
 
-        when(priceTierRepository.findByProductSkuIdAndBuyerIdAndDestinationId(
-                skuId, buyerId, destinationId)).thenReturn(combinedTiers);
+        when(priceTierRepository.findByProductSkuId(skuId)).thenReturn(combinedTiers);
 
         // Act
         BigDecimal price = pricingService.calculatePrice(skuId, quantity, buyerId, destinationId, null);
@@ -131,8 +157,7 @@ class PricingServiceTest {
         assertNotNull(price);
         // Most specific price should win: 6.50
         assertEquals(new BigDecimal("6.50"), price);
-        verify(priceTierRepository).findByProductSkuIdAndBuyerIdAndDestinationId(
-                skuId, buyerId, destinationId);
+        verify(priceTierRepository).findByProductSkuId(skuId);
     }
 
     @Test
@@ -240,8 +265,268 @@ class PricingServiceTest {
         assertTrue(hasPricing);
     }
 
+    @Test
+    @DisplayName("Should prefer buyer-specific tier over general volume tier in the same price book")
+    void testBuyerTierWinsOverVolumeTier() {
+        // Arrange
+        List<PriceTier> tiers = new ArrayList<>(createVolumeTiers());
+        tiers.addAll(createBuyerSpecificTiers(buyerId));
+
+        when(priceTierRepository.findByProductSkuId(skuId)).thenReturn(tiers);
+
+        // Act
+        BigDecimal buyerPrice = pricingService.calculatePrice(skuId, new BigDecimal("100"), buyerId, null, null);
+        BigDecimal otherPrice = pricingService.calculatePrice(skuId, new BigDecimal("100"), UUID.randomUUID(), null, null);
+
+        // Assert
+        assertEquals(new BigDecimal("7.50"), buyerPrice);
+        assertEquals(new BigDecimal("6.00"), otherPrice);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the price index without querying")
+    void testPriceIndexCachesPriceBook() {
+        // Arrange
+        when(priceTierRepository.findByProductSkuId(skuId)).thenReturn(createVolumeTiers());
+
+        // Act
+        pricingService.calculatePrice(skuId, new BigDecimal("10"), null, null, null);
+        pricingService.calculatePrice(skuId, new BigDecimal("60"), null, null, null);
+        BigDecimal price = pricingService.calculatePrice(skuId, new BigDecimal("100"), null, null, null);
+
+        // Assert
+        assertEquals(new BigDecimal("6.00"), price);
+        verify(priceTierRepository, times(1)).findByProductSkuId(skuId);
+        verify(listPriceRepository, times(1)).findBySkuId(skuId);
+    }
+
+    @Test
+    @DisplayName("Should reload the price book after a pricing change for the SKU")
+    void testPriceIndexInvalidation() {
+        // Arrange
+        List<PriceTier> discounted = createTiersWithDiscount();
+        when(priceTierRepository.findByProductSkuId(skuId))
+                .thenReturn(createVolumeTiers())
+                .thenReturn(discounted);
+
+        // Act
+        BigDecimal before = pricingService.calculatePrice(skuId, new BigDecimal("100"), null, null, null);
+        priceIndex.onPricingChanged(PricingChangedEvent.forSku(UUID.randomUUID()));
+        BigDecimal unaffected = pricingService.calculatePrice(skuId, new BigDecimal("100"), null, null, null);
+        priceIndex.onPricingChanged(PricingChangedEvent.forSku(skuId));
+        BigDecimal after = pricingService.calculatePrice(skuId, new BigDecimal("100"), null, null, null);
+
+        // Assert
+        assertEquals(new BigDecimal("6.00"), before);
+        assertEquals(new BigDecimal("6.00"), unaffected);
+        assertEquals(new BigDecimal("8.00"), after);
+        verify(priceTierRepository, times(2)).findByProductSkuId(skuId);
+    }
+
+    @Test
+    @DisplayName("Should bound the price index by size and reload books past their maximum age")
+    void testPriceIndexBounds() {
+        // Arrange
+        PriceIndex bounded = new PriceIndex(priceTierRepository, listPriceRepository, productVariantRepository, 10, 900);
+        PriceIndex expiring = new PriceIndex(priceTierRepository, listPriceRepository, productVariantRepository, 10, 0);
+
+        // Act
+        for (int i = 0; i < 12; i++) {
+            bounded.get(UUID.randomUUID());
+        }
+        bounded.trim();
+        expiring.get(skuId);
+        expiring.get(skuId);
+
+        // Assert
+        assertEquals(9, bounded.size());
+        verify(priceTierRepository, times(2)).findByProductSkuId(skuId);
+    }
+
+    @Test
+    @DisplayName("Should price many lines with one tier and one list price query")
+    void testCalculatePricesBatch() {
+        // Arrange
+        UUID listPricedSkuId = UUID.randomUUID();
+        ProductSKU tieredSku = new ProductSKU();
+        tieredSku.setId(skuId);
+        List<PriceTier> tiers = createVolumeTiers();
+        tiers.forEach(tier -> tier.setProductSku(tieredSku));
+
+        ProductSKU listPricedSku = new ProductSKU();
+        listPricedSku.setId(listPricedSkuId);
+        List<ListPrice> prices = List.of(ListPrice.builder()
+                .sku(listPricedSku)
+                .price(new BigDecimal("12.00"))
+                .isActive(true)
+                .build());
+
+        when(priceTierRepository.findByProductSkuIdIn(any())).thenReturn(tiers);
+        when(listPriceRepository.findBySkuIdIn(any())).thenReturn(prices);
+
+        List<PriceRequest> requests = List.of(
+                PriceRequest.builder().skuId(skuId).quantity(new BigDecimal("10")).build(),
+                PriceRequest.builder().skuId(listPricedSkuId).quantity(new BigDecimal("3")).build(),
+                PriceRequest.builder().skuId(skuId).quantity(new BigDecimal("75")).build(),
+                PriceRequest.builder().skuId(UUID.randomUUID()).quantity(BigDecimal.ONE).build());
+
+        // Act
+        List<PriceResult> results = pricingService.calculatePrices(requests);
+
+        // Assert
+        assertEquals(4, results.size());
+        assertEquals(new BigDecimal("10.00"), results.get(0).getUnitPrice());
+        assertEquals(new BigDecimal("100.00"), results.get(0).getTotalPrice());
+        assertEquals(new BigDecimal("12.00"), results.get(1).getUnitPrice());
+        assertEquals(new BigDecimal("36.00"), results.get(1).getTotalPrice());
+        assertEquals(new BigDecimal("8.00"), results.get(2).getUnitPrice());
+        assertFalse(results.get(3).isPriced());
+        assertNull(results.get(3).getTotalPrice());
+        verify(priceTierRepository, times(1)).findByProductSkuIdIn(any());
+        verify(listPriceRepository, times(1)).findBySkuIdIn(any());
+        verify(priceTierRepository, never()).findByProductSkuId(any());
+    }
+
+    @Test
+    @DisplayName("Should pick effective prices by fallback rank, then lowest price")
+    void testFindEffectivePrices() {
+        // Arrange
+        UUID listOnlySkuId = UUID.randomUUID();
+        UUID otherBuyerId = UUID.randomUUID();
+        BigDecimal quantity = new BigDecimal("10");
+
+        when(effectivePriceRepository.findCandidates(any(), eq(quantity), eq(buyerId), eq(destinationId)))
+                .thenReturn(List.of(
+                        effectivePrice(skuId, null, null, PriceSource.GENERAL, "5.00"),
+                        effectivePrice(skuId, otherBuyerId, destinationId, PriceSource.BUYER_DESTINATION, "8.00"),
+                        effectivePrice(skuId, buyerId, null, PriceSource.BUYER, "9.00"),
+                        effectivePrice(skuId, buyerId, null, PriceSource.BUYER, "7.50"),
+                        effectivePrice(listOnlySkuId, null, null, PriceSource.LIST, "12.00")));
+
+        // Act
+        List<PriceResult> results = pricingService.findEffectivePrices(
+                List.of(skuId, listOnlySkuId, UUID.randomUUID()), quantity, buyerId, destinationId, null, null);
+
+        // Assert
+        assertEquals(new BigDecimal("7.50"), results.get(0).getUnitPrice());
+        assertEquals(new BigDecimal("75.00"), results.get(0).getTotalPrice());
+        assertEquals(new BigDecimal("12.00"), results.get(1).getUnitPrice());
+        assertFalse(results.get(2).isPriced());
+    }
+
+    @Test
+    @DisplayName("Should compare tiers across currencies and report source and converted amounts")
+    void testCalculateTotalPriceInCurrency() {
+        // Arrange
+        PriceTier usdTier = PriceTier.builder()
+                .minimumUomQuantity(BigDecimal.ONE)
+                .pricePerUom(new BigDecimal("10.00"))
+                .currency("USD")
+                .isActive(true)
+                .build();
+        PriceTier eurTier = PriceTier.builder()
+                .minimumUomQuantity(BigDecimal.ONE)
+                .pricePerUom(new BigDecimal("8.50"))
+                .currency("EUR")
+                .isActive(true)
+                .build();
+        when(priceTierRepository.findByProductSkuId(skuId)).thenReturn(List.of(usdTier, eurTier));
+
+        fxRateTable.swap(FxRateSnapshot.of(List.of(
+                FxRate.builder().baseCurrency("USD").quoteCurrency("EUR").rate(new BigDecimal("0.90")).build(),
+                FxRate.builder().baseCurrency("USD").quoteCurrency("GBP").rate(new BigDecimal("0.80")).build()),
+                "USD"));
+        BigDecimal quantity = new BigDecimal("10");
+
+        // Act
+        PriceResult gbp = pricingService.calculateTotalPrice(skuId, quantity, null, null, null, "GBP");
+        PriceResult usd = pricingService.calculateTotalPrice(skuId, quantity, null, null, null, "USD");
+        PriceResult jpy = pricingService.calculateTotalPrice(skuId, quantity, null, null, null, "JPY");
+
+        // Assert
+        // EUR 8.50 is GBP 7.5556 through the USD cross rate and beats USD 10.00 (GBP 8.00)
+        assertEquals("EUR", gbp.getSourceCurrency());
+        assertEquals(new BigDecimal("8.50"), gbp.getSourceUnitPrice());
+        assertEquals(new BigDecimal("85.00"), gbp.getSourceTotalPrice());
+        assertEquals("GBP", gbp.getCurrency());
+        assertEquals(new BigDecimal("7.5556"), gbp.getUnitPrice());
+        assertEquals(new BigDecimal("75.56"), gbp.getTotalPrice());
+        assertEquals(new BigDecimal("0.88888889"), gbp.getFxRate());
+
+        // EUR 8.50 is USD 9.4444, still below USD 10.00
+        assertEquals("EUR", usd.getSourceCurrency());
+        assertEquals(new BigDecimal("9.4444"), usd.getUnitPrice());
+
+        assertFalse(jpy.isPriced());
+        assertEquals("JPY", jpy.getCurrency());
+    }
+
+    @Test
+    @DisplayName("Should apply term-specific tiers and variant adjustments from the pricing context")
+    void testPricingContextTermsAndVariant() {
+        // Arrange
+        DeliveryTerm fob = new DeliveryTerm();
+        fob.setId(UUID.randomUUID());
+        PaymentTerm prepaid = new PaymentTerm();
+        prepaid.setId(UUID.randomUUID());
+        UUID net30 = UUID.randomUUID();
+
+        PriceTier generalTier = PriceTier.builder()
+                .minimumUomQuantity(BigDecimal.ONE)
+                .pricePerUom(new BigDecimal("10.00"))
+                .isActive(true)
+                .build();
+        PriceTier prepaidFobTier = PriceTier.builder()
+                .minimumUomQuantity(BigDecimal.ONE)
+                .pricePerUom(new BigDecimal("9.00"))
+                .deliveryTerm(fob)
+                .paymentTerm(prepaid)
+                .isActive(true)
+                .build();
+        when(priceTierRepository.findByProductSkuId(skuId)).thenReturn(List.of(generalTier, prepaidFobTier));
+
+        ProductVariant largeVariant = ProductVariant.builder()
+                .name("Large")
+                .priceAdjustment(new BigDecimal("1.25"))
+                .build();
+        largeVariant.setId(UUID.randomUUID());
+        when(productVariantRepository.findBySkuId(skuId)).thenReturn(List.of(largeVariant));
+
+        BigDecimal quantity = new BigDecimal("5");
+        LocalDateTime now = LocalDateTime.now();
+
+        // Act
+        BigDecimal prepaidFob = pricingService.calculatePrice(skuId,
+                new PricingContext(quantity, null, null, null, fob.getId(), prepaid.getId(), null, now));
+        BigDecimal fobNet30 = pricingService.calculatePrice(skuId,
+                new PricingContext(quantity, null, null, null, fob.getId(), net30, null, now));
+        BigDecimal noTerms = pricingService.calculatePrice(skuId, PricingContext.of(quantity, null, null, null, now));
+        BigDecimal largeNet30 = pricingService.calculatePrice(skuId,
+                new PricingContext(quantity, null, null, null, null, net30, largeVariant.getId(), now));
+
+        // Assert
+        assertEquals(new BigDecimal("9.00"), prepaidFob);
+        assertEquals(new BigDecimal("10.00"), fobNet30);
+        // Without terms every tier applies, as before terms were considered
+        assertEquals(new BigDecimal("9.00"), noTerms);
+        assertEquals(new BigDecimal("11.25"), largeNet30);
+        verify(priceTierRepository, times(1)).findByProductSkuId(skuId);
+        verify(productVariantRepository, times(1)).findBySkuId(skuId);
+    }
+
     // ========== Helper Methods for Test Data ==========
 
+    private EffectivePrice effectivePrice(UUID sku, UUID buyer, UUID destination, PriceSource source, String price) {
+        return EffectivePrice.builder()
+                .skuId(sku)
+                .buyerId(buyer)
+                .destinationId(destination)
+                .minimumQuantity(BigDecimal.ONE)
+                .unitPrice(new BigDecimal(price))
+                .source(source)
+                .build();
+    }
+
     private List<PriceTier> createVolumeTiers() {
         List<PriceTier> tiers = new ArrayList<>();
 
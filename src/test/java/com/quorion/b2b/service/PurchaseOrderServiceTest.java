@@ -0,0 +1,143 @@
+package com.quorion.b2b.service;
+
+import com.quorion.b2b.dto.order.BulkTransitionResult;
+import com.quorion.b2b.exception.InvalidStateTransitionException;
+import com.quorion.b2b.model.commerce.OrderStatus;
+import com.quorion.b2b.model.commerce.PurchaseOrder;
+import com.quorion.b2b.repository.PurchaseOrderRepository;
+import com.quorion.b2b.service.order.OrderStatusWriter;
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PurchaseOrderService
+ * Tests compare-and-set transitions and cancellation of single orders and in bulk
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PurchaseOrderService Tests")
+class PurchaseOrderServiceTest {
+
+    @Mock
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Mock
+    private OrderStatusWriter orderStatusWriter;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    private PurchaseOrderService purchaseOrderService;
+
+    @BeforeEach
+    void setUp() {
+        purchaseOrderService = new PurchaseOrderService(purchaseOrderRepository, orderStatusWriter, outboxWriter);
+    }
+
+    @Test
+    @DisplayName("Should ship an invoiced order with a conditional update and return the fresh order")
+    void testShipOrder() {
+        PurchaseOrder order = order(OrderStatus.SHIPPED);
+        when(orderStatusWriter.transition(List.of(order.getId()), OrderStatus.INVOICED, OrderStatus.SHIPPED))
+                .thenReturn(List.of(order.getId()));
+        when(purchaseOrderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+        assertSame(order, purchaseOrderService.shipOrder(order.getId()));
+        verify(purchaseOrderRepository, never()).save(any());
+        verify(outboxWriter).append(AggregateType.PURCHASE_ORDER, order.getId(), order.getSeller(),
+                OrderStatus.INVOICED, OrderStatus.SHIPPED);
+    }
+
+    @Test
+    @DisplayName("Should report the current status when the conditional update matches nothing")
+    void testLostTransition() {
+        PurchaseOrder order = order(OrderStatus.SHIPPED);
+        when(orderStatusWriter.transition(anyCollection(), eq(OrderStatus.INVOICED), eq(OrderStatus.SHIPPED)))
+                .thenReturn(List.of());
+        when(purchaseOrderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+        InvalidStateTransitionException e = assertThrows(InvalidStateTransitionException.class,
+                () -> purchaseOrderService.shipOrder(order.getId()));
+        assertTrue(e.getMessage().contains("SHIPPED to SHIPPED"));
+        verifyNoInteractions(outboxWriter);
+    }
+
+    @Test
+    @DisplayName("Should cancel with a conditional update and publish the status the order left")
+    void testCancel() {
+        PurchaseOrder order = order(OrderStatus.CANCELLED);
+        when(orderStatusWriter.cancel(order.getId())).thenReturn(Optional.of(OrderStatus.SHIPPED));
+        when(purchaseOrderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+        assertSame(order, purchaseOrderService.cancel(order.getId()));
+        verify(purchaseOrderRepository, never()).save(any());
+        verify(outboxWriter).append(AggregateType.PURCHASE_ORDER, order.getId(), order.getSeller(),
+                OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Should not cancel an order that is already cancelled or completed")
+    void testCancelFinishedOrder() {
+        PurchaseOrder order = order(OrderStatus.COMPLETED);
+        when(orderStatusWriter.cancel(order.getId())).thenReturn(Optional.empty());
+        when(purchaseOrderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+        InvalidStateTransitionException e = assertThrows(InvalidStateTransitionException.class,
+                () -> purchaseOrderService.cancel(order.getId()));
+        assertTrue(e.getMessage().contains("COMPLETED to CANCELLED"));
+        verifyNoInteractions(outboxWriter);
+    }
+
+    @Test
+    @DisplayName("Should report each order in a bulk transition as moved, conflicting or missing")
+    void testTransitionAll() {
+        UUID moved = UUID.randomUUID();
+        UUID conflicting = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(orderStatusWriter.transition(anyCollection(), eq(OrderStatus.INVOICED), eq(OrderStatus.SHIPPED)))
+                .thenReturn(List.of(moved));
+        when(orderStatusWriter.currentStatuses(List.of(conflicting, missing)))
+                .thenReturn(Map.of(conflicting, OrderStatus.ACCEPTED));
+
+        BulkTransitionResult result = purchaseOrderService.transitionAll(
+                List.of(moved, conflicting, missing, moved), OrderStatus.SHIPPED);
+
+        assertEquals(OrderStatus.INVOICED, result.getFromStatus());
+        assertEquals(1, result.getTransitioned());
+        assertEquals(1, result.getConflicts());
+        assertEquals(1, result.getNotFound());
+        assertEquals(3, result.getResults().size());
+        assertEquals(OrderStatus.ACCEPTED, result.getResults().get(1).getCurrentStatus());
+        assertEquals(BulkTransitionResult.Outcome.NOT_FOUND, result.getResults().get(2).getOutcome());
+        verify(outboxWriter).appendOrderTransitions(List.of(moved), OrderStatus.INVOICED, OrderStatus.SHIPPED);
+    }
+
+    @Test
+    @DisplayName("Should reject a bulk transition to a status outside the order flow")
+    void testTransitionAllInvalidTarget() {
+        assertThrows(IllegalArgumentException.class,
+                () -> purchaseOrderService.transitionAll(List.of(UUID.randomUUID()), OrderStatus.CANCELLED));
+        verifyNoInteractions(orderStatusWriter);
+    }
+
+    private static PurchaseOrder order(OrderStatus status) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setId(UUID.randomUUID());
+        order.setStatus(status);
+        return order;
+    }
+}
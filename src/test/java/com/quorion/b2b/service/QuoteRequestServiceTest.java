@@ -1,5 +1,8 @@
 package com.quorion.b2b.service;
 
+import com.quorion.b2b.dto.order.OrderSummary;
+import com.quorion.b2b.dto.pricing.PriceRequest;
+import com.quorion.b2b.dto.pricing.PriceResult;
 import com.quorion.b2b.exception.InvalidStateTransitionException;
 import com.quorion.b2b.model.commerce.*;
 import com.quorion.b2b.model.product.Product;
@@ -8,6 +11,10 @@ import com.quorion.b2b.model.tenant.Tenant;
 import com.quorion.b2b.model.tenant.TenantAddress;
 import com.quorion.b2b.repository.PurchaseOrderRepository;
 import com.quorion.b2b.repository.QuoteRequestRepository;
+import com.quorion.b2b.service.document.DocumentNumberAllocator;
+import com.quorion.b2b.service.order.OrderLineWriter;
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxWriter;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -26,6 +33,8 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -42,6 +51,18 @@ class QuoteRequestServiceTest {
     @Mock
     private PurchaseOrderRepository purchaseOrderRepository;
 
+    @Mock
+    private PricingService pricingService;
+
+    @Mock
+    private DocumentNumberAllocator documentNumberAllocator;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private OrderLineWriter orderLineWriter;
+
     @InjectMocks
     private QuoteRequestService quoteRequestService;
 
@@ -63,6 +84,10 @@ class QuoteRequestServiceTest {
         deliveryTerm = createDeliveryTerm();
         paymentTerm = createPaymentTerm();
         paymentMode = createPaymentMode();
+        lenient().when(documentNumberAllocator.next(eq(DocumentType.QUOTE_REQUEST), any(Tenant.class)))
+                .thenReturn("QT-1");
+        lenient().when(documentNumberAllocator.next(eq(DocumentType.PURCHASE_ORDER), any(Tenant.class)))
+                .thenReturn("PO-1");
 
         testQuote = QuoteRequest.builder()
                 .buyer(buyer)
@@ -149,6 +174,37 @@ class QuoteRequestServiceTest {
         verify(quoteRequestRepository).save(newQuote);
     }
 
+    @Test
+    @DisplayName("Should price unpriced quote lines in one batch on create")
+    void testCreate_FillsMissingPrices() {
+        // Arrange
+        QuoteRequestDetail unpriced = createQuoteItem(testQuote, null);
+        QuoteRequestDetail priced = createQuoteItem(testQuote, new BigDecimal("12.00"));
+        testQuote.getItems().addAll(List.of(unpriced, priced));
+
+        when(pricingService.calculatePrices(anyList())).thenReturn(List.of(
+                PriceResult.builder()
+                        .skuId(unpriced.getSku().getId())
+                        .quantity(unpriced.getTotalQuantity())
+                        .unitPrice(new BigDecimal("9.50"))
+                        .build()));
+        when(quoteRequestRepository.save(any(QuoteRequest.class))).thenReturn(testQuote);
+
+        // Act
+        quoteRequestService.create(testQuote);
+
+        // Assert
+        ArgumentCaptor<List<PriceRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(pricingService, times(1)).calculatePrices(captor.capture());
+        PriceRequest request = captor.getValue().get(0);
+        assertEquals(1, captor.getValue().size());
+        assertEquals(buyer.getId(), request.getBuyerId());
+        assertEquals(seller.getId(), request.getSellerId());
+        assertEquals(warehouse.getId(), request.getDestinationId());
+        assertEquals(new BigDecimal("9.50"), unpriced.getPricePerUnit());
+        assertEquals(new BigDecimal("12.00"), priced.getPricePerUnit());
+    }
+
     // ==================== State Machine Transition Tests ====================
 
     @Test
@@ -184,6 +240,7 @@ class QuoteRequestServiceTest {
         assertEquals(QuoteStatus.REQUESTED, result.getStatus());
         verify(quoteRequestRepository).findById(quoteId);
         verify(quoteRequestRepository).save(testQuote);
+        verify(outboxWriter).append(AggregateType.QUOTE_REQUEST, quoteId, seller, QuoteStatus.NEW, QuoteStatus.REQUESTED);
     }
 
     @Test
@@ -237,35 +294,62 @@ class QuoteRequestServiceTest {
     void testBuyerAccepts() {
         // Arrange
         testQuote.setStatus(QuoteStatus.RESPONDED);
-
-        QuoteRequestDetail quoteItem = createQuoteItem(testQuote, new BigDecimal("25.00"));
-        quoteItem.setNoOfUnits(new BigDecimal("10"));
-        quoteItem.setTotalQuantity(new BigDecimal("100"));
-        testQuote.getItems().add(quoteItem);
+        testQuote.setShippingCost(new BigDecimal("50.00"));
+        UUID orderId = UUID.randomUUID();
 
         when(quoteRequestRepository.findById(quoteId)).thenReturn(Optional.of(testQuote));
         when(quoteRequestRepository.save(any(QuoteRequest.class))).thenReturn(testQuote);
-        when(purchaseOrderRepository.save(any(PurchaseOrder.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(purchaseOrderRepository.saveAndFlush(any(PurchaseOrder.class))).thenAnswer(i -> {
+            PurchaseOrder order = i.getArgument(0);
+            order.setId(orderId);
+            return order;
+        });
+        when(orderLineWriter.copyQuoteLines(quoteId, orderId))
+            .thenReturn(new OrderLineWriter.CopiedLines(5000, 5000, new BigDecimal("125000.00")));
 
         // Act
-        QuoteRequest result = quoteRequestService.buyerAccepts(quoteId);
+        OrderSummary summary = quoteRequestService.buyerAccepts(quoteId);
 
         // Assert
-        assertEquals(QuoteStatus.ACCEPTED, result.getStatus());
-        assertFalse(result.getIsActive());
-
-        // Verify purchase order was created
+        assertEquals(QuoteStatus.ACCEPTED, testQuote.getStatus());
+        assertFalse(testQuote.getIsActive());
+        assertEquals(orderId, summary.getOrderId());
+        assertEquals(quoteId, summary.getQuoteRequestId());
+        assertEquals(OrderStatus.NEW, summary.getStatus());
+        assertEquals(5000, summary.getLineCount());
+        assertEquals(new BigDecimal("125050.00"), summary.getTotal());
+        assertTrue(summary.getNumber().startsWith("PO-"));
+
+        // Verify purchase order was created without lines
         ArgumentCaptor<PurchaseOrder> orderCaptor = ArgumentCaptor.forClass(PurchaseOrder.class);
-        verify(purchaseOrderRepository).save(orderCaptor.capture());
+        verify(purchaseOrderRepository).saveAndFlush(orderCaptor.capture());
 
         PurchaseOrder createdOrder = orderCaptor.getValue();
-        assertNotNull(createdOrder);
         assertEquals(buyer, createdOrder.getBuyer());
         assertEquals(seller, createdOrder.getSeller());
         assertEquals(testQuote, createdOrder.getQuoteRequest());
-        assertEquals(OrderStatus.NEW, createdOrder.getStatus());
-        assertTrue(createdOrder.getNumber().startsWith("PO-"));
-        assertEquals(1, createdOrder.getItems().size());
+        assertTrue(createdOrder.getItems().isEmpty());
+        verify(outboxWriter).append(AggregateType.QUOTE_REQUEST, quoteId, seller, QuoteStatus.RESPONDED, QuoteStatus.ACCEPTED);
+        verify(outboxWriter).append(AggregateType.PURCHASE_ORDER, orderId, seller, null, OrderStatus.NEW);
+    }
+
+    @Test
+    @DisplayName("Should reject acceptance when quote lines lack a SKU or price")
+    void testBuyerAccepts_UnpricedLines() {
+        // Arrange
+        testQuote.setStatus(QuoteStatus.RESPONDED);
+        when(quoteRequestRepository.findById(quoteId)).thenReturn(Optional.of(testQuote));
+        when(purchaseOrderRepository.saveAndFlush(any(PurchaseOrder.class))).thenAnswer(i -> i.getArgument(0));
+        when(orderLineWriter.copyQuoteLines(eq(quoteId), any()))
+            .thenReturn(new OrderLineWriter.CopiedLines(3, 2, new BigDecimal("10.00")));
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> quoteRequestService.buyerAccepts(quoteId));
+        assertTrue(e.getMessage().contains("1 lines"));
+        assertEquals(QuoteStatus.RESPONDED, testQuote.getStatus());
+        verify(quoteRequestRepository, never()).save(any());
+        verifyNoInteractions(outboxWriter);
     }
 
     @Test
@@ -390,7 +474,8 @@ class QuoteRequestServiceTest {
             quoteRequestService.buyerAccepts(quoteId);
         });
         verify(quoteRequestRepository, never()).save(any());
-        verify(purchaseOrderRepository, never()).save(any());
+        verify(purchaseOrderRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(outboxWriter);
     }
 
     @Test
@@ -405,7 +490,7 @@ class QuoteRequestServiceTest {
             quoteRequestService.buyerAccepts(quoteId);
         });
         verify(quoteRequestRepository, never()).save(any());
-        verify(purchaseOrderRepository, never()).save(any());
+        verify(purchaseOrderRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -434,7 +519,7 @@ class QuoteRequestServiceTest {
             quoteRequestService.buyerAccepts(quoteId);
         });
         verify(quoteRequestRepository, never()).save(any());
-        verify(purchaseOrderRepository, never()).save(any());
+        verify(purchaseOrderRepository, never()).saveAndFlush(any());
     }
 
     @Test
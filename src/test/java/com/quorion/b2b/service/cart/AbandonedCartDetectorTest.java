@@ -0,0 +1,135 @@
+package com.quorion.b2b.service.cart;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorion.b2b.model.commerce.NotificationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AbandonedCartDetector
+ * Tests watermark keyset scanning, per-cart idempotency, batched notifications and the schema setup
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AbandonedCartDetector Tests")
+class AbandonedCartDetectorTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AbandonedCartDetector detector;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        detector = new AbandonedCartDetector(jdbcTemplate, transactionManager, new ObjectMapper(), 3, 24, 168);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    @DisplayName("Should notify buyer and sellers of abandoned carts only and advance the watermark past every scanned cart")
+    void testNotifyAndAdvance() {
+        UUID buyer = UUID.randomUUID();
+        UUID seller = UUID.randomUUID();
+        AbandonedCartDetector.CartTotals abandoned = cart(buyer, now.minusDays(3), false, 2, "40.00");
+        AbandonedCartDetector.CartTotals alreadyNotified = cart(buyer, now.minusDays(2), true, 1, "5.00");
+        AbandonedCartDetector.CartTotals empty = cart(buyer, now.minusDays(2), false, 0, "0");
+        stubWatermark();
+        when(jdbcTemplate.query(startsWith("WITH candidates"), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(abandoned, alreadyNotified, empty), List.of());
+        when(jdbcTemplate.query(startsWith("SELECT i.cart_id, p.seller_id"), any(SqlParameterSource.class),
+                any(RowMapper.class)))
+                .thenReturn(List.of(new AbandonedCartDetector.SellerTotals(abandoned.cartId(), seller, 2,
+                        new BigDecimal("40.00"))));
+
+        assertEquals(1, detector.detect(now));
+
+        ArgumentCaptor<SqlParameterSource[]> batch = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO notification"), batch.capture());
+        assertEquals(2, batch.getValue().length);
+        assertEquals(buyer, batch.getValue()[0].getValue("recipientId"));
+        assertEquals(seller, batch.getValue()[1].getValue("recipientId"));
+        assertTrue(((String) batch.getValue()[0].getValue("data")).contains(abandoned.cartId().toString()));
+
+        ArgumentCaptor<SqlParameterSource[]> marked = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE cart SET abandonment_notified_version"), marked.capture());
+        assertEquals(1, marked.getValue().length);
+        assertEquals(abandoned.cartId(), marked.getValue()[0].getValue("id"));
+        assertEquals(abandoned.version(), marked.getValue()[0].getValue("version"));
+
+        ArgumentCaptor<SqlParameterSource> advanced = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).update(startsWith("UPDATE job_watermark"), advanced.capture());
+        assertEquals(empty.cartId(), advanced.getValue().getValue("id"));
+        assertEquals(empty.updatedAt(), advanced.getValue().getValue("at"));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the notification type check with every current type")
+    void testSchemaKeepsTypeCheck() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(jdbc);
+
+        detector.createSchema();
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(jdbc, atLeastOnce()).execute(statements.capture());
+        String check = statements.getAllValues().stream()
+                .filter(statement -> statement.startsWith("ALTER TABLE notification"))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(check.indexOf("DROP CONSTRAINT") < check.indexOf("ADD CONSTRAINT notification_notification_type_check"));
+        for (NotificationType type : NotificationType.values()) {
+            assertTrue(check.contains("'" + type.name() + "'"), type.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should write nothing when no cart is past the threshold")
+    void testNothingToDo() {
+        stubWatermark();
+        when(jdbcTemplate.query(startsWith("WITH candidates"), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of());
+
+        assertEquals(0, detector.detect(now));
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE"), any(SqlParameterSource.class));
+    }
+
+    private void stubWatermark() {
+        Map<String, Object> position = new HashMap<>();
+        position.put("watermark_at", now.minusDays(8));
+        position.put("watermark_id", new UUID(0L, 0L));
+        when(jdbcTemplate.queryForMap(startsWith("SELECT watermark_at"), any(SqlParameterSource.class)))
+                .thenReturn(position);
+    }
+
+    private static AbandonedCartDetector.CartTotals cart(UUID buyer, LocalDateTime updatedAt, boolean notified,
+                                                         long itemCount, String value) {
+        return new AbandonedCartDetector.CartTotals(UUID.randomUUID(), buyer, updatedAt, 4L, notified,
+                itemCount, new BigDecimal(value));
+    }
+}
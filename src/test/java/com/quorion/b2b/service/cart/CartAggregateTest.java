@@ -0,0 +1,130 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.product.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CartAggregate
+ * Tests product lookups, quantity merging and change tracking
+ */
+@DisplayName("CartAggregate Tests")
+class CartAggregateTest {
+
+    private Cart cart;
+    private Product bolts;
+    private Product nuts;
+    private Product washers;
+    private CartItem boltsItem;
+    private CartItem deletedNutsItem;
+
+    @BeforeEach
+    void setUp() {
+        bolts = product("Bolts");
+        nuts = product("Nuts");
+        washers = product("Washers");
+
+        cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        boltsItem = item(bolts, "10", null);
+        deletedNutsItem = item(nuts, "4", LocalDateTime.now().minusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should index live lines by product and skip soft-deleted ones")
+    void testIndex() {
+        CartAggregate aggregate = CartAggregate.of(cart);
+
+        assertEquals(1, aggregate.size());
+        assertSame(boltsItem, aggregate.find(bolts.getId()).orElseThrow());
+        assertTrue(aggregate.find(nuts.getId()).isEmpty());
+        assertSame(boltsItem, aggregate.findItem(boltsItem.getId()).orElseThrow());
+        assertTrue(aggregate.drainChanges().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should add to existing lines, revive deleted ones and create new ones")
+    void testAdd() {
+        CartAggregate aggregate = CartAggregate.of(cart);
+
+        aggregate.add(bolts, new BigDecimal("5"), new BigDecimal("1.00"), "ignored");
+        CartItem revived = aggregate.add(nuts, new BigDecimal("2"), new BigDecimal("0.50"), null);
+        CartItem created = aggregate.add(washers, new BigDecimal("3"), new BigDecimal("0.10"), null);
+        aggregate.add(washers, new BigDecimal("3"), new BigDecimal("0.10"), null);
+
+        assertEquals(new BigDecimal("15"), boltsItem.getQuantity());
+        assertEquals(new BigDecimal("9.99"), boltsItem.getUnitPrice());
+        assertSame(deletedNutsItem, revived);
+        assertNull(revived.getDeletedAt());
+        assertEquals(new BigDecimal("2"), revived.getQuantity());
+        assertEquals(new BigDecimal("6"), created.getQuantity());
+        assertSame(cart, created.getCart());
+        assertEquals(3, aggregate.size());
+        assertEquals(3, cart.getActiveItems().size());
+
+        assertEquals(List.of(boltsItem, revived, created), aggregate.drainChanges());
+        assertTrue(aggregate.drainChanges().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replace quantity and price on put and drop removed lines from the index")
+    void testPutAndRemove() {
+        CartAggregate aggregate = CartAggregate.of(cart);
+
+        aggregate.put(bolts, new BigDecimal("2"), new BigDecimal("8.00"), null);
+        assertEquals(new BigDecimal("2"), boltsItem.getQuantity());
+        assertEquals(new BigDecimal("8.00"), boltsItem.getUnitPrice());
+
+        aggregate.remove(boltsItem);
+        assertNotNull(boltsItem.getDeletedAt());
+        assertTrue(aggregate.isEmpty());
+        assertEquals(List.of(boltsItem), aggregate.drainChanges());
+    }
+
+    @Test
+    @DisplayName("Should revive deleted rows handed over for products without a live line")
+    void testRestoreDeleted() {
+        cart.getItems().remove(deletedNutsItem);
+        CartAggregate aggregate = CartAggregate.of(cart);
+
+        assertEquals(Set.of(nuts.getId(), washers.getId()),
+                aggregate.missing(List.of(bolts.getId(), nuts.getId(), washers.getId())));
+        aggregate.restoreDeleted(List.of(deletedNutsItem));
+
+        CartItem revived = aggregate.add(nuts, new BigDecimal("1"), new BigDecimal("0.50"), null);
+        assertSame(deletedNutsItem, revived);
+        assertNull(revived.getDeletedAt());
+        assertTrue(cart.getItems().contains(revived));
+        assertEquals(2, cart.getItems().size());
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setName(name);
+        return product;
+    }
+
+    private CartItem item(Product product, String quantity, LocalDateTime deletedAt) {
+        CartItem item = new CartItem();
+        item.setId(UUID.randomUUID());
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setQuantity(new BigDecimal(quantity));
+        item.setUnitPrice(new BigDecimal("9.99"));
+        item.setDeletedAt(deletedAt);
+        cart.getItems().add(item);
+        return item;
+    }
+}
@@ -0,0 +1,77 @@
+package com.quorion.b2b.service.cart;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CartReaper
+ * Tests keyset chunking of expired cart deactivation and deleted item purging
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartReaper Tests")
+class CartReaperTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private CartReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        reaper = new CartReaper(jdbcTemplate, 2, 30);
+    }
+
+    @Test
+    @DisplayName("Should deactivate expired carts chunk by chunk, resuming after the last id")
+    void testDeactivateInChunks() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        List<UUID> afterIds = new ArrayList<>();
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM cart "), any(SqlParameterSource.class), eq(UUID.class)))
+                .thenAnswer(invocation -> {
+                    afterIds.add((UUID) ((MapSqlParameterSource) invocation.getArgument(1)).getValue("after"));
+                    return afterIds.size() == 1 ? List.of(first, second) : List.of(third);
+                });
+        when(jdbcTemplate.update(startsWith("UPDATE cart SET is_active = false"), any(SqlParameterSource.class)))
+                .thenReturn(2, 1);
+
+        assertEquals(3, reaper.deactivateExpiredCarts(LocalDateTime.now()));
+        assertEquals(List.of(new UUID(0L, 0L), second), afterIds);
+        verify(jdbcTemplate, times(2)).update(anyString(), any(SqlParameterSource.class));
+    }
+
+    @Test
+    @DisplayName("Should purge only the ids found and stop on an empty chunk")
+    void testPurgeDeletedItems() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM cart_item"), any(SqlParameterSource.class), eq(UUID.class)))
+                .thenReturn(List.of(first, second), List.of());
+        when(jdbcTemplate.update(startsWith("DELETE FROM cart_item"), any(SqlParameterSource.class)))
+                .thenReturn(2);
+
+        assertEquals(2, reaper.purgeDeletedItems(LocalDateTime.now().minusDays(30)));
+
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).update(startsWith("DELETE FROM cart_item"), params.capture());
+        assertEquals(List.of(first, second), params.getValue().getValue("ids"));
+    }
+}
@@ -0,0 +1,233 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.dto.cart.CartSplitRequest;
+import com.quorion.b2b.dto.cart.CartSplitResult;
+import com.quorion.b2b.exception.PreconditionFailedException;
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.commerce.Lead;
+import com.quorion.b2b.model.commerce.SalesLeadStatus;
+import com.quorion.b2b.model.product.Product;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.repository.*;
+import com.quorion.b2b.service.QuoteRequestService;
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CartSplitService
+ * Tests grouping by seller, one document per seller, claiming the cart and partial failure handling
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartSplitService Tests")
+class CartSplitServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private LeadRepository leadRepository;
+
+    @Mock
+    private TenantRepository tenantRepository;
+
+    @Mock
+    private ProductSKURepository productSKURepository;
+
+    @Mock
+    private MarketplaceConfigRepository marketplaceConfigRepository;
+
+    @Mock
+    private CartLineWriter cartLineWriter;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CartSplitService service;
+    private Cart cart;
+    private Tenant acme;
+    private Tenant globex;
+    private CartItem globexItem;
+
+    @BeforeEach
+    void setUp() {
+        service = new CartSplitService(cartRepository, leadRepository, tenantRepository,
+                mock(ProductRepository.class), productSKURepository, mock(TenantAddressRepository.class),
+                mock(DeliveryTermRepository.class), mock(PaymentTermRepository.class),
+                mock(PaymentModeRepository.class), marketplaceConfigRepository, mock(QuoteRequestService.class),
+                cartLineWriter, outboxWriter, transactionManager, 2);
+
+        acme = tenant();
+        globex = tenant();
+        cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        cart.setVersion(3L);
+        cart.setIsActive(true);
+        item(acme, "10", "1.50");
+        item(acme, "2", "4.00");
+        globexItem = item(globex, "5", "2.00");
+
+        Map<UUID, Tenant> tenants = List.of(acme, globex).stream()
+                .collect(Collectors.toMap(Tenant::getId, Function.identity()));
+        when(cartRepository.findByIdWithItemsAndProducts(cart.getId())).thenReturn(Optional.of(cart));
+        lenient().when(cartRepository.findById(cart.getId())).thenReturn(Optional.of(cart));
+        lenient().when(cartRepository.saveAndFlush(any(Cart.class))).thenAnswer(invocation -> {
+            Cart saved = invocation.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(UUID.randomUUID());
+            }
+            return saved;
+        });
+        lenient().when(cartLineWriter.bumpVersion(cart.getId(), 3L)).thenReturn(OptionalLong.of(4L));
+        lenient().when(cartLineWriter.moveLines(eq(cart.getId()), any(), anyCollection()))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(2)).size());
+        lenient().when(tenantRepository.getReferenceById(any())).thenAnswer(invocation -> tenants.get(invocation.getArgument(0)));
+        when(marketplaceConfigRepository.findFirstByIsActiveTrueOrderByCreatedAtDesc()).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should create one lead per seller and deactivate the emptied cart")
+    void testSplitIntoLeads() {
+        when(leadRepository.save(any(Lead.class))).thenAnswer(invocation -> {
+            Lead lead = invocation.getArgument(0);
+            lead.setId(UUID.randomUUID());
+            return lead;
+        });
+
+        CartSplitResult result = service.split(cart.getId(), leadRequest(), 3L);
+
+        assertEquals(2, result.getConvertedSellers());
+        assertEquals(0, result.getFailedSellers());
+        assertFalse(result.isCartActive());
+        CartSplitResult.SellerDocument acmeLeads = result.getDocuments().get(0);
+        assertEquals(acme.getId(), acmeLeads.getSellerId());
+        assertEquals(2, acmeLeads.getItemCount());
+        assertEquals(new BigDecimal("23.00"), acmeLeads.getSubtotal());
+        assertNotNull(acmeLeads.getLeadId());
+        assertEquals(globex.getId(), result.getDocuments().get(1).getSellerId());
+
+        ArgumentCaptor<Lead> leads = ArgumentCaptor.forClass(Lead.class);
+        verify(leadRepository, times(2)).save(leads.capture());
+        List<UUID> leadCarts = leads.getAllValues().stream().map(lead -> lead.getCart().getId()).distinct().toList();
+        assertEquals(2, leadCarts.size());
+        assertFalse(leadCarts.contains(cart.getId()));
+        leads.getAllValues().forEach(lead -> assertFalse(lead.getCart().getIsActive()));
+        UUID globexCart = leads.getAllValues().stream()
+                .filter(lead -> lead.getSeller() == globex)
+                .findFirst().orElseThrow()
+                .getCart().getId();
+        verify(cartLineWriter).moveLines(cart.getId(), globexCart, List.of(globexItem.getId()));
+        verify(cartLineWriter, never()).removeLines(any(), anyCollection());
+        verify(cartLineWriter).bumpVersion(cart.getId(), 4L);
+        verify(outboxWriter).append(AggregateType.LEAD, acmeLeads.getLeadId(), acme, null, SalesLeadStatus.NEW);
+    }
+
+    @Test
+    @DisplayName("Should fail a seller whose lines left the cart after the split was planned")
+    void testLinesChangedDuringSplit() {
+        when(leadRepository.save(any(Lead.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(cartLineWriter.moveLines(eq(cart.getId()), any(), eq(List.of(globexItem.getId())))).thenReturn(0);
+
+        CartSplitResult result = service.split(cart.getId(), leadRequest(), 3L);
+
+        assertEquals(1, result.getConvertedSellers());
+        CartSplitResult.SellerDocument failed = result.getDocuments().get(1);
+        assertEquals(CartSplitResult.Status.FAILED, failed.getStatus());
+        assertTrue(failed.getError().contains("changed during the split"));
+        assertTrue(result.isCartActive());
+    }
+
+    @Test
+    @DisplayName("Should refuse to split a cart another request claimed first")
+    void testConcurrentSplit() {
+        when(cartLineWriter.bumpVersion(cart.getId(), 3L)).thenReturn(OptionalLong.empty());
+
+        assertThrows(PreconditionFailedException.class, () -> service.split(cart.getId(), leadRequest(), null));
+        verifyNoInteractions(leadRepository);
+    }
+
+    @Test
+    @DisplayName("Should keep a failed seller's lines and leave the cart active")
+    void testPartialFailure() {
+        when(leadRepository.save(any(Lead.class))).thenAnswer(invocation -> {
+            Lead lead = invocation.getArgument(0);
+            if (lead.getSeller() == globex) {
+                throw new IllegalStateException("Seller is suspended");
+            }
+            lead.setId(UUID.randomUUID());
+            return lead;
+        });
+
+        CartSplitResult result = service.split(cart.getId(), leadRequest(), null);
+
+        assertEquals(1, result.getConvertedSellers());
+        assertEquals(1, result.getFailedSellers());
+        assertTrue(result.isCartActive());
+        CartSplitResult.SellerDocument failed = result.getDocuments().get(1);
+        assertEquals(CartSplitResult.Status.FAILED, failed.getStatus());
+        assertEquals("Seller is suspended", failed.getError());
+        assertNull(failed.getLeadId());
+        verify(cartLineWriter, never()).moveLines(any(), any(), eq(List.of(globexItem.getId())));
+        verify(cartRepository, never()).saveAndFlush(same(cart));
+    }
+
+    private static CartSplitRequest leadRequest() {
+        return CartSplitRequest.builder()
+                .target(CartSplitRequest.Target.LEAD)
+                .buyerFirstName("Ada")
+                .buyerLastName("Buyer")
+                .buyerEmail("ada@example.com")
+                .build();
+    }
+
+    private static Tenant tenant() {
+        Tenant tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        return tenant;
+    }
+
+    private CartItem item(Tenant seller, String quantity, String unitPrice) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setSeller(seller);
+        CartItem item = new CartItem();
+        item.setId(UUID.randomUUID());
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setQuantity(new BigDecimal(quantity));
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        cart.getItems().add(item);
+        return item;
+    }
+}
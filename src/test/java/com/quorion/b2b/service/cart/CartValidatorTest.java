@@ -0,0 +1,162 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.dto.cart.CartValidationResult;
+import com.quorion.b2b.dto.cart.PricedCartResponse;
+import com.quorion.b2b.model.product.Inventory;
+import com.quorion.b2b.model.product.Product;
+import com.quorion.b2b.model.product.ProductSKU;
+import com.quorion.b2b.model.tenant.MarketplaceConfig;
+import com.quorion.b2b.model.tenant.TenantAddress;
+import com.quorion.b2b.repository.InventoryRepository;
+import com.quorion.b2b.repository.MarketplaceConfigRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CartValidator
+ * Tests stock checks across warehouses, price warnings and marketplace limits
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartValidator Tests")
+class CartValidatorTest {
+
+    @Mock
+    private PricedCartService pricedCartService;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private MarketplaceConfigRepository marketplaceConfigRepository;
+
+    private CartValidator validator;
+    private UUID cartId;
+    private Product bolts;
+    private Product nuts;
+    private ProductSKU boltsSku;
+
+    @BeforeEach
+    void setUp() {
+        validator = new CartValidator(pricedCartService, inventoryRepository, marketplaceConfigRepository,
+                100, BigDecimal.ZERO);
+        cartId = UUID.randomUUID();
+        bolts = product();
+        nuts = product();
+        boltsSku = new ProductSKU();
+        boltsSku.setId(UUID.randomUUID());
+        boltsSku.setProduct(bolts);
+    }
+
+    @Test
+    @DisplayName("Should sum stock across warehouses and report shortfalls and price changes per line")
+    void testLineDiagnostics() {
+        when(marketplaceConfigRepository.findFirstByIsActiveTrueOrderByCreatedAtDesc()).thenReturn(Optional.empty());
+        when(pricedCartService.getPricedCart(cartId)).thenReturn(snapshot(
+                line(bolts, boltsSku.getId(), "10", "1.50", "1.20"),
+                line(nuts, null, "8", "0.25", null)));
+        ProductSKU otherBoltsSku = new ProductSKU();
+        otherBoltsSku.setId(UUID.randomUUID());
+        when(inventoryRepository.findByProductIdIn(anyCollection())).thenReturn(List.of(
+                inventory(bolts, boltsSku, 6),
+                inventory(bolts, boltsSku, 5),
+                inventory(bolts, otherBoltsSku, 100),
+                inventory(nuts, new ProductSKU(), 3)));
+
+        CartValidationResult result = validator.validate(cartId);
+
+        assertFalse(result.isValid());
+        CartValidationResult.Line boltsLine = result.getLines().get(0);
+        assertEquals(new BigDecimal("11"), boltsLine.getQuantityAvailable());
+        assertEquals(2, boltsLine.getWarehouses());
+        assertTrue(boltsLine.isInStock());
+        assertFalse(boltsLine.isPriceMatches());
+        assertEquals(new BigDecimal("1.20"), boltsLine.getCurrentUnitPrice());
+        assertEquals(1, boltsLine.getWarnings().size());
+
+        CartValidationResult.Line nutsLine = result.getLines().get(1);
+        assertFalse(nutsLine.isInStock());
+        assertEquals(List.of("Only 3 available, 8 requested"), nutsLine.getErrors());
+        assertEquals(List.of("Item " + nutsLine.getItemId() + ": Only 3 available, 8 requested"), result.getErrors());
+        assertEquals(2, result.getWarnings().size());
+        verify(inventoryRepository, times(1)).findByProductIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should enforce the marketplace item limit and minimum order value")
+    void testMarketplaceLimits() {
+        MarketplaceConfig config = new MarketplaceConfig();
+        config.setMaxCartItems(1);
+        config.setMinOrderValue(new BigDecimal("50.00"));
+        when(marketplaceConfigRepository.findFirstByIsActiveTrueOrderByCreatedAtDesc()).thenReturn(Optional.of(config));
+        when(pricedCartService.getPricedCart(cartId)).thenReturn(snapshot(
+                line(bolts, boltsSku.getId(), "10", "1.50", "1.50"),
+                line(nuts, null, "8", "0.25", null)));
+
+        CartValidationResult result = validator.validate(cartId);
+
+        assertFalse(result.isValid());
+        assertEquals(1, result.getMaxCartItems());
+        assertEquals(List.of("Cart has 2 items, more than the maximum of 1",
+                "Cart subtotal 17.00 is below the minimum order value of 50.00"), result.getErrors());
+        assertTrue(result.getLines().get(0).isPriceMatches());
+    }
+
+    private PricedCartResponse snapshot(PricedCartResponse.Line... lines) {
+        BigDecimal subtotal = List.of(lines).stream()
+                .map(PricedCartResponse.Line::getLineTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return PricedCartResponse.builder()
+                .cartId(cartId)
+                .cartVersion(2)
+                .itemCount(lines.length)
+                .subtotal(subtotal)
+                .lines(List.of(lines))
+                .build();
+    }
+
+    private static PricedCartResponse.Line line(Product product, UUID skuId, String quantity, String cartPrice,
+                                                String currentPrice) {
+        BigDecimal unitPrice = new BigDecimal(currentPrice != null ? currentPrice : cartPrice);
+        return PricedCartResponse.Line.builder()
+                .itemId(UUID.randomUUID())
+                .productId(product.getId())
+                .skuId(skuId)
+                .quantity(new BigDecimal(quantity))
+                .cartUnitPrice(new BigDecimal(cartPrice))
+                .unitPrice(unitPrice)
+                .lineTotal(unitPrice.multiply(new BigDecimal(quantity)))
+                .priced(currentPrice != null)
+                .repriced(currentPrice != null && unitPrice.compareTo(new BigDecimal(cartPrice)) != 0)
+                .build();
+    }
+
+    private static Product product() {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        return product;
+    }
+
+    private static Inventory inventory(Product product, ProductSKU sku, int available) {
+        TenantAddress warehouse = new TenantAddress();
+        warehouse.setId(UUID.randomUUID());
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setSku(sku);
+        inventory.setWarehouse(warehouse);
+        inventory.setQuantityAvailable(available);
+        return inventory;
+    }
+}
@@ -0,0 +1,137 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.product.Product;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.repository.CartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GuestCartMerger
+ * Tests single-query resolution, in-memory line summing and guest cart deactivation
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GuestCartMerger Tests")
+class GuestCartMergerTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CartLineWriter cartLineWriter;
+
+    @Mock
+    private GuestCartStore guestCartStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GuestCartMerger merger;
+    private Tenant buyer;
+
+    @BeforeEach
+    void setUp() {
+        merger = new GuestCartMerger(cartRepository, cartLineWriter, guestCartStore, transactionManager);
+        buyer = new Tenant();
+        buyer.setId(UUID.randomUUID());
+    }
+
+    @Test
+    @DisplayName("Should add the guest lines to the buyer's latest cart in one upsert and deactivate the guest cart")
+    void testMergeIntoLatestCart() {
+        Cart guest = cart(null, LocalDateTime.now());
+        UUID bolts = item(guest, "3");
+        UUID nuts = item(guest, "2");
+        Cart older = cart(buyer, LocalDateTime.now().minusDays(2));
+        Cart latest = cart(buyer, LocalDateTime.now().minusHours(1));
+        when(guestCartStore.find("session-1")).thenReturn(Optional.empty());
+        when(cartRepository.findGuestAndBuyerCarts("session-1", buyer)).thenReturn(List.of(older, guest, latest));
+        when(cartLineWriter.bumpVersion(latest.getId(), null)).thenReturn(OptionalLong.of(8L));
+
+        Versioned<UUID> merged = merger.mergeAtLogin("session-1", buyer).orElseThrow();
+
+        assertEquals(latest.getId(), merged.value());
+        assertEquals(8L, merged.version());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<CartLineWriter.LineDelta>> deltas = ArgumentCaptor.forClass(Collection.class);
+        verify(cartLineWriter).addQuantities(eq(latest.getId()), deltas.capture());
+        assertEquals(List.of(bolts, nuts), new ArrayList<>(deltas.getValue()).stream()
+                .map(CartLineWriter.LineDelta::productId).toList());
+        assertFalse(guest.getIsActive());
+        assertTrue(older.getIsActive());
+        verify(guestCartStore).remove("session-1");
+    }
+
+    @Test
+    @DisplayName("Should merge the in-memory guest cart into a new buyer cart when the buyer has none")
+    void testMergeFromMemoryIntoNewCart() {
+        UUID productId = UUID.randomUUID();
+        GuestCart inMemory = new GuestCart("session-2", LocalDateTime.now());
+        inMemory.put(productId, new BigDecimal("5"), new BigDecimal("1.20"), null);
+        UUID createdId = UUID.randomUUID();
+        when(guestCartStore.find("session-2")).thenReturn(Optional.of(inMemory));
+        when(cartRepository.findGuestAndBuyerCarts("session-2", buyer)).thenReturn(List.of());
+        when(cartRepository.saveAndFlush(any(Cart.class))).thenAnswer(invocation -> {
+            Cart cart = invocation.getArgument(0);
+            cart.setId(createdId);
+            return cart;
+        });
+        when(cartLineWriter.bumpVersion(createdId, null)).thenReturn(OptionalLong.of(1L));
+
+        assertEquals(createdId, merger.mergeAtLogin("session-2", buyer).orElseThrow().value());
+
+        verify(cartLineWriter).addQuantities(eq(createdId), argThat(deltas -> deltas.size() == 1
+                && deltas.iterator().next().quantity().compareTo(new BigDecimal("5")) == 0));
+    }
+
+    @Test
+    @DisplayName("Should do nothing without a session key")
+    void testNoSessionKey() {
+        assertTrue(merger.mergeAtLogin(null, buyer).isEmpty());
+        verifyNoInteractions(cartRepository, cartLineWriter);
+    }
+
+    private static Cart cart(Tenant buyer, LocalDateTime updatedAt) {
+        Cart cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        cart.setBuyer(buyer);
+        cart.setIsActive(true);
+        cart.setVersion(3L);
+        cart.setUpdatedAt(updatedAt);
+        return cart;
+    }
+
+    private static UUID item(Cart cart, String quantity) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        CartItem item = new CartItem();
+        item.setId(UUID.randomUUID());
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setQuantity(new BigDecimal(quantity));
+        item.setUnitPrice(new BigDecimal("2.00"));
+        cart.getItems().add(item);
+        return product.getId();
+    }
+}
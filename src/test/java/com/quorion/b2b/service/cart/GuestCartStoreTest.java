@@ -0,0 +1,225 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.product.Product;
+import com.quorion.b2b.repository.CartItemRepository;
+import com.quorion.b2b.repository.CartRepository;
+import com.quorion.b2b.repository.MarketplaceConfigRepository;
+import com.quorion.b2b.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GuestCartStore
+ * Tests in-memory changes, write-through in database mode, write-behind flushing and idle and
+ * size-based eviction
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GuestCartStore Tests")
+class GuestCartStoreTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private MarketplaceConfigRepository marketplaceConfigRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        productId = UUID.randomUUID();
+        lenient().when(cartRepository.findBySessionKeyAndIsActiveTrue(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    @DisplayName("Should keep changes in memory and write dirty carts once on flush")
+    void testWriteBehind() {
+        GuestCartStore store = store("local", 100);
+        stubWrites();
+
+        store.update("session-1", true, cart -> cart.put(productId, new BigDecimal("3"), new BigDecimal("2.50"), null));
+        verify(cartRepository, never()).save(any());
+
+        assertEquals(1, store.flushDirty());
+        assertEquals(0, store.flushDirty());
+        verify(cartRepository, times(1)).save(any(Cart.class));
+        verify(cartItemRepository, times(1)).saveAll(anyIterable());
+        assertNotNull(store.find("session-1").orElseThrow().snapshot().cartId());
+    }
+
+    @Test
+    @DisplayName("Should write only the changed line through in database mode")
+    void testDatabaseMode() {
+        GuestCartStore store = store("database", 100);
+        stubWrites();
+        Cart stored = new Cart();
+        stored.setId(UUID.randomUUID());
+        stored.setSessionKey("session-1");
+        CartItem kept = item(stored, UUID.randomUUID());
+        CartItem removed = item(stored, productId);
+        when(cartRepository.findBySessionKeyAndIsActiveTrue("session-1")).thenReturn(Optional.of(stored));
+        when(cartRepository.findByIdWithItems(stored.getId())).thenReturn(Optional.of(stored));
+        UUID added = UUID.randomUUID();
+
+        store.update("session-1", false, cart -> cart.put(added, BigDecimal.ONE, BigDecimal.TEN, null));
+        store.update("session-1", false, cart -> cart.remove(productId));
+
+        ArgumentCaptor<Iterable<CartItem>> written = ArgumentCaptor.forClass(Iterable.class);
+        verify(cartItemRepository, times(2)).saveAll(written.capture());
+        List<CartItem> addWrite = toList(written.getAllValues().get(0));
+        assertEquals(1, addWrite.size());
+        assertEquals(added, addWrite.get(0).getProduct().getId());
+        assertEquals(List.of(removed), toList(written.getAllValues().get(1)));
+        assertNotNull(removed.getDeletedAt());
+        assertNull(kept.getDeletedAt());
+        assertEquals(0, store.size());
+        assertEquals(0, store.flushDirty());
+    }
+
+    @Test
+    @DisplayName("Should not create or keep a cart when reading a session without one")
+    void testReadDoesNotCreate() {
+        GuestCartStore store = store("local", 100);
+
+        assertTrue(store.read("unknown").isEmpty());
+        assertTrue(store.update("unknown", false, GuestCart::clear).isEmpty());
+        assertTrue(store.persist("unknown").isEmpty());
+        assertEquals(0, store.size());
+
+        store.update("unknown", true, cart -> cart.put(productId, BigDecimal.ONE, BigDecimal.TEN, null));
+        assertEquals(1, store.read("unknown").orElseThrow().lines().size());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Should evict carts idle for longer than the session timeout")
+    void testIdleEviction() {
+        GuestCartStore store = store("local", 100);
+        create(store, "stale", LocalDateTime.now().minusMinutes(31));
+        create(store, "fresh", LocalDateTime.now());
+
+        assertEquals(1, store.evictIdle(LocalDateTime.now()));
+        assertTrue(store.find("stale").isEmpty());
+        assertTrue(store.find("fresh").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should drop least recently used carts in the background once full")
+    void testSizeEviction() {
+        GuestCartStore store = store("local", 10);
+        for (int i = 0; i < 10; i++) {
+            create(store, "session-" + i, LocalDateTime.now().minusMinutes(20 - i));
+        }
+        assertEquals(0, store.evictOverflow());
+
+        create(store, "session-new", LocalDateTime.now());
+        assertEquals(11, store.size());
+
+        assertEquals(2, store.evictOverflow());
+        assertEquals(9, store.size());
+        assertTrue(store.find("session-0").isEmpty());
+        assertTrue(store.find("session-1").isEmpty());
+        assertTrue(store.find("session-new").isPresent());
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should keep a cart that changes while it is flushed for eviction and retry writers on evicted carts")
+    void testEvictionRace() {
+        GuestCartStore store = store("local", 10);
+        stubWrites();
+        for (int i = 0; i < 11; i++) {
+            create(store, "session-" + i, LocalDateTime.now().minusMinutes(20 - i));
+        }
+        GuestCart oldest = store.find("session-0").orElseThrow();
+        oldest.put(productId, BigDecimal.ONE, BigDecimal.TEN, null);
+        when(cartItemRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            // A request changes the cart while its flush is in flight
+            store.update("session-0", false, cart -> cart.put(productId, BigDecimal.TEN, BigDecimal.TEN, null));
+            return invocation.getArgument(0);
+        });
+
+        assertEquals(1, store.evictOverflow());
+        assertSame(oldest, store.find("session-0").orElseThrow());
+        assertTrue(store.find("session-1").isEmpty());
+
+        store.remove("session-0");
+        assertTrue(oldest.isEvicted());
+        store.update("session-0", true, cart -> cart.put(productId, BigDecimal.ONE, BigDecimal.ONE, null));
+        assertNotSame(oldest, store.find("session-0").orElseThrow());
+    }
+
+    private GuestCartStore store(String mode, int maxCarts) {
+        return new GuestCartStore(cartRepository, cartItemRepository, productRepository, marketplaceConfigRepository,
+                transactionManager, mode, maxCarts, true, 30);
+    }
+
+    private static void create(GuestCartStore store, String sessionKey, LocalDateTime lastAccessedAt) {
+        store.update(sessionKey, true, cart -> { });
+        store.find(sessionKey).orElseThrow().touch(lastAccessedAt);
+    }
+
+    private static CartItem item(Cart cart, UUID productId) {
+        Product product = new Product();
+        product.setId(productId);
+        CartItem item = CartItem.builder()
+                .cart(cart)
+                .product(product)
+                .quantity(BigDecimal.ONE)
+                .unitPrice(BigDecimal.TEN)
+                .notes("")
+                .build();
+        item.setId(UUID.randomUUID());
+        cart.getItems().add(item);
+        return item;
+    }
+
+    private static List<CartItem> toList(Iterable<CartItem> items) {
+        List<CartItem> list = new ArrayList<>();
+        items.forEach(list::add);
+        return list;
+    }
+
+    private void stubWrites() {
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> {
+            Cart cart = invocation.getArgument(0);
+            if (cart.getId() == null) {
+                cart.setId(UUID.randomUUID());
+            }
+            return cart;
+        });
+        when(productRepository.getReferenceById(any())).thenAnswer(invocation -> {
+            Product product = new Product();
+            product.setId(invocation.getArgument(0));
+            return product;
+        });
+    }
+}
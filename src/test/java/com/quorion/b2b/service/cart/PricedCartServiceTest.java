@@ -0,0 +1,145 @@
+package com.quorion.b2b.service.cart;
+
+import com.quorion.b2b.dto.cart.PricedCartResponse;
+import com.quorion.b2b.dto.pricing.PriceResult;
+import com.quorion.b2b.model.commerce.Cart;
+import com.quorion.b2b.model.commerce.CartItem;
+import com.quorion.b2b.model.product.Product;
+import com.quorion.b2b.model.product.ProductSKU;
+import com.quorion.b2b.repository.CartRepository;
+import com.quorion.b2b.repository.ListPriceRepository;
+import com.quorion.b2b.repository.PriceTierRepository;
+import com.quorion.b2b.repository.ProductSKURepository;
+import com.quorion.b2b.repository.ProductVariantRepository;
+import com.quorion.b2b.service.PricingService;
+import com.quorion.b2b.service.pricing.PriceIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PricedCartService
+ * Tests line pricing and totals, and snapshot reuse until the cart or its prices change
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PricedCartService Tests")
+class PricedCartServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private ProductSKURepository productSKURepository;
+
+    @Mock
+    private PricingService pricingService;
+
+    private PriceIndex priceIndex;
+    private PricedCartService service;
+
+    private Cart cart;
+    private ProductSKU boltsSku;
+
+    @BeforeEach
+    void setUp() {
+        priceIndex = new PriceIndex(mock(PriceTierRepository.class), mock(ListPriceRepository.class),
+                mock(ProductVariantRepository.class), 50000, 900);
+        service = new PricedCartService(cartRepository, productSKURepository, pricingService, priceIndex, 60, 100);
+
+        Product bolts = product("Bolts");
+        Product nuts = product("Nuts");
+        boltsSku = new ProductSKU();
+        boltsSku.setId(UUID.randomUUID());
+        boltsSku.setProduct(bolts);
+
+        cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        cart.setVersion(4L);
+        item(bolts, "10", "1.50");
+        item(nuts, "4", "0.25");
+
+        when(cartRepository.findVersionById(cart.getId())).thenAnswer(invocation -> Optional.of(cart.getVersion()));
+        when(cartRepository.findByIdWithItems(cart.getId())).thenReturn(Optional.of(cart));
+        when(productSKURepository.findActiveByProductIdIn(anyCollection())).thenReturn(List.of(boltsSku));
+        when(pricingService.calculatePrices(anyList())).thenReturn(List.of(PriceResult.builder()
+                .skuId(boltsSku.getId())
+                .quantity(new BigDecimal("10"))
+                .unitPrice(new BigDecimal("1.20"))
+                .totalPrice(new BigDecimal("12.00"))
+                .build()));
+    }
+
+    @Test
+    @DisplayName("Should price lines in one batch and fall back to stored prices")
+    void testPricedCart() {
+        PricedCartResponse priced = service.getPricedCart(cart.getId());
+
+        assertEquals(4L, priced.getCartVersion());
+        assertEquals(2, priced.getItemCount());
+        assertEquals(new BigDecimal("14"), priced.getTotalQuantity());
+        assertEquals(new BigDecimal("13.00"), priced.getSubtotal());
+        assertEquals(1, priced.getRepricedLines());
+
+        PricedCartResponse.Line bolts = priced.getLines().get(0);
+        assertTrue(bolts.isPriced());
+        assertTrue(bolts.isRepriced());
+        assertEquals(boltsSku.getId(), bolts.getSkuId());
+        assertEquals(new BigDecimal("1.50"), bolts.getCartUnitPrice());
+        assertEquals(new BigDecimal("1.20"), bolts.getUnitPrice());
+
+        PricedCartResponse.Line nuts = priced.getLines().get(1);
+        assertFalse(nuts.isPriced());
+        assertNull(nuts.getSkuId());
+        assertEquals(new BigDecimal("0.25"), nuts.getUnitPrice());
+        verify(pricingService, times(1)).calculatePrices(anyList());
+    }
+
+    @Test
+    @DisplayName("Should serve the snapshot until the cart version or one of its prices changes")
+    void testSnapshotReuse() {
+        PricedCartResponse first = service.getPricedCart(cart.getId());
+        assertSame(first, service.getPricedCart(cart.getId()));
+
+        priceIndex.invalidate(UUID.randomUUID());
+        assertSame(first, service.getPricedCart(cart.getId()));
+        verify(pricingService, times(1)).calculatePrices(anyList());
+
+        priceIndex.invalidate(boltsSku.getId());
+        PricedCartResponse repriced = service.getPricedCart(cart.getId());
+        assertNotSame(first, repriced);
+        assertEquals(priceIndex.generation(), repriced.getPricingVersion());
+
+        cart.setVersion(5L);
+        assertEquals(5L, service.getPricedCart(cart.getId()).getCartVersion());
+        verify(pricingService, times(3)).calculatePrices(anyList());
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setName(name);
+        return product;
+    }
+
+    private void item(Product product, String quantity, String unitPrice) {
+        CartItem item = new CartItem();
+        item.setId(UUID.randomUUID());
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setQuantity(new BigDecimal(quantity));
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        cart.getItems().add(item);
+    }
+}
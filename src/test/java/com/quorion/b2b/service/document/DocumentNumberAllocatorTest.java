@@ -0,0 +1,163 @@
+package com.quorion.b2b.service.document;
+
+import com.quorion.b2b.model.commerce.DocumentNumberFormat;
+import com.quorion.b2b.model.commerce.DocumentType;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.repository.DocumentNumberFormatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DocumentNumberAllocator
+ * Tests block reservation, per-seller formats and uniqueness under concurrency
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DocumentNumberAllocator Tests")
+class DocumentNumberAllocatorTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DocumentNumberFormatRepository formatRepository;
+
+    private DocumentNumberAllocator allocator;
+    private Map<String, Long> sequences;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new DocumentNumberAllocator(jdbcTemplate, transactionManager, formatRepository, BLOCK_SIZE);
+        sequences = new ConcurrentHashMap<>();
+        // Stands in for the upsert: advance the counter by one block and return its new value
+        lenient().when(jdbcTemplate.queryForObject(startsWith("INSERT INTO document_sequence"),
+                        any(SqlParameterSource.class), eq(Long.class)))
+                .thenAnswer(invocation -> {
+                    MapSqlParameterSource params = invocation.getArgument(1);
+                    return sequences.merge((String) params.getValue("key"), 1L + BLOCK_SIZE,
+                            (current, first) -> current + BLOCK_SIZE);
+                });
+    }
+
+    @Test
+    @DisplayName("Should hand out a reserved block from memory before reserving the next")
+    void testBlocks() {
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < BLOCK_SIZE + 1; i++) {
+            numbers.add(allocator.next(DocumentType.PURCHASE_ORDER, (UUID) null));
+        }
+
+        assertEquals("PO-1", numbers.get(0));
+        assertEquals("PO-11", numbers.get(BLOCK_SIZE));
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), any(SqlParameterSource.class), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("Should render a seller's prefix and pattern and fall back to defaults for others")
+    void testSellerFormat() {
+        UUID seller = UUID.randomUUID();
+        when(formatRepository.findByDocumentType(DocumentType.INVOICE))
+                .thenReturn(List.of(format(seller, "ACME-", "{prefix}{yyyy}-{seq:6}")));
+        when(formatRepository.findByDocumentType(DocumentType.QUOTE_REQUEST)).thenReturn(List.of());
+
+        String invoice = allocator.next(DocumentType.INVOICE, seller);
+        allocator.next(DocumentType.INVOICE, seller);
+
+        assertTrue(invoice.matches("ACME-\\d{4}-000001"), invoice);
+        assertEquals("QT-1", allocator.next(DocumentType.QUOTE_REQUEST, seller));
+        verify(formatRepository, times(1)).findByDocumentType(DocumentType.INVOICE);
+    }
+
+    @Test
+    @DisplayName("Should ignore prefixes that overlap or share a prefix with another pattern")
+    void testConflictingFormats() {
+        UUID acme = UUID.randomUUID();
+        UUID acme1 = UUID.randomUUID();
+        UUID globex = UUID.randomUUID();
+        UUID globexYearly = UUID.randomUUID();
+        UUID initech = UUID.randomUUID();
+        UUID umbrella = UUID.randomUUID();
+        UUID suffixed = UUID.randomUUID();
+
+        Map<UUID, DocumentNumberAllocator.Format> valid = DocumentNumberAllocator.validated(DocumentType.INVOICE,
+                List.of(format(acme, "AC-", "{prefix}{seq}"),
+                        format(acme1, "AC-1", "{prefix}{seq}"),
+                        format(globex, "GLX-", "{prefix}{seq}"),
+                        format(globexYearly, "GLX-", "{prefix}{yyyy}{seq}"),
+                        format(initech, "INV-7", "{prefix}{seq}"),
+                        format(umbrella, "UMB-", "{prefix}{seq:6}"),
+                        format(suffixed, "SFX-", "{seq}{prefix}")));
+
+        assertEquals(Map.of(umbrella, new DocumentNumberAllocator.Format("UMB-", "{prefix}{seq:6}")), valid);
+    }
+
+    @Test
+    @DisplayName("Should never hand out the same number twice across threads")
+    void testConcurrentUniqueness() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> numbers = new ArrayList<>();
+                    for (int i = 0; i < 500; i++) {
+                        numbers.add(allocator.next(DocumentType.SHIPMENT_ADVICE, (UUID) null));
+                    }
+                    return numbers;
+                }));
+            }
+            Set<String> unique = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                unique.addAll(future.get());
+            }
+            assertEquals(4000, unique.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should zero-pad the sequence to the requested width")
+    void testRender() {
+        assertEquals("SA-2026-0042", DocumentNumberAllocator.render("{prefix}{yyyy}-{seq:4}", "SA-", 42, 2026));
+        assertEquals("PO-42", DocumentNumberAllocator.render("{prefix}{seq}", "PO-", 42, 2026));
+    }
+
+    private static DocumentNumberFormat format(UUID sellerId, String prefix, String pattern) {
+        Tenant seller = new Tenant();
+        seller.setId(sellerId);
+        return DocumentNumberFormat.builder()
+                .seller(seller)
+                .documentType(DocumentType.INVOICE)
+                .prefix(prefix)
+                .pattern(pattern)
+                .build();
+    }
+}
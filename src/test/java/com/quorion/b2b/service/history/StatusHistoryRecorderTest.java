@@ -0,0 +1,78 @@
+package com.quorion.b2b.service.history;
+
+import com.quorion.b2b.service.outbox.AggregateType;
+import com.quorion.b2b.service.outbox.OutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StatusHistoryRecorder
+ * Tests batched history inserts and partition maintenance
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatusHistoryRecorder Tests")
+class StatusHistoryRecorderTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private JdbcTemplate plainJdbcTemplate;
+
+    private StatusHistoryRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new StatusHistoryRecorder(jdbcTemplate, 3);
+    }
+
+    @Test
+    @DisplayName("Should write a batch of events with one batched insert and no lookups")
+    void testRecordBatch() {
+        UUID order = UUID.randomUUID();
+
+        recorder.onEvents(List.of(
+                new OutboxEvent(7L, AggregateType.PURCHASE_ORDER, order, UUID.randomUUID(), "NEW", "ACCEPTED", NOW),
+                new OutboxEvent(8L, AggregateType.PURCHASE_ORDER, order, UUID.randomUUID(), "ACCEPTED",
+                        "IN_PROGRESS", NOW.plusMinutes(30))));
+
+        ArgumentCaptor<SqlParameterSource[]> rows = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO status_transition"), rows.capture());
+        assertEquals(List.of(7L, 8L), Arrays.stream(rows.getValue()).map(row -> row.getValue("eventId")).toList());
+        assertEquals("ACCEPTED", rows.getValue()[1].getValue("from"));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should keep creating monthly partitions when one of them cannot be created")
+    void testCreatePartitions() {
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(plainJdbcTemplate);
+        doThrow(new DataIntegrityViolationException("rows in default partition"))
+                .doNothing()
+                .when(plainJdbcTemplate).execute(anyString());
+
+        recorder.createPartitions();
+
+        verify(plainJdbcTemplate, times(5)).execute(startsWith("CREATE TABLE IF NOT EXISTS status_transition_y"));
+    }
+}
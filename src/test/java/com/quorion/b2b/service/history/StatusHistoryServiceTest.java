@@ -0,0 +1,65 @@
+package com.quorion.b2b.service.history;
+
+import com.quorion.b2b.service.outbox.AggregateType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StatusHistoryService
+ * Tests the report window and range validation
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatusHistoryService Tests")
+class StatusHistoryServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private StatusHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StatusHistoryService(jdbcTemplate, 90);
+    }
+
+    @Test
+    @DisplayName("Should pair transitions over the range plus the stage lookback")
+    @SuppressWarnings("unchecked")
+    void testStageDurationsWindow() {
+        LocalDateTime from = LocalDateTime.of(2026, 10, 1, 0, 0);
+        LocalDateTime to = from.plusMonths(1);
+
+        service.stageDurations(AggregateType.QUOTE_REQUEST, UUID.randomUUID(), from, to);
+
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).query(contains("lag(occurred_at) OVER w"), params.capture(), any(RowMapper.class));
+        assertEquals(from.minusDays(90), params.getValue().getValue("since"));
+        assertEquals(from, params.getValue().getValue("from"));
+        assertEquals("QUOTE_REQUEST", params.getValue().getValue("type"));
+    }
+
+    @Test
+    @DisplayName("Should reject an empty or inverted range")
+    void testInvalidRange() {
+        LocalDateTime at = LocalDateTime.of(2026, 10, 1, 0, 0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.stageDurations(AggregateType.LEAD, UUID.randomUUID(), at, at));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,171 @@
+package com.quorion.b2b.service.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboxRelay
+ * Tests batch draining, delete-after-delivery, one-by-one redelivery, per-aggregate ordering and dead letters
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Tests")
+class OutboxRelayTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<OutboxSubscriber> subscribers;
+
+    @Mock
+    private OutboxSubscriber subscriber;
+
+    private OutboxRelay relay;
+    private final List<List<Long>> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(jdbcTemplate, transactionManager, subscribers, 3, 10, 30);
+        when(subscribers.orderedStream()).thenAnswer(invocation -> Stream.of(subscriber));
+    }
+
+    @Test
+    @DisplayName("Should deliver batches in id order until a batch comes back empty")
+    void testDrainInBatches() {
+        failOn(-1);
+        claimBatches(List.of(event(1), event(2), event(3)), List.of(event(4)), List.of());
+
+        relay.relay();
+
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(4L)), delivered);
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate, times(2)).update(startsWith("DELETE FROM outbox_event"), params.capture());
+        assertEquals(List.of(4L), params.getValue().getValue("ids"));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should redeliver a failed batch event by event and postpone only the failing event")
+    void testRedeliverOneByOne() {
+        failOn(2);
+        claimBatches(List.of(event(1), event(2), event(3)));
+        claimSingles(event(1), event(2), event(3));
+        stubPostpone(false);
+
+        relay.relay();
+
+        // The whole batch, then each event alone; event 3 belongs to another aggregate and is not held back
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(1L), List.of(2L), List.of(3L)), delivered);
+        ArgumentCaptor<SqlParameterSource> deleted = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate, times(2)).update(startsWith("DELETE FROM outbox_event"), deleted.capture());
+        assertEquals(List.of(List.of(1L), List.of(3L)),
+                deleted.getAllValues().stream().map(params -> params.getValue("ids")).toList());
+        ArgumentCaptor<SqlParameterSource> postponed = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).queryForObject(startsWith("UPDATE outbox_event SET attempts = attempts + 1"),
+                postponed.capture(), eq(Boolean.class));
+        assertEquals(2L, postponed.getValue().getValue("id"));
+        assertEquals("subscriber down", postponed.getValue().getValue("error"));
+        assertTrue(((LocalDateTime) postponed.getValue().getValue("retryAt"))
+                .isAfter(LocalDateTime.now().plusSeconds(20)));
+    }
+
+    @Test
+    @DisplayName("Should hold back only later events of the same aggregate")
+    @SuppressWarnings("unchecked")
+    void testOrderPerAggregate() {
+        failOn(-1);
+        claimBatches(List.of(event(1)), List.of());
+
+        relay.relay();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).query(sql.capture(), any(SqlParameterSource.class), any(RowMapper.class));
+        assertTrue(sql.getValue().contains("NOT EXISTS (SELECT 1 FROM outbox_event earlier " +
+                "WHERE earlier.aggregate_id = e.aggregate_id AND earlier.id < e.id AND earlier.dead_at IS NULL)"));
+        assertTrue(sql.getValue().contains("e.dead_at IS NULL AND e.available_at <= :now"));
+        assertEquals(List.of(List.of(1L)), delivered);
+    }
+
+    @Test
+    @DisplayName("Should mark an event dead once it has used up its attempts")
+    void testDeadLetter() {
+        failOn(1);
+        claimBatches(List.of(event(1)));
+        claimSingles(event(1));
+        stubPostpone(true);
+
+        relay.relay();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<SqlParameterSource> postponed = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).queryForObject(sql.capture(), postponed.capture(), eq(Boolean.class));
+        assertTrue(sql.getValue().contains("dead_at = CASE WHEN attempts + 1 >= :maxAttempts THEN :now END"));
+        assertEquals(10, postponed.getValue().getValue("maxAttempts"));
+        verify(jdbcTemplate, never()).update(startsWith("DELETE FROM outbox_event"), any(SqlParameterSource.class));
+    }
+
+    private void failOn(long id) {
+        doAnswer(invocation -> {
+            List<OutboxEvent> events = invocation.getArgument(0);
+            delivered.add(events.stream().map(OutboxEvent::id).toList());
+            if (events.stream().anyMatch(event -> event.id() == id)) {
+                throw new IllegalStateException("subscriber down");
+            }
+            return null;
+        }).when(subscriber).onEvents(anyList());
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void claimBatches(List<OutboxEvent>... batches) {
+        Iterator<List<OutboxEvent>> claimed = List.of(batches).iterator();
+        when(jdbcTemplate.query(contains("LIMIT :limit"), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> claimed.next());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claimSingles(OutboxEvent... events) {
+        Map<Long, OutboxEvent> singles = Stream.of(events)
+                .collect(Collectors.toMap(OutboxEvent::id, Function.identity()));
+        when(jdbcTemplate.query(contains("AND e.id = :id"), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> List.of(singles.get(
+                        (Long) ((SqlParameterSource) invocation.getArgument(1)).getValue("id"))));
+    }
+
+    private void stubPostpone(boolean dead) {
+        when(jdbcTemplate.queryForObject(startsWith("UPDATE outbox_event SET attempts"), any(SqlParameterSource.class),
+                eq(Boolean.class))).thenReturn(dead);
+    }
+
+    private static OutboxEvent event(long id) {
+        return new OutboxEvent(id, AggregateType.PURCHASE_ORDER, UUID.randomUUID(), UUID.randomUUID(),
+                "INVOICED", "SHIPPED", LocalDateTime.now());
+    }
+}
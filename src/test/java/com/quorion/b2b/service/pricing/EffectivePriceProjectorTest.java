@@ -0,0 +1,95 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.repository.ListPriceRepository;
+import com.quorion.b2b.repository.PriceTierRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EffectivePriceProjector
+ * Tests set-based rebuilds and the projection lock
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EffectivePriceProjector Tests")
+class EffectivePriceProjectorTest {
+
+    @Mock
+    private PriceTierRepository priceTierRepository;
+
+    @Mock
+    private ListPriceRepository listPriceRepository;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private JdbcTemplate plainJdbcTemplate;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EffectivePriceProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(plainJdbcTemplate);
+        projector = new EffectivePriceProjector(priceTierRepository, listPriceRepository, jdbcTemplate,
+                taskScheduler, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should skip the startup rebuild while another node holds the projection lock")
+    void testStartupRebuildSkipsWhenLocked() {
+        when(plainJdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class)))
+                .thenReturn(false);
+
+        projector.onApplicationReady();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(SqlParameterSource.class));
+    }
+
+    @Test
+    @DisplayName("Should rebuild changed SKUs under the lock with one delete and two inserts per chunk")
+    @SuppressWarnings("unchecked")
+    void testRefreshChunks() {
+        Set<UUID> skuIds = IntStream.range(0, 1500).mapToObj(i -> UUID.randomUUID()).collect(Collectors.toSet());
+
+        projector.refresh(skuIds);
+
+        InOrder inOrder = inOrder(plainJdbcTemplate, jdbcTemplate);
+        inOrder.verify(plainJdbcTemplate).execute(startsWith("SELECT pg_advisory_xact_lock"));
+        inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM effective_price WHERE sku_id"),
+                any(SqlParameterSource.class));
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate, times(2)).update(endsWith("AND product_sku_id IN (:skuIds)"), params.capture());
+        verify(jdbcTemplate, times(2)).update(endsWith("AND sku_id IN (:skuIds)"), any(SqlParameterSource.class));
+        assertEquals(List.of(1000, 500), params.getAllValues().stream()
+                .map(param -> ((Collection<UUID>) param.getValue("skuIds")).size())
+                .toList());
+    }
+}
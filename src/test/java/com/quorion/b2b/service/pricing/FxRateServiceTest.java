@@ -0,0 +1,85 @@
+package com.quorion.b2b.service.pricing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorion.b2b.model.commerce.FxRate;
+import com.quorion.b2b.repository.FxRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FxRateService
+ * Tests picking up rates changed by another node
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FxRateService Tests")
+class FxRateServiceTest {
+
+    @Mock
+    private FxRateRepository fxRateRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FxRateTable fxRateTable;
+    private FxRateService fxRateService;
+
+    @BeforeEach
+    void setUp() {
+        fxRateTable = new FxRateTable();
+        fxRateService = new FxRateService(fxRateRepository, fxRateTable, transactionManager, new ObjectMapper(),
+                "", "USD");
+    }
+
+    @Test
+    @DisplayName("Should reload the snapshot only when the stored rates moved")
+    void testPollForChanges() {
+        LocalDateTime loadedAt = LocalDateTime.now().minusHours(1);
+        LocalDateTime importedAt = LocalDateTime.now();
+        when(fxRateRepository.findAll())
+                .thenReturn(List.of(rate("EUR", "0.90", loadedAt)), List.of(rate("EUR", "0.95", importedAt)));
+        when(fxRateRepository.count()).thenReturn(1L);
+        when(fxRateRepository.findLatestUpdatedAt()).thenReturn(Optional.of(loadedAt), Optional.of(importedAt));
+
+        fxRateService.refresh();
+        fxRateService.pollForChanges();
+        verify(fxRateRepository, times(1)).findAll();
+
+        fxRateService.pollForChanges();
+        verify(fxRateRepository, times(2)).findAll();
+        assertEquals(0, new BigDecimal("0.95").compareTo(fxRateTable.current().rate("USD", "EUR")));
+    }
+
+    @Test
+    @DisplayName("Should keep the current snapshot when the check fails")
+    void testPollFailure() {
+        when(fxRateRepository.findLatestUpdatedAt()).thenThrow(new IllegalStateException("connection refused"));
+
+        assertDoesNotThrow(() -> fxRateService.pollForChanges());
+        verify(fxRateRepository, never()).findAll();
+        assertSame(FxRateSnapshot.EMPTY, fxRateTable.current());
+    }
+
+    private static FxRate rate(String quote, String value, LocalDateTime updatedAt) {
+        FxRate rate = FxRate.builder()
+                .baseCurrency("USD")
+                .quoteCurrency(quote)
+                .rate(new BigDecimal(value))
+                .asOf(updatedAt)
+                .build();
+        rate.setUpdatedAt(updatedAt);
+        return rate;
+    }
+}
@@ -0,0 +1,70 @@
+package com.quorion.b2b.service.pricing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Money
+ * Checks fixed-point discounting against the BigDecimal HALF_UP formula it replaces
+ */
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
+    @Test
+    @DisplayName("Should round discounts exactly like the BigDecimal implementation")
+    void testDiscountParityWithBigDecimal() {
+        for (long cents = 1; cents <= 20_000; cents += 7) {
+            BigDecimal base = BigDecimal.valueOf(cents, 2);
+            for (long discountHundredths = 1; discountHundredths <= 10_000; discountHundredths += 37) {
+                BigDecimal discount = BigDecimal.valueOf(discountHundredths, 2);
+
+                BigDecimal expected = legacyApplyDiscount(base, discount);
+                BigDecimal actual = Money.toBigDecimal(Money.applyDiscount(
+                        Money.fromBigDecimal(base), Money.discountBasisPoints(discount)));
+
+                assertEquals(expected, actual, () -> base + " less " + discount + "%");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave the price unchanged without a discount")
+    void testNoDiscount() {
+        long price = Money.fromBigDecimal(new BigDecimal("10.00"));
+
+        assertEquals(price, Money.applyDiscount(price, Money.discountBasisPoints(null)));
+        assertEquals(price, Money.applyDiscount(price, Money.discountBasisPoints(BigDecimal.ZERO)));
+        assertEquals(new BigDecimal("10.00"), Money.toBigDecimal(price));
+    }
+
+    @Test
+    @DisplayName("Should round half away from zero")
+    void testDivideHalfUp() {
+        assertEquals(3, Money.divideHalfUp(25, 10));
+        assertEquals(2, Money.divideHalfUp(24, 10));
+        assertEquals(-3, Money.divideHalfUp(-25, 10));
+        assertEquals(-2, Money.divideHalfUp(-24, 10));
+    }
+
+    @Test
+    @DisplayName("Should treat NONE as absent when taking the minimum")
+    void testMin() {
+        assertEquals(5, Money.min(Money.NONE, 5));
+        assertEquals(5, Money.min(5, Money.NONE));
+        assertEquals(3, Money.min(5, 3));
+        assertEquals(Money.NONE, Money.min(Money.NONE, Money.NONE));
+    }
+
+    private static BigDecimal legacyApplyDiscount(BigDecimal basePrice, BigDecimal discountPercent) {
+        BigDecimal discountMultiplier = BigDecimal.ONE
+                .subtract(discountPercent.divide(ONE_HUNDRED, 4, RoundingMode.HALF_UP));
+        return basePrice.multiply(discountMultiplier).setScale(2, RoundingMode.HALF_UP);
+    }
+}
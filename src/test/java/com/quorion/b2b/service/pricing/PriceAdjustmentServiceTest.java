@@ -0,0 +1,165 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.dto.pricing.PriceAdjustmentRequest;
+import com.quorion.b2b.dto.pricing.PriceAdjustmentResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PriceAdjustmentService
+ * Tests keyset chunking, in-place versus cloned adjustment and per-chunk cache invalidation
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceAdjustmentService Tests")
+class PriceAdjustmentServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PriceHistoryRecorder priceHistoryRecorder;
+
+    private PriceAdjustmentService adjustmentService;
+
+    private UUID sellerId;
+    private UUID skuA;
+    private UUID skuB;
+
+    @BeforeEach
+    void setUp() {
+        adjustmentService = new PriceAdjustmentService(jdbcTemplate, transactionManager, eventPublisher,
+                priceHistoryRecorder, 2);
+        sellerId = UUID.randomUUID();
+        skuA = UUID.randomUUID();
+        skuB = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should update prices chunk by chunk and publish an event for each chunk that changed")
+    @SuppressWarnings("unchecked")
+    void testPercentAdjustmentInPlace() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.<UUID[]>of(tier(skuA), tier(skuA)), List.<UUID[]>of(tier(skuB)));
+        ArgumentCaptor<String> update = ArgumentCaptor.forClass(String.class);
+        when(jdbcTemplate.update(update.capture(), any(SqlParameterSource.class))).thenReturn(2, 0);
+
+        // Act
+        PriceAdjustmentResult result = adjustmentService.adjust(PriceAdjustmentRequest.builder()
+                .sellerId(sellerId)
+                .percentChange(new BigDecimal("5"))
+                .build());
+
+        // Assert
+        assertEquals(3, result.getMatchedTiers());
+        assertEquals(2, result.getAdjustedTiers());
+        assertEquals(1, result.getSkippedTiers());
+        assertFalse(result.isCloned());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).query(sql.capture(), any(SqlParameterSource.class), any(RowMapper.class));
+        assertFalse(sql.getAllValues().get(0).contains(":after"));
+        assertTrue(sql.getAllValues().get(1).contains("pt.id > :after"));
+        verify(priceHistoryRecorder, times(1)).recordTiersChangedAt(eq(Set.of(skuA)), any(LocalDateTime.class));
+
+        ArgumentCaptor<PricingChangedEvent> event = ArgumentCaptor.forClass(PricingChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(Set.of(skuA), event.getValue().skuIds());
+        assertTrue(update.getValue().startsWith("UPDATE price_tier SET price_per_uom"));
+        assertTrue(update.getValue().contains("BETWEEN 0.01 AND 99999999.99"));
+    }
+
+    @Test
+    @DisplayName("Should keep the event of a committed chunk when a later chunk fails")
+    @SuppressWarnings("unchecked")
+    void testEventSurvivesLaterFailure() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.<UUID[]>of(tier(skuA), tier(skuA)), List.<UUID[]>of(tier(skuB)));
+        when(jdbcTemplate.update(startsWith("UPDATE price_tier SET price_per_uom"), any(SqlParameterSource.class)))
+                .thenReturn(2)
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> adjustmentService.adjust(PriceAdjustmentRequest.builder()
+                .sellerId(sellerId)
+                .percentChange(new BigDecimal("5"))
+                .build()));
+
+        // Assert
+        ArgumentCaptor<PricingChangedEvent> event = ArgumentCaptor.forClass(PricingChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(Set.of(skuA), event.getValue().skuIds());
+    }
+
+    @Test
+    @DisplayName("Should clone tiers instead of updating them for a future start date")
+    @SuppressWarnings("unchecked")
+    void testFutureAdjustmentClonesTiers() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.<UUID[]>of(tier(skuA)));
+        when(jdbcTemplate.update(startsWith("INSERT INTO price_tier"), any(SqlParameterSource.class)))
+                .thenReturn(1);
+
+        LocalDateTime validFrom = LocalDateTime.now().plusMonths(1);
+
+        // Act
+        PriceAdjustmentResult result = adjustmentService.adjust(PriceAdjustmentRequest.builder()
+                .sellerId(sellerId)
+                .amountChange(new BigDecimal("1.50"))
+                .validFrom(validFrom)
+                .build());
+
+        // Assert
+        assertTrue(result.isCloned());
+        assertEquals(validFrom, result.getValidFrom());
+        assertEquals(1, result.getAdjustedTiers());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE price_tier SET price_per_uom"), any(SqlParameterSource.class));
+        verify(jdbcTemplate).update(startsWith("UPDATE price_tier SET valid_to_date"), any(SqlParameterSource.class));
+        verify(eventPublisher, times(1)).publishEvent(any(PricingChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should require exactly one kind of change")
+    void testRejectsAmbiguousChange() {
+        PriceAdjustmentRequest request = PriceAdjustmentRequest.builder()
+                .sellerId(sellerId)
+                .percentChange(BigDecimal.TEN)
+                .amountChange(BigDecimal.ONE)
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> adjustmentService.adjust(request));
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+
+    private static UUID[] tier(UUID skuId) {
+        return new UUID[]{UUID.randomUUID(), skuId};
+    }
+}
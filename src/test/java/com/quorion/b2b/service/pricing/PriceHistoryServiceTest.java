@@ -0,0 +1,150 @@
+package com.quorion.b2b.service.pricing;
+
+import com.quorion.b2b.dto.pricing.PriceChange;
+import com.quorion.b2b.model.commerce.PriceHistory;
+import com.quorion.b2b.model.commerce.PriceHistoryKind;
+import com.quorion.b2b.repository.PriceHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PriceHistoryService
+ * Tests point-in-time prices from recorded versions and change ranges
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceHistoryService Tests")
+class PriceHistoryServiceTest {
+
+    private static final LocalDateTime JAN = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime FEB = LocalDateTime.of(2026, 2, 1, 0, 0);
+    private static final LocalDateTime MAR = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    private PriceHistoryService historyService;
+
+    private UUID skuId;
+    private UUID buyerId;
+    private UUID generalTierId;
+    private UUID buyerTierId;
+    private UUID listPriceId;
+
+    @BeforeEach
+    void setUp() {
+        historyService = new PriceHistoryService(priceHistoryRepository);
+        skuId = UUID.randomUUID();
+        buyerId = UUID.randomUUID();
+        generalTierId = UUID.randomUUID();
+        buyerTierId = UUID.randomUUID();
+        listPriceId = UUID.randomUUID();
+
+        // General tier at 10.00 from January, repriced to 12.00 in February
+        // Buyer tier at 9.00 from January, removed in March
+        // List price at 15.00 from January
+        when(priceHistoryRepository.findBySkuIdOrderBySourceIdAscVersionAsc(skuId)).thenReturn(sortedBySource(
+                tierVersion(generalTierId, 1, null, "10.00", JAN, false),
+                tierVersion(generalTierId, 2, null, "12.00", FEB, false),
+                tierVersion(buyerTierId, 1, buyerId, "9.00", JAN, false),
+                tierVersion(buyerTierId, 2, buyerId, "9.00", MAR, true),
+                PriceHistory.builder()
+                        .kind(PriceHistoryKind.LIST_PRICE)
+                        .sourceId(listPriceId)
+                        .version(1)
+                        .skuId(skuId)
+                        .minimumQuantity(BigDecimal.ZERO)
+                        .price(new BigDecimal("15.00"))
+                        .currency("USD")
+                        .isActive(true)
+                        .removed(false)
+                        .recordedAt(JAN)
+                        .build()));
+    }
+
+    @Test
+    @DisplayName("Should resolve the price as recorded at a past time")
+    void testPriceAt() {
+        BigDecimal quantity = new BigDecimal("5");
+
+        assertEquals(new BigDecimal("10.00"), priceAt(quantity, null, JAN.plusDays(10)));
+        assertEquals(new BigDecimal("12.00"), priceAt(quantity, null, FEB.plusDays(10)));
+        assertEquals(new BigDecimal("9.00"), priceAt(quantity, buyerId, FEB.plusDays(10)));
+        // The buyer tier is gone from March, so the general tier applies again
+        assertEquals(new BigDecimal("12.00"), priceAt(quantity, buyerId, MAR.plusDays(10)));
+        // Before anything was recorded there is no price
+        assertNull(priceAt(quantity, null, JAN.minusDays(1)));
+
+        verify(priceHistoryRepository, times(1)).findBySkuIdOrderBySourceIdAscVersionAsc(skuId);
+    }
+
+    @Test
+    @DisplayName("Should list changes in a range with previous prices")
+    void testChanges() {
+        List<PriceChange> changes = historyService.changes(skuId, FEB, MAR.plusDays(1));
+
+        assertEquals(2, changes.size());
+        assertEquals(PriceChange.ChangeType.UPDATED, changes.get(0).getChangeType());
+        assertEquals(new BigDecimal("10.00"), changes.get(0).getPreviousPrice());
+        assertEquals(new BigDecimal("12.00"), changes.get(0).getPrice());
+        assertEquals(PriceChange.ChangeType.REMOVED, changes.get(1).getChangeType());
+        assertEquals(buyerTierId, changes.get(1).getSourceId());
+        assertNull(changes.get(1).getPrice());
+
+        assertEquals(3, historyService.changes(skuId, JAN, FEB).size());
+        assertThrows(IllegalArgumentException.class, () -> historyService.changes(skuId, MAR, FEB));
+    }
+
+    @Test
+    @DisplayName("Should reload history after pricing changes for the SKU")
+    void testInvalidation() {
+        historyService.priceAt(skuId, PricingContext.of(BigDecimal.ONE, null, null, null, FEB));
+        historyService.onPricingChanged(PricingChangedEvent.forSku(UUID.randomUUID()));
+        historyService.priceAt(skuId, PricingContext.of(BigDecimal.ONE, null, null, null, FEB));
+        historyService.onPricingChanged(PricingChangedEvent.forSku(skuId));
+        historyService.priceAt(skuId, PricingContext.of(BigDecimal.ONE, null, null, null, FEB));
+
+        verify(priceHistoryRepository, times(2)).findBySkuIdOrderBySourceIdAscVersionAsc(skuId);
+    }
+
+    private BigDecimal priceAt(BigDecimal quantity, UUID buyer, LocalDateTime at) {
+        return historyService.priceAt(skuId, PricingContext.of(quantity, buyer, null, null, at)).getUnitPrice();
+    }
+
+    private PriceHistory tierVersion(UUID sourceId, int version, UUID buyer, String price,
+                                     LocalDateTime recordedAt, boolean removed) {
+        return PriceHistory.builder()
+                .kind(PriceHistoryKind.PRICE_TIER)
+                .sourceId(sourceId)
+                .version(version)
+                .skuId(skuId)
+                .buyerId(buyer)
+                .minimumQuantity(BigDecimal.ONE)
+                .price(new BigDecimal(price))
+                .currency("USD")
+                .isActive(true)
+                .removed(removed)
+                .recordedAt(recordedAt)
+                .build();
+    }
+
+    private static List<PriceHistory> sortedBySource(PriceHistory... rows) {
+        return Arrays.stream(rows)
+                .sorted(Comparator.comparing(PriceHistory::getSourceId)
+                        .thenComparing(PriceHistory::getVersion))
+                .toList();
+    }
+}
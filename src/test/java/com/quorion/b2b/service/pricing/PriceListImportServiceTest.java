@@ -0,0 +1,201 @@
+package com.quorion.b2b.service.pricing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorion.b2b.dto.pricing.PriceImportResult;
+import com.quorion.b2b.model.product.ProductSKU;
+import com.quorion.b2b.model.tenant.Tenant;
+import com.quorion.b2b.model.tenant.TenantAddress;
+import com.quorion.b2b.repository.ProductSKURepository;
+import com.quorion.b2b.repository.TenantAddressRepository;
+import com.quorion.b2b.repository.TenantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PriceListImportService
+ * Tests streaming parsing, batched lookups, per-row errors, per-chunk change events and dry runs
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceListImportService Tests")
+class PriceListImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductSKURepository productSKURepository;
+
+    @Mock
+    private TenantRepository tenantRepository;
+
+    @Mock
+    private TenantAddressRepository tenantAddressRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PriceHistoryRecorder priceHistoryRecorder;
+
+    private PriceListImportService importService;
+
+    private ProductSKU sku;
+    private Tenant seller;
+    private Tenant buyer;
+    private TenantAddress destination;
+
+    @BeforeEach
+    void setUp() {
+        importService = new PriceListImportService(jdbcTemplate, transactionManager, productSKURepository,
+                tenantRepository, tenantAddressRepository, eventPublisher, new ObjectMapper(), priceHistoryRecorder, 2);
+
+        sku = new ProductSKU();
+        sku.setId(UUID.randomUUID());
+        sku.setNumber("SKU-001");
+
+        seller = tenant("SELLER");
+        buyer = tenant("BUYER");
+
+        destination = new TenantAddress();
+        destination.setId(UUID.randomUUID());
+        destination.setTenant(buyer);
+    }
+
+    @Test
+    @DisplayName("Should import valid tier rows and report invalid ones")
+    void testImportPriceTiersCsv() {
+        // Arrange
+        when(productSKURepository.findByNumberIn(anyCollection())).thenReturn(List.of(sku));
+        when(tenantRepository.findByCodeIn(anyCollection())).thenReturn(List.of(seller, buyer));
+        when(tenantAddressRepository.findAllById(anyIterable())).thenReturn(List.of(destination));
+
+        String csv = String.join("\n",
+                "sku_number,seller_code,buyer_code,destination_id,minimum_quantity,maximum_quantity,price_per_uom,discount_percent",
+                "SKU-001,SELLER,BUYER," + destination.getId() + ",1,49,10.00,",
+                "SKU-404,SELLER,BUYER," + destination.getId() + ",1,49,10.00,",
+                "SKU-001,SELLER,BUYER," + destination.getId() + ",50,,abc,",
+                "\"SKU-001\",SELLER,BUYER," + destination.getId() + ",50,,8.00,5");
+
+        // Act
+        PriceImportResult result = importService.importPrices(stream(csv),
+                PriceImportType.PRICE_TIER, PriceImportFormat.CSV, false);
+
+        // Assert
+        assertEquals(4, result.getTotalRows());
+        assertEquals(2, result.getImportedRows());
+        assertEquals(2, result.getFailedRows());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().contains("SKU-404"));
+        assertEquals(4, result.getErrors().get(1).getRow());
+
+        verify(productSKURepository, times(1)).findByNumberIn(anyCollection());
+        verify(tenantRepository, times(1)).findByCodeIn(anyCollection());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        verify(priceHistoryRecorder, times(2)).recordTiers(anyCollection());
+
+        ArgumentCaptor<PricingChangedEvent> event = ArgumentCaptor.forClass(PricingChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(event.capture());
+        event.getAllValues().forEach(published -> assertEquals(Set.of(sku.getId()), published.skuIds()));
+    }
+
+    @Test
+    @DisplayName("Should keep the change event of a committed chunk when a later chunk fails")
+    void testEventPerChunk() {
+        // Arrange
+        ProductSKU other = new ProductSKU();
+        other.setId(UUID.randomUUID());
+        other.setNumber("SKU-002");
+        when(productSKURepository.findByNumberIn(anyCollection())).thenReturn(List.of(sku), List.of(other));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenReturn(new int[]{1, 1})
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        String csv = String.join("\n", "sku_number,price",
+                "SKU-001,10.00", "SKU-001,11.00", "SKU-002,12.00");
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> importService.importPrices(stream(csv),
+                PriceImportType.LIST_PRICE, PriceImportFormat.CSV, false));
+
+        // Assert
+        ArgumentCaptor<PricingChangedEvent> event = ArgumentCaptor.forClass(PricingChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(Set.of(sku.getId()), event.getValue().skuIds());
+    }
+
+    @Test
+    @DisplayName("Should reject amounts the price columns cannot hold")
+    void testAmountLimits() {
+        // Arrange
+        when(productSKURepository.findByNumberIn(anyCollection())).thenReturn(List.of(sku));
+
+        String csv = String.join("\n", "sku_number,price",
+                "SKU-001,99999999.99", "SKU-001,100000000", "SKU-001,1.005", "SKU-001,2.500");
+
+        // Act
+        PriceImportResult result = importService.importPrices(stream(csv),
+                PriceImportType.LIST_PRICE, PriceImportFormat.CSV, true);
+
+        // Assert
+        assertEquals(2, result.getImportedRows());
+        assertEquals(2, result.getFailedRows());
+        assertTrue(result.getErrors().get(0).getMessage().contains("must be below 100000000"));
+        assertTrue(result.getErrors().get(1).getMessage().contains("decimal places"));
+    }
+
+    @Test
+    @DisplayName("Should validate without writing in dry-run mode")
+    void testDryRunListPricesNdjson() {
+        // Arrange
+        when(productSKURepository.findByNumberIn(anyCollection())).thenReturn(List.of(sku));
+
+        String ndjson = String.join("\n",
+                "{\"skuNumber\":\"SKU-001\",\"price\":12.50,\"startDate\":\"2026-01-01\"}",
+                "{\"skuNumber\":\"SKU-001\",\"price\":12.50,\"startDate\":\"2026-02-01\",\"endDate\":\"2026-01-01\"}",
+                "not json");
+
+        // Act
+        PriceImportResult result = importService.importPrices(stream(ndjson),
+                PriceImportType.LIST_PRICE, PriceImportFormat.NDJSON, true);
+
+        // Assert
+        assertTrue(result.isDryRun());
+        assertEquals(3, result.getTotalRows());
+        assertEquals(1, result.getImportedRows());
+        assertEquals(2, result.getFailedRows());
+        verifyNoInteractions(jdbcTemplate, eventPublisher, priceHistoryRecorder);
+    }
+
+    private Tenant tenant(String code) {
+        Tenant tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        tenant.setCode(code);
+        return tenant;
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package com.quorion.b2b.service.pricing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PricingChangeLog
+ * Tests logging local pricing changes and replaying those of other nodes
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PricingChangeLog Tests")
+class PricingChangeLogTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private JdbcTemplate plainJdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PricingChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(plainJdbcTemplate);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT version FROM pricing_version"),
+                any(SqlParameterSource.class), eq(Long.class))).thenReturn(5L);
+        changeLog = new PricingChangeLog(jdbcTemplate, eventPublisher, 24);
+        changeLog.createSchema();
+    }
+
+    @Test
+    @DisplayName("Should replay changes of other nodes as remote events and skip its own")
+    void testPollReplaysOtherNodes() {
+        UUID own = ownNodeId();
+        UUID sku = UUID.randomUUID();
+        stubChanges(List.of(
+                new PricingChangeLog.Change(6, own, Set.of(UUID.randomUUID())),
+                new PricingChangeLog.Change(7, UUID.randomUUID(), Set.of(sku))));
+
+        changeLog.poll();
+
+        verify(eventPublisher).publishEvent(new PricingChangedEvent(Set.of(sku), true));
+        verifyNoMoreInteractions(eventPublisher);
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        changeLog.poll();
+        verify(jdbcTemplate, times(2)).query(startsWith("SELECT version, node_id"), params.capture(),
+                any(RowMapper.class));
+        assertEquals(7L, params.getAllValues().get(1).getValue("seen"));
+    }
+
+    @Test
+    @DisplayName("Should invalidate everything when changes were purged before they were seen")
+    void testPollAfterGap() {
+        stubChanges(List.of(new PricingChangeLog.Change(9, UUID.randomUUID(), Set.of())));
+
+        changeLog.poll();
+
+        verify(eventPublisher, times(2)).publishEvent(new PricingChangedEvent(Set.of(), true));
+    }
+
+    @Test
+    @DisplayName("Should log large changes as affecting all SKUs and never log remote ones")
+    void testRecordChanges() {
+        Set<UUID> many = IntStream.range(0, 1001).mapToObj(i -> UUID.randomUUID()).collect(Collectors.toSet());
+
+        changeLog.onPricingChanged(new PricingChangedEvent(many));
+        changeLog.onPricingChanged(new PricingChangedEvent(Set.of(UUID.randomUUID()), true));
+
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).update(contains("SELECT version, :nodeId, NULL"), params.capture());
+        assertFalse(params.getValue().hasValue("skuIds"));
+        verify(jdbcTemplate, never()).update(contains("ARRAY[:skuIds]"), any(SqlParameterSource.class));
+    }
+
+    private UUID ownNodeId() {
+        changeLog.onPricingChanged(PricingChangedEvent.forSku(UUID.randomUUID()));
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).update(contains("ARRAY[:skuIds]"), params.capture());
+        return (UUID) params.getValue().getValue("nodeId");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubChanges(List<PricingChangeLog.Change> changes) {
+        when(jdbcTemplate.query(startsWith("SELECT version, node_id"), any(SqlParameterSource.class),
+                any(RowMapper.class))).thenReturn((List) changes, List.of());
+    }
+}